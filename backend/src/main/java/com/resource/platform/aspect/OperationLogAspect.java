@@ -2,10 +2,6 @@ package com.resource.platform.aspect;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.resource.platform.annotation.OperationLog;
-import com.resource.platform.module.system.entity.AuditLog;
-import com.resource.platform.module.system.entity.SystemLog;
-import com.resource.platform.module.system.mapper.AuditLogMapper;
-import com.resource.platform.module.system.mapper.SystemLogMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -13,17 +9,28 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Method;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 操作日志切面
  * 自动记录带有@OperationLog注解的方法的操作日志
+ *
+ * <p>请求线程上只采集一个不可变的 {@link OperationLogEvent}（参数/返回值按上限流式序列化，
+ * 超过上限立即停止），落库交给 {@link OperationLogWriter} 异步批量完成。
  */
 @Slf4j
 @Aspect
@@ -31,14 +38,19 @@ import java.time.LocalDateTime;
 public class OperationLogAspect {
 
     @Autowired
-    private SystemLogMapper systemLogMapper;
-
-    @Autowired
-    private AuditLogMapper auditLogMapper;
+    private OperationLogWriter operationLogWriter;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    /** 请求参数最大记录长度 */
+    @Value("${operation-log.max-params-length:2000}")
+    private int maxParamsLength;
+
+    /** 响应结果最大记录长度 */
+    @Value("${operation-log.max-response-length:1000}")
+    private int maxResponseLength;
+
     @Pointcut("@annotation(com.resource.platform.annotation.OperationLog)")
     public void operationLogPointcut() {
     }
@@ -46,16 +58,16 @@ public class OperationLogAspect {
     @Around("operationLogPointcut()")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
         long startTime = System.currentTimeMillis();
-        
+
         // 获取注解信息
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         Method method = signature.getMethod();
         OperationLog operationLog = method.getAnnotation(OperationLog.class);
-        
+
         // 获取请求信息
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         HttpServletRequest request = attributes != null ? attributes.getRequest() : null;
-        
+
         // 执行方法
         Object result = null;
         Exception exception = null;
@@ -66,109 +78,95 @@ public class OperationLogAspect {
             exception = e;
             throw e;
         } finally {
-            long endTime = System.currentTimeMillis();
-            long duration = endTime - startTime;
-            
+            long duration = System.currentTimeMillis() - startTime;
+
             // 记录日志
             try {
-                recordLog(joinPoint, operationLog, request, result, exception, duration);
+                operationLogWriter.submit(buildEvent(joinPoint, operationLog, request, result, exception, duration));
             } catch (Exception e) {
                 log.error("记录操作日志失败", e);
             }
         }
     }
 
-    private void recordLog(ProceedingJoinPoint joinPoint, OperationLog operationLog,
-                          HttpServletRequest request, Object result, Exception exception, long duration) {
-        try {
-            // 构建系统日志
-            SystemLog systemLog = new SystemLog();
-            systemLog.setModule(operationLog.module());
-            systemLog.setType(operationLog.type());
-            systemLog.setDescription(operationLog.description());
-            systemLog.setMethod(joinPoint.getSignature().getDeclaringTypeName() + "." + joinPoint.getSignature().getName());
-            
-            if (request != null) {
-                systemLog.setRequestUrl(request.getRequestURI());
-                systemLog.setRequestMethod(request.getMethod());
-                systemLog.setIpAddress(getIpAddress(request));
-                systemLog.setUserAgent(request.getHeader("User-Agent"));
-            }
-            
-            // 记录请求参数
-            Object[] args = joinPoint.getArgs();
-            if (args != null && args.length > 0) {
-                try {
-                    systemLog.setRequestParams(objectMapper.writeValueAsString(args));
-                } catch (Exception e) {
-                    systemLog.setRequestParams("参数序列化失败");
-                }
+    private OperationLogEvent buildEvent(ProceedingJoinPoint joinPoint, OperationLog operationLog,
+                                         HttpServletRequest request, Object result, Exception exception,
+                                         long duration) {
+        OperationLogEvent.OperationLogEventBuilder builder = OperationLogEvent.builder()
+            .module(operationLog.module())
+            .type(operationLog.type())
+            .description(operationLog.description())
+            .method(joinPoint.getSignature().getDeclaringTypeName() + "." + joinPoint.getSignature().getName())
+            .audit(operationLog.audit())
+            .duration(duration)
+            .createTime(LocalDateTime.now());
+
+        if (request != null) {
+            builder.requestUrl(request.getRequestURI())
+                .requestMethod(request.getMethod())
+                .ipAddress(getIpAddress(request))
+                .userAgent(request.getHeader("User-Agent"))
+                .userId(getUserId(request));
+        }
+
+        // 记录请求参数
+        Object[] args = joinPoint.getArgs();
+        if (args != null && args.length > 0) {
+            builder.requestParams(toBoundedJson(loggableArgs(args), maxParamsLength, "参数序列化失败"));
+        }
+
+        // 记录响应结果
+        if (exception != null) {
+            builder.status("ERROR").errorMessage(exception.getMessage());
+        } else {
+            builder.status("SUCCESS");
+            if (result != null) {
+                builder.responseData(toBoundedJson(result, maxResponseLength, "响应序列化失败"));
             }
-            
-            // 记录响应结果
-            if (exception != null) {
-                systemLog.setStatus("ERROR");
-                systemLog.setErrorMessage(exception.getMessage());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 过滤掉请求/响应/上传文件等不可序列化的参数
+     */
+    private List<Object> loggableArgs(Object[] args) {
+        List<Object> loggable = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            if (arg instanceof ServletRequest || arg instanceof ServletResponse || arg instanceof MultipartFile) {
+                loggable.add(arg.getClass().getSimpleName());
             } else {
-                systemLog.setStatus("SUCCESS");
-                if (result != null) {
-                    try {
-                        String resultStr = objectMapper.writeValueAsString(result);
-                        // 限制响应结果长度
-                        if (resultStr.length() > 1000) {
-                            resultStr = resultStr.substring(0, 1000) + "...";
-                        }
-                        systemLog.setResponseData(resultStr);
-                    } catch (Exception e) {
-                        systemLog.setResponseData("响应序列化失败");
-                    }
-                }
-            }
-            
-            systemLog.setDuration(duration);
-            systemLog.setCreateTime(LocalDateTime.now());
-            
-            // 保存系统日志
-            systemLogMapper.insert(systemLog);
-            
-            // 如果需要审计日志
-            if (operationLog.audit()) {
-                recordAuditLog(operationLog, request, exception);
+                loggable.add(arg);
             }
-            
-        } catch (Exception e) {
-            log.error("保存操作日志失败", e);
         }
+        return loggable;
     }
 
-    private void recordAuditLog(OperationLog operationLog, HttpServletRequest request, Exception exception) {
+    /**
+     * 按上限流式序列化：写满上限后立即中断序列化，不会先生成完整 JSON 再截断
+     */
+    private String toBoundedJson(Object value, int maxLength, String failureText) {
+        BoundedWriter writer = new BoundedWriter(maxLength);
         try {
-            AuditLog auditLog = new AuditLog();
-            auditLog.setModule(operationLog.module());
-            auditLog.setAction(operationLog.type());
-            auditLog.setDescription(operationLog.description());
-            
-            if (request != null) {
-                auditLog.setIpAddress(getIpAddress(request));
-                // 从请求中获取用户ID（需要根据实际认证方式调整）
-                Object userId = request.getAttribute("userId");
-                if (userId != null) {
-                    auditLog.setUserId(Long.parseLong(userId.toString()));
-                }
-            }
-            
-            auditLog.setStatus(exception == null ? "SUCCESS" : "FAILED");
-            if (exception != null) {
-                auditLog.setErrorMessage(exception.getMessage());
-            }
-            
-            auditLog.setCreateTime(LocalDateTime.now());
-            
-            // 保存审计日志
-            auditLogMapper.insert(auditLog);
-            
+            objectMapper.writeValue(writer, value);
         } catch (Exception e) {
-            log.error("保存审计日志失败", e);
+            if (!writer.isTruncated()) {
+                return failureText;
+            }
+        }
+        return writer.isTruncated() ? writer.toString() + "..." : writer.toString();
+    }
+
+    private Long getUserId(HttpServletRequest request) {
+        // 从请求中获取用户ID（需要根据实际认证方式调整）
+        Object userId = request.getAttribute("userId");
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(userId.toString());
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 
@@ -178,4 +176,48 @@ public class OperationLogAspect {
     private String getIpAddress(HttpServletRequest request) {
         return com.resource.platform.util.IpUtil.getClientIp(request);
     }
+
+    /**
+     * 有长度上限的 Writer，超过上限时抛出异常终止 Jackson 序列化
+     */
+    private static final class BoundedWriter extends Writer {
+
+        private final StringBuilder buffer;
+        private final int maxLength;
+        private boolean truncated;
+
+        private BoundedWriter(int maxLength) {
+            this.maxLength = maxLength;
+            this.buffer = new StringBuilder(Math.min(maxLength, 256));
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int remaining = maxLength - buffer.length();
+            if (len <= remaining) {
+                buffer.append(cbuf, off, len);
+                return;
+            }
+            buffer.append(cbuf, off, Math.max(remaining, 0));
+            truncated = true;
+            throw new IOException("operation log payload exceeds " + maxLength + " chars");
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package com.resource.platform.aspect;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志事件
+ *
+ * <p>由 {@link OperationLogAspect} 在请求线程上采集的不可变快照，
+ * 只包含落库所需的字符串/数值字段，不持有请求对象、方法参数或返回值的引用，
+ * 交给 {@link OperationLogWriter} 异步批量写入 system_log / audit_log。
+ */
+@Getter
+@Builder
+public final class OperationLogEvent {
+
+    private final String module;
+
+    private final String type;
+
+    private final String description;
+
+    private final String method;
+
+    private final String requestUrl;
+
+    private final String requestMethod;
+
+    private final String requestParams;
+
+    private final String responseData;
+
+    private final String ipAddress;
+
+    private final String userAgent;
+
+    private final Long userId;
+
+    /** SUCCESS / ERROR */
+    private final String status;
+
+    private final String errorMessage;
+
+    private final long duration;
+
+    /** 是否同时写入审计日志 */
+    private final boolean audit;
+
+    private final LocalDateTime createTime;
+}
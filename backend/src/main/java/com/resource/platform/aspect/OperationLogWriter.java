@@ -0,0 +1,220 @@
+package com.resource.platform.aspect;
+
+import com.resource.platform.config.BusinessMetrics;
+import com.resource.platform.module.system.entity.AuditLog;
+import com.resource.platform.module.system.entity.SystemLog;
+import com.resource.platform.module.system.mapper.AuditLogMapper;
+import com.resource.platform.module.system.mapper.SystemLogMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 操作日志异步批量写入器
+ *
+ * <p>设计说明：
+ * <ul>
+ *   <li>请求线程只做一次 {@code offer}，不等待数据库</li>
+ *   <li>队列有界，写满时直接丢弃并计数，日志写入永远不反压业务请求</li>
+ *   <li>单个后台线程按"攒够一批或等到超时"的节奏批量 INSERT</li>
+ *   <li>批量写入失败时退化为逐条写入，避免一条脏数据拖累整批</li>
+ *   <li>应用关闭时写入线程写完当前批次后排空队列再退出，不中断正在进行的写入</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class OperationLogWriter {
+
+    @Value("${operation-log.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${operation-log.async.batch-size:200}")
+    private int batchSize;
+
+    @Value("${operation-log.async.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private SystemLogMapper systemLogMapper;
+
+    @Autowired
+    private AuditLogMapper auditLogMapper;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    private BlockingQueue<OperationLogEvent> queue;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        businessMetrics.registerOperationLogQueue(queue);
+
+        running = true;
+        worker = new Thread(this::runLoop, "oplog-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("操作日志异步写入器启动: queueCapacity={}, batchSize={}, flushIntervalMs={}",
+            queueCapacity, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 不中断写入线程：中断可能落在批量写入中间导致整批丢失，poll 超时后线程自行排空退出
+        running = false;
+        try {
+            worker.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            // 不在调用方线程补写，避免与仍在运行的写入线程重复写入
+            log.warn("操作日志异步写入器未在超时内停止，剩余 {} 条未写入", queue.size());
+        }
+    }
+
+    /**
+     * 提交操作日志事件（非阻塞）
+     *
+     * @param event 操作日志事件
+     * @return 是否成功入队；队列已满时返回 false，事件被丢弃
+     */
+    public boolean submit(OperationLogEvent event) {
+        if (queue.offer(event)) {
+            businessMetrics.getOperationLogQueued().increment();
+            return true;
+        }
+        businessMetrics.getOperationLogDropped().increment();
+        log.warn("操作日志队列已满，丢弃事件: module={}, method={}", event.getModule(), event.getMethod());
+        return false;
+    }
+
+    private void runLoop() {
+        List<OperationLogEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                OperationLogEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("操作日志批量写入异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        drainOnShutdown();
+    }
+
+    /**
+     * 关闭时按批写完队列中剩余的事件
+     */
+    private void drainOnShutdown() {
+        int total = 0;
+        List<OperationLogEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                flush(batch);
+            } catch (Exception e) {
+                log.error("操作日志关闭时补写异常: size={}", batch.size(), e);
+            }
+            total += batch.size();
+            batch.clear();
+        }
+        log.info("操作日志异步写入器已停止，关闭时补写 {} 条", total);
+    }
+
+    private void flush(List<OperationLogEvent> events) {
+        List<SystemLog> systemLogs = new ArrayList<>(events.size());
+        List<AuditLog> auditLogs = new ArrayList<>();
+        for (OperationLogEvent event : events) {
+            systemLogs.add(toSystemLog(event));
+            if (event.isAudit()) {
+                auditLogs.add(toAuditLog(event));
+            }
+        }
+
+        try {
+            systemLogMapper.insertBatch(systemLogs);
+            businessMetrics.getOperationLogWritten().increment(systemLogs.size());
+        } catch (Exception e) {
+            log.warn("系统日志批量写入失败，退化为逐条写入: size={}", systemLogs.size(), e);
+            for (SystemLog systemLog : systemLogs) {
+                try {
+                    systemLogMapper.insert(systemLog);
+                    businessMetrics.getOperationLogWritten().increment();
+                } catch (Exception ex) {
+                    businessMetrics.getOperationLogFailed().increment();
+                    log.error("保存操作日志失败: method={}", systemLog.getMethod(), ex);
+                }
+            }
+        }
+
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        try {
+            auditLogMapper.insertBatch(auditLogs);
+        } catch (Exception e) {
+            log.warn("审计日志批量写入失败，退化为逐条写入: size={}", auditLogs.size(), e);
+            for (AuditLog auditLog : auditLogs) {
+                try {
+                    auditLogMapper.insert(auditLog);
+                } catch (Exception ex) {
+                    log.error("保存审计日志失败: module={}, action={}", auditLog.getModule(), auditLog.getAction(), ex);
+                }
+            }
+        }
+    }
+
+    private SystemLog toSystemLog(OperationLogEvent event) {
+        SystemLog systemLog = new SystemLog();
+        systemLog.setModule(event.getModule());
+        systemLog.setType(event.getType());
+        systemLog.setDescription(event.getDescription());
+        systemLog.setMethod(event.getMethod());
+        systemLog.setRequestUrl(event.getRequestUrl());
+        systemLog.setRequestMethod(event.getRequestMethod());
+        systemLog.setRequestParams(event.getRequestParams());
+        systemLog.setResponseData(event.getResponseData());
+        systemLog.setIpAddress(event.getIpAddress());
+        systemLog.setUserAgent(event.getUserAgent());
+        systemLog.setStatus(event.getStatus());
+        systemLog.setErrorMessage(event.getErrorMessage());
+        systemLog.setDuration(event.getDuration());
+        systemLog.setCreateTime(event.getCreateTime());
+        return systemLog;
+    }
+
+    private AuditLog toAuditLog(OperationLogEvent event) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setUserId(event.getUserId());
+        auditLog.setModule(event.getModule());
+        auditLog.setAction(event.getType());
+        auditLog.setDescription(event.getDescription());
+        auditLog.setIpAddress(event.getIpAddress());
+        auditLog.setStatus("SUCCESS".equals(event.getStatus()) ? "SUCCESS" : "FAILED");
+        auditLog.setErrorMessage(event.getErrorMessage());
+        auditLog.setCreateTime(event.getCreateTime());
+        return auditLog;
+    }
+}
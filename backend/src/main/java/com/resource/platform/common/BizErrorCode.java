@@ -52,6 +52,7 @@ public enum BizErrorCode {
     EMAIL_SENDER_NOT_CONFIGURED(9008, "邮件发送器未配置"),
     EMAIL_SEND_FAILED(9009, "邮件发送失败，请检查邮件配置"),
     LOG_EXPORT_FAILED(9010, "导出日志失败"),
+    DATA_EXPORT_FAILED(9011, "导出数据失败"),
     BATCH_OPERATION_FAILED(9100, "批量操作失败");
 
     private final int code;
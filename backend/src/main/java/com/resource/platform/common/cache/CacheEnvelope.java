@@ -0,0 +1,29 @@
+package com.resource.platform.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 防击穿缓存中实际存储的条目：缓存值 + 逻辑过期时间 + 上次加载耗时
+ *
+ * <p>Redis 中的物理 TTL = 逻辑 TTL + 过期后可继续返回旧值的时长，
+ * 逻辑过期之后的这段时间内读到的是旧值，由后台刷新。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope {
+
+    private Object value;
+
+    /** 逻辑过期时间（epoch 毫秒） */
+    private long expireAt;
+
+    /** 上次回源加载耗时（毫秒），用于 XFetch 提前刷新概率计算 */
+    private long loadMillis;
+
+    public boolean isExpired(long now) {
+        return now >= expireAt;
+    }
+}
@@ -0,0 +1,160 @@
+package com.resource.platform.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Redis 缓存值的紧凑二进制序列化器
+ *
+ * <p>写入格式（{@link WriteFormat#SMILE}）：
+ * <pre>
+ *   [0xCB 魔数][版本号][标志位][原始长度 4 字节，仅压缩时存在][Smile 数据（可能经 LZ4 压缩）]
+ * </pre>
+ * Smile 是 Jackson 的二进制 JSON，开启共享字符串后同一载荷中重复出现的属性名和
+ * {@code @class} 类型名只写一次，列表缓存体积和解析开销都明显小于文本 JSON。
+ * 超过压缩阈值的载荷再用 LZ4 压缩，压缩后没有变小则保留原始数据。
+ *
+ * <p>多版本节点共存：
+ * <ul>
+ *   <li>读取时按首字节区分：魔数开头按二进制格式解析，否则按旧的文本 JSON 解析，
+ *       因此新节点可以直接读取旧节点写入的缓存</li>
+ *   <li>滚动升级期间可配置为 {@link WriteFormat#JSON}，继续写旧节点可读的文本 JSON，
+ *       全部节点升级后再切换为 SMILE</li>
+ *   <li>遇到更高版本号写入的数据时返回 null 按缓存未命中处理，由调用方回源</li>
+ * </ul>
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xCB;
+    static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final byte FLAG_LZ4 = 0x01;
+
+    /** LZ4 的最大压缩比约为 255:1，头部声明的原始长度超过该比例说明数据已损坏 */
+    private static final int MAX_COMPRESSION_RATIO = 255;
+    /** 解压后的最大长度，防止损坏的长度字段申请超大数组 */
+    private static final int MAX_ORIGINAL_LENGTH = 64 * 1024 * 1024;
+
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper jsonMapper;
+    private final WriteFormat writeFormat;
+    private final int compressThreshold;
+
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param smileMapper       基于 SmileFactory 的 ObjectMapper
+     * @param jsonMapper        兼容旧数据的文本 JSON ObjectMapper
+     * @param writeFormat       写入格式
+     * @param compressThreshold 超过该字节数的 Smile 载荷使用 LZ4 压缩，小于等于 0 时不压缩
+     */
+    public CompactRedisSerializer(ObjectMapper smileMapper, ObjectMapper jsonMapper,
+                                  WriteFormat writeFormat, int compressThreshold) {
+        this.smileMapper = smileMapper;
+        this.jsonMapper = jsonMapper;
+        this.writeFormat = writeFormat;
+        this.compressThreshold = compressThreshold;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            if (writeFormat == WriteFormat.JSON) {
+                return jsonMapper.writeValueAsBytes(value);
+            }
+            return encode(smileMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new SerializationException("缓存值序列化失败: " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes[0] != MAGIC) {
+                return jsonMapper.readValue(bytes, Object.class);
+            }
+            if (bytes.length < HEADER_LENGTH) {
+                throw new SerializationException("缓存值头部不完整");
+            }
+            if (bytes[1] > VERSION) {
+                log.debug("缓存值版本高于当前节点，按未命中处理: version={}", bytes[1]);
+                return null;
+            }
+            if ((bytes[2] & FLAG_LZ4) == 0) {
+                return smileMapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, Object.class);
+            }
+            return smileMapper.readValue(decompress(bytes), Object.class);
+        } catch (IOException | LZ4Exception e) {
+            throw new SerializationException("缓存值反序列化失败", e);
+        }
+    }
+
+    private byte[] encode(byte[] payload) {
+        if (compressThreshold > 0 && payload.length > compressThreshold) {
+            byte[] buffer = new byte[HEADER_LENGTH + 4 + compressor.maxCompressedLength(payload.length)];
+            int compressedLength = compressor.compress(payload, 0, payload.length, buffer, HEADER_LENGTH + 4);
+            if (compressedLength < payload.length) {
+                ByteBuffer.wrap(buffer)
+                    .put(MAGIC).put(VERSION).put(FLAG_LZ4)
+                    .putInt(payload.length);
+                byte[] result = new byte[HEADER_LENGTH + 4 + compressedLength];
+                System.arraycopy(buffer, 0, result, 0, result.length);
+                return result;
+            }
+        }
+        byte[] result = new byte[HEADER_LENGTH + payload.length];
+        result[0] = MAGIC;
+        result[1] = VERSION;
+        result[2] = 0;
+        System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+        return result;
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH + 4) {
+            throw new SerializationException("压缩缓存值头部不完整");
+        }
+        int originalLength = ByteBuffer.wrap(bytes, HEADER_LENGTH, 4).getInt();
+        int compressedLength = bytes.length - HEADER_LENGTH - 4;
+        if (originalLength <= 0 || originalLength > MAX_ORIGINAL_LENGTH
+                || (long) originalLength > (long) compressedLength * MAX_COMPRESSION_RATIO) {
+            throw new SerializationException("压缩缓存值原始长度非法: originalLength=" + originalLength
+                + ", compressedLength=" + compressedLength);
+        }
+        byte[] payload = new byte[originalLength];
+        decompressor.decompress(bytes, HEADER_LENGTH + 4, payload, 0, originalLength);
+        return payload;
+    }
+
+    /**
+     * 写入格式
+     */
+    public enum WriteFormat {
+        /** 文本 JSON（与旧版本节点兼容） */
+        JSON,
+        /** 带版本头的 Smile 二进制，可选 LZ4 压缩 */
+        SMILE
+    }
+}
@@ -0,0 +1,341 @@
+package com.resource.platform.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 防击穿缓存装饰器
+ *
+ * <p>只对 {@code @Cacheable(sync = true)} 走的 {@link #get(Object, Callable)} 生效：
+ * <ul>
+ *   <li>单飞加载：同一 key 在本节点只有一个线程回源，其余线程等待其结果；
+ *       跨节点用 Redis 租约协调，未抢到租约的节点轮询等待持有者写入缓存</li>
+ *   <li>XFetch 提前刷新：临近过期时按 {@code now - loadMillis * beta * ln(rand) >= expireAt}
+ *       以递增的概率提前触发刷新，回源越慢越早刷新</li>
+ *   <li>过期后返回旧值：逻辑过期后的一段时间内继续返回旧值，同时后台刷新</li>
+ * </ul>
+ * 其余读取按逻辑过期时间判断命中；显式失效（evict/clear）直接删除条目，不会返回旧值。
+ * 显式失效同时递增失效代数，失效前已开始的回源不会把旧数据写回缓存。
+ * 后台刷新提交到满载即拒绝的线程池，被拒绝时本次不刷新，继续返回旧值，不会在请求线程上回源。
+ */
+@Slf4j
+public class StampedeProtectedCache implements Cache {
+
+    private static final long PEER_POLL_INTERVAL_MS = 50L;
+
+    private final Cache delegate;
+    private final long ttlMillis;
+    private final StampedeProtectedCacheManager manager;
+
+    /** 本节点正在进行的加载/刷新，value 完成时为加载结果，刷新被跳过或失败时为 null */
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+
+    StampedeProtectedCache(Cache delegate, long ttlMillis, StampedeProtectedCacheManager manager) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEnvelope envelope = readEnvelope(key);
+        if (envelope == null || envelope.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return new SimpleValueWrapper(envelope.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不匹配: required=" + type.getName()
+                + ", actual=" + value.getClass().getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long now = System.currentTimeMillis();
+        CacheEnvelope envelope = readEnvelope(key);
+        if (envelope != null) {
+            boolean expired = envelope.isExpired(now);
+            if (!expired && !shouldRefreshEarly(envelope, now)) {
+                manager.recordOutcome(getName(), "hit");
+                return (T) envelope.getValue();
+            }
+            refreshAsync(key, valueLoader, expired ? "stale" : "early_refresh");
+            return (T) envelope.getValue();
+        }
+        return (T) loadSingleFlight(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        delegate.put(key, wrap(value, 0L));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (value == null) {
+            return get(key);
+        }
+        ValueWrapper existing = delegate.putIfAbsent(key, wrap(value, 0L));
+        if (existing == null || !(existing.get() instanceof CacheEnvelope)) {
+            return null;
+        }
+        return new SimpleValueWrapper(((CacheEnvelope) existing.get()).getValue());
+    }
+
+    @Override
+    public void evict(Object key) {
+        bumpGeneration();
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        bumpGeneration();
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        bumpGeneration();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        bumpGeneration();
+        return delegate.invalidate();
+    }
+
+    /**
+     * 递增失效代数；事务内的失效（事务感知缓存在提交后才删除）在提交后再递增一次，
+     * 覆盖提交前开始、读到未提交前数据的回源
+     */
+    private void bumpGeneration() {
+        manager.bumpGeneration(getName());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    manager.bumpGeneration(getName());
+                }
+            });
+        }
+    }
+
+    /**
+     * 缓存未命中：本节点单飞，跨节点按租约协调
+     */
+    private Object loadSingleFlight(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            manager.recordOutcome(getName(), "wait");
+            return awaitInflight(key, existing, valueLoader);
+        }
+
+        try {
+            Object value = loadWithLease(key, valueLoader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e instanceof ValueRetrievalException ? e.getCause() : e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    private Object awaitInflight(Object key, CompletableFuture<Object> future, Callable<?> valueLoader) {
+        try {
+            Object value = future.get(manager.getWaitTimeoutMs(), TimeUnit.MILLISECONDS);
+            if (value != null) {
+                return value;
+            }
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("等待缓存加载超时，直接回源: cache={}, key={}", getName(), key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 等待超时，或同 key 的后台刷新被跳过/失败
+        return loadAndPut(key, valueLoader);
+    }
+
+    private Object loadWithLease(Object key, Callable<?> valueLoader) {
+        String leaseKey = manager.leaseKey(getName(), key);
+        String token = manager.tryAcquireLease(leaseKey);
+        if (token == null) {
+            // 其他节点正在回源，等待其写入缓存
+            CacheEnvelope loaded = awaitPeer(key);
+            if (loaded != null) {
+                manager.recordOutcome(getName(), "peer");
+                return loaded.getValue();
+            }
+            log.debug("等待其他节点加载缓存超时，直接回源: cache={}, key={}", getName(), key);
+            return loadAndPut(key, valueLoader);
+        }
+        try {
+            return loadAndPut(key, valueLoader);
+        } finally {
+            manager.releaseLease(leaseKey, token);
+        }
+    }
+
+    private CacheEnvelope awaitPeer(Object key) {
+        long deadline = System.currentTimeMillis() + manager.getWaitTimeoutMs();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(PEER_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            CacheEnvelope envelope = readEnvelope(key);
+            if (envelope != null) {
+                return envelope;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 后台刷新，本节点同一 key 同时只有一个刷新，跨节点由租约去重
+     */
+    private void refreshAsync(Object key, Callable<?> valueLoader, String reason) {
+        manager.recordOutcome(getName(), reason);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inflight.putIfAbsent(key, mine) != null) {
+            return;
+        }
+        try {
+            manager.getExecutor().execute(() -> {
+                Object value = null;
+                String leaseKey = manager.leaseKey(getName(), key);
+                try {
+                    String token = manager.tryAcquireLease(leaseKey);
+                    if (token != null) {
+                        try {
+                            value = loadAndPut(key, valueLoader);
+                        } finally {
+                            manager.releaseLease(leaseKey, token);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.warn("后台刷新缓存失败，继续使用旧值: cache={}, key={}, error={}", getName(), key, e.getMessage());
+                } finally {
+                    mine.complete(value);
+                    inflight.remove(key, mine);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 线程池满载：跳过本次刷新，继续返回旧值
+            manager.recordOutcome(getName(), "refresh_rejected");
+            log.debug("提交缓存刷新任务失败: cache={}, key={}, error={}", getName(), key, e.getMessage());
+            mine.complete(null);
+            inflight.remove(key, mine);
+        }
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) {
+        String generation = manager.currentGeneration(getName());
+        long start = System.currentTimeMillis();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long loadMillis = System.currentTimeMillis() - start;
+        manager.recordOutcome(getName(), "load");
+        if (value != null) {
+            if (generationChanged(generation)) {
+                // 回源期间缓存被显式失效，读到的可能是失效前的数据
+                manager.recordOutcome(getName(), "discarded");
+                return value;
+            }
+            try {
+                delegate.put(key, wrap(value, loadMillis));
+                if (generationChanged(generation)) {
+                    // 检查与写入之间发生了失效，撤销本次写入
+                    delegate.evict(key);
+                }
+            } catch (RuntimeException e) {
+                log.warn("写入缓存失败: cache={}, key={}, error={}", getName(), key, e.getMessage());
+            }
+        }
+        return value;
+    }
+
+    private boolean generationChanged(String generation) {
+        return generation != null && !Objects.equals(generation, manager.currentGeneration(getName()));
+    }
+
+    /**
+     * XFetch：{@code now - loadMillis * beta * ln(rand) >= expireAt} 时提前刷新
+     */
+    private boolean shouldRefreshEarly(CacheEnvelope envelope, long now) {
+        if (envelope.getLoadMillis() <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double gap = -envelope.getLoadMillis() * manager.getBeta() * Math.log(random);
+        return now + gap >= envelope.getExpireAt();
+    }
+
+    /**
+     * 读取条目；Redis 不可用时按未命中处理，旧格式（未包装）的条目也按未命中处理，加载后覆盖
+     */
+    private CacheEnvelope readEnvelope(Object key) {
+        ValueWrapper wrapper;
+        try {
+            wrapper = delegate.get(key);
+        } catch (RuntimeException e) {
+            log.warn("读取缓存失败，按未命中处理: cache={}, key={}, error={}", getName(), key, e.getMessage());
+            return null;
+        }
+        if (wrapper == null || !(wrapper.get() instanceof CacheEnvelope)) {
+            return null;
+        }
+        return (CacheEnvelope) wrapper.get();
+    }
+
+    private CacheEnvelope wrap(Object value, long loadMillis) {
+        return new CacheEnvelope(value, System.currentTimeMillis() + ttlMillis, loadMillis);
+    }
+}
@@ -0,0 +1,175 @@
+package com.resource.platform.common.cache;
+
+import com.resource.platform.config.BusinessMetrics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 为指定缓存加上防击穿保护的 CacheManager 装饰器
+ *
+ * <p>只有在构造时登记了逻辑 TTL 的缓存才会被包装为 {@link StampedeProtectedCache}，
+ * 其余缓存原样返回。被包装缓存在底层管理器中的 TTL 应配置为“逻辑 TTL + 旧值可用时长”。
+ *
+ * <p>跨节点租约 {@code cache:lease:{cacheName}:{key}} 只在回源期间持有，
+ * Redis 不可用时退化为仅本节点单飞。
+ *
+ * <p>每个缓存在 {@code cache:generation:{cacheName}} 维护一个失效代数，显式失效时递增；
+ * 回源前后各读一次，代数变化说明回源期间发生过失效，读到的可能是失效前的数据，不再写入缓存。
+ */
+@Slf4j
+public class StampedeProtectedCacheManager implements CacheManager {
+
+    private static final String LEASE_KEY_PREFIX = "cache:lease:";
+    private static final String GENERATION_KEY_PREFIX = "cache:generation:";
+
+    /** Redis 不可用时使用的本地令牌，不需要释放 */
+    private static final String LOCAL_TOKEN = "";
+
+    /**
+     * 释放：仍是自己持有时才删除
+     */
+    private static final String RELEASE_SCRIPT =
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+        "    return redis.call('DEL', KEYS[1])\n" +
+        "end\n" +
+        "return 0";
+
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(RELEASE_SCRIPT, Long.class);
+
+    private final CacheManager delegate;
+    private final Map<String, Duration> protectedTtls;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final BusinessMetrics businessMetrics;
+    private final long leaseTtlMs;
+
+    @Getter
+    private final Executor executor;
+
+    @Getter
+    private final double beta;
+
+    @Getter
+    private final long waitTimeoutMs;
+
+    private final String nodeId = resolveNodeId();
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param protectedTtls 需要保护的缓存名 → 逻辑 TTL
+     * @param beta          XFetch 系数，越大越早刷新，1.0 为论文推荐值
+     * @param leaseTtlMs    跨节点加载租约时长，应大于最慢一次回源
+     * @param waitTimeoutMs 等待其他线程/节点加载的最长时间，超时后自行回源
+     */
+    public StampedeProtectedCacheManager(CacheManager delegate, Map<String, Duration> protectedTtls,
+                                         StringRedisTemplate stringRedisTemplate, Executor executor,
+                                         BusinessMetrics businessMetrics,
+                                         double beta, long leaseTtlMs, long waitTimeoutMs) {
+        this.delegate = delegate;
+        this.protectedTtls = Collections.unmodifiableMap(protectedTtls);
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.executor = executor;
+        this.businessMetrics = businessMetrics;
+        this.beta = beta;
+        this.leaseTtlMs = leaseTtlMs;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        Duration ttl = protectedTtls.get(name);
+        if (cache == null || ttl == null) {
+            return cache;
+        }
+        return caches.computeIfAbsent(name, key -> new StampedeProtectedCache(cache, ttl.toMillis(), this));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    String leaseKey(String cacheName, Object key) {
+        return LEASE_KEY_PREFIX + cacheName + ":" + key;
+    }
+
+    /**
+     * 尝试获取加载租约
+     *
+     * @return 租约令牌；租约被其他节点持有时返回 null
+     */
+    String tryAcquireLease(String leaseKey) {
+        String token = nodeId + "|" + Thread.currentThread().getId();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(leaseKey, token, leaseTtlMs, TimeUnit.MILLISECONDS);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.warn("获取缓存加载租约失败，仅本节点单飞: key={}, error={}", leaseKey, e.getMessage());
+            return LOCAL_TOKEN;
+        }
+    }
+
+    void releaseLease(String leaseKey, String token) {
+        if (LOCAL_TOKEN.equals(token)) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(RELEASE, Collections.singletonList(leaseKey), token);
+        } catch (Exception e) {
+            // 租约到期后自动释放
+            log.warn("释放缓存加载租约失败: key={}, error={}", leaseKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 当前失效代数；Redis 不可用时返回 null（不做代数校验）
+     */
+    String currentGeneration(String cacheName) {
+        try {
+            String generation = stringRedisTemplate.opsForValue().get(GENERATION_KEY_PREFIX + cacheName);
+            return generation != null ? generation : "0";
+        } catch (Exception e) {
+            log.warn("读取缓存失效代数失败: cache={}, error={}", cacheName, e.getMessage());
+            return null;
+        }
+    }
+
+    void bumpGeneration(String cacheName) {
+        try {
+            stringRedisTemplate.opsForValue().increment(GENERATION_KEY_PREFIX + cacheName);
+        } catch (Exception e) {
+            log.warn("递增缓存失效代数失败: cache={}, error={}", cacheName, e.getMessage());
+        }
+    }
+
+    void recordOutcome(String cacheName, String outcome) {
+        businessMetrics.recordCacheLoad(cacheName, outcome);
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,57 @@
+package com.resource.platform.common.export;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 按主键游标（keyset）分页遍历
+ *
+ * <p>每页查询形如 {@code WHERE ... AND id < #{lastId} ORDER BY id DESC LIMIT #{pageSize}}，
+ * 无论遍历到第几页都走主键索引定位，不存在 OFFSET 越翻越慢的问题，
+ * 且每次只在内存中保留一页数据。
+ */
+public final class KeysetPager {
+
+    private KeysetPager() {
+    }
+
+    /**
+     * 行处理回调（允许抛出 IOException，便于直接写入响应流）
+     */
+    @FunctionalInterface
+    public interface RowHandler<T> {
+        void handle(T row) throws IOException;
+    }
+
+    /**
+     * 遍历所有页
+     *
+     * @param pageSize   每页条数
+     * @param pageLoader 根据上一页最后一条的主键加载下一页（首页传入 null），结果须按主键倒序
+     * @param idGetter   主键提取函数
+     * @param handler    行处理回调
+     * @return 处理的总行数
+     */
+    public static <T> long forEach(int pageSize,
+                                   Function<Long, List<T>> pageLoader,
+                                   Function<T, Long> idGetter,
+                                   RowHandler<T> handler) throws IOException {
+        long total = 0;
+        Long lastId = null;
+        while (true) {
+            List<T> page = pageLoader.apply(lastId);
+            if (page == null || page.isEmpty()) {
+                return total;
+            }
+            for (T row : page) {
+                handler.handle(row);
+            }
+            total += page.size();
+            if (page.size() < pageSize) {
+                return total;
+            }
+            lastId = idGetter.apply(page.get(page.size() - 1));
+        }
+    }
+}
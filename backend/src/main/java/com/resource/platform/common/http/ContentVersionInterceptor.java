@@ -0,0 +1,41 @@
+package com.resource.platform.common.http;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+/**
+ * 写语句内容版本拦截器
+ *
+ * <p>INSERT / UPDATE / DELETE 执行成功且影响行数不为 0 时，按 Mapper 解析数据域，
+ * 交给 {@link ContentVersionRegistry} 在事务提交后推进版本。
+ * 覆盖服务层、爬虫、定时任务等所有经 MyBatis 的写入，无需在各业务方法中逐一埋点。
+ */
+@Intercepts(
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+)
+public class ContentVersionInterceptor implements Interceptor {
+
+    private final ContentVersionRegistry contentVersionRegistry;
+
+    public ContentVersionInterceptor(ContentVersionRegistry contentVersionRegistry) {
+        this.contentVersionRegistry = contentVersionRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (result instanceof Integer && (Integer) result == 0) {
+            return result;
+        }
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        String domain = contentVersionRegistry.domainOf(ms.getId());
+        if (domain != null) {
+            contentVersionRegistry.bumpAfterCommit(domain);
+        }
+        return result;
+    }
+}
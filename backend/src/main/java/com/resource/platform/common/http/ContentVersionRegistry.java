@@ -0,0 +1,253 @@
+package com.resource.platform.common.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 公开数据的内容版本号
+ *
+ * <p>按数据域（资源、分类、广告、友情链接、链接类型、系统配置）维护一个毫秒时间戳形式的版本，
+ * 对应表的写语句在事务提交后推进版本（见 {@link ContentVersionInterceptor}），
+ * 条件请求过滤器据此计算 ETag / Last-Modified，无需先生成响应体。
+ *
+ * <ul>
+ *   <li>推进在事务完成阶段（afterCompletion）执行，晚于事务感知缓存在 afterCommit 阶段的失效；
+ *       推进前先清空依赖该数据域的缓存，新版本对应的响应体一定来自新数据</li>
+ *   <li>只改计数的语句（资源下载次数）不推进版本，避免每次下载都使公开接口和首页快照失效</li>
+ *   <li>版本存放在 Redis 哈希中由所有节点共享，推进时取 max(当前时间, 原版本 + 1)，保证单调递增</li>
+ *   <li>读取走本地快照，每个刷新周期最多加载一次，其他节点的写入最多延迟一个周期可见；
+ *       本节点的写入立即可见</li>
+ *   <li>Redis 不可用时退化为本节点记录的版本，只能反映本节点的写入</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ContentVersionRegistry {
+
+    public static final String RESOURCE = "resource";
+    public static final String CATEGORY = "category";
+    public static final String ADVERTISEMENT = "advertisement";
+    public static final String FRIEND_LINK = "friend-link";
+    public static final String LINK_TYPE = "link-type";
+    public static final String CONFIG = "config";
+
+    private static final String VERSION_KEY = "http:content-version";
+
+    /**
+     * 推进单个数据域的版本
+     * KEYS[1] = 版本哈希
+     * ARGV[1] = 数据域, ARGV[2] = 当前时间（毫秒）
+     * 返回值：新版本
+     */
+    private static final String BUMP_SCRIPT =
+        "local current = tonumber(redis.call('HGET', KEYS[1], ARGV[1])) or 0\n" +
+        "local next = math.max(tonumber(ARGV[2]), current + 1)\n" +
+        "redis.call('HSET', KEYS[1], ARGV[1], string.format('%.0f', next))\n" +
+        "return next";
+
+    private static final DefaultRedisScript<Long> BUMP = new DefaultRedisScript<>(BUMP_SCRIPT, Long.class);
+
+    /** Mapper 简单类名 → 数据域；未列出的表（日志、下载记录等）不影响公开接口 */
+    private static final Map<String, String> MAPPER_DOMAINS;
+
+    static {
+        Map<String, String> domains = new HashMap<>();
+        domains.put("ResourceMapper", RESOURCE);
+        domains.put("DownloadLinkMapper", RESOURCE);
+        domains.put("ResourceTagMapper", RESOURCE);
+        domains.put("ResourceTagRelationMapper", RESOURCE);
+        domains.put("ResourceImageMapper", RESOURCE);
+        domains.put("ImageMapper", RESOURCE);
+        domains.put("CategoryMapper", CATEGORY);
+        domains.put("AdvertisementMapper", ADVERTISEMENT);
+        domains.put("FriendLinkMapper", FRIEND_LINK);
+        domains.put("LinkTypeMapper", LINK_TYPE);
+        domains.put("SystemConfigMapper", CONFIG);
+        MAPPER_DOMAINS = Collections.unmodifiableMap(domains);
+    }
+
+    /** 不推进版本的语句（Mapper 简单类名.方法名）：只改计数、不改公开内容 */
+    private static final Set<String> IGNORED_STATEMENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "ResourceMapper.incrementDownloadCount"
+    )));
+
+    /** 数据域 → 内容依赖该数据域的缓存，推进版本前清空（分类树的 resourceCount 依赖资源） */
+    private static final Map<String, List<String>> DEPENDENT_CACHES;
+
+    static {
+        Map<String, List<String>> caches = new HashMap<>();
+        caches.put(RESOURCE, Collections.singletonList("category:tree"));
+        caches.put(CATEGORY, Collections.singletonList("category:tree"));
+        DEPENDENT_CACHES = Collections.unmodifiableMap(caches);
+    }
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectProvider<CacheManager> cacheManagerProvider;
+
+    @Value("${http.conditional.version-refresh-ms:1000}")
+    private long refreshIntervalMs;
+
+    /** 本节点推进过的版本，Redis 不可用时兜底 */
+    private final ConcurrentMap<String, Long> localVersions = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    private volatile Map<String, Long> snapshot = Collections.emptyMap();
+
+    private volatile long snapshotLoadedAt;
+
+    /**
+     * 当前各数据域的版本（未写入过的数据域不在结果中，按 0 处理）
+     */
+    public Map<String, Long> current() {
+        long now = System.currentTimeMillis();
+        if (now - snapshotLoadedAt >= refreshIntervalMs && reloading.compareAndSet(false, true)) {
+            try {
+                reload(now);
+            } finally {
+                reloading.set(false);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 根据语句 ID（Mapper 全限定名 + 方法名）解析受影响的数据域，不影响公开数据时返回 null
+     */
+    public String domainOf(String statementId) {
+        int methodStart = statementId.lastIndexOf('.');
+        if (methodStart < 0) {
+            return null;
+        }
+        int classStart = statementId.lastIndexOf('.', methodStart - 1);
+        if (IGNORED_STATEMENTS.contains(statementId.substring(classStart + 1))) {
+            return null;
+        }
+        return MAPPER_DOMAINS.get(statementId.substring(classStart + 1, methodStart));
+    }
+
+    /**
+     * 推进数据域版本：存在事务时在事务成功完成后推进（同一事务内去重，回滚不推进），否则立即推进
+     */
+    public void bumpAfterCommit(String domain) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(domain);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps) {
+                ((PendingBumps) synchronization).domains.add(domain);
+                return;
+            }
+        }
+        PendingBumps pending = new PendingBumps();
+        pending.domains.add(domain);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /**
+     * 立即推进数据域版本（先清空依赖该数据域的缓存）
+     */
+    public void bump(String domain) {
+        evictDependentCaches(domain);
+        long now = System.currentTimeMillis();
+        long version;
+        try {
+            Long result = stringRedisTemplate.execute(BUMP, Collections.singletonList(VERSION_KEY),
+                domain, String.valueOf(now));
+            version = result != null ? result : now;
+        } catch (Exception e) {
+            log.warn("推进内容版本失败，仅本节点生效: domain={}, error={}", domain, e.getMessage());
+            version = Math.max(now, snapshot.getOrDefault(domain, 0L) + 1);
+        }
+        localVersions.merge(domain, version, Math::max);
+        synchronized (this) {
+            Map<String, Long> updated = new HashMap<>(snapshot);
+            updated.merge(domain, version, Math::max);
+            snapshot = updated;
+        }
+        log.debug("内容版本已推进: domain={}, version={}", domain, version);
+    }
+
+    private void evictDependentCaches(String domain) {
+        List<String> cacheNames = DEPENDENT_CACHES.get(domain);
+        CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        if (cacheNames == null || cacheManager == null) {
+            return;
+        }
+        for (String cacheName : cacheNames) {
+            try {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache != null) {
+                    cache.clear();
+                }
+            } catch (Exception e) {
+                log.warn("清空依赖缓存失败: domain={}, cache={}, error={}", domain, cacheName, e.getMessage());
+            }
+        }
+    }
+
+    private void reload(long now) {
+        Map<String, Long> loaded = new HashMap<>(localVersions);
+        try {
+            Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(VERSION_KEY);
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                loaded.merge(String.valueOf(entry.getKey()), Long.valueOf(String.valueOf(entry.getValue())), Math::max);
+            }
+        } catch (Exception e) {
+            log.warn("加载内容版本失败，使用本节点版本: error={}", e.getMessage());
+        }
+        synchronized (this) {
+            // 加载期间本节点推进的版本不能被覆盖
+            for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+                loaded.merge(entry.getKey(), entry.getValue(), Math::max);
+            }
+            snapshot = loaded;
+        }
+        snapshotLoadedAt = now;
+    }
+
+    /**
+     * 事务内累计的待推进数据域
+     * 在 afterCompletion 而不是 afterCommit 中推进：事务感知缓存（@CacheEvict）的失效注册在 afterCommit，
+     * 而本同步器在第一次写入时就已注册、排在前面，放到完成阶段才能保证先失效后推进。
+     */
+    private class PendingBumps implements TransactionSynchronization {
+
+        private final Set<String> domains = new LinkedHashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+                return;
+            }
+            for (String domain : domains) {
+                bump(domain);
+            }
+        }
+    }
+}
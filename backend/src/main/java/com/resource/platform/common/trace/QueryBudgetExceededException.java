@@ -0,0 +1,11 @@
+package com.resource.platform.common.trace;
+
+/**
+ * 请求执行的 SQL 语句数超出接口预算（仅 enforce 模式下抛出）
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,135 @@
+package com.resource.platform.common.trace;
+
+import com.resource.platform.config.BusinessMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 接口 SQL 语句预算
+ *
+ * <p>每个请求允许执行的 SQL 语句数默认为 {@code trace.query-budget.default}，
+ * 可按接口（"请求方法 路由模板"）单独配置。超出预算时：
+ * <ul>
+ *   <li>warn 模式：每个请求告警一次并计入 platform.request.query-budget.exceeded</li>
+ *   <li>enforce 模式：在此基础上抛出 {@link QueryBudgetExceededException}，
+ *       用于测试/CI 环境让新引入的 N+1 直接失败；响应已提交时只告警</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class QueryBudgetGuard {
+
+    private static final String MODE_ENFORCE = "enforce";
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    /** 默认预算，0 表示不限制 */
+    @Value("${trace.query-budget.default:50}")
+    private int defaultBudget;
+
+    @Value("${trace.query-budget.mode:warn}")
+    private String mode;
+
+    /** 按接口配置的预算，格式：GET /api/categories/tree=5,GET /api/dashboard/trend=10 */
+    @Value("${trace.query-budget.endpoints:}")
+    private String[] endpointBudgetSpecs;
+
+    private final Map<String, Integer> endpointBudgets = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String spec : endpointBudgetSpecs) {
+            int split = spec.lastIndexOf('=');
+            if (split <= 0) {
+                continue;
+            }
+            try {
+                endpointBudgets.put(spec.substring(0, split).trim(),
+                    Integer.parseInt(spec.substring(split + 1).trim()));
+            } catch (NumberFormatException e) {
+                log.warn("忽略无效的接口查询预算配置: {}", spec);
+            }
+        }
+        log.info("SQL 查询预算: mode={}, default={}, endpoints={}", mode, defaultBudget, endpointBudgets);
+    }
+
+    /**
+     * 校验当前请求已执行的语句数
+     *
+     * @param total       本请求已执行的 SQL 语句数（含当前语句）
+     * @param statementId 当前语句
+     */
+    public void check(RequestTrace trace, int total, String statementId) {
+        int budget = trace.getQueryBudget();
+        if (budget == RequestTrace.BUDGET_UNRESOLVED) {
+            budget = resolveBudget(trace);
+        }
+        if (budget <= 0 || total <= budget) {
+            return;
+        }
+
+        String endpoint = currentEndpoint();
+        if (!trace.isQueryBudgetExceeded()) {
+            trace.setQueryBudgetExceeded(true);
+            businessMetrics.recordQueryBudgetExceeded(endpoint);
+            log.warn("请求 SQL 语句数超出预算: endpoint={}, budget={}, statement={}", endpoint, budget, statementId);
+        }
+        // 响应已提交（流式下载输出中途）时抛异常只会截断下载，不再抛出
+        if (MODE_ENFORCE.equalsIgnoreCase(mode) && !isResponseCommitted()) {
+            throw new QueryBudgetExceededException(
+                "SQL 语句数超出预算: endpoint=" + endpoint + ", budget=" + budget + ", current=" + total);
+        }
+    }
+
+    /**
+     * 路由模板在进入 Controller 前才确定，过滤器阶段执行的语句按默认预算校验且不缓存
+     */
+    private int resolveBudget(RequestTrace trace) {
+        HttpServletRequest request = currentRequest();
+        Object pattern = request != null
+            ? request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) : null;
+        if (pattern == null) {
+            return defaultBudget;
+        }
+        int budget = endpointBudgets.getOrDefault(request.getMethod() + " " + pattern, defaultBudget);
+        trace.setQueryBudget(budget);
+        return budget;
+    }
+
+    private static String currentEndpoint() {
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            return "UNKNOWN";
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+    }
+
+    private static boolean isResponseCommitted() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+        return response != null && response.isCommitted();
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes
+            ? ((ServletRequestAttributes) attributes).getRequest() : null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.resource.platform.common.trace;
+
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * SQL 语句计数内置拦截器
+ *
+ * <p>注册在 MybatisPlusInterceptor 中（分页拦截器之后，只统计真正执行的语句），
+ * 按语句累加到当前请求的 {@link RequestTrace}，并交给 {@link QueryBudgetGuard} 校验接口的查询预算。
+ */
+public class QueryBudgetInnerInterceptor implements InnerInterceptor {
+
+    private final QueryBudgetGuard queryBudgetGuard;
+
+    public QueryBudgetInnerInterceptor(QueryBudgetGuard queryBudgetGuard) {
+        this.queryBudgetGuard = queryBudgetGuard;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter,
+                            RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
+        count(ms);
+    }
+
+    @Override
+    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) {
+        count(ms);
+    }
+
+    private void count(MappedStatement ms) {
+        int total = RequestTrace.countStatement(ms.getId());
+        if (total > 0) {
+            queryBudgetGuard.check(RequestTrace.current(), total, ms.getId());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.resource.platform.common.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个请求的进程内追踪上下文
+ *
+ * <p>由 TraceIdFilter 在请求开始时绑定到当前线程，以 traceId 为键。各层埋点
+ * （MyBatis 拦截器、RedisTemplate、存储服务、爬虫 HTTP 抓取）通过静态方法
+ * {@link #enter}/{@link #exit} 把耗时累加到当前请求；线程上没有追踪上下文时（定时任务、
+ * 异步线程）这些方法直接返回，开销只有一次 ThreadLocal 读取。
+ *
+ * <p>同一层内的嵌套调用（如分页插件在查询内部执行的 COUNT、SessionCallback 内部的
+ * 多次 Redis 操作）只按最外层计时，避免重复累加。上下文只由所属请求线程访问，不需要同步。
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    /** 当前线程没有追踪上下文时 {@link #enter} 的返回值 */
+    public static final long NOT_TRACED = -1L;
+
+    /** 尚未解析 SQL 语句预算 */
+    public static final int BUDGET_UNRESOLVED = -1;
+
+    private static final int LAYER_COUNT = TraceLayer.values().length;
+
+    private final String traceId;
+    private final long startNanos = System.nanoTime();
+    private final int maxSpans;
+
+    private final long[] layerNanos = new long[LAYER_COUNT];
+    private final int[] layerCalls = new int[LAYER_COUNT];
+    private final int[] depth = new int[LAYER_COUNT];
+
+    /** SQL 语句（MappedStatement ID）执行次数，用于识别 N+1 */
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statementTotal;
+
+    /** 本请求的 SQL 语句预算，{@link #BUDGET_UNRESOLVED} 表示尚未解析 */
+    private int queryBudget = BUDGET_UNRESOLVED;
+    private boolean queryBudgetExceeded;
+
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+
+    private RequestTrace(String traceId, int maxSpans) {
+        this.traceId = traceId;
+        this.maxSpans = maxSpans;
+    }
+
+    /**
+     * 为当前线程开启追踪
+     *
+     * @param maxSpans 最多保留的明细条数，超出后只累计不记录明细
+     */
+    public static RequestTrace begin(String traceId, int maxSpans) {
+        RequestTrace trace = new RequestTrace(traceId, maxSpans);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * 结束当前线程的追踪并返回上下文（未开启时返回 null）
+     */
+    public static RequestTrace end() {
+        RequestTrace trace = CURRENT.get();
+        CURRENT.remove();
+        return trace;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 进入某一层调用
+     *
+     * @return 开始时间（纳秒），当前线程未开启追踪时返回 {@link #NOT_TRACED}
+     */
+    public static long enter(TraceLayer layer) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return NOT_TRACED;
+        }
+        trace.depth[layer.ordinal()]++;
+        return System.nanoTime();
+    }
+
+    /**
+     * 离开某一层调用，最外层调用结束时累加耗时并记录明细
+     *
+     * @param name       操作名称（SQL 语句ID、Redis 操作、存储方法等）
+     * @param startNanos {@link #enter} 的返回值
+     */
+    public static void exit(TraceLayer layer, String name, long startNanos) {
+        if (startNanos == NOT_TRACED) {
+            return;
+        }
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return;
+        }
+        int index = layer.ordinal();
+        if (--trace.depth[index] > 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        trace.layerNanos[index] += elapsed;
+        trace.layerCalls[index]++;
+        if (trace.spans.size() < trace.maxSpans) {
+            trace.spans.add(new Span(layer, name, startNanos - trace.startNanos, elapsed));
+        } else {
+            trace.droppedSpans++;
+        }
+    }
+
+    /**
+     * 记录一次 SQL 语句执行
+     *
+     * @return 本请求已执行的 SQL 语句总数，当前线程未开启追踪时返回 0
+     */
+    public static int countStatement(String statementId) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return 0;
+        }
+        trace.statementCounts.merge(statementId, 1, Integer::sum);
+        return ++trace.statementTotal;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long getLayerNanos(TraceLayer layer) {
+        return layerNanos[layer.ordinal()];
+    }
+
+    public int getLayerCalls(TraceLayer layer) {
+        return layerCalls[layer.ordinal()];
+    }
+
+    /**
+     * 本次请求执行的 SQL 语句总数
+     */
+    public int getStatementTotal() {
+        return statementTotal;
+    }
+
+    public int getQueryBudget() {
+        return queryBudget;
+    }
+
+    public void setQueryBudget(int queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    public boolean isQueryBudgetExceeded() {
+        return queryBudgetExceeded;
+    }
+
+    public void setQueryBudgetExceeded(boolean queryBudgetExceeded) {
+        this.queryBudgetExceeded = queryBudgetExceeded;
+    }
+
+    /**
+     * 执行次数最多的 SQL 语句，没有执行过 SQL 时返回 null
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * 耗时最长的若干条明细
+     */
+    public List<Span> getSlowestSpans(int limit) {
+        if (spans.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Span> sorted = new ArrayList<>(spans);
+        sorted.sort(Comparator.comparingLong(Span::getDurationNanos).reversed());
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    /**
+     * 分层耗时摘要，例如 {@code db=35ms/12, redis=3ms/4}
+     */
+    public String layerSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (TraceLayer layer : TraceLayer.values()) {
+            int calls = layerCalls[layer.ordinal()];
+            if (calls == 0) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(layer.tag()).append('=')
+                .append(TimeUnit.NANOSECONDS.toMillis(layerNanos[layer.ordinal()])).append("ms/")
+                .append(calls);
+        }
+        return sb.length() > 0 ? sb.toString() : "-";
+    }
+
+    /**
+     * 一次分层调用明细
+     */
+    public static final class Span {
+        private final TraceLayer layer;
+        private final String name;
+        private final long offsetNanos;
+        private final long durationNanos;
+
+        private Span(TraceLayer layer, String name, long offsetNanos, long durationNanos) {
+            this.layer = layer;
+            this.name = name;
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        public TraceLayer getLayer() {
+            return layer;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return layer.tag() + ":" + name
+                + "@" + TimeUnit.NANOSECONDS.toMillis(offsetNanos) + "ms"
+                + "(" + TimeUnit.NANOSECONDS.toMillis(durationNanos) + "ms)";
+        }
+    }
+}
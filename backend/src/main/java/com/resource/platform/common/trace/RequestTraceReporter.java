@@ -0,0 +1,98 @@
+package com.resource.platform.common.trace;
+
+import com.resource.platform.config.BusinessMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求追踪结果汇报
+ *
+ * <p>请求结束时把分层耗时按接口（请求方法 + 路由模板）写入 Micrometer，
+ * 并自动标记两类问题请求：
+ * <ul>
+ *   <li>慢请求：总耗时超过 {@code trace.slow-request-ms}</li>
+ *   <li>N+1：同一条 SQL 语句在一次请求中执行次数达到 {@code trace.n-plus-one-threshold}；
+ *       SQL 预算配置为 0（不限制）的接口除外，这类接口按页循环查询是预期行为</li>
+ * </ul>
+ * 问题请求输出带 traceId 的告警日志（分层耗时 + 最耗时的几次调用），并计入 platform.request.flagged。
+ */
+@Slf4j
+@Component
+public class RequestTraceReporter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private static final int LOGGED_SPANS = 5;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Value("${trace.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trace.slow-request-ms:1000}")
+    private long slowRequestMs;
+
+    @Value("${trace.n-plus-one-threshold:10}")
+    private int nPlusOneThreshold;
+
+    @Value("${trace.max-spans:200}")
+    private int maxSpans;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxSpans() {
+        return maxSpans;
+    }
+
+    public void report(RequestTrace trace, HttpServletRequest request, int status) {
+        long elapsedNanos = trace.elapsedNanos();
+        String method = request.getMethod();
+        String uri = resolveUri(request);
+
+        for (TraceLayer layer : TraceLayer.values()) {
+            if (trace.getLayerCalls(layer) > 0) {
+                businessMetrics.recordRequestLayer(method, uri, layer.tag(), trace.getLayerNanos(layer));
+            }
+        }
+        int statementTotal = trace.getStatementTotal();
+        businessMetrics.recordRequestStatements(method, uri, statementTotal);
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMs >= slowRequestMs) {
+            businessMetrics.recordFlaggedRequest(method, uri, "slow");
+            log.warn("慢请求: {} {} status={}, 耗时={}ms, 分层={}, SQL={}条, 最耗时调用={}{}",
+                method, uri, status, elapsedMs, trace.layerSummary(), statementTotal,
+                trace.getSlowestSpans(LOGGED_SPANS), droppedSuffix(trace));
+        }
+
+        Map.Entry<String, Integer> repeated = trace.getMostRepeatedStatement();
+        // 预算为 0 的接口（流式导出等按页循环查询）不按 N+1 标记
+        if (repeated != null && repeated.getValue() >= nPlusOneThreshold && trace.getQueryBudget() != 0) {
+            businessMetrics.recordFlaggedRequest(method, uri, "n_plus_one");
+            log.warn("疑似 N+1 查询: {} {} 中语句 {} 执行了 {} 次（共 {} 条 SQL），耗时={}ms, 分层={}",
+                method, uri, repeated.getKey(), repeated.getValue(), statementTotal,
+                elapsedMs, trace.layerSummary());
+        }
+    }
+
+    /**
+     * 使用路由模板（如 /api/resources/{id}）作为接口标签，避免路径参数导致指标基数膨胀
+     */
+    private static String resolveUri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN_URI;
+    }
+
+    private static String droppedSuffix(RequestTrace trace) {
+        return trace.getDroppedSpans() > 0 ? "（另有 " + trace.getDroppedSpans() + " 次调用未记录明细）" : "";
+    }
+}
@@ -0,0 +1,219 @@
+package com.resource.platform.common.trace;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.resource.platform.config.BusinessMetrics;
+import com.resource.platform.filter.TraceIdFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢 SQL 分析器
+ *
+ * <p>执行耗时超过 {@code trace.slow-sql-ms} 的语句：
+ * <ol>
+ *   <li>计入 platform.sql.slow（按语句），输出实际 SQL 与绑定参数的告警日志；
+ *       参数默认只输出类型不输出值（可能含邮箱、IP、令牌等），排查时可临时开启 {@code trace.slow-sql-log-params}；
+ *       开启后涉及 password 字段的语句（MyBatis-Plus Wrapper 的参数名无法区分字段）仍全部参数打码</li>
+ *   <li>SELECT 语句在 bestEffortExecutor 上用同样的参数执行一次 EXPLAIN 并输出执行计划（线程池满载时放弃本次分析，
+ *       不会在业务线程上执行）；
+ *       同一语句在 {@code trace.explain.interval-seconds} 内只分析一次，避免慢查询高发时放大数据库压力</li>
+ * </ol>
+ */
+@Slf4j
+@Component
+public class SlowSqlProfiler {
+
+    private static final int MAX_PARAM_LENGTH = 64;
+    private static final String MASKED = "******";
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("bestEffortExecutor")
+    private ThreadPoolTaskExecutor explainExecutor;
+
+    @Value("${trace.slow-sql-ms:200}")
+    private long slowSqlMs;
+
+    /** 是否在慢SQL日志中输出绑定参数的值，默认只输出类型 */
+    @Value("${trace.slow-sql-log-params:false}")
+    private boolean logParams;
+
+    @Value("${trace.explain.enabled:true}")
+    private boolean explainEnabled;
+
+    @Value("${trace.explain.interval-seconds:600}")
+    private long explainIntervalSeconds;
+
+    private long slowSqlNanos;
+
+    /** 最近分析过执行计划的语句 */
+    private Cache<String, Boolean> recentlyExplained;
+
+    @PostConstruct
+    public void init() {
+        slowSqlNanos = TimeUnit.MILLISECONDS.toNanos(slowSqlMs);
+        recentlyExplained = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(explainIntervalSeconds, TimeUnit.SECONDS)
+            .build();
+    }
+
+    public boolean isSlow(long nanos) {
+        return slowSqlMs > 0 && nanos >= slowSqlNanos;
+    }
+
+    /**
+     * 记录一条慢 SQL，任何异常都不影响业务语句的执行结果
+     */
+    public void record(MappedStatement ms, BoundSql boundSql, long nanos) {
+        try {
+            String statementId = ms.getId();
+            String sql = compact(boundSql.getSql());
+            List<Object> params = bindParameters(ms.getConfiguration(), boundSql);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(nanos);
+
+            businessMetrics.recordSlowSql(statementId);
+            log.warn("慢SQL: {} 耗时={}ms, sql={}, params={}",
+                statementId, elapsedMs, sql, params != null ? describe(sql, params) : "<无法解析>");
+
+            if (explainEnabled && params != null && ms.getSqlCommandType() == SqlCommandType.SELECT
+                    && recentlyExplained.asMap().putIfAbsent(statementId, Boolean.TRUE) == null) {
+                String traceId = MDC.get(TraceIdFilter.MDC_TRACE_KEY);
+                try {
+                    explainExecutor.execute(() -> explain(traceId, statementId, sql, params));
+                } catch (TaskRejectedException e) {
+                    // 线程池满载时放弃，下一次慢查询再尝试
+                    recentlyExplained.invalidate(statementId);
+                }
+            }
+        } catch (Exception e) {
+            log.debug("慢SQL记录失败: {}", e.getMessage());
+        }
+    }
+
+    private void explain(String traceId, String statementId, String sql, List<Object> params) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            List<String> rows = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    StringBuilder row = new StringBuilder();
+                    for (int col = 1; col <= meta.getColumnCount(); col++) {
+                        Object value = rs.getObject(col);
+                        if (value == null) {
+                            continue;
+                        }
+                        if (row.length() > 0) {
+                            row.append(' ');
+                        }
+                        row.append(meta.getColumnLabel(col)).append('=').append(value);
+                    }
+                    rows.add(row.toString());
+                }
+            }
+            log.warn("慢SQL执行计划: traceId={}, statement={}\n  {}", traceId, statementId, String.join("\n  ", rows));
+        } catch (Exception e) {
+            log.warn("慢SQL执行计划获取失败: statement={}, error={}", statementId, e.getMessage());
+        }
+    }
+
+    /**
+     * 按 MyBatis DefaultParameterHandler 的规则取出绑定参数值
+     *
+     * @return 参数值列表，无法解析时返回 null
+     */
+    private static List<Object> bindParameters(Configuration configuration, BoundSql boundSql) {
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        if (mappings == null || mappings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            Object parameterObject = boundSql.getParameterObject();
+            TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+            MetaObject metaObject = null;
+            List<Object> values = new ArrayList<>(mappings.size());
+            for (ParameterMapping mapping : mappings) {
+                if (mapping.getMode() == ParameterMode.OUT) {
+                    continue;
+                }
+                String property = mapping.getProperty();
+                Object value;
+                if (boundSql.hasAdditionalParameter(property)) {
+                    value = boundSql.getAdditionalParameter(property);
+                } else if (parameterObject == null) {
+                    value = null;
+                } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+                    value = parameterObject;
+                } else {
+                    if (metaObject == null) {
+                        metaObject = configuration.newMetaObject(parameterObject);
+                    }
+                    value = metaObject.getValue(property);
+                }
+                values.add(value instanceof Enum ? ((Enum<?>) value).name() : value);
+            }
+            return values;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String describe(String sql, List<Object> params) {
+        if (!logParams) {
+            List<String> types = new ArrayList<>(params.size());
+            for (Object value : params) {
+                types.add(value == null ? "null" : "<" + value.getClass().getSimpleName() + ">");
+            }
+            return types.toString();
+        }
+        if (sql.toLowerCase(Locale.ROOT).contains("password")) {
+            return Collections.nCopies(params.size(), MASKED).toString();
+        }
+        List<String> described = new ArrayList<>(params.size());
+        for (Object value : params) {
+            String text = String.valueOf(value);
+            described.add(text.length() > MAX_PARAM_LENGTH ? text.substring(0, MAX_PARAM_LENGTH) + "..." : text);
+        }
+        return described.toString();
+    }
+
+    private static String compact(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+}
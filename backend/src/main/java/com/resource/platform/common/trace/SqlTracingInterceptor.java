@@ -0,0 +1,73 @@
+package com.resource.platform.common.trace;
+
+import com.resource.platform.config.BusinessMetrics;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * SQL 执行耗时拦截器
+ *
+ * <p>拦截 Executor 的查询与更新，按 MappedStatement ID 记录耗时直方图
+ * （platform.sql.duration），把耗时累加到当前请求的 {@link RequestTrace}，
+ * 超过慢 SQL 阈值的语句交给 {@link SlowSqlProfiler} 记录绑定参数与执行计划。
+ * 语句计数与查询预算由 {@link QueryBudgetInnerInterceptor} 负责。
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "update",
+        args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class SqlTracingInterceptor implements Interceptor {
+
+    private final BusinessMetrics businessMetrics;
+    private final SlowSqlProfiler slowSqlProfiler;
+
+    public SqlTracingInterceptor(BusinessMetrics businessMetrics, SlowSqlProfiler slowSqlProfiler) {
+        this.businessMetrics = businessMetrics;
+        this.slowSqlProfiler = slowSqlProfiler;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        String statementId = ms.getId();
+
+        long start = System.nanoTime();
+        long traceStart = RequestTrace.enter(TraceLayer.DB);
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            RequestTrace.exit(TraceLayer.DB, statementId, traceStart);
+            businessMetrics.recordSqlStatement(statementId, ms.getSqlCommandType().name(), elapsed, success);
+            if (slowSqlProfiler.isSlow(elapsed)) {
+                slowSqlProfiler.record(ms, boundSqlOf(invocation, ms), elapsed);
+            }
+        }
+    }
+
+    /**
+     * 六参数的 query 已带有最终执行的 BoundSql（含分页改写），其余情况按参数重新生成
+     */
+    private static BoundSql boundSqlOf(Invocation invocation, MappedStatement ms) {
+        Object[] args = invocation.getArgs();
+        if (args.length == 6 && args[5] instanceof BoundSql) {
+            return (BoundSql) args[5];
+        }
+        return ms.getBoundSql(args[1]);
+    }
+}
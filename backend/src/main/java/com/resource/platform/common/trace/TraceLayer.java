@@ -0,0 +1,32 @@
+package com.resource.platform.common.trace;
+
+/**
+ * 请求追踪中的耗时分层
+ */
+public enum TraceLayer {
+
+    /** 数据库（MyBatis 执行的 SQL） */
+    DB("db"),
+
+    /** Redis（RedisTemplate 调用与 Spring Cache 读写） */
+    REDIS("redis"),
+
+    /** 文件存储（本地 / OSS） */
+    STORAGE("storage"),
+
+    /** 外部 HTTP 请求（爬虫抓取等） */
+    HTTP("http");
+
+    private final String tag;
+
+    TraceLayer(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * 指标标签与日志中使用的名称
+     */
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,96 @@
+package com.resource.platform.common.trace;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+
+/**
+ * 带请求追踪的 RedisCacheWriter
+ *
+ * <p>Spring Cache（@Cacheable 等）直接通过 RedisCacheWriter 访问 Redis，不经过 RedisTemplate，
+ * 这里单独包装，按缓存名记录明细。
+ */
+public class TracingRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+
+    public TracingRedisCacheWriter(RedisCacheWriter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        long start = RequestTrace.enter(TraceLayer.REDIS);
+        try {
+            delegate.put(name, key, value, ttl);
+        } finally {
+            exit("cache.put:", name, start);
+        }
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        long start = RequestTrace.enter(TraceLayer.REDIS);
+        try {
+            return delegate.get(name, key);
+        } finally {
+            exit("cache.get:", name, start);
+        }
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        long start = RequestTrace.enter(TraceLayer.REDIS);
+        try {
+            return delegate.putIfAbsent(name, key, value, ttl);
+        } finally {
+            exit("cache.putIfAbsent:", name, start);
+        }
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        long start = RequestTrace.enter(TraceLayer.REDIS);
+        try {
+            delegate.remove(name, key);
+        } finally {
+            exit("cache.remove:", name, start);
+        }
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        long start = RequestTrace.enter(TraceLayer.REDIS);
+        try {
+            delegate.clean(name, pattern);
+        } finally {
+            exit("cache.clean:", name, start);
+        }
+    }
+
+    /**
+     * 只在追踪中才拼接明细名称，避免未追踪的调用产生额外字符串
+     */
+    private static void exit(String operation, String name, long start) {
+        if (start != RequestTrace.NOT_TRACED) {
+            RequestTrace.exit(TraceLayer.REDIS, operation + name, start);
+        }
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new TracingRedisCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector));
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+}
@@ -0,0 +1,23 @@
+package com.resource.platform.common.trace;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 带请求追踪的 RedisTemplate
+ *
+ * <p>opsForXxx、脚本执行、管道等操作最终都经由
+ * {@link #execute(RedisCallback, boolean, boolean)} 获取连接执行，在这里计时即可覆盖全部调用。
+ */
+public class TracingRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        long start = RequestTrace.enter(TraceLayer.REDIS);
+        try {
+            return super.execute(action, exposeConnection, pipeline);
+        } finally {
+            RequestTrace.exit(TraceLayer.REDIS, pipeline ? "redisTemplate.pipeline" : "redisTemplate", start);
+        }
+    }
+}
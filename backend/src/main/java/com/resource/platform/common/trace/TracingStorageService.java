@@ -0,0 +1,77 @@
+package com.resource.platform.common.trace;
+
+import com.resource.platform.module.system.service.StorageService;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 存储服务计时装饰器
+ *
+ * <p>包装实际的存储服务，把每次调用的耗时计入当前请求的 {@link RequestTrace}（storage 层）。
+ */
+public class TracingStorageService implements StorageService {
+
+    private final StorageService delegate;
+
+    public TracingStorageService(StorageService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String upload(MultipartFile file, String path) throws IOException {
+        long start = RequestTrace.enter(TraceLayer.STORAGE);
+        try {
+            return delegate.upload(file, path);
+        } finally {
+            RequestTrace.exit(TraceLayer.STORAGE, "upload", start);
+        }
+    }
+
+    @Override
+    public String upload(InputStream inputStream, String fileName, String path) throws IOException {
+        long start = RequestTrace.enter(TraceLayer.STORAGE);
+        try {
+            return delegate.upload(inputStream, fileName, path);
+        } finally {
+            RequestTrace.exit(TraceLayer.STORAGE, "upload", start);
+        }
+    }
+
+    @Override
+    public boolean delete(String fileUrl) {
+        long start = RequestTrace.enter(TraceLayer.STORAGE);
+        try {
+            return delegate.delete(fileUrl);
+        } finally {
+            RequestTrace.exit(TraceLayer.STORAGE, "delete", start);
+        }
+    }
+
+    @Override
+    public List<String> deleteBatch(List<String> fileUrls) {
+        long start = RequestTrace.enter(TraceLayer.STORAGE);
+        try {
+            return delegate.deleteBatch(fileUrls);
+        } finally {
+            RequestTrace.exit(TraceLayer.STORAGE, "deleteBatch", start);
+        }
+    }
+
+    @Override
+    public String getFileUrl(String filePath) {
+        return delegate.getFileUrl(filePath);
+    }
+
+    @Override
+    public boolean exists(String filePath) {
+        long start = RequestTrace.enter(TraceLayer.STORAGE);
+        try {
+            return delegate.exists(filePath);
+        } finally {
+            RequestTrace.exit(TraceLayer.STORAGE, "exists", start);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.resource.platform.common.trace;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 带请求追踪的 StringRedisTemplate，计时方式同 {@link TracingRedisTemplate}
+ */
+public class TracingStringRedisTemplate extends StringRedisTemplate {
+
+    public TracingStringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        long start = RequestTrace.enter(TraceLayer.REDIS);
+        try {
+            return super.execute(action, exposeConnection, pipeline);
+        } finally {
+            RequestTrace.exit(TraceLayer.REDIS, pipeline ? "stringRedisTemplate.pipeline" : "stringRedisTemplate", start);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -76,6 +77,20 @@ public class BusinessMetrics {
     /** 文件上传失败次数 */
     private final Counter fileUploadFailed;
 
+    // ==================== 操作日志相关指标 ====================
+
+    /** 进入异步写入队列的操作日志数 */
+    private final Counter operationLogQueued;
+
+    /** 队列已满被丢弃的操作日志数 */
+    private final Counter operationLogDropped;
+
+    /** 成功落库的操作日志数 */
+    private final Counter operationLogWritten;
+
+    /** 落库失败的操作日志数 */
+    private final Counter operationLogFailed;
+
     // ==================== 实时 Gauge 指标 ====================
 
     /** 当前正在运行的爬虫任务数 */
@@ -140,6 +155,26 @@ public class BusinessMetrics {
             .description("文件上传失败次数")
             .register(meterRegistry);
 
+        operationLogQueued = Counter.builder("platform.oplog.event.total")
+            .description("进入异步写入队列的操作日志数")
+            .tag("result", "queued")
+            .register(meterRegistry);
+
+        operationLogDropped = Counter.builder("platform.oplog.event.total")
+            .description("队列已满被丢弃的操作日志数")
+            .tag("result", "dropped")
+            .register(meterRegistry);
+
+        operationLogWritten = Counter.builder("platform.oplog.event.total")
+            .description("成功落库的操作日志数")
+            .tag("result", "written")
+            .register(meterRegistry);
+
+        operationLogFailed = Counter.builder("platform.oplog.event.total")
+            .description("落库失败的操作日志数")
+            .tag("result", "failed")
+            .register(meterRegistry);
+
         // 注册 Gauge（实时值）
         Gauge.builder("platform.crawler.active.tasks", activeCrawlerTasks, AtomicLong::get)
             .description("当前正在运行的爬虫任务数")
@@ -182,6 +217,211 @@ public class BusinessMetrics {
         activeCrawlerTasks.decrementAndGet();
     }
 
+    /**
+     * 注册操作日志待写队列长度 Gauge
+     *
+     * @param queue 异步写入队列
+     */
+    public void registerOperationLogQueue(Collection<?> queue) {
+        Gauge.builder("platform.oplog.queue.size", queue, Collection::size)
+            .description("操作日志待写队列长度")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 注册下载记录待写队列长度
+     */
+    public void registerDownloadFactQueue(Collection<?> queue) {
+        Gauge.builder("platform.download.fact.queue.size", queue, Collection::size)
+            .description("下载记录待写队列长度")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 记录下载记录落库结果
+     *
+     * @param result written / dropped / failed
+     */
+    public void recordDownloadFact(String result, int count) {
+        Counter.builder("platform.download.fact.total")
+            .description("下载记录落库数（按结果）")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    /**
+     * 记录一次下载配额判定
+     *
+     * @param decision RECORDED / ALREADY_DOWNLOADED / LIMIT_REACHED
+     * @param backend  redis / database（Redis 不可用时的降级路径）
+     */
+    public void recordDownloadQuota(String decision, String backend) {
+        Counter.builder("platform.download.quota.total")
+            .description("下载配额判定次数")
+            .tag("decision", decision)
+            .tag("backend", backend)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * 记录一次发件箱邮件投递结果
+     *
+     * @param result sent / retry / failed
+     */
+    public void recordMailDelivery(String result) {
+        Counter.builder("platform.mail.delivery.total")
+            .description("发件箱邮件投递次数（按结果）")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * 记录存储文件删除结果
+     *
+     * @param result deleted / retry / abandoned
+     * @param count  文件数
+     */
+    public void recordStorageDelete(String result, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Counter.builder("platform.storage.delete.total")
+            .description("存储文件删除数（按结果）")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    /**
+     * 记录防击穿缓存的一次读取/加载结果
+     *
+     * @param outcome hit / stale / early_refresh / wait / peer / load
+     */
+    public void recordCacheLoad(String cacheName, String outcome) {
+        Counter.builder("platform.cache.load.total")
+            .description("防击穿缓存读取与回源次数（按结果）")
+            .tag("cache", cacheName)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // ==================== 请求追踪相关指标 ====================
+    // 直方图分桶由 management.metrics.distribution.percentiles-histogram 配置开启
+
+    /**
+     * 记录单条 SQL 语句耗时
+     *
+     * @param statementId MappedStatement ID
+     * @param commandType SELECT / INSERT / UPDATE / DELETE
+     * @param nanos       耗时纳秒
+     * @param success     是否执行成功
+     */
+    public void recordSqlStatement(String statementId, String commandType, long nanos, boolean success) {
+        Timer.builder("platform.sql.duration")
+            .description("SQL 语句执行耗时")
+            .tag("statement", statementId)
+            .tag("command", commandType)
+            .tag("outcome", success ? "success" : "error")
+            .register(meterRegistry)
+            .record(nanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次请求在某一层（db / redis / storage / http）上的累计耗时
+     */
+    public void recordRequestLayer(String method, String uri, String layer, long nanos) {
+        Timer.builder("platform.request.layer.duration")
+            .description("请求分层耗时")
+            .tag("method", method)
+            .tag("uri", uri)
+            .tag("layer", layer)
+            .register(meterRegistry)
+            .record(nanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次请求执行的 SQL 语句数
+     */
+    public void recordRequestStatements(String method, String uri, int statements) {
+        DistributionSummary.builder("platform.request.sql.statements")
+            .description("单次请求执行的 SQL 语句数")
+            .tag("method", method)
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(statements);
+    }
+
+    /**
+     * 记录被标记的问题请求
+     *
+     * @param reason slow / n_plus_one
+     */
+    public void recordFlaggedRequest(String method, String uri, String reason) {
+        Counter.builder("platform.request.flagged")
+            .description("被标记为慢请求或 N+1 的请求数")
+            .tag("method", method)
+            .tag("uri", uri)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * 记录一次公开接口条件请求的处理结果
+     *
+     * @param route   路由
+     * @param outcome not_modified / stored / miss / uncacheable
+     */
+    public void recordConditionalGet(String route, String outcome) {
+        Counter.builder("platform.http.conditional.total")
+            .description("公开接口条件请求处理次数（304、命中已保存响应、回源）")
+            .tag("route", route)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * 记录一次在内存中拦截的无效资源ID请求
+     *
+     * @param reason negative_cache / bloom_filter
+     */
+    public void recordResourceIdRejected(String reason) {
+        Counter.builder("platform.resource.id.rejected")
+            .description("未查库即被判定为不存在或未发布的资源ID请求数")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * 记录一条慢 SQL
+     */
+    public void recordSlowSql(String statementId) {
+        Counter.builder("platform.sql.slow")
+            .description("超过慢 SQL 阈值的语句执行次数")
+            .tag("statement", statementId)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * 记录一次超出 SQL 语句预算的请求
+     *
+     * @param endpoint 请求方法 + 路由模板
+     */
+    public void recordQueryBudgetExceeded(String endpoint) {
+        Counter.builder("platform.request.query-budget.exceeded")
+            .description("SQL 语句数超出接口预算的请求数")
+            .tag("endpoint", endpoint)
+            .register(meterRegistry)
+            .increment();
+    }
+
     /**
      * 记录任意操作耗时（用于 Histogram）
      *
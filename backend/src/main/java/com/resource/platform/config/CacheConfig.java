@@ -7,9 +7,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.resource.platform.common.cache.CompactRedisSerializer;
+import com.resource.platform.common.cache.StampedeProtectedCacheManager;
+import com.resource.platform.common.trace.TracingRedisCacheWriter;
+import com.resource.platform.common.trace.TracingRedisTemplate;
+import com.resource.platform.common.trace.TracingStringRedisTemplate;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -18,15 +27,18 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -37,6 +49,31 @@ import java.util.concurrent.TimeUnit;
 @EnableCaching
 public class CacheConfig {
 
+    /** 缓存值写入格式：json（默认，与旧节点兼容）或 smile（全部节点都能读取二进制格式后再切换） */
+    @Value("${cache.serializer.format:json}")
+    private String serializerFormat;
+
+    /** 超过该字节数的缓存值使用 LZ4 压缩，0 表示不压缩 */
+    @Value("${cache.serializer.compress-threshold-bytes:1024}")
+    private int compressThreshold;
+
+    /** 启用防击穿保护的缓存（需配合 @Cacheable(sync = true)） */
+    @Value("${cache.stampede.cache-names:category:tree,resource:hot}")
+    private List<String> stampedeCacheNames;
+
+    /** 逻辑过期后仍可返回旧值的时长 */
+    @Value("${cache.stampede.stale-ttl-ms:300000}")
+    private long stampedeStaleTtlMs;
+
+    @Value("${cache.stampede.beta:1.0}")
+    private double stampedeBeta;
+
+    @Value("${cache.stampede.lease-ttl-ms:10000}")
+    private long stampedeLeaseTtlMs;
+
+    @Value("${cache.stampede.wait-timeout-ms:3000}")
+    private long stampedeWaitTimeoutMs;
+
     @Bean("caffeineCacheManager")
     public CacheManager caffeineCacheManager() {
         CaffeineCacheManager manager = new CaffeineCacheManager();
@@ -72,13 +109,16 @@ public class CacheConfig {
 
     @Bean
     @Primary
-    public CacheManager redisCacheManager(RedisConnectionFactory factory) {
+    public CacheManager redisCacheManager(RedisConnectionFactory factory,
+                                          StringRedisTemplate stringRedisTemplate,
+                                          @Qualifier("bestEffortExecutor") Executor bestEffortExecutor,
+                                          BusinessMetrics businessMetrics) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(30))
             .serializeKeysWith(RedisSerializationContext.SerializationPair
                 .fromSerializer(new StringRedisSerializer()))
             .serializeValuesWith(RedisSerializationContext.SerializationPair
-                .fromSerializer(jackson2JsonRedisSerializer()))
+                .fromSerializer(cacheValueSerializer()))
             .disableCachingNullValues();
 
         Map<String, RedisCacheConfiguration> configMap = new HashMap<>();
@@ -90,38 +130,79 @@ public class CacheConfig {
         configMap.put("friendlink:enabled", defaultConfig.entryTtl(Duration.ofHours(1)));
         configMap.put("promotion:active", defaultConfig.entryTtl(Duration.ofMinutes(15)));
         configMap.put("statistics:overview", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-        configMap.put("resource:hot", defaultConfig.entryTtl(Duration.ofMinutes(10)));
-
-        RedisCacheManager manager = RedisCacheManager.builder(factory)
+        // 热门榜单由 Redis 排行榜实时累加，缓存只用于合并回表查询
+        configMap.put("resource:hot", defaultConfig.entryTtl(Duration.ofMinutes(1)));
+        configMap.put("revenue:overview", defaultConfig.entryTtl(Duration.ofMinutes(1)));
+        configMap.put("revenue:by-type", defaultConfig.entryTtl(Duration.ofMinutes(1)));
+
+        // 防击穿缓存：Redis 中多保留一段旧值，逻辑过期后先返回旧值再后台刷新
+        Map<String, Duration> protectedTtls = new HashMap<>();
+        for (String name : stampedeCacheNames) {
+            RedisCacheConfiguration config = configMap.getOrDefault(name, defaultConfig);
+            protectedTtls.put(name, config.getTtl());
+            configMap.put(name, config.entryTtl(config.getTtl().plusMillis(stampedeStaleTtlMs)));
+        }
+
+        // 包装 CacheWriter，使 @Cacheable 的 Redis 读写计入请求追踪
+        RedisCacheWriter cacheWriter = new TracingRedisCacheWriter(
+            RedisCacheWriter.nonLockingRedisCacheWriter(factory));
+        RedisCacheManager manager = RedisCacheManager.builder(cacheWriter)
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(configMap)
             .transactionAware()
             .build();
 
-        log.info("Redis L2 分布式缓存管理器初始化完成");
-        return manager;
+        log.info("Redis L2 分布式缓存管理器初始化完成, 防击穿缓存: {}", protectedTtls.keySet());
+        // 后台刷新满载时直接拒绝（继续返回旧值），不能用 CallerRuns 的 asyncExecutor，否则会退化为请求线程同步回源
+        return new StampedeProtectedCacheManager(manager, protectedTtls, stringRedisTemplate, bestEffortExecutor,
+            businessMetrics, stampedeBeta, stampedeLeaseTtlMs, stampedeWaitTimeoutMs);
     }
 
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        RedisTemplate<String, Object> template = new TracingRedisTemplate<>();
         template.setConnectionFactory(factory);
 
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
-        Jackson2JsonRedisSerializer<Object> jsonSerializer = jackson2JsonRedisSerializer();
+        CompactRedisSerializer valueSerializer = cacheValueSerializer();
 
         template.setKeySerializer(stringSerializer);
         template.setHashKeySerializer(stringSerializer);
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
         template.afterPropertiesSet();
         return template;
     }
 
-    private Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer() {
-        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
+    /**
+     * 覆盖自动配置的 StringRedisTemplate，使其调用计入请求追踪
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory factory) {
+        return new TracingStringRedisTemplate(factory);
+    }
 
-        ObjectMapper mapper = new ObjectMapper();
+    /**
+     * 缓存值序列化器（Spring Cache 与 RedisTemplate 共用）
+     */
+    @Bean
+    public CompactRedisSerializer cacheValueSerializer() {
+        SmileFactory smileFactory = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        CompactRedisSerializer serializer = new CompactRedisSerializer(
+            configureCacheMapper(new ObjectMapper(smileFactory)),
+            configureCacheMapper(new ObjectMapper()),
+            CompactRedisSerializer.WriteFormat.valueOf(serializerFormat.trim().toUpperCase()),
+            compressThreshold);
+        log.info("Redis 缓存值序列化格式: {}, LZ4 压缩阈值: {} bytes", serializerFormat, compressThreshold);
+        return serializer;
+    }
+
+    /**
+     * 缓存用 ObjectMapper：字段可见、携带类型信息（限定可反序列化的包）、支持 java.time
+     */
+    private static ObjectMapper configureCacheMapper(ObjectMapper mapper) {
         mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
 
         PolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
@@ -143,8 +224,6 @@ public class CacheConfig {
         );
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        serializer.setObjectMapper(mapper);
-        return serializer;
+        return mapper;
     }
 }
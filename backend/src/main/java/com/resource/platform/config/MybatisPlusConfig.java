@@ -3,7 +3,14 @@ package com.resource.platform.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.resource.platform.common.http.ContentVersionInterceptor;
+import com.resource.platform.common.http.ContentVersionRegistry;
+import com.resource.platform.common.trace.QueryBudgetGuard;
+import com.resource.platform.common.trace.QueryBudgetInnerInterceptor;
+import com.resource.platform.common.trace.SlowSqlProfiler;
+import com.resource.platform.common.trace.SqlTracingInterceptor;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -22,9 +29,30 @@ import org.springframework.context.annotation.Configuration;
 public class MybatisPlusConfig {
 
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(QueryBudgetGuard queryBudgetGuard) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
+        // 放在分页之后：分页判定无需查询（总数为 0）时跳过的语句不计数
+        interceptor.addInnerInterceptor(new QueryBudgetInnerInterceptor(queryBudgetGuard));
         return interceptor;
     }
+
+    /**
+     * SQL 耗时追踪（按语句记录直方图、计入当前请求的分层耗时并分析慢 SQL）
+     */
+    @Bean
+    @ConditionalOnProperty(name = "trace.enabled", havingValue = "true", matchIfMissing = true)
+    public SqlTracingInterceptor sqlTracingInterceptor(BusinessMetrics businessMetrics,
+                                                       SlowSqlProfiler slowSqlProfiler) {
+        return new SqlTracingInterceptor(businessMetrics, slowSqlProfiler);
+    }
+
+    /**
+     * 写语句提交后推进公开数据的内容版本（条件请求 ETag 的依据）
+     */
+    @Bean
+    @ConditionalOnProperty(name = "http.conditional.enabled", havingValue = "true", matchIfMissing = true)
+    public ContentVersionInterceptor contentVersionInterceptor(ContentVersionRegistry contentVersionRegistry) {
+        return new ContentVersionInterceptor(contentVersionRegistry);
+    }
 }
@@ -0,0 +1,57 @@
+package com.resource.platform.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 后台维护任务调度配置
+ *
+ * <p>爬虫任务由 Quartz 调度（需要持久化和集群感知），
+ * 日志清理等维护任务使用 Spring {@code @Scheduled}，运行在独立的线程池中。
+ * 线程数按 {@code @Scheduled} 任务数配置（另留一个给后台手动清理日志），
+ * 避免日志清理、孤儿图片扫描等长任务占满线程，导致发件箱投递、过滤器同步等短周期任务被饿死。
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * 维护任务线程数：当前共 10 个 {@code @Scheduled} 任务，加 1 个后台手动清理日志
+     */
+    @Value("${scheduling.pool-size:11}")
+    private int poolSize;
+
+    @Bean("taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("maintenance-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        scheduler.setErrorHandler(t -> log.error("后台维护任务执行异常", t));
+        scheduler.initialize();
+        log.info("后台维护任务调度线程池初始化完成: poolSize={}", poolSize);
+        return scheduler;
+    }
+
+    /**
+     * 爬虫任务租约心跳专用调度器
+     * 不与维护任务共用线程，避免长时间运行的维护任务占满线程导致续约延迟、租约过期
+     */
+    @Bean("leaseHeartbeatScheduler")
+    public ThreadPoolTaskScheduler leaseHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("lease-heartbeat-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setErrorHandler(t -> log.error("爬虫任务租约心跳执行异常", t));
+        scheduler.initialize();
+        log.info("爬虫任务租约心跳调度线程池初始化完成: poolSize=2");
+        return scheduler;
+    }
+}
@@ -115,6 +115,8 @@ public class SecurityConfig {
                 // --- 客户端公开接口 - 广告推广 ---
                 .antMatchers(HttpMethod.GET, "/api/promotion/active").permitAll()
                 .antMatchers(HttpMethod.POST, "/api/promotion/*/click").permitAll()
+                // --- 客户端公开接口 - 首页聚合 ---
+                .antMatchers(HttpMethod.GET, "/api/home/public/**").permitAll()
                 // --- 静态资源 ---
                 .antMatchers(localUploadPattern, "/uploads/**", "/images/**", "/thumbnails/**", "/static/**").permitAll()
                 .antMatchers("/*.html", "/*.js", "/*.css", "/*.png", "/*.jpg", "/*.ico").permitAll()
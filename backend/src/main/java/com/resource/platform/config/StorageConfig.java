@@ -1,5 +1,6 @@
 package com.resource.platform.config;
 
+import com.resource.platform.common.trace.TracingStorageService;
 import com.resource.platform.module.system.service.StorageService;
 import com.resource.platform.module.system.service.impl.DynamicStorageService;
 import com.resource.platform.module.system.service.impl.StorageServiceResolver;
@@ -25,6 +26,6 @@ public class StorageConfig {
     public StorageService storageService() {
         StorageService activeStorageService = storageServiceResolver.getCurrentStorageService();
         log.info("Loaded dynamic storage service, current backend: {}", activeStorageService.getClass().getSimpleName());
-        return dynamicStorageService;
+        return new TracingStorageService(dynamicStorageService);
     }
 }
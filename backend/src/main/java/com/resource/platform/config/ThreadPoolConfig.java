@@ -17,6 +17,9 @@ import java.util.concurrent.ThreadPoolExecutor;
  * <ul>
  *   <li>{@code crawlerExecutor}：用于爬虫任务执行，核心数小、队列有界</li>
  *   <li>{@code asyncExecutor}：用于业务异步任务（邮件、日志写入等），不影响主流程</li>
+ *   <li>{@code storageExecutor}：用于并行删除存储文件，调用方等待其完成，因此不能与 asyncExecutor 共用</li>
+ *   <li>{@code bestEffortExecutor}：用于可丢弃的后台任务（触发发件箱投递等），满载时直接拒绝，
+ *       不会像 asyncExecutor 那样回落到请求线程执行</li>
  * </ul>
  */
 @Slf4j
@@ -33,6 +36,10 @@ public class ThreadPoolConfig {
     @Value("${crawler.thread-pool.queue-capacity:50}")
     private int crawlerQueueCapacity;
 
+    // ===== 存储删除线程池参数 =====
+    @Value("${storage.delete.parallelism:8}")
+    private int storageDeleteParallelism;
+
     /**
      * 爬虫专用线程池
      *
@@ -84,6 +91,51 @@ public class ThreadPoolConfig {
         return executor;
     }
 
+    /**
+     * 存储文件删除线程池
+     *
+     * <p>批量删除图片时把存储文件分片并行删除（本地磁盘逐个删除、OSS 多对象删除）。
+     * 提交方会等待全部分片完成，所以使用独立线程池，避免提交方占满 asyncExecutor 后互相等待。
+     */
+    @Bean("storageExecutor")
+    public ThreadPoolTaskExecutor storageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(storageDeleteParallelism);
+        executor.setMaxPoolSize(storageDeleteParallelism);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("storage-");
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new LoggingCallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        log.info("存储文件删除线程池初始化完成: size={}", storageDeleteParallelism);
+        return executor;
+    }
+
+    /**
+     * 可丢弃后台任务线程池
+     *
+     * <p>提交的任务都有定时任务兜底，丢掉一次不影响正确性；满载时抛出
+     * {@link org.springframework.core.task.TaskRejectedException}，由提交方忽略，避免耗时操作落到请求线程。
+     */
+    @Bean("bestEffortExecutor")
+    public ThreadPoolTaskExecutor bestEffortExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("best-effort-");
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        log.info("可丢弃后台任务线程池初始化完成: core=2, max=4, queue=50");
+        return executor;
+    }
+
     /**
      * 带日志记录的 CallerRunsPolicy
      * 当线程池满载时，记录告警日志并在调用方线程执行任务
@@ -0,0 +1,355 @@
+package com.resource.platform.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.resource.platform.common.http.ContentVersionRegistry;
+import com.resource.platform.config.BusinessMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 公开接口条件请求与响应缓存过滤器
+ *
+ * <p>每个路由声明自己依赖的数据域，ETag 由请求路径、查询串和这些数据域在
+ * {@link ContentVersionRegistry} 中的版本号计算，最大版本号作为 Last-Modified，
+ * 判断是否变化时既不进入控制器，也不序列化响应体。
+ *
+ * <ul>
+ *   <li>If-None-Match（优先）或 If-Modified-Since 命中时直接返回 304</li>
+ *   <li>按路由输出 Cache-Control：分类树、公开配置、链接类型、友情链接、广告变化少，允许客户端缓存 max-age；
+ *       资源列表/详情及包含资源列表的首页聚合数据为 no-cache，每次带校验器回源，未变化时只回 304</li>
+ *   <li>store 路由保存序列化后的响应字节及其 gzip 结果，同一 ETag 的后续请求直接输出字节。
+ *       同一 ETag 下响应字节完全一致，因此使用强 ETag（gzip 表示加 -gz 后缀）；
+ *       其余路由的响应体含每次不同的 traceId/timestamp，使用弱 ETag</li>
+ *   <li>只有 HTTP 200 且未经全局异常处理的响应才附带校验器或被保存，业务错误和临时故障不会被 304 固化</li>
+ *   <li>控制器设置 {@link #SKIP_VALIDATORS_ATTRIBUTE} 时（如首页快照重建期间返回的旧数据），
+ *       响应同样不附带校验器、不保存，避免旧内容以新版本的 ETag 固化</li>
+ *   <li>广告按投放时间过滤，广告及首页聚合数据的 ETag 额外包含时间片，时间片切换后重新生成</li>
+ * </ul>
+ *
+ * <p>按 IP 计算的接口（剩余下载次数、是否已下载）以及来自节点本地标签索引、Redis 热度排行榜的接口不经本过滤器处理。
+ */
+@Slf4j
+@Component
+@Order(3)  // 在限流之后，304 同样计入限流
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    /** 请求属性：响应体与当前版本不一致，本次不附带校验器也不保存 */
+    public static final String SKIP_VALIDATORS_ATTRIBUTE = ConditionalGetFilter.class.getName() + ".SKIP_VALIDATORS";
+
+    private static final String RESOURCE_PUBLIC_PREFIX = "/api/resources/public/";
+    private static final String GZIP = "gzip";
+
+    @Autowired
+    private ContentVersionRegistry contentVersionRegistry;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Value("${http.conditional.enabled:true}")
+    private boolean enabled;
+
+    /** 版本发布改变响应结构时修改，使客户端持有的旧 ETag 全部失效 */
+    @Value("${http.conditional.etag-salt:1}")
+    private String etagSalt;
+
+    @Value("${http.conditional.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Value("${http.conditional.ad-bucket-seconds:60}")
+    private long adBucketSeconds;
+
+    @Value("${http.conditional.store-max-entries:500}")
+    private long storeMaxEntries;
+
+    @Value("${http.conditional.store-ttl-seconds:300}")
+    private long storeTtlSeconds;
+
+    @Value("${http.conditional.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private List<RoutePolicy> routes;
+
+    /** ETag → 已序列化的响应 */
+    private Cache<String, StoredResponse> storedResponses;
+
+    @PostConstruct
+    public void init() {
+        String shared = "public, max-age=" + maxAgeSeconds;
+        String revalidate = "public, no-cache";
+        routes = Arrays.asList(
+            // 分类树带各分类的资源数，资源变化同样影响响应
+            new RoutePolicy("/api/categories/tree", shared, true, 0,
+                ContentVersionRegistry.CATEGORY, ContentVersionRegistry.RESOURCE),
+            new RoutePolicy("/api/config/public", shared, true, 0,
+                ContentVersionRegistry.CONFIG),
+            new RoutePolicy("/api/link-types/public/list", shared, true, 0,
+                ContentVersionRegistry.LINK_TYPE),
+            new RoutePolicy("/api/friendlinks/enabled", shared, true, 0,
+                ContentVersionRegistry.FRIEND_LINK),
+            new RoutePolicy("/api/promotion/active", shared, true, TimeUnit.SECONDS.toMillis(adBucketSeconds),
+                ContentVersionRegistry.ADVERTISEMENT),
+            new RoutePolicy("/api/home/public/bootstrap", revalidate, true, TimeUnit.SECONDS.toMillis(adBucketSeconds),
+                ContentVersionRegistry.RESOURCE, ContentVersionRegistry.CATEGORY, ContentVersionRegistry.ADVERTISEMENT,
+                ContentVersionRegistry.FRIEND_LINK, ContentVersionRegistry.LINK_TYPE, ContentVersionRegistry.CONFIG),
+            new RoutePolicy(RESOURCE_PUBLIC_PREFIX + "list", revalidate, false, 0,
+                ContentVersionRegistry.RESOURCE, ContentVersionRegistry.CATEGORY, ContentVersionRegistry.LINK_TYPE),
+            // /api/resources/public/{id}
+            new RoutePolicy(RESOURCE_PUBLIC_PREFIX + "{id}", revalidate, false, 0,
+                ContentVersionRegistry.RESOURCE, ContentVersionRegistry.CATEGORY, ContentVersionRegistry.LINK_TYPE)
+        );
+        storedResponses = Caffeine.newBuilder()
+            .maximumSize(storeMaxEntries)
+            .expireAfterWrite(storeTtlSeconds, TimeUnit.SECONDS)
+            .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod()) || resolveRoute(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RoutePolicy route = resolveRoute(request.getRequestURI());
+        Validators validators = computeValidators(route, request);
+
+        if (isNotModified(request, validators)) {
+            writeValidators(response, route, validators, route.store && acceptsGzip(request));
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            businessMetrics.recordConditionalGet(route.path, "not_modified");
+            return;
+        }
+
+        if (route.store) {
+            StoredResponse stored = storedResponses.getIfPresent(validators.tag);
+            if (stored != null) {
+                writeStored(request, response, route, validators, stored);
+                businessMetrics.recordConditionalGet(route.path, "stored");
+                return;
+            }
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() != HttpStatus.OK.value()
+                || request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE) != null
+                || request.getAttribute(SKIP_VALIDATORS_ATTRIBUTE) != null
+                || response.isCommitted()) {
+            wrapper.copyBodyToResponse();
+            businessMetrics.recordConditionalGet(route.path, "uncacheable");
+            return;
+        }
+        if (route.store) {
+            StoredResponse stored = StoredResponse.of(wrapper.getContentAsByteArray(), wrapper.getContentType(),
+                gzipMinBytes);
+            storedResponses.put(validators.tag, stored);
+            writeStored(request, response, route, validators, stored);
+        } else {
+            writeValidators(response, route, validators, false);
+            wrapper.copyBodyToResponse();
+        }
+        businessMetrics.recordConditionalGet(route.path, "miss");
+    }
+
+    private RoutePolicy resolveRoute(String uri) {
+        for (RoutePolicy route : routes) {
+            if (route.path.equals(uri)) {
+                return route;
+            }
+        }
+        if (uri.startsWith(RESOURCE_PUBLIC_PREFIX) && isNumeric(uri.substring(RESOURCE_PUBLIC_PREFIX.length()))) {
+            return routes.get(routes.size() - 1);
+        }
+        return null;
+    }
+
+    private Validators computeValidators(RoutePolicy route, HttpServletRequest request) {
+        Map<String, Long> versions = contentVersionRegistry.current();
+        String query = request.getQueryString();
+        Hasher hasher = Hashing.murmur3_128().newHasher()
+            .putString(etagSalt, StandardCharsets.UTF_8)
+            .putString(request.getRequestURI(), StandardCharsets.UTF_8)
+            .putString(query != null ? query : "", StandardCharsets.UTF_8);
+        long lastModified = 0;
+        for (String domain : route.domains) {
+            long version = versions.getOrDefault(domain, 0L);
+            hasher.putLong(version);
+            lastModified = Math.max(lastModified, version);
+        }
+        if (route.bucketMillis > 0) {
+            long now = System.currentTimeMillis();
+            long bucketStart = now - now % route.bucketMillis;
+            hasher.putLong(bucketStart);
+            lastModified = Math.max(lastModified, bucketStart);
+        }
+        return new Validators(hasher.hash().toString(), lastModified);
+    }
+
+    private boolean isNotModified(HttpServletRequest request, Validators validators) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if ("*".equals(tag)) {
+                    return true;
+                }
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                tag = tag.replace("\"", "");
+                if (tag.endsWith("-" + GZIP)) {
+                    tag = tag.substring(0, tag.length() - GZIP.length() - 1);
+                }
+                if (tag.equals(validators.tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (validators.lastModified <= 0) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            // HTTP 日期精确到秒
+            return ifModifiedSince >= 0 && validators.lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void writeValidators(HttpServletResponse response, RoutePolicy route, Validators validators, boolean gzip) {
+        String etag = route.store
+            ? "\"" + validators.tag + (gzip ? "-" + GZIP : "") + "\""
+            : "W/\"" + validators.tag + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (validators.lastModified > 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, validators.lastModified);
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, route.cacheControl);
+        if (route.store) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    private void writeStored(HttpServletRequest request, HttpServletResponse response, RoutePolicy route,
+                             Validators validators, StoredResponse stored) throws IOException {
+        boolean gzip = stored.gzipBody != null && acceptsGzip(request);
+        byte[] body = gzip ? stored.gzipBody : stored.body;
+        writeValidators(response, route, validators, gzip);
+        if (stored.contentType != null) {
+            response.setContentType(stored.contentType);
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains(GZIP);
+    }
+
+    private static boolean isNumeric(String value) {
+        if (value.isEmpty() || value.length() > 19) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 路由缓存策略
+     */
+    private static class RoutePolicy {
+        final String path;
+        final String cacheControl;
+        final boolean store;
+        final long bucketMillis;
+        final List<String> domains;
+
+        RoutePolicy(String path, String cacheControl, boolean store, long bucketMillis, String... domains) {
+            this.path = path;
+            this.cacheControl = cacheControl;
+            this.store = store;
+            this.bucketMillis = bucketMillis;
+            this.domains = Arrays.asList(domains);
+        }
+    }
+
+    /**
+     * 由版本号计算出的校验器
+     */
+    private static class Validators {
+        final String tag;
+        final long lastModified;
+
+        Validators(String tag, long lastModified) {
+            this.tag = tag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * 已序列化的响应，gzipBody 为 null 表示不值得压缩
+     */
+    private static class StoredResponse {
+        final byte[] body;
+        final byte[] gzipBody;
+        final String contentType;
+
+        StoredResponse(byte[] body, byte[] gzipBody, String contentType) {
+            this.body = body;
+            this.gzipBody = gzipBody;
+            this.contentType = contentType;
+        }
+
+        static StoredResponse of(byte[] body, String contentType, int gzipMinBytes) throws IOException {
+            byte[] gzipBody = null;
+            if (body.length >= gzipMinBytes) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(body);
+                }
+                if (out.size() < body.length) {
+                    gzipBody = out.toByteArray();
+                }
+            }
+            return new StoredResponse(body, gzipBody, contentType);
+        }
+    }
+}
@@ -4,7 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -66,7 +66,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
     }
 
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private StringRedisTemplate stringRedisTemplate;
 
     @Value("${rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
@@ -101,7 +101,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
         String redisKey = "ratelimit:" + policy.name + ":" + clientIp;
 
         try {
-            Long result = redisTemplate.execute(
+            Long result = stringRedisTemplate.execute(
                 REDIS_SCRIPT,
                 Collections.singletonList(redisKey),
                 String.valueOf(policy.limit),
@@ -1,7 +1,10 @@
 package com.resource.platform.filter;
 
+import com.resource.platform.common.trace.RequestTrace;
+import com.resource.platform.common.trace.RequestTraceReporter;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,6 +26,7 @@ import java.util.UUID;
  *   <li>将 TraceId 放入 MDC，使所有日志自动携带追踪信息</li>
  *   <li>将 TraceId 回写到响应头，方便前端/调用方排查问题</li>
  *   <li>请求结束后清理 MDC，防止内存泄漏</li>
+ *   <li>以 TraceId 开启进程内请求追踪（{@link RequestTrace}），结束时汇报分层耗时并标记慢请求/N+1</li>
  * </ol>
  *
  * <p>日志配置：在 log4j2-spring.xml 的 Pattern 中添加 %X{traceId} 即可自动输出
@@ -35,19 +39,36 @@ public class TraceIdFilter extends OncePerRequestFilter {
     public static final String TRACE_ID_HEADER = "X-Trace-Id";
     public static final String MDC_TRACE_KEY = "traceId";
 
+    @Autowired
+    private RequestTraceReporter requestTraceReporter;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String traceId = generateTraceId(request);
+        boolean tracing = requestTraceReporter.isEnabled();
         try {
             // 注入 MDC（自动传播到所有日志）
             MDC.put(MDC_TRACE_KEY, traceId);
             // 回写到响应头（方便前端/调用方关联日志）
             response.addHeader(TRACE_ID_HEADER, traceId);
 
+            if (tracing) {
+                RequestTrace.begin(traceId, requestTraceReporter.getMaxSpans());
+            }
             filterChain.doFilter(request, response);
         } finally {
+            if (tracing) {
+                RequestTrace trace = RequestTrace.end();
+                if (trace != null) {
+                    try {
+                        requestTraceReporter.report(trace, request, response.getStatus());
+                    } catch (Exception e) {
+                        log.warn("请求追踪汇报失败: {}", e.getMessage());
+                    }
+                }
+            }
             // 必须清理，防止线程复用时串用 TraceId
             MDC.remove(MDC_TRACE_KEY);
         }
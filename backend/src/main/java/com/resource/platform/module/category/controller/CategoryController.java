@@ -17,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 /**
@@ -123,8 +124,8 @@ public class CategoryController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "导出分类")
     @OperationLog(module = "分类管理", type = "导出", description = "导出分类", audit = true)
-    public Result<String> exportCategories() {
-        String filePath = categoryService.exportCategories();
-        return Result.success(filePath);
+    public void exportCategories(@RequestParam(defaultValue = "false") boolean gzip,
+                                 HttpServletResponse response) {
+        categoryService.exportCategories(gzip, response);
     }
 }
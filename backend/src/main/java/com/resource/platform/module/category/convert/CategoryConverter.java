@@ -0,0 +1,34 @@
+package com.resource.platform.module.category.convert;
+
+import com.resource.platform.module.category.entity.Category;
+import com.resource.platform.module.category.vo.CategoryTreeVO;
+
+/**
+ * 分类实体与视图对象转换
+ */
+public final class CategoryConverter {
+
+    private CategoryConverter() {
+    }
+
+    /**
+     * 分类实体转分类树节点（不含子节点和资源数）
+     */
+    public static CategoryTreeVO toTreeNode(Category category) {
+        if (category == null) {
+            return null;
+        }
+        CategoryTreeVO vo = new CategoryTreeVO();
+        vo.setId(category.getId());
+        vo.setName(category.getName());
+        vo.setParentId(category.getParentId());
+        vo.setLevel(category.getLevel());
+        vo.setIcon(category.getIcon());
+        vo.setDescription(category.getDescription());
+        vo.setSortOrder(category.getSortOrder());
+        vo.setStatus(category.getStatus());
+        vo.setCreateTime(category.getCreateTime());
+        vo.setUpdateTime(category.getUpdateTime());
+        return vo;
+    }
+}
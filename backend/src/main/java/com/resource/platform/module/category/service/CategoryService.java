@@ -6,6 +6,7 @@ import com.resource.platform.module.category.entity.Category;
 import com.resource.platform.module.category.vo.CategoryStatisticsVO;
 import com.resource.platform.module.category.vo.CategoryTreeVO;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 /**
@@ -59,7 +60,10 @@ public interface CategoryService {
     void updateSortOrder(Long id, Integer sortOrder);
     
     /**
-     * 导出分类
+     * 导出分类（流式写入响应）
+     *
+     * @param gzip     是否压缩为 .csv.gz
+     * @param response HTTP 响应
      */
-    String exportCategories();
+    void exportCategories(boolean gzip, HttpServletResponse response);
 }
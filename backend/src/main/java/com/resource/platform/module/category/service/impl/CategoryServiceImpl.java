@@ -2,9 +2,12 @@ package com.resource.platform.module.category.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.resource.platform.common.BizErrorCode;
+import com.resource.platform.common.export.CsvResponseWriter;
 import com.resource.platform.exception.BusinessException;
 import com.resource.platform.exception.ResourceNotFoundException;
 import com.resource.platform.exception.ValidationException;
+import com.resource.platform.module.category.convert.CategoryConverter;
 import com.resource.platform.module.category.dto.CategoryQueryDTO;
 import com.resource.platform.module.category.entity.Category;
 import com.resource.platform.module.category.mapper.CategoryMapper;
@@ -12,8 +15,6 @@ import com.resource.platform.module.category.service.CategoryService;
 import com.resource.platform.module.category.vo.CategoryStatisticsVO;
 import com.resource.platform.module.category.vo.CategoryTreeVO;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -22,9 +23,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.File;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -96,7 +96,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = "category:tree", key = "'all'", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "category:tree", key = "'all'", sync = true)
     public List<CategoryTreeVO> getCategoryTree() {
         log.info("开始构建分类树");
 
@@ -119,8 +119,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         for (Category category : categories) {
             if (category.getParentId().equals(parentId)) {
-                CategoryTreeVO node = new CategoryTreeVO();
-                BeanUtils.copyProperties(category, node);
+                CategoryTreeVO node = CategoryConverter.toTreeNode(category);
 
                 List<CategoryTreeVO> children = buildTree(categories, category.getId());
                 node.setChildren(children);
@@ -198,6 +197,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @CacheEvict(value = "category:tree", allEntries = true)
     @Transactional(rollbackFor = Exception.class)
     public Category createCategory(Category category) {
         log.info("开始创建分类: name={}, parentId={}", category.getName(), category.getParentId());
@@ -243,6 +243,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @CacheEvict(value = "category:tree", allEntries = true)
     @Transactional(rollbackFor = Exception.class)
     public Category updateCategory(Category category) {
         log.info("开始更新分类: categoryId={}, name={}", category.getId(), category.getName());
@@ -288,6 +289,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @CacheEvict(value = "category:tree", allEntries = true)
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRES_NEW)
     public void deleteCategory(Long id) {
         log.info("开始删除分类: categoryId={}", id);
@@ -352,6 +354,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @CacheEvict(value = "category:tree", allEntries = true)
     @Transactional(rollbackFor = Exception.class)
     public void updateSortOrder(Long id, Integer sortOrder) {
         log.info("开始更新分类排序: categoryId={}, sortOrder={}", id, sortOrder);
@@ -375,42 +378,27 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    public String exportCategories() {
+    public void exportCategories(boolean gzip, HttpServletResponse response) {
         log.info("开始导出分类数据");
 
+        // 分类表规模很小（通常数百条），一次查询即可；CSV 直接写入响应流，不再拼接整段字符串和临时文件
         List<Category> categories = categoryMapper.selectList(
             new LambdaQueryWrapper<Category>()
                 .orderByAsc(Category::getSortOrder)
                 .orderByAsc(Category::getId)
         );
 
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,名称,父分类ID,层级,图标,描述,排序,状态,创建时间\n");
-
-        for (Category category : categories) {
-            csv.append(category.getId()).append(",")
-                .append(category.getName()).append(",")
-                .append(category.getParentId()).append(",")
-                .append(category.getLevel()).append(",")
-                .append(category.getIcon() != null ? category.getIcon() : "").append(",")
-                .append(category.getDescription() != null ? category.getDescription() : "").append(",")
-                .append(category.getSortOrder()).append(",")
-                .append(category.getStatus()).append(",")
-                .append(category.getCreateTime()).append("\n");
-        }
-
-        try {
-            String fileName = "categories_export_" + System.currentTimeMillis() + ".csv";
-            String filePath = System.getProperty("java.io.tmpdir") + File.separator + fileName;
-            File file = new File(filePath);
-            FileUtils.writeStringToFile(file, csv.toString(), StandardCharsets.UTF_8);
-
-            log.info("导出分类成功: filePath={}, count={}, size={} bytes",
-                filePath, categories.size(), csv.length());
-            return filePath;
+        try (CsvResponseWriter csv = CsvResponseWriter.open(response, "categories_export", gzip)) {
+            csv.writeRow("ID", "名称", "父分类ID", "层级", "图标", "描述", "排序", "状态", "创建时间");
+            for (Category category : categories) {
+                csv.writeRow(category.getId(), category.getName(), category.getParentId(),
+                    category.getLevel(), category.getIcon(), category.getDescription(),
+                    category.getSortOrder(), category.getStatus(), category.getCreateTime());
+            }
+            log.info("导出分类成功: count={}, gzip={}", categories.size(), gzip);
         } catch (IOException e) {
             log.error("导出分类失败: error={}", e.getMessage(), e);
-            throw new BusinessException("导出分类失败: " + e.getMessage());
+            throw new BusinessException(BizErrorCode.DATA_EXPORT_FAILED, e);
         }
     }
 }
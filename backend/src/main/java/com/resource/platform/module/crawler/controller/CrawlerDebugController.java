@@ -1,13 +1,13 @@
 package com.resource.platform.module.crawler.controller;
 
 import com.resource.platform.common.Result;
+import com.resource.platform.module.crawler.support.CrawlerHttpFetcher;
 import com.resource.platform.module.crawler.support.WebsiteStructure;
 import com.resource.platform.module.crawler.service.IntelligentParserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -34,6 +34,9 @@ public class CrawlerDebugController {
     @Autowired
     private IntelligentParserService intelligentParserService;
 
+    @Autowired
+    private CrawlerHttpFetcher httpFetcher;
+
     @Operation(summary = "分析网站结构", description = "分析指定网站的结构，用于调试爬虫配置")
     @PostMapping("/analyze")
     public Result<Map<String, Object>> analyzeWebsite(
@@ -43,14 +46,11 @@ public class CrawlerDebugController {
         try {
             log.info("开始分析网站结构: {}", url);
             
-            // 1. 分析网站结构
-            WebsiteStructure structure = intelligentParserService.analyzeWebsite(url);
+            // 1. 获取页面（只下载一次）
+            Document doc = httpFetcher.fetchDocument(url, null);
             
-            // 2. 获取页面详细信息
-            Document doc = Jsoup.connect(url)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .timeout(30000)
-                    .get();
+            // 2. 分析网站结构
+            WebsiteStructure structure = intelligentParserService.analyzeWebsite(url, doc);
             
             // 3. 提取资源链接
             List<String> resourceLinks = intelligentParserService.extractResourceLinks(doc, structure);
@@ -118,10 +118,7 @@ public class CrawlerDebugController {
         try {
             log.info("测试CSS选择器: url={}, selector={}", url, selector);
             
-            Document doc = Jsoup.connect(url)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .timeout(30000)
-                    .get();
+            Document doc = httpFetcher.fetchDocument(url, null);
             
             Elements elements = doc.select(selector);
             
@@ -0,0 +1,62 @@
+package com.resource.platform.module.crawler.convert;
+
+import com.resource.platform.module.crawler.entity.CrawlerLog;
+import com.resource.platform.module.crawler.entity.CrawlerTask;
+import com.resource.platform.module.crawler.vo.CrawlerLogVO;
+import com.resource.platform.module.crawler.vo.CrawlerTaskVO;
+
+/**
+ * 爬虫任务、执行日志实体与视图对象转换
+ *
+ * <p>任务中以 JSON 字符串保存的分类映射、自定义规则以及整数状态位由
+ * CrawlerTaskServiceImpl 负责转换，这里只复制类型一致的字段。
+ */
+public final class CrawlerConverter {
+
+    private CrawlerConverter() {
+    }
+
+    /**
+     * 爬虫任务实体转视图对象
+     */
+    public static CrawlerTaskVO toVO(CrawlerTask task) {
+        if (task == null) {
+            return null;
+        }
+        CrawlerTaskVO vo = new CrawlerTaskVO();
+        vo.setId(task.getId());
+        vo.setName(task.getName());
+        vo.setTargetUrl(task.getTargetUrl());
+        vo.setCrawlInterval(task.getCrawlInterval());
+        vo.setMaxDepth(task.getMaxDepth());
+        vo.setLastExecuteTime(task.getLastExecuteTime());
+        vo.setNextExecuteTime(task.getNextExecuteTime());
+        vo.setCreateTime(task.getCreateTime());
+        vo.setUpdateTime(task.getUpdateTime());
+        return vo;
+    }
+
+    /**
+     * 爬虫执行日志实体转视图对象（不含状态文本）
+     */
+    public static CrawlerLogVO toVO(CrawlerLog crawlerLog) {
+        if (crawlerLog == null) {
+            return null;
+        }
+        CrawlerLogVO vo = new CrawlerLogVO();
+        vo.setId(crawlerLog.getId());
+        vo.setTaskId(crawlerLog.getTaskId());
+        vo.setTaskName(crawlerLog.getTaskName());
+        vo.setExecuteType(crawlerLog.getExecuteType());
+        vo.setStatus(crawlerLog.getStatus());
+        vo.setCrawledCount(crawlerLog.getCrawledCount());
+        vo.setSuccessCount(crawlerLog.getSuccessCount());
+        vo.setFailedCount(crawlerLog.getFailedCount());
+        vo.setDuration(crawlerLog.getDuration());
+        vo.setErrorMessage(crawlerLog.getErrorMessage());
+        vo.setErrorType(crawlerLog.getErrorType());
+        vo.setStartTime(crawlerLog.getStartTime());
+        vo.setEndTime(crawlerLog.getEndTime());
+        return vo;
+    }
+}
@@ -0,0 +1,46 @@
+package com.resource.platform.module.crawler.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@TableName("crawler_checkpoint")
+public class CrawlerCheckpoint {
+    @TableId(type = IdType.INPUT)
+    private Long taskId;
+    
+    private String targetUrl;
+    
+    /**
+     * 待爬队列(JSON)
+     */
+    private String frontier;
+    
+    /**
+     * 已访问URL布隆过滤器（Guava BloomFilter.writeTo 序列化结果）
+     */
+    private byte[] visitedFilter;
+    
+    /**
+     * 以下计数为尚未计入任务累计统计的部分
+     */
+    private Integer crawledCount;
+    
+    private Integer successCount;
+    
+    private Integer failedCount;
+    
+    private Integer pageCount;
+    
+    /**
+     * 写入者的任务租约 fencing token
+     */
+    private Long leaseToken;
+    
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+    
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,38 @@
+package com.resource.platform.module.crawler.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@TableName("crawler_site_profile")
+public class CrawlerSiteProfile {
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    
+    private String domain;
+    
+    /**
+     * 页面结构(JSON)，对应 WebsiteStructure
+     */
+    private String structure;
+    
+    /**
+     * 状态: 0-已失效待重新学习, 1-有效
+     */
+    private Integer status;
+    
+    private Double baselineYield;
+    
+    private Double lastYield;
+    
+    private LocalDateTime learnTime;
+    
+    private LocalDateTime lastValidateTime;
+    
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+    
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
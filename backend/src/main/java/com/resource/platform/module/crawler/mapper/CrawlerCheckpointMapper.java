@@ -0,0 +1,46 @@
+package com.resource.platform.module.crawler.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.resource.platform.module.crawler.entity.CrawlerCheckpoint;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface CrawlerCheckpointMapper extends BaseMapper<CrawlerCheckpoint> {
+    
+    /**
+     * 保存断点（存在则覆盖）
+     * fencing：只有 lease_token 不小于已保存值的写入才生效，租约过期的旧节点无法覆盖新节点的断点。
+     * lease_token 必须最后更新，前面各列的判断才能读到旧值。
+     */
+    @Insert("INSERT INTO crawler_checkpoint (task_id, target_url, frontier, visited_filter, " +
+            "crawled_count, success_count, failed_count, page_count, lease_token, create_time, update_time) " +
+            "VALUES (#{taskId}, #{targetUrl}, #{frontier}, #{visitedFilter}, " +
+            "#{crawledCount}, #{successCount}, #{failedCount}, #{pageCount}, #{leaseToken}, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "target_url = IF(VALUES(lease_token) >= lease_token, VALUES(target_url), target_url), " +
+            "frontier = IF(VALUES(lease_token) >= lease_token, VALUES(frontier), frontier), " +
+            "visited_filter = IF(VALUES(lease_token) >= lease_token, VALUES(visited_filter), visited_filter), " +
+            "crawled_count = IF(VALUES(lease_token) >= lease_token, VALUES(crawled_count), crawled_count), " +
+            "success_count = IF(VALUES(lease_token) >= lease_token, VALUES(success_count), success_count), " +
+            "failed_count = IF(VALUES(lease_token) >= lease_token, VALUES(failed_count), failed_count), " +
+            "page_count = IF(VALUES(lease_token) >= lease_token, VALUES(page_count), page_count), " +
+            "update_time = IF(VALUES(lease_token) >= lease_token, NOW(), update_time), " +
+            "lease_token = GREATEST(lease_token, VALUES(lease_token))")
+    int upsert(CrawlerCheckpoint checkpoint);
+
+    /**
+     * 保存断点（存在则覆盖），不做 fencing 判断
+     * 供 Redis 不可用时的降级执行使用：此时没有有效 token，按 fencing 写入会被已保存的更大 token 全部拦截。
+     * 已保存的 lease_token 保持不变，Redis 恢复后持有新 token 的节点仍能正常覆盖。
+     */
+    @Insert("INSERT INTO crawler_checkpoint (task_id, target_url, frontier, visited_filter, " +
+            "crawled_count, success_count, failed_count, page_count, lease_token, create_time, update_time) " +
+            "VALUES (#{taskId}, #{targetUrl}, #{frontier}, #{visitedFilter}, " +
+            "#{crawledCount}, #{successCount}, #{failedCount}, #{pageCount}, #{leaseToken}, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "target_url = VALUES(target_url), frontier = VALUES(frontier), visited_filter = VALUES(visited_filter), " +
+            "crawled_count = VALUES(crawled_count), success_count = VALUES(success_count), " +
+            "failed_count = VALUES(failed_count), page_count = VALUES(page_count), update_time = NOW()")
+    int upsertUnfenced(CrawlerCheckpoint checkpoint);
+}
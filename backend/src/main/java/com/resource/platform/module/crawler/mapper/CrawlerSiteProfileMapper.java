@@ -0,0 +1,9 @@
+package com.resource.platform.module.crawler.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.resource.platform.module.crawler.entity.CrawlerSiteProfile;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface CrawlerSiteProfileMapper extends BaseMapper<CrawlerSiteProfile> {
+}
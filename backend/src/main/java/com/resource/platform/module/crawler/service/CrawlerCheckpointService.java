@@ -0,0 +1,25 @@
+package com.resource.platform.module.crawler.service;
+
+import com.resource.platform.module.crawler.support.CrawlCheckpoint;
+
+public interface CrawlerCheckpointService {
+    
+    /**
+     * 加载任务断点
+     * 断点不存在、已过期、目标URL已变更或数据损坏时返回 null（后两种情况会顺带删除断点）
+     */
+    CrawlCheckpoint load(Long taskId, String targetUrl);
+    
+    /**
+     * 保存任务断点（覆盖旧断点），失败只记录日志
+     *
+     * @param leaseToken 当前节点持有的任务租约 fencing token，小于已保存值的写入会被忽略；
+     *                   降级模式的 {@link com.resource.platform.module.crawler.support.CrawlerTaskLeaseManager#LOCAL_TOKEN} 不做判断直接覆盖
+     */
+    void save(Long taskId, String targetUrl, long leaseToken, CrawlCheckpoint checkpoint);
+    
+    /**
+     * 删除任务断点（爬取正常完成后调用）
+     */
+    void delete(Long taskId);
+}
@@ -13,6 +13,16 @@ public interface IntelligentParserService {
      */
     WebsiteStructure analyzeWebsite(String url);
     
+    /**
+     * 基于已下载的页面分析网站结构（不再重复下载）
+     */
+    WebsiteStructure analyzeWebsite(String url, Document doc);
+    
+    /**
+     * 校验已有的网站结构是否仍适用于页面（资源链接选择器至少命中一个站内链接）
+     */
+    boolean validateStructure(Document doc, WebsiteStructure structure);
+    
     /**
      * 提取资源列表链接
      */
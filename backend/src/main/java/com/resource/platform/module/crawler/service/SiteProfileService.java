@@ -0,0 +1,19 @@
+package com.resource.platform.module.crawler.service;
+
+import com.resource.platform.module.crawler.entity.CrawlerTask;
+import com.resource.platform.module.crawler.support.WebsiteStructure;
+import org.jsoup.nodes.Document;
+
+public interface SiteProfileService {
+    
+    /**
+     * 确定本次爬取使用的网站结构
+     * 优先级：自定义规则 > 仍然有效的站点档案 > 重新分析并学习
+     */
+    WebsiteStructure resolveStructure(CrawlerTask task, Document seedDoc);
+    
+    /**
+     * 记录本次爬取的列表页产出，产出明显下降时使档案失效，下次运行重新学习
+     */
+    void recordYield(WebsiteStructure structure, int listPageCount, int resourceLinkCount);
+}
@@ -0,0 +1,125 @@
+package com.resource.platform.module.crawler.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.resource.platform.module.crawler.entity.CrawlerCheckpoint;
+import com.resource.platform.module.crawler.mapper.CrawlerCheckpointMapper;
+import com.resource.platform.module.crawler.service.CrawlerCheckpointService;
+import com.resource.platform.module.crawler.support.CrawlCheckpoint;
+import com.resource.platform.module.crawler.support.CrawlerTaskLeaseManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 爬虫断点服务实现类
+ *
+ * <p>断点保存在 crawler_checkpoint 表中（每个任务一行），多节点部署时任意节点都能接着跑：
+ * 待爬队列以 JSON 保存，已访问过滤器使用 Guava BloomFilter 自带的紧凑二进制格式。
+ * 写入带任务租约的 fencing token，租约已被其他节点接管的旧执行者写不进来。
+ */
+@Slf4j
+@Service
+public class CrawlerCheckpointServiceImpl implements CrawlerCheckpointService {
+
+    private static final TypeReference<List<CrawlCheckpoint.FrontierEntry>> FRONTIER_TYPE =
+        new TypeReference<List<CrawlCheckpoint.FrontierEntry>>() {};
+
+    @Autowired
+    private CrawlerCheckpointMapper checkpointMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** 断点最长保留时间，超过后从头开始爬取 */
+    @Value("${crawler.checkpoint.max-age-hours:72}")
+    private long maxAgeHours;
+
+    @Override
+    public CrawlCheckpoint load(Long taskId, String targetUrl) {
+        CrawlerCheckpoint row = checkpointMapper.selectById(taskId);
+        if (row == null) {
+            return null;
+        }
+
+        if (!targetUrl.equals(row.getTargetUrl())) {
+            log.info("任务目标URL已变更，丢弃旧断点: taskId={}", taskId);
+            delete(taskId);
+            return null;
+        }
+        if (row.getUpdateTime() != null && row.getUpdateTime().isBefore(LocalDateTime.now().minusHours(maxAgeHours))) {
+            log.info("断点已过期，从头开始爬取: taskId={}, updateTime={}", taskId, row.getUpdateTime());
+            delete(taskId);
+            return null;
+        }
+
+        try {
+            CrawlCheckpoint checkpoint = new CrawlCheckpoint();
+            checkpoint.setFrontier(objectMapper.readValue(row.getFrontier(), FRONTIER_TYPE));
+            checkpoint.setVisitedUrls(BloomFilter.readFrom(
+                new ByteArrayInputStream(row.getVisitedFilter()), Funnels.stringFunnel(StandardCharsets.UTF_8)));
+            checkpoint.setCrawledCount(nullToZero(row.getCrawledCount()));
+            checkpoint.setSuccessCount(nullToZero(row.getSuccessCount()));
+            checkpoint.setFailedCount(nullToZero(row.getFailedCount()));
+            checkpoint.setPageCount(nullToZero(row.getPageCount()));
+            return checkpoint;
+        } catch (Exception e) {
+            log.error("断点数据损坏，丢弃: taskId={}", taskId, e);
+            delete(taskId);
+            return null;
+        }
+    }
+
+    @Override
+    public void save(Long taskId, String targetUrl, long leaseToken, CrawlCheckpoint checkpoint) {
+        try {
+            ByteArrayOutputStream filterBytes = new ByteArrayOutputStream();
+            checkpoint.getVisitedUrls().writeTo(filterBytes);
+
+            CrawlerCheckpoint row = new CrawlerCheckpoint();
+            row.setTaskId(taskId);
+            row.setTargetUrl(targetUrl);
+            row.setFrontier(objectMapper.writeValueAsString(checkpoint.getFrontier()));
+            row.setVisitedFilter(filterBytes.toByteArray());
+            row.setCrawledCount(checkpoint.getCrawledCount());
+            row.setSuccessCount(checkpoint.getSuccessCount());
+            row.setFailedCount(checkpoint.getFailedCount());
+            row.setPageCount(checkpoint.getPageCount());
+            row.setLeaseToken(leaseToken);
+            if (leaseToken == CrawlerTaskLeaseManager.LOCAL_TOKEN) {
+                // 降级模式没有有效 token，按 fencing 写入会被静默忽略
+                checkpointMapper.upsertUnfenced(row);
+            } else {
+                checkpointMapper.upsert(row);
+            }
+
+            log.debug("保存爬取断点: taskId={}, frontier={}, pages={}",
+                taskId, checkpoint.getFrontier().size(), checkpoint.getPageCount());
+        } catch (Exception e) {
+            // 断点只是优化，保存失败不影响本次爬取
+            log.error("保存爬取断点失败: taskId={}", taskId, e);
+        }
+    }
+
+    @Override
+    public void delete(Long taskId) {
+        try {
+            checkpointMapper.deleteById(taskId);
+        } catch (Exception e) {
+            log.error("删除爬取断点失败: taskId={}", taskId, e);
+        }
+    }
+
+    private static int nullToZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -15,18 +15,26 @@ import com.resource.platform.module.category.mapper.CategoryMapper;
 import com.resource.platform.module.resource.mapper.ResourceMapper;
 import com.resource.platform.module.crawler.service.CrawlerExecutionService;
 import com.resource.platform.module.crawler.service.IntelligentParserService;
+import com.resource.platform.module.crawler.service.CrawlerCheckpointService;
+import com.resource.platform.module.crawler.service.SiteProfileService;
 import com.resource.platform.module.image.service.ImageDownloadService;
 import com.resource.platform.module.resource.service.ResourceService;
 import com.resource.platform.module.crawler.support.CrawlerErrorHandler;
+import com.resource.platform.module.crawler.support.CompiledSelectors;
+import com.resource.platform.module.crawler.support.CrawlCheckpoint;
+import com.resource.platform.module.crawler.support.CrawlerTaskLeaseManager;
+import com.resource.platform.module.crawler.support.CrawlerHttpFetcher;
 import org.jsoup.nodes.Element;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.jsoup.select.Evaluator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -84,6 +92,29 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
     @Autowired
     private CrawlerErrorHandler errorHandler;
 
+    @Autowired
+    private CrawlerHttpFetcher httpFetcher;
+
+    @Autowired
+    private SiteProfileService siteProfileService;
+
+    @Autowired
+    private CrawlerCheckpointService checkpointService;
+
+    @Autowired
+    private CrawlerTaskLeaseManager leaseManager;
+
+    @Value("${crawler.checkpoint.enabled:true}")
+    private boolean checkpointEnabled;
+
+    /** 每处理多少个列表页保存一次断点 */
+    @Value("${crawler.checkpoint.interval-pages:5}")
+    private int checkpointIntervalPages;
+
+    /** 距上次保存超过该时长也保存一次断点 */
+    @Value("${crawler.checkpoint.interval-ms:60000}")
+    private long checkpointIntervalMs;
+
     // ✅ 注入独立的爬虫线程池（与业务线程池隔离，防止爬虫任务影响API响应）
     @Autowired
     @Qualifier("crawlerExecutor")
@@ -94,8 +125,10 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
     private static final double BLOOM_FILTER_FPP = 0.01;
     private static final long REQUEST_INTERVAL_MS = 1000L;
     private static final long SYSTEM_USER_ID = 1L;
+    private static final Evaluator DEFAULT_PAGINATION_LINKS = CompiledSelectors.get(
+            "a[href*='page'], a[href*='p='], a[href*='paged='], .pagination a[href], .pager a[href], .page-numbers[href]");
 
-    // 记录正在执行的任务ID集合
+    // 记录本节点正在执行的任务ID集合（集群范围的互斥由 CrawlerTaskLeaseManager 的租约保证）
     private final Set<Long> runningTasks = ConcurrentHashMap.newKeySet();
 
     // 任务停止标记，用于优雅停止任务（使用AtomicBoolean保证原子读写）
@@ -149,7 +182,8 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
      */
     @Override
     public Boolean isTaskRunning(Long taskId) {
-        boolean running = runningTasks.contains(taskId);
+        // 本节点正在执行，或集群中其他节点持有该任务的租约
+        boolean running = runningTasks.contains(taskId) || leaseManager.isHeldAnywhere(taskId);
         log.debug("检查任务执行状态: taskId={}, running={}", taskId, running);
         return running;
     }
@@ -177,8 +211,13 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
         }
         
         // 步骤2：设置停止标记
-        // 通过标记位实现优雅停止，避免强制中断
-        stopFlags.put(taskId, new AtomicBoolean(true));
+        // 通过标记位实现优雅停止，避免强制中断；
+        // 同时发出集群停止信号，任务在其他节点执行时由持有租约的节点在心跳中感知
+        AtomicBoolean stopFlag = stopFlags.get(taskId);
+        if (stopFlag != null) {
+            stopFlag.set(true);
+        }
+        leaseManager.requestStop(taskId);
         
         // 记录停止信号发送成功
         log.info("已发送停止信号: taskId={}", taskId);
@@ -209,9 +248,17 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
      * 执行爬虫任务的核心逻辑
      */
     private void executeTask(Long taskId, Integer executeType) {
+        // 获取任务租约，保证同一任务在集群中只有一个节点执行
+        AtomicBoolean stopFlag = new AtomicBoolean(false);
+        CrawlerTaskLeaseManager.Lease lease = leaseManager.tryAcquire(taskId, stopFlag);
+        if (lease == null) {
+            log.warn("任务已在其他节点执行，跳过本次触发: taskId={}", taskId);
+            return;
+        }
+
         // 标记任务开始执行
         runningTasks.add(taskId);
-        stopFlags.put(taskId, new AtomicBoolean(false));
+        stopFlags.put(taskId, stopFlag);
 
         LocalDateTime startTime = LocalDateTime.now();
         CrawlerLog crawlerLog = new CrawlerLog();
@@ -239,38 +286,89 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
             Integer safeCrawlInterval = task.getCrawlInterval() != null && task.getCrawlInterval() > 0
                     ? task.getCrawlInterval() : null;
 
+            // 本次任务的页面缓存：入口页在分析结构时下载一次，后续爬取直接复用
+            CrawlerHttpFetcher.PageCache pageCache = httpFetcher.newPageCache();
+
             // 步骤1: 分析网站结构
             log.info("步骤1: 分析网站结构 - {}", task.getTargetUrl());
-            WebsiteStructure structure = intelligentParserService.analyzeWebsite(task.getTargetUrl());
+            WebsiteStructure structure;
+            try {
+                Document seedDoc = httpFetcher.fetchDocument(task.getTargetUrl(), pageCache);
+                // 优先使用自定义规则或已学习的站点档案，只有档案缺失/失效时才完整分析
+                structure = siteProfileService.resolveStructure(task, seedDoc);
+            } catch (IOException e) {
+                log.error("网站结构分析失败: {}", task.getTargetUrl(), e);
+                structure = new WebsiteStructure();
+                structure.setIdentified(false);
+            }
             
-            // 步骤2: 初始化爬取队列和去重过滤器
+            // 步骤2: 初始化爬取队列和去重过滤器（有断点时从断点恢复）
             log.info("步骤2: 初始化爬取队列");
-            BloomFilter<String> visitedUrls = BloomFilter.create(
-                    Funnels.stringFunnel(StandardCharsets.UTF_8), 
-                    10000, 
-                    0.01
-            );
-            
-            // 使用队列存储URL及其深度
-            Queue<UrlDepthPair> urlQueue = new LinkedList<>();
-            urlQueue.offer(new UrlDepthPair(task.getTargetUrl(), 0));
-            visitedUrls.put(task.getTargetUrl());
+            // 使用双端队列存储URL及其深度，中断的页面可以放回队首
+            Deque<UrlDepthPair> urlQueue = new ArrayDeque<>();
+            BloomFilter<String> visitedUrls;
+            // 上次中断时尚未计入任务统计的计数
+            int restoredCrawled = 0;
+            int restoredSuccess = 0;
+            int restoredFailed = 0;
+            int restoredPages = 0;
+
+            CrawlCheckpoint checkpoint = checkpointEnabled
+                    ? checkpointService.load(taskId, task.getTargetUrl()) : null;
+            if (checkpoint != null) {
+                visitedUrls = checkpoint.getVisitedUrls();
+                for (CrawlCheckpoint.FrontierEntry entry : checkpoint.getFrontier()) {
+                    urlQueue.offer(new UrlDepthPair(entry.getUrl(), entry.getDepth()));
+                }
+                restoredCrawled = checkpoint.getCrawledCount();
+                restoredSuccess = checkpoint.getSuccessCount();
+                restoredFailed = checkpoint.getFailedCount();
+                restoredPages = checkpoint.getPageCount();
+                log.info("从断点继续爬取: taskId={}, frontier={}, processedPages={}",
+                        taskId, urlQueue.size(), restoredPages);
+            } else {
+                visitedUrls = BloomFilter.create(
+                        Funnels.stringFunnel(StandardCharsets.UTF_8), 
+                        BLOOM_FILTER_CAPACITY, 
+                        BLOOM_FILTER_FPP
+                );
+                urlQueue.offer(new UrlDepthPair(task.getTargetUrl(), 0));
+                visitedUrls.put(task.getTargetUrl());
+            }
             
             int crawledCount = 0;
             int successCount = 0;
             int failedCount = 0;
+            // 列表页产出统计，用于判断站点档案是否需要重新学习
+            int listPageCount = 0;
+            int resourceLinkCount = 0;
+            boolean stopped = false;
+            int pagesSinceCheckpoint = 0;
+            long lastCheckpointAt = System.currentTimeMillis();
 
             // 步骤3: 爬取资源列表页和详情页
             log.info("步骤3: 开始爬取流程，最大深度={}", safeMaxDepth);
             while (!urlQueue.isEmpty()) {
                 // 检查停止标记
-                if (stopFlags.get(taskId) != null && stopFlags.get(taskId).get()) {
+                if (isStopRequested(taskId)) {
                     log.info("任务被手动停止: taskId={}", taskId);
                     crawlerLog.setStatus(3); // 失败
-                    crawlerLog.setErrorMessage("任务被手动停止");
+                    crawlerLog.setErrorMessage(checkpointEnabled ? "任务被手动停止，下次执行将从断点继续" : "任务被手动停止");
+                    stopped = true;
                     break;
                 }
 
+                // 定期保存断点（页面处理完之后、取下一个页面之前，队列即为剩余工作）
+                if (checkpointEnabled && pagesSinceCheckpoint > 0
+                        && (pagesSinceCheckpoint >= checkpointIntervalPages
+                            || System.currentTimeMillis() - lastCheckpointAt >= checkpointIntervalMs)) {
+                    checkpointService.save(taskId, task.getTargetUrl(), lease.getToken(), buildCheckpoint(urlQueue, visitedUrls,
+                            restoredCrawled + crawledCount, restoredSuccess + successCount,
+                            restoredFailed + failedCount, restoredPages + listPageCount));
+                    pagesSinceCheckpoint = 0;
+                    lastCheckpointAt = System.currentTimeMillis();
+                }
+
                 UrlDepthPair current = urlQueue.poll();
                 String url = current.url;
                 int depth = current.depth;
@@ -300,19 +398,20 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
                     // SSRF 防护检查
                     if (isInternalUrl(url)) continue;
 
-                    // 下载页面
-                    Document doc = Jsoup.connect(url)
-                            .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-                            .timeout(30000)
-                            .get();
+                    // 下载页面（命中本次任务缓存时不再请求）
+                    Document doc = httpFetcher.fetchDocument(url, pageCache);
 
                     // 步骤3.1: 提取资源链接
                     List<String> resourceLinks = intelligentParserService.extractResourceLinks(doc, structure);
                     log.info("从 {} 提取到 {} 个资源链接", url, resourceLinks.size());
+                    listPageCount++;
+                    resourceLinkCount += resourceLinks.size();
                     
                     // 步骤3.2: 爬取每个资源详情页
+                    boolean interrupted = false;
                     for (String resourceLink : resourceLinks) {
-                        if (stopFlags.get(taskId) != null && stopFlags.get(taskId).get()) {
+                        if (isStopRequested(taskId)) {
+                            interrupted = true;
                             break;
                         }
 
@@ -336,10 +435,7 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
                             if (isInternalUrl(resourceLink)) continue;
 
                             // 爬取资源详情
-                            Document detailDoc = Jsoup.connect(resourceLink)
-                                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-                                    .timeout(30000)
-                                    .get();
+                            Document detailDoc = httpFetcher.fetchDocument(resourceLink, pageCache);
 
                             // 步骤3.3: 提取资源详情
                             ResourceData resourceData = intelligentParserService.extractResourceDetail(detailDoc, structure);
@@ -367,6 +463,12 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
                         Thread.sleep(REQUEST_INTERVAL_MS);
                     }
 
+                    if (interrupted) {
+                        // 页面只处理了一部分：放回队首，断点恢复后重新处理（已处理的详情页会被过滤器跳过）
+                        urlQueue.addFirst(current);
+                        continue;
+                    }
+
                     // 步骤3.6: 提取分页链接（只在当前深度未达到最大深度时）
                     if (depth + 1 < safeMaxDepth) {
                         List<String> paginationLinks = extractPaginationLinks(doc, structure);
@@ -384,17 +486,21 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
                     log.error("爬取页面失败: url={}, depth={}", url, depth, e);
                 }
 
+                pagesSinceCheckpoint++;
+
                 // 限速：每个页面间隔
                 Thread.sleep(REQUEST_INTERVAL_MS);
             }
 
-            // 更新任务统计
+            siteProfileService.recordYield(structure, listPageCount, resourceLinkCount);
+
+            // 更新任务统计（包含上次中断时尚未计入的部分）
             int currentTotalCrawled = task.getTotalCrawled() == null ? 0 : task.getTotalCrawled();
             int currentTotalSuccess = task.getTotalSuccess() == null ? 0 : task.getTotalSuccess();
             int currentTotalFailed = task.getTotalFailed() == null ? 0 : task.getTotalFailed();
-            task.setTotalCrawled(currentTotalCrawled + crawledCount);
-            task.setTotalSuccess(currentTotalSuccess + successCount);
-            task.setTotalFailed(currentTotalFailed + failedCount);
+            task.setTotalCrawled(currentTotalCrawled + restoredCrawled + crawledCount);
+            task.setTotalSuccess(currentTotalSuccess + restoredSuccess + successCount);
+            task.setTotalFailed(currentTotalFailed + restoredFailed + failedCount);
             task.setLastExecuteTime(startTime);
             
             // 计算下次执行时间
@@ -402,10 +508,26 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
                 task.setNextExecuteTime(LocalDateTime.now().plusHours(safeCrawlInterval));
             }
             
+            // 租约已被其他节点接管时放弃写回，避免两个执行者重复累计统计
+            if (!leaseManager.isOwner(lease)) {
+                throw new BusinessException("任务租约已失效，放弃写回执行结果");
+            }
             updateTaskOrThrow(task);
 
+            // 手动停止时保留断点（计数已计入任务统计，断点中清零），正常完成时删除断点
+            if (checkpointEnabled) {
+                if (stopped) {
+                    checkpointService.save(taskId, task.getTargetUrl(), lease.getToken(), buildCheckpoint(urlQueue, visitedUrls,
+                            0, 0, 0, restoredPages + listPageCount));
+                } else {
+                    checkpointService.delete(taskId);
+                }
+            }
+
             // 更新日志
-            crawlerLog.setStatus(2); // 成功
+            if (!stopped) {
+                crawlerLog.setStatus(2); // 成功
+            }
             crawlerLog.setCrawledCount(crawledCount);
             crawlerLog.setSuccessCount(successCount);
             crawlerLog.setFailedCount(failedCount);
@@ -432,7 +554,27 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
             // 清理标记
             runningTasks.remove(taskId);
             stopFlags.remove(taskId);
+            leaseManager.release(lease);
+        }
+    }
+
+    private boolean isStopRequested(Long taskId) {
+        AtomicBoolean stopFlag = stopFlags.get(taskId);
+        return stopFlag != null && stopFlag.get();
+    }
+
+    private CrawlCheckpoint buildCheckpoint(Deque<UrlDepthPair> urlQueue, BloomFilter<String> visitedUrls,
+                                            int crawledCount, int successCount, int failedCount, int pageCount) {
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint();
+        for (UrlDepthPair pair : urlQueue) {
+            checkpoint.getFrontier().add(new CrawlCheckpoint.FrontierEntry(pair.url, pair.depth));
         }
+        checkpoint.setVisitedUrls(visitedUrls);
+        checkpoint.setCrawledCount(crawledCount);
+        checkpoint.setSuccessCount(successCount);
+        checkpoint.setFailedCount(failedCount);
+        checkpoint.setPageCount(pageCount);
+        return checkpoint;
     }
 
     /**
@@ -657,10 +799,10 @@ public class CrawlerExecutionServiceImpl implements CrawlerExecutionService {
 
         org.jsoup.select.Elements paginationElements = new org.jsoup.select.Elements();
         if (org.springframework.util.StringUtils.hasText(selector)) {
-            paginationElements.addAll(doc.select(selector));
+            paginationElements.addAll(doc.select(CompiledSelectors.get(selector)));
         }
         if (paginationElements.isEmpty()) {
-            paginationElements.addAll(doc.select("a[href*='page'], a[href*='p='], a[href*='paged='], .pagination a[href], .pager a[href], .page-numbers[href]"));
+            paginationElements.addAll(doc.select(DEFAULT_PAGINATION_LINKS));
         }
 
         for (Element element : paginationElements) {
@@ -4,13 +4,13 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.resource.platform.common.PageResult;
 import com.resource.platform.exception.BusinessException;
+import com.resource.platform.module.crawler.convert.CrawlerConverter;
 import com.resource.platform.module.crawler.dto.CrawlerLogQueryDTO;
 import com.resource.platform.module.crawler.entity.CrawlerLog;
 import com.resource.platform.module.crawler.mapper.CrawlerLogMapper;
 import com.resource.platform.module.crawler.service.CrawlerLogService;
 import com.resource.platform.module.crawler.vo.CrawlerLogVO;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -86,8 +86,7 @@ public class CrawlerLogServiceImpl implements CrawlerLogService {
      * 转换为VO
      */
     private CrawlerLogVO convertToVO(CrawlerLog log) {
-        CrawlerLogVO vo = new CrawlerLogVO();
-        BeanUtils.copyProperties(log, vo);
+        CrawlerLogVO vo = CrawlerConverter.toVO(log);
         
         // 设置执行类型文本
         if (log.getExecuteType() != null) {
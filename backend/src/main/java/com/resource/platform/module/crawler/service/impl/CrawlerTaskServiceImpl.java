@@ -9,6 +9,7 @@ import com.resource.platform.common.PageResult;
 import com.resource.platform.common.BizErrorCode;
 import com.resource.platform.exception.BusinessException;
 import com.resource.platform.module.category.dto.CategoryMappingItem;
+import com.resource.platform.module.crawler.convert.CrawlerConverter;
 import com.resource.platform.module.crawler.dto.CrawlerTaskDTO;
 import com.resource.platform.module.crawler.dto.CrawlerTaskQueryDTO;
 import com.resource.platform.module.crawler.dto.CustomRules;
@@ -26,7 +27,6 @@ import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.HttpStatus;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -305,8 +305,7 @@ public class CrawlerTaskServiceImpl implements CrawlerTaskService {
      * 转换实体为VO
      */
     private CrawlerTaskVO convertToVO(CrawlerTask task) {
-        CrawlerTaskVO vo = new CrawlerTaskVO();
-        BeanUtils.copyProperties(task, vo);
+        CrawlerTaskVO vo = CrawlerConverter.toVO(task);
         
         // 转换智能模式：整数转布尔值
         vo.setIntelligentMode(Integer.valueOf(1).equals(task.getIntelligentMode()));
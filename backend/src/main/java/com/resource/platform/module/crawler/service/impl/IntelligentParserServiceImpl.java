@@ -1,13 +1,16 @@
 package com.resource.platform.module.crawler.service.impl;
 
+import com.resource.platform.module.crawler.support.CompiledSelectors;
+import com.resource.platform.module.crawler.support.CrawlerHttpFetcher;
 import com.resource.platform.module.crawler.support.ResourceData;
 import com.resource.platform.module.crawler.support.WebsiteStructure;
 import com.resource.platform.module.crawler.service.IntelligentParserService;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -20,8 +23,12 @@ import java.util.stream.Collectors;
 @Service
 public class IntelligentParserServiceImpl implements IntelligentParserService {
     
-    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
-    private static final int TIMEOUT = 30000;
+    @Autowired
+    private CrawlerHttpFetcher httpFetcher;
+    
+    // 选择器统一通过 CompiledSelectors 预编译复用，避免每个页面重复解析选择器字符串
+    private static final Evaluator ANY_LINK = CompiledSelectors.get("a[href]");
+    private static final Evaluator PARAGRAPH = CompiledSelectors.get("p");
     
     // 常见资源链接模式 - 按优先级排序
     private static final String[] RESOURCE_LINK_PATTERNS = {
@@ -115,156 +122,178 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
     
     @Override
     public WebsiteStructure analyzeWebsite(String url) {
+        try {
+            log.info("开始下载待分析页面: {}", url);
+            return analyzeWebsite(url, httpFetcher.fetchDocument(url, null));
+        } catch (IOException e) {
+            log.error("网站结构分析失败: {}", url, e);
+            WebsiteStructure structure = new WebsiteStructure();
+            structure.setIdentified(false);
+            return structure;
+        }
+    }
+    
+    @Override
+    public WebsiteStructure analyzeWebsite(String url, Document doc) {
         WebsiteStructure structure = new WebsiteStructure();
         
-        try {
-            log.info("开始分析网站结构: {}", url);
-            Document doc = Jsoup.connect(url)
-                    .userAgent(USER_AGENT)
-                    .timeout(TIMEOUT)
-                    .get();
-            
-            log.info("页面标题: {}", doc.title());
-            log.info("页面链接总数: {}", doc.select("a[href]").size());
+        log.info("开始分析网站结构: {}", url);
+        log.info("页面标题: {}", doc.title());
+        log.info("页面链接总数: {}", doc.select(ANY_LINK).size());
+        
+        // 尝试识别资源链接模式
+        String baseUrl = url.replaceAll("(https?://[^/]+).*", "$1");
+        String domain = url.replaceAll("https?://([^/]+).*", "$1");
+        
+        log.info("分析网站: baseUrl={}, domain={}", baseUrl, domain);
+        
+        for (String pattern : RESOURCE_LINK_PATTERNS) {
+            Elements links = doc.select(CompiledSelectors.get(pattern));
+            log.debug("测试选择器: {}, 原始匹配数: {}", pattern, links.size());
             
-            // 尝试识别资源链接模式
-            String baseUrl = url.replaceAll("(https?://[^/]+).*", "$1");
-            String domain = url.replaceAll("https?://([^/]+).*", "$1");
+            // 过滤出有效的站内链接
+            long internalLinks = links.stream()
+                .filter(link -> {
+                    String href = link.absUrl("href");
+                    boolean isValid = href.startsWith(baseUrl) && 
+                                     !href.equals(url) && 
+                                     !href.contains("#") &&
+                                     !href.contains("javascript:") &&
+                                     !href.contains("mailto:") &&
+                                     href.length() > baseUrl.length() + 5; // 确保不是根路径
+                    
+                    if (isValid) {
+                        log.debug("有效链接: {} -> {}", link.text().trim(), href);
+                    }
+                    return isValid;
+                })
+                .count();
             
-            log.info("分析网站: baseUrl={}, domain={}", baseUrl, domain);
+            log.info("选择器 {} 匹配到 {} 个有效站内链接", pattern, internalLinks);
             
-            for (String pattern : RESOURCE_LINK_PATTERNS) {
-                Elements links = doc.select(pattern);
-                log.debug("测试选择器: {}, 原始匹配数: {}", pattern, links.size());
-                
-                // 过滤出有效的站内链接
-                long internalLinks = links.stream()
-                    .filter(link -> {
-                        String href = link.absUrl("href");
-                        boolean isValid = href.startsWith(baseUrl) && 
-                                         !href.equals(url) && 
-                                         !href.contains("#") &&
-                                         !href.contains("javascript:") &&
-                                         !href.contains("mailto:") &&
-                                         href.length() > baseUrl.length() + 5; // 确保不是根路径
-                        
-                        if (isValid) {
-                            log.debug("有效链接: {} -> {}", link.text().trim(), href);
-                        }
-                        return isValid;
-                    })
-                    .count();
-                
-                log.info("选择器 {} 匹配到 {} 个有效站内链接", pattern, internalLinks);
-                
-                if (internalLinks >= 1) { // 降低阈值，只要找到1个就认为有效
-                    structure.setDetailLinkSelector(pattern);
-                    log.info("选择资源链接选择器: {}, 匹配数量: {}", pattern, internalLinks);
-                    break;
-                }
+            if (internalLinks >= 1) { // 降低阈值，只要找到1个就认为有效
+                structure.setDetailLinkSelector(pattern);
+                log.info("选择资源链接选择器: {}, 匹配数量: {}", pattern, internalLinks);
+                break;
             }
+        }
+        
+        // 如果仍然没有找到，使用更宽松的策略
+        if (!StringUtils.hasText(structure.getDetailLinkSelector())) {
+            log.info("使用宽松策略分析所有链接");
+            Elements allLinks = doc.select(ANY_LINK);
+            List<String> candidateLinks = new ArrayList<>();
             
-            // 如果仍然没有找到，使用更宽松的策略
-            if (!StringUtils.hasText(structure.getDetailLinkSelector())) {
-                log.info("使用宽松策略分析所有链接");
-                Elements allLinks = doc.select("a[href]");
-                List<String> candidateLinks = new ArrayList<>();
+            for (Element link : allLinks) {
+                String href = link.absUrl("href");
+                String linkText = link.text().trim();
                 
-                for (Element link : allLinks) {
-                    String href = link.absUrl("href");
-                    String linkText = link.text().trim();
+                // 更宽松的过滤条件
+                if (href.startsWith(baseUrl) && 
+                    !href.equals(url) && 
+                    !href.contains("#") &&
+                    !href.contains("javascript:") &&
+                    !href.contains("mailto:") &&
+                    href.length() > baseUrl.length() + 3) {
                     
-                    // 更宽松的过滤条件
-                    if (href.startsWith(baseUrl) && 
-                        !href.equals(url) && 
-                        !href.contains("#") &&
-                        !href.contains("javascript:") &&
-                        !href.contains("mailto:") &&
-                        href.length() > baseUrl.length() + 3) {
-                        
-                        // 优先选择看起来像资源页面的链接
-                        if (href.matches(".*\\d+\\.html$") || // 数字.html
-                            href.contains("/detail/") ||
-                            href.contains("/resource/") ||
-                            href.contains("/download/") ||
-                            href.contains("/item/") ||
-                            href.contains("/post/") ||
-                            (linkText.length() > 5 && !linkText.matches("^(首页|关于|联系|帮助|更多).*"))) {
-                            candidateLinks.add(href);
-                            log.debug("候选链接: {} -> {}", linkText, href);
-                        }
+                    // 优先选择看起来像资源页面的链接
+                    if (href.matches(".*\\d+\\.html$") || // 数字.html
+                        href.contains("/detail/") ||
+                        href.contains("/resource/") ||
+                        href.contains("/download/") ||
+                        href.contains("/item/") ||
+                        href.contains("/post/") ||
+                        (linkText.length() > 5 && !linkText.matches("^(首页|关于|联系|帮助|更多).*"))) {
+                        candidateLinks.add(href);
+                        log.debug("候选链接: {} -> {}", linkText, href);
                     }
                 }
-                
-                if (!candidateLinks.isEmpty()) {
-                    structure.setDetailLinkSelector("a[href]");
-                    log.info("使用通用链接选择器，找到 {} 个候选链接", candidateLinks.size());
-                } else {
-                    log.warn("未找到任何有效的资源链接");
-                }
             }
             
-            // 尝试识别标题选择器
-            for (String selector : TITLE_SELECTORS) {
-                Elements elements = doc.select(selector);
-                if (!elements.isEmpty()) {
-                    structure.setTitleSelector(selector);
-                    break;
-                }
+            if (!candidateLinks.isEmpty()) {
+                structure.setDetailLinkSelector("a[href]");
+                log.info("使用通用链接选择器，找到 {} 个候选链接", candidateLinks.size());
+            } else {
+                log.warn("未找到任何有效的资源链接");
             }
-            
-            // 尝试识别描述选择器
-            for (String selector : DESCRIPTION_SELECTORS) {
-                Elements elements = doc.select(selector);
-                if (!elements.isEmpty()) {
-                    structure.setDescriptionSelector(selector);
-                    break;
-                }
+        }
+        
+        // 尝试识别标题选择器
+        for (String selector : TITLE_SELECTORS) {
+            Elements elements = doc.select(CompiledSelectors.get(selector));
+            if (!elements.isEmpty()) {
+                structure.setTitleSelector(selector);
+                break;
             }
-            
-            // 尝试识别下载链接选择器
-            for (String selector : DOWNLOAD_LINK_SELECTORS) {
-                Elements elements = doc.select(selector);
-                if (!elements.isEmpty()) {
-                    structure.setDownloadLinkSelector(selector);
-                    break;
-                }
+        }
+        
+        // 尝试识别描述选择器
+        for (String selector : DESCRIPTION_SELECTORS) {
+            Elements elements = doc.select(CompiledSelectors.get(selector));
+            if (!elements.isEmpty()) {
+                structure.setDescriptionSelector(selector);
+                break;
             }
-            
-            // 尝试识别图片选择器
-            for (String selector : IMAGE_SELECTORS) {
-                Elements elements = doc.select(selector);
-                if (!elements.isEmpty()) {
-                    structure.setImageSelector(selector);
-                    break;
-                }
+        }
+        
+        // 尝试识别下载链接选择器
+        for (String selector : DOWNLOAD_LINK_SELECTORS) {
+            Elements elements = doc.select(CompiledSelectors.get(selector));
+            if (!elements.isEmpty()) {
+                structure.setDownloadLinkSelector(selector);
+                break;
             }
-            
-            // 尝试识别分页选择器
-            for (String selector : PAGINATION_SELECTORS) {
-                Elements elements = doc.select(selector);
-                if (!elements.isEmpty()) {
-                    structure.setPaginationSelector(selector);
-                    break;
-                }
+        }
+        
+        // 尝试识别图片选择器
+        for (String selector : IMAGE_SELECTORS) {
+            Elements elements = doc.select(CompiledSelectors.get(selector));
+            if (!elements.isEmpty()) {
+                structure.setImageSelector(selector);
+                break;
+            }
+        }
+        
+        // 尝试识别分页选择器
+        for (String selector : PAGINATION_SELECTORS) {
+            Elements elements = doc.select(CompiledSelectors.get(selector));
+            if (!elements.isEmpty()) {
+                structure.setPaginationSelector(selector);
+                break;
             }
-            
-            // 判断是否识别成功
-            structure.setIdentified(
-                StringUtils.hasText(structure.getDetailLinkSelector()) &&
-                StringUtils.hasText(structure.getTitleSelector())
-            );
-            
-            log.info("网站结构分析完成: {}, 识别状态: {}", url, structure.isIdentified());
-            
-        } catch (IOException e) {
-            log.error("网站结构分析失败: {}", url, e);
-            structure.setIdentified(false);
         }
         
+        // 判断是否识别成功
+        structure.setIdentified(
+            StringUtils.hasText(structure.getDetailLinkSelector()) &&
+            StringUtils.hasText(structure.getTitleSelector())
+        );
+        
+        log.info("网站结构分析完成: {}, 识别状态: {}", url, structure.isIdentified());
+        
         return structure;
     }
     
+    @Override
+    public boolean validateStructure(Document doc, WebsiteStructure structure) {
+        String selector = structure.getDetailLinkSelector();
+        if (!StringUtils.hasText(selector)) {
+            return false;
+        }
+        
+        String baseUrl = doc.baseUri().replaceAll("(https?://[^/]+).*", "$1");
+        for (Element link : doc.select(CompiledSelectors.get(selector))) {
+            String href = link.absUrl("href");
+            if (href.startsWith(baseUrl) && 
+                !href.equals(doc.baseUri()) && 
+                !href.contains("#") &&
+                !href.contains("javascript:")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     @Override
     public List<String> extractResourceLinks(Document doc, WebsiteStructure structure) {
         List<String> links = new ArrayList<>();
@@ -282,7 +311,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
         }
         
         log.info("使用选择器提取链接: {}", selector);
-        Elements elements = doc.select(selector);
+        Elements elements = doc.select(CompiledSelectors.get(selector));
         log.info("选择器匹配到 {} 个元素", elements.size());
         
         for (Element element : elements) {
@@ -350,7 +379,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
      */
     private List<String> extractLinksWithRelaxedRules(Document doc, String baseUrl) {
         List<String> links = new ArrayList<>();
-        Elements allLinks = doc.select("a[href]");
+        Elements allLinks = doc.select(ANY_LINK);
         
         for (Element link : allLinks) {
             String href = link.absUrl("href");
@@ -421,7 +450,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
             selector = "img";
         }
         
-        Elements images = doc.select(selector);
+        Elements images = doc.select(CompiledSelectors.get(selector));
         for (Element img : images) {
             String src = img.absUrl("src");
             if (StringUtils.hasText(src) && isValidImageUrl(src)) {
@@ -440,7 +469,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
         if (!StringUtils.hasText(selector)) {
             // 使用所有下载链接选择器
             for (String s : DOWNLOAD_LINK_SELECTORS) {
-                Elements links = doc.select(s);
+                Elements links = doc.select(CompiledSelectors.get(s));
                 for (Element link : links) {
                     String href = link.absUrl("href");
                     if (StringUtils.hasText(href) && !downloadLinks.contains(href)) {
@@ -449,7 +478,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
                 }
             }
         } else {
-            Elements links = doc.select(selector);
+            Elements links = doc.select(CompiledSelectors.get(selector));
             for (Element link : links) {
                 String href = link.absUrl("href");
                 if (StringUtils.hasText(href) && !downloadLinks.contains(href)) {
@@ -468,7 +497,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
         String selector = structure.getTitleSelector();
         
         if (StringUtils.hasText(selector)) {
-            Element element = doc.selectFirst(selector);
+            Element element = doc.selectFirst(CompiledSelectors.get(selector));
             if (element != null) {
                 // 如果是meta标签，获取content属性
                 if (element.tagName().equals("meta")) {
@@ -487,7 +516,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
         
         // 回退到默认选择器
         for (String s : TITLE_SELECTORS) {
-            Element element = doc.selectFirst(s);
+            Element element = doc.selectFirst(CompiledSelectors.get(s));
             if (element != null) {
                 if (element.tagName().equals("meta")) {
                     String content = element.attr("content");
@@ -546,7 +575,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
         String selector = structure.getDescriptionSelector();
         
         if (StringUtils.hasText(selector)) {
-            Element element = doc.selectFirst(selector);
+            Element element = doc.selectFirst(CompiledSelectors.get(selector));
             if (element != null) {
                 if (element.tagName().equals("meta")) {
                     String content = element.attr("content");
@@ -564,7 +593,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
         
         // 回退到默认选择器
         for (String s : DESCRIPTION_SELECTORS) {
-            Element element = doc.selectFirst(s);
+            Element element = doc.selectFirst(CompiledSelectors.get(s));
             if (element != null) {
                 if (element.tagName().equals("meta")) {
                     String content = element.attr("content");
@@ -581,7 +610,7 @@ public class IntelligentParserServiceImpl implements IntelligentParserService {
         }
         
         // 尝试提取页面中的段落文本作为描述
-        Elements paragraphs = doc.select("p");
+        Elements paragraphs = doc.select(PARAGRAPH);
         for (Element p : paragraphs) {
             String text = p.text();
             if (StringUtils.hasText(text) && text.length() > 50 && text.length() < 1000) {
@@ -0,0 +1,271 @@
+package com.resource.platform.module.crawler.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resource.platform.module.crawler.dto.CustomRules;
+import com.resource.platform.module.crawler.entity.CrawlerSiteProfile;
+import com.resource.platform.module.crawler.entity.CrawlerTask;
+import com.resource.platform.module.crawler.mapper.CrawlerSiteProfileMapper;
+import com.resource.platform.module.crawler.service.IntelligentParserService;
+import com.resource.platform.module.crawler.service.SiteProfileService;
+import com.resource.platform.module.crawler.support.CompiledSelectors;
+import com.resource.platform.module.crawler.support.WebsiteStructure;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * 站点结构档案服务实现类
+ *
+ * <p>网站结构按域名学习一次后持久化到 crawler_site_profile：
+ * 后续运行只用入口页做一次廉价校验（资源链接选择器仍能命中站内链接），
+ * 不再逐个探测全部候选选择器；当某次运行的列表页平均资源链接数跌破
+ * 首轮基线的一定比例时，把档案标记为失效，下次运行重新学习。
+ */
+@Slf4j
+@Service
+public class SiteProfileServiceImpl implements SiteProfileService {
+
+    private static final int STATUS_STALE = 0;
+    private static final int STATUS_VALID = 1;
+
+    @Autowired
+    private CrawlerSiteProfileMapper siteProfileMapper;
+
+    @Autowired
+    private IntelligentParserService intelligentParserService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** 产出低于基线的该比例时重新学习 */
+    @Value("${crawler.site-profile.relearn-yield-ratio:0.3}")
+    private double relearnYieldRatio;
+
+    @Override
+    public WebsiteStructure resolveStructure(CrawlerTask task, Document seedDoc) {
+        String url = task.getTargetUrl();
+        CustomRules customRules = parseCustomRules(task);
+
+        // 1. 关闭智能模式，或自定义规则已给出资源链接和标题选择器：直接使用自定义规则，不做探测
+        if (customRules != null
+                && (Integer.valueOf(0).equals(task.getIntelligentMode()) || hasCoreSelectors(customRules))) {
+            WebsiteStructure structure = new WebsiteStructure();
+            applyCustomRules(structure, customRules);
+            structure.setIdentified(StringUtils.hasText(structure.getDetailLinkSelector()));
+            log.info("使用自定义规则作为网站结构: taskId={}", task.getId());
+            return structure;
+        }
+
+        // 2. 已有有效档案且在入口页上校验通过：直接复用
+        String domain = domainOf(url);
+        CrawlerSiteProfile profile = domain != null ? selectByDomain(domain) : null;
+        WebsiteStructure structure = null;
+        if (profile != null && Integer.valueOf(STATUS_VALID).equals(profile.getStatus())) {
+            WebsiteStructure cached = readStructure(profile);
+            if (cached != null && intelligentParserService.validateStructure(seedDoc, cached)) {
+                cached.setProfileId(profile.getId());
+                touchValidateTime(profile.getId());
+                structure = cached;
+                log.info("复用站点结构档案: domain={}, profileId={}", domain, profile.getId());
+            } else {
+                log.info("站点结构档案校验未通过，重新学习: domain={}", domain);
+            }
+        }
+
+        // 3. 没有可用档案：完整分析并保存
+        if (structure == null) {
+            structure = intelligentParserService.analyzeWebsite(url, seedDoc);
+            if (structure.isIdentified() && domain != null) {
+                structure.setProfileId(saveProfile(profile, domain, structure));
+            }
+        }
+
+        // 自定义规则中填写的字段覆盖学习结果
+        if (customRules != null) {
+            applyCustomRules(structure, customRules);
+        }
+        return structure;
+    }
+
+    @Override
+    public void recordYield(WebsiteStructure structure, int listPageCount, int resourceLinkCount) {
+        if (structure == null || structure.getProfileId() == null || listPageCount <= 0) {
+            return;
+        }
+
+        try {
+            CrawlerSiteProfile profile = siteProfileMapper.selectById(structure.getProfileId());
+            if (profile == null || !Integer.valueOf(STATUS_VALID).equals(profile.getStatus())) {
+                return;
+            }
+
+            double yield = (double) resourceLinkCount / listPageCount;
+            LambdaUpdateWrapper<CrawlerSiteProfile> update = new LambdaUpdateWrapper<CrawlerSiteProfile>()
+                .eq(CrawlerSiteProfile::getId, profile.getId())
+                .set(CrawlerSiteProfile::getLastYield, yield);
+
+            Double baseline = profile.getBaselineYield();
+            if (baseline == null) {
+                // 学习后的首轮运行作为基线
+                update.set(CrawlerSiteProfile::getBaselineYield, yield);
+            } else if (yield < baseline * relearnYieldRatio) {
+                update.set(CrawlerSiteProfile::getStatus, STATUS_STALE);
+                log.warn("站点资源链接产出明显下降，档案失效待重新学习: domain={}, baseline={}, current={}",
+                    profile.getDomain(), baseline, yield);
+            }
+            siteProfileMapper.update(null, update);
+        } catch (Exception e) {
+            log.error("记录站点产出失败: profileId={}", structure.getProfileId(), e);
+        }
+    }
+
+    private CrawlerSiteProfile selectByDomain(String domain) {
+        return siteProfileMapper.selectOne(new LambdaQueryWrapper<CrawlerSiteProfile>()
+            .eq(CrawlerSiteProfile::getDomain, domain));
+    }
+
+    private WebsiteStructure readStructure(CrawlerSiteProfile profile) {
+        try {
+            return objectMapper.readValue(profile.getStructure(), WebsiteStructure.class);
+        } catch (JsonProcessingException e) {
+            log.warn("站点结构档案解析失败: domain={}", profile.getDomain(), e);
+            return null;
+        }
+    }
+
+    private void touchValidateTime(Long profileId) {
+        siteProfileMapper.update(null, new LambdaUpdateWrapper<CrawlerSiteProfile>()
+            .eq(CrawlerSiteProfile::getId, profileId)
+            .set(CrawlerSiteProfile::getLastValidateTime, LocalDateTime.now()));
+    }
+
+    /**
+     * 保存（或覆盖）站点档案，基线产出清空，由下一轮运行重新建立
+     *
+     * @return 档案ID，保存失败时返回 null
+     */
+    private Long saveProfile(CrawlerSiteProfile existing, String domain, WebsiteStructure structure) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(structure);
+        } catch (JsonProcessingException e) {
+            log.error("站点结构序列化失败: domain={}", domain, e);
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (existing != null) {
+            siteProfileMapper.update(null, new LambdaUpdateWrapper<CrawlerSiteProfile>()
+                .eq(CrawlerSiteProfile::getId, existing.getId())
+                .set(CrawlerSiteProfile::getStructure, json)
+                .set(CrawlerSiteProfile::getStatus, STATUS_VALID)
+                .set(CrawlerSiteProfile::getBaselineYield, null)
+                .set(CrawlerSiteProfile::getLastYield, null)
+                .set(CrawlerSiteProfile::getLearnTime, now)
+                .set(CrawlerSiteProfile::getLastValidateTime, now));
+            log.info("站点结构档案已重新学习: domain={}, profileId={}", domain, existing.getId());
+            return existing.getId();
+        }
+
+        CrawlerSiteProfile profile = new CrawlerSiteProfile();
+        profile.setDomain(domain);
+        profile.setStructure(json);
+        profile.setStatus(STATUS_VALID);
+        profile.setLearnTime(now);
+        profile.setLastValidateTime(now);
+        try {
+            siteProfileMapper.insert(profile);
+            log.info("站点结构档案已保存: domain={}, profileId={}", domain, profile.getId());
+            return profile.getId();
+        } catch (DuplicateKeyException e) {
+            // 同一域名的另一个任务已抢先保存
+            log.debug("站点结构档案已存在: domain={}", domain);
+            CrawlerSiteProfile saved = selectByDomain(domain);
+            return saved != null ? saved.getId() : null;
+        }
+    }
+
+    private CustomRules parseCustomRules(CrawlerTask task) {
+        if (!StringUtils.hasText(task.getCustomRules())) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(task.getCustomRules(), CustomRules.class);
+        } catch (JsonProcessingException e) {
+            log.error("自定义规则JSON解析失败: taskId={}", task.getId(), e);
+            return null;
+        }
+    }
+
+    private boolean hasCoreSelectors(CustomRules rules) {
+        return validSelector(rules.getDetailLinkSelector()) != null
+            && validSelector(rules.getTitleSelector()) != null;
+    }
+
+    /**
+     * 用自定义规则中填写且语法正确的选择器覆盖结构中的对应字段
+     */
+    private void applyCustomRules(WebsiteStructure structure, CustomRules rules) {
+        String selector;
+        if ((selector = validSelector(rules.getListPageSelector())) != null) {
+            structure.setListPageSelector(selector);
+        }
+        if ((selector = validSelector(rules.getDetailLinkSelector())) != null) {
+            structure.setDetailLinkSelector(selector);
+        }
+        if ((selector = validSelector(rules.getTitleSelector())) != null) {
+            structure.setTitleSelector(selector);
+        }
+        if ((selector = validSelector(rules.getDescriptionSelector())) != null) {
+            structure.setDescriptionSelector(selector);
+        }
+        if ((selector = validSelector(rules.getDownloadLinkSelector())) != null) {
+            structure.setDownloadLinkSelector(selector);
+        }
+        if ((selector = validSelector(rules.getImageSelector())) != null) {
+            structure.setImageSelector(selector);
+        }
+        if ((selector = validSelector(rules.getCategorySelector())) != null) {
+            structure.setCategorySelector(selector);
+        }
+        if ((selector = validSelector(rules.getPaginationSelector())) != null) {
+            structure.setPaginationSelector(selector);
+        }
+    }
+
+    /**
+     * 选择器为空或语法错误时返回 null（语法错误的自定义选择器被忽略，不影响任务执行）
+     */
+    private String validSelector(String selector) {
+        if (!StringUtils.hasText(selector)) {
+            return null;
+        }
+        try {
+            CompiledSelectors.get(selector);
+            return selector;
+        } catch (Exception e) {
+            log.warn("忽略无效的自定义选择器: {}", selector);
+            return null;
+        }
+    }
+
+    private static String domainOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
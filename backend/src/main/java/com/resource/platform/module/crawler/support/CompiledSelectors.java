@@ -0,0 +1,33 @@
+package com.resource.platform.module.crawler.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+/**
+ * 预编译的 Jsoup 选择器
+ *
+ * <p>{@code doc.select(String)} 每次调用都会重新解析一遍 CSS 选择器字符串。
+ * 爬虫对每个页面都会反复使用同一批选择器，这里把解析结果 {@link Evaluator} 缓存起来复用
+ * （Evaluator 不可变，可在线程间共享）。选择器来自内置常量、站点档案和自定义规则，数量有限，
+ * 缓存设置容量上限以防异常输入。
+ */
+public final class CompiledSelectors {
+
+    private static final Cache<String, Evaluator> CACHE = Caffeine.newBuilder()
+        .maximumSize(1000)
+        .build();
+
+    private CompiledSelectors() {
+    }
+
+    /**
+     * 获取选择器对应的 Evaluator
+     *
+     * @throws org.jsoup.select.Selector.SelectorParseException 选择器语法错误
+     */
+    public static Evaluator get(String cssQuery) {
+        return CACHE.get(cssQuery, QueryParser::parse);
+    }
+}
@@ -0,0 +1,48 @@
+package com.resource.platform.module.crawler.support;
+
+import com.google.common.hash.BloomFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 爬取断点：恢复一次被中断的爬取所需的全部内存状态
+ */
+@Data
+public class CrawlCheckpoint {
+
+    /**
+     * 待爬队列（按出队顺序）
+     */
+    private List<FrontierEntry> frontier = new ArrayList<>();
+
+    /**
+     * 已访问URL过滤器
+     */
+    private BloomFilter<String> visitedUrls;
+
+    /**
+     * 尚未计入任务累计统计的计数
+     */
+    private int crawledCount;
+
+    private int successCount;
+
+    private int failedCount;
+
+    /**
+     * 已处理的列表页数
+     */
+    private int pageCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FrontierEntry {
+        private String url;
+        private int depth;
+    }
+}
@@ -0,0 +1,300 @@
+package com.resource.platform.module.crawler.support;
+
+import com.resource.platform.common.trace.RequestTrace;
+import com.resource.platform.common.trace.TraceLayer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.protocol.RedirectLocations;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 爬虫 HTTP 抓取器
+ *
+ * <p>所有爬虫请求共用一个 httpclient5 连接池：
+ * <ul>
+ *   <li>按主机复用 keep-alive 连接，限制单主机并发连接数</li>
+ *   <li>自动协商 gzip/deflate 压缩并透明解压</li>
+ *   <li>响应体读取有上限（按解压后字节数计），超限的连接直接丢弃</li>
+ *   <li>页面以字节缓冲返回，再交给 Jsoup 解析；配合 {@link PageCache} 同一次任务内每个 URL 只下载一次</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class CrawlerHttpFetcher {
+
+    private static final String BROWSER_USER_AGENT =
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    @Value("${crawler.request.connect-timeout:30000}")
+    private int connectTimeout;
+
+    @Value("${crawler.request.read-timeout:60000}")
+    private int readTimeout;
+
+    @Value("${crawler.limits.max-page-size:10485760}")
+    private int maxPageSize;
+
+    @Value("${crawler.http.max-total:50}")
+    private int maxTotal;
+
+    @Value("${crawler.http.max-per-route:4}")
+    private int maxPerRoute;
+
+    @Value("${crawler.http.page-cache-max-bytes:16777216}")
+    private long pageCacheMaxBytes;
+
+    private CloseableHttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxTotal)
+            .setMaxConnPerRoute(maxPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build())
+            .build();
+
+        httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                .build())
+            .setUserAgent(BROWSER_USER_AGENT)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
+
+        log.info("爬虫HTTP连接池初始化完成: maxTotal={}, maxPerRoute={}, maxPageSize={}",
+            maxTotal, maxPerRoute, maxPageSize);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("关闭爬虫HTTP连接池失败", e);
+        }
+    }
+
+    /**
+     * 创建一次爬取任务专用的页面缓存
+     */
+    public PageCache newPageCache() {
+        return new PageCache(pageCacheMaxBytes);
+    }
+
+    /**
+     * 下载并解析 HTML 页面
+     *
+     * @param url       页面地址
+     * @param pageCache 本次任务的页面缓存，可为 null
+     * @throws IOException 网络异常、非 2xx 响应、非 HTML 内容或页面超过大小上限
+     */
+    public Document fetchDocument(String url, PageCache pageCache) throws IOException {
+        FetchedPage page = pageCache != null ? pageCache.get(url) : null;
+        if (page == null) {
+            page = execute(url, maxPageSize, false, null);
+            if (!page.isSuccess()) {
+                throw new IOException("HTTP error fetching URL: status=" + page.getStatusCode() + ", url=" + url);
+            }
+            if (!page.isHtml()) {
+                throw new IOException("Unsupported content type: " + page.getMimeType() + ", url=" + url);
+            }
+            if (pageCache != null) {
+                pageCache.put(url, page);
+            }
+        }
+        return parse(page);
+    }
+
+    /**
+     * 下载文本资源（如 robots.txt），超过上限的部分直接截断，非 2xx 响应不抛异常
+     */
+    public FetchedPage fetchTruncated(String url, int maxBytes, String userAgent) throws IOException {
+        return execute(url, maxBytes, true, userAgent);
+    }
+
+    private FetchedPage execute(String url, int maxBytes, boolean truncate, String userAgent) throws IOException {
+        HttpGet request = new HttpGet(url);
+        if (userAgent != null) {
+            request.setHeader(HttpHeaders.USER_AGENT, userAgent);
+        }
+        HttpClientContext context = HttpClientContext.create();
+
+        long traceStart = RequestTrace.enter(TraceLayer.HTTP);
+        try {
+            return doExecute(request, context, url, maxBytes, truncate);
+        } finally {
+            RequestTrace.exit(TraceLayer.HTTP, "crawler.fetch", traceStart);
+        }
+    }
+
+    private FetchedPage doExecute(HttpGet request, HttpClientContext context,
+                                  String url, int maxBytes, boolean truncate) throws IOException {
+        return httpClient.execute(request, context, response -> {
+            int status = response.getCode();
+            HttpEntity entity = response.getEntity();
+            ContentType contentType = entity != null ? ContentType.parseLenient(entity.getContentType()) : null;
+            byte[] body = status >= 200 && status < 300 && entity != null
+                ? readBody(entity, maxBytes, truncate, url)
+                : new byte[0];
+            return new FetchedPage(finalUrl(url, context), status, body,
+                contentType != null ? contentType.getMimeType() : null,
+                contentType != null ? contentType.getCharset() : null);
+        });
+    }
+
+    private static byte[] readBody(HttpEntity entity, int maxBytes, boolean truncate, String url) throws IOException {
+        long declared = entity.getContentLength();
+        if (!truncate && declared > maxBytes) {
+            throw new IOException("页面超过大小限制: size=" + declared + ", url=" + url);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(declared > 0 ? (int) Math.min(declared, maxBytes) : 8192);
+        try (InputStream in = entity.getContent()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                int remaining = maxBytes - out.size();
+                if (read > remaining) {
+                    if (!truncate) {
+                        throw new IOException("页面超过大小限制: limit=" + maxBytes + ", url=" + url);
+                    }
+                    out.write(buffer, 0, remaining);
+                    break;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 跟随重定向后的最终地址，用作 Jsoup 解析相对链接的 baseUri
+     */
+    private static String finalUrl(String requestUrl, HttpClientContext context) {
+        RedirectLocations redirects = context.getRedirectLocations();
+        if (redirects == null || redirects.size() == 0) {
+            return requestUrl;
+        }
+        List<URI> locations = redirects.getAll();
+        return locations.get(locations.size() - 1).toString();
+    }
+
+    private static Document parse(FetchedPage page) throws IOException {
+        String charsetName = page.getCharset() != null ? page.getCharset().name() : null;
+        // 未声明编码时由 Jsoup 根据 BOM / meta 标签探测
+        return Jsoup.parse(new ByteArrayInputStream(page.getBody()), charsetName, page.getUrl());
+    }
+
+    /**
+     * 下载结果（响应体已完整缓冲）
+     */
+    @Getter
+    public static final class FetchedPage {
+        private final String url;
+        private final int statusCode;
+        private final byte[] body;
+        private final String mimeType;
+        private final Charset charset;
+
+        FetchedPage(String url, int statusCode, byte[] body, String mimeType, Charset charset) {
+            this.url = url;
+            this.statusCode = statusCode;
+            this.body = body;
+            this.mimeType = mimeType;
+            this.charset = charset;
+        }
+
+        public boolean isSuccess() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+
+        boolean isHtml() {
+            if (mimeType == null) {
+                return true;
+            }
+            String mime = mimeType.toLowerCase(Locale.ROOT);
+            return mime.startsWith("text/") || mime.contains("html") || mime.contains("xml");
+        }
+
+        public String bodyAsString(Charset defaultCharset) {
+            return new String(body, charset != null ? charset : defaultCharset);
+        }
+    }
+
+    /**
+     * 单次爬取任务内的页面缓存，按缓冲字节数限制容量，超出时淘汰最久未使用的页面
+     *
+     * <p>只在一个爬虫线程内使用，不做并发控制
+     */
+    public static final class PageCache {
+        private final long maxBytes;
+        private final LinkedHashMap<String, FetchedPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+        private long totalBytes;
+
+        private PageCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        FetchedPage get(String url) {
+            return pages.get(url);
+        }
+
+        void put(String url, FetchedPage page) {
+            long size = page.getBody().length;
+            if (size > maxBytes) {
+                return;
+            }
+            FetchedPage previous = pages.put(url, page);
+            if (previous != null) {
+                totalBytes -= previous.getBody().length;
+            }
+            totalBytes += size;
+            Iterator<Map.Entry<String, FetchedPage>> it = pages.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, FetchedPage> eldest = it.next();
+                if (eldest.getKey().equals(url)) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue().getBody().length;
+                it.remove();
+            }
+        }
+    }
+}
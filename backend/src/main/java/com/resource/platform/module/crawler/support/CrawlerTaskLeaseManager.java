@@ -0,0 +1,256 @@
+package com.resource.platform.module.crawler.support;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 爬虫任务租约管理器（基于 Redis）
+ *
+ * <p>多节点部署时保证同一个爬虫任务同一时刻只在一个节点上执行：
+ * <ul>
+ *   <li>执行前通过 Lua 原子地抢占租约 {@code crawler:lease:{taskId}}，同时递增
+ *       {@code crawler:fence:{taskId}} 得到单调递增的 fencing token</li>
+ *   <li>持有期间按 TTL 的 1/3 续约；续约失败（租约过期被其他节点抢走）时置位停止标记，
+ *       本节点尽快退出，之后的写入由 fencing token 拦截</li>
+ *   <li>停止信号写入 {@code crawler:stop:{taskId}}，任意节点收到停止请求都能生效，
+ *       持有租约的节点在心跳时读取并置位本地停止标记</li>
+ *   <li>Redis 不可用时降级为单机模式（只依赖本地运行标记），不阻断爬虫执行</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class CrawlerTaskLeaseManager {
+
+    private static final String LEASE_KEY_PREFIX = "crawler:lease:";
+    private static final String FENCE_KEY_PREFIX = "crawler:fence:";
+    private static final String STOP_KEY_PREFIX = "crawler:stop:";
+
+    /**
+     * 降级模式下的 fencing token，小于任何 Redis 分配的 token
+     * 断点保存遇到该 token 时不做 fencing 判断（见 CrawlerCheckpointService#save）
+     */
+    public static final long LOCAL_TOKEN = 0L;
+
+    /**
+     * 抢占租约
+     * KEYS[1] = 租约 key, KEYS[2] = fencing 计数 key, KEYS[3] = 停止信号 key
+     * ARGV[1] = 节点ID, ARGV[2] = 租约时长（毫秒）
+     * 返回值：fencing token；0 表示租约被其他节点持有
+     */
+    private static final String ACQUIRE_SCRIPT =
+        "if redis.call('EXISTS', KEYS[1]) == 1 then\n" +
+        "    return 0\n" +
+        "end\n" +
+        "local token = redis.call('INCR', KEYS[2])\n" +
+        "redis.call('SET', KEYS[1], ARGV[1] .. '|' .. token, 'PX', ARGV[2])\n" +
+        "redis.call('DEL', KEYS[3])\n" +
+        "return token";
+
+    /**
+     * 续约：仍是自己持有时延长有效期
+     * 返回值：1=续约成功，0=租约已丢失
+     */
+    private static final String RENEW_SCRIPT =
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+        "    redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+        "    return 1\n" +
+        "end\n" +
+        "return 0";
+
+    /**
+     * 释放：仍是自己持有时才删除
+     */
+    private static final String RELEASE_SCRIPT =
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+        "    return redis.call('DEL', KEYS[1])\n" +
+        "end\n" +
+        "return 0";
+
+    private static final DefaultRedisScript<Long> ACQUIRE = new DefaultRedisScript<>(ACQUIRE_SCRIPT, Long.class);
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>(RENEW_SCRIPT, Long.class);
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(RELEASE_SCRIPT, Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    @Qualifier("leaseHeartbeatScheduler")
+    private ThreadPoolTaskScheduler heartbeatScheduler;
+
+    @Value("${crawler.lease.ttl-ms:30000}")
+    private long leaseTtlMs;
+
+    /** 停止信号保留时长，足够覆盖持有节点的若干次心跳 */
+    @Value("${crawler.lease.stop-signal-ttl-ms:600000}")
+    private long stopSignalTtlMs;
+
+    private final String nodeId = resolveNodeId();
+
+    /**
+     * 尝试获取任务租约，成功后自动心跳续约
+     *
+     * @param taskId   任务ID
+     * @param stopFlag 本地停止标记；租约丢失或收到集群停止信号时置为 true
+     * @return 租约；任务已被其他节点持有时返回 null
+     */
+    public Lease tryAcquire(Long taskId, AtomicBoolean stopFlag) {
+        Long token;
+        try {
+            token = stringRedisTemplate.execute(ACQUIRE,
+                Arrays.asList(LEASE_KEY_PREFIX + taskId, FENCE_KEY_PREFIX + taskId, STOP_KEY_PREFIX + taskId),
+                nodeId, String.valueOf(leaseTtlMs));
+        } catch (Exception e) {
+            log.error("获取爬虫任务租约失败，降级为单机执行: taskId={}, error={}", taskId, e.getMessage());
+            return new Lease(taskId, LOCAL_TOKEN, null, stopFlag);
+        }
+        if (token == null || token == 0L) {
+            return null;
+        }
+
+        Lease lease = new Lease(taskId, token, nodeId + "|" + token, stopFlag);
+        long interval = Math.max(leaseTtlMs / 3, 1000L);
+        lease.heartbeat = heartbeatScheduler.scheduleAtFixedRate(() -> heartbeat(lease),
+            new Date(System.currentTimeMillis() + interval), interval);
+        log.info("获取爬虫任务租约: taskId={}, node={}, token={}", taskId, nodeId, token);
+        return lease;
+    }
+
+    /**
+     * 释放租约并停止心跳
+     */
+    public void release(Lease lease) {
+        if (lease == null || lease.value == null) {
+            return;
+        }
+        if (lease.heartbeat != null) {
+            lease.heartbeat.cancel(false);
+        }
+        try {
+            stringRedisTemplate.execute(RELEASE,
+                Collections.singletonList(LEASE_KEY_PREFIX + lease.taskId), lease.value);
+            log.info("释放爬虫任务租约: taskId={}, token={}", lease.taskId, lease.token);
+        } catch (Exception e) {
+            // 释放失败时租约会在 TTL 到期后自动失效
+            log.warn("释放爬虫任务租约失败: taskId={}, error={}", lease.taskId, e.getMessage());
+        }
+    }
+
+    /**
+     * 确认租约仍由自己持有（写入任务结果等关键操作前调用）
+     */
+    public boolean isOwner(Lease lease) {
+        if (lease.value == null) {
+            return true;
+        }
+        if (lease.lost) {
+            return false;
+        }
+        try {
+            return lease.value.equals(stringRedisTemplate.opsForValue().get(LEASE_KEY_PREFIX + lease.taskId));
+        } catch (Exception e) {
+            log.warn("校验爬虫任务租约失败，按仍持有处理: taskId={}, error={}", lease.taskId, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 任务是否在集群中任意节点上执行
+     */
+    public boolean isHeldAnywhere(Long taskId) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(LEASE_KEY_PREFIX + taskId));
+        } catch (Exception e) {
+            log.warn("查询爬虫任务租约失败: taskId={}, error={}", taskId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 发出集群范围的停止信号
+     */
+    public void requestStop(Long taskId) {
+        try {
+            stringRedisTemplate.opsForValue().set(STOP_KEY_PREFIX + taskId, nodeId, stopSignalTtlMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("发送集群停止信号失败，仅本节点生效: taskId={}, error={}", taskId, e.getMessage());
+        }
+    }
+
+    private void heartbeat(Lease lease) {
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW,
+                Collections.singletonList(LEASE_KEY_PREFIX + lease.taskId), lease.value, String.valueOf(leaseTtlMs));
+            if (renewed == null || renewed == 0L) {
+                lease.lost = true;
+                lease.stopFlag.set(true);
+                if (lease.heartbeat != null) {
+                    lease.heartbeat.cancel(false);
+                }
+                log.error("爬虫任务租约已丢失，停止本节点执行: taskId={}, token={}", lease.taskId, lease.token);
+                return;
+            }
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(STOP_KEY_PREFIX + lease.taskId))) {
+                if (!lease.stopFlag.getAndSet(true)) {
+                    log.info("收到集群停止信号: taskId={}", lease.taskId);
+                }
+            }
+        } catch (Exception e) {
+            // Redis 短暂不可用时不立即放弃，租约仍可能有效，下次心跳再试
+            log.warn("爬虫任务租约续约异常: taskId={}, error={}", lease.taskId, e.getMessage());
+        }
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * 任务租约
+     */
+    public static final class Lease {
+        @Getter
+        private final Long taskId;
+
+        /** fencing token，单调递增；降级模式下为 {@link #LOCAL_TOKEN} */
+        @Getter
+        private final long token;
+
+        /** Redis 中保存的租约值，降级模式下为 null */
+        private final String value;
+
+        private final AtomicBoolean stopFlag;
+
+        private volatile ScheduledFuture<?> heartbeat;
+
+        private volatile boolean lost;
+
+        private Lease(Long taskId, long token, String value, AtomicBoolean stopFlag) {
+            this.taskId = taskId;
+            this.token = token;
+            this.value = value;
+            this.stopFlag = stopFlag;
+        }
+    }
+}
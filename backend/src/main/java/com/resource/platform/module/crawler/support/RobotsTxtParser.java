@@ -1,30 +1,66 @@
 package com.resource.platform.module.crawler.support;
 
-import lombok.Data;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
 
 /**
  * robots.txt解析器
  * 负责下载、解析和缓存robots.txt文件
+ *
+ * <p>实现说明：
+ * <ul>
+ *   <li>每个站点的规则编译成一棵路径前缀树，单次检查只需沿 URL 路径走一遍，
+ *       按 RFC 9309 取最长匹配规则，allow 与 disallow 等长时 allow 优先</li>
+ *   <li>缓存使用有容量上限的 Caffeine，到达刷新时间后后台异步重新下载，
+ *       刷新期间继续使用旧规则，过期不会阻塞爬取</li>
+ *   <li>同一站点的首次加载是单飞的，并发爬取同一站点只下载一次</li>
+ *   <li>5xx 或网络异常按 RFC 9309 视为全部禁止，该结果同样缓存，
+ *       但只保留较短时间，避免站点故障期间每个 URL 都重新下载 robots.txt</li>
+ * </ul>
  */
 @Slf4j
 @Component
 public class RobotsTxtParser {
 
-    // robots.txt缓存，key为域名
-    private final Map<String, RobotsRules> cache = new ConcurrentHashMap<>();
-    
-    // 缓存过期时间（24小时）
-    private static final long CACHE_EXPIRY_MS = 24 * 60 * 60 * 1000;
+    private static final String BOT_TOKEN = "resourceplatformbot";
+
+    private static final String BOT_USER_AGENT = "Mozilla/5.0 (compatible; ResourcePlatformBot/1.0)";
+
+    /** robots.txt 最多解析的字节数（RFC 9309 要求至少 500 KiB） */
+    private static final int MAX_ROBOTS_BYTES = 512 * 1024;
+
+    // robots.txt缓存，key为 协议://主机[:端口]
+    private final LoadingCache<String, RobotsRules> cache;
+
+    private final CrawlerHttpFetcher httpFetcher;
+
+    public RobotsTxtParser(CrawlerHttpFetcher httpFetcher,
+                           @Value("${crawler.robots.cache-max-size:2000}") long cacheMaxSize,
+                           @Value("${crawler.robots.refresh-after-hours:24}") long refreshAfterHours,
+                           @Value("${crawler.robots.expire-after-hours:72}") long expireAfterHours,
+                           @Value("${crawler.robots.failure-ttl-minutes:10}") long failureTtlMinutes,
+                           @Qualifier("crawlerExecutor") ThreadPoolTaskExecutor crawlerExecutor) {
+        this.httpFetcher = httpFetcher;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .refreshAfterWrite(refreshAfterHours, TimeUnit.HOURS)
+            .expireAfter(new RobotsExpiry(TimeUnit.HOURS.toNanos(expireAfterHours),
+                TimeUnit.MINUTES.toNanos(failureTtlMinutes)))
+            .executor(crawlerExecutor)
+            .build(new RobotsLoader());
+    }
 
     /**
      * 检查URL是否允许爬取
@@ -32,21 +68,22 @@ public class RobotsTxtParser {
     public boolean isAllowed(String urlString) {
         try {
             URL url = new URL(urlString);
-            String domain = url.getProtocol() + "://" + url.getHost();
-            
-            RobotsRules rules = getRobotsRules(domain);
-            
+            RobotsRules rules = getRobotsRules(url);
+
             if (rules == null || rules.isAllowAll()) {
                 return true;
             }
-            
+
             String path = url.getPath();
             if (path.isEmpty()) {
                 path = "/";
             }
-            
+            if (url.getQuery() != null) {
+                path = path + "?" + url.getQuery();
+            }
+
             return rules.isAllowed(path);
-            
+
         } catch (Exception e) {
             log.error("检查robots.txt失败: url={}", urlString, e);
             // 出错时默认允许
@@ -59,17 +96,8 @@ public class RobotsTxtParser {
      */
     public int getCrawlDelay(String urlString) {
         try {
-            URL url = new URL(urlString);
-            String domain = url.getProtocol() + "://" + url.getHost();
-            
-            RobotsRules rules = getRobotsRules(domain);
-            
-            if (rules == null) {
-                return 0;
-            }
-            
-            return rules.getCrawlDelay();
-            
+            RobotsRules rules = getRobotsRules(new URL(urlString));
+            return rules == null ? 0 : rules.getCrawlDelay();
         } catch (Exception e) {
             log.error("获取crawl-delay失败: url={}", urlString, e);
             return 0;
@@ -77,228 +105,390 @@ public class RobotsTxtParser {
     }
 
     /**
-     * 获取robots.txt规则（带缓存）
+     * 获取robots.txt规则（带缓存，同一站点并发加载只下载一次）
      */
-    private RobotsRules getRobotsRules(String domain) {
-        RobotsRules cached = cache.get(domain);
-        
-        // 检查缓存是否有效
-        if (cached != null && !cached.isExpired()) {
-            return cached;
+    private RobotsRules getRobotsRules(URL url) {
+        return cache.get(siteKey(url));
+    }
+
+    private static String siteKey(URL url) {
+        String key = url.getProtocol() + "://" + url.getHost().toLowerCase(Locale.ROOT);
+        return url.getPort() == -1 ? key : key + ":" + url.getPort();
+    }
+
+    /**
+     * 缓存加载器：首次加载失败时缓存"全部禁止"（短期过期后重试），
+     * 后台刷新失败时保留旧规则
+     */
+    private class RobotsLoader implements CacheLoader<String, RobotsRules> {
+
+        @Override
+        public RobotsRules load(String site) {
+            return downloadAndParse(site);
         }
-        
-        // 下载并解析robots.txt
-        RobotsRules rules = downloadAndParse(domain);
-        
-        if (rules != null) {
-            cache.put(domain, rules);
+
+        @Override
+        public RobotsRules reload(String site, RobotsRules oldValue) {
+            RobotsRules rules = downloadAndParse(site);
+            if (rules.isUnreachable() && !oldValue.isUnreachable()) {
+                log.warn("刷新robots.txt失败，继续使用旧规则: {}", site);
+                return oldValue;
+            }
+            return rules;
+        }
+    }
+
+    /**
+     * 按条目区分过期时间：正常规则写入后 expireAfterHours 过期，
+     * 不可达（全部禁止）的结果只保留 failureTtl
+     */
+    private static final class RobotsExpiry implements Expiry<String, RobotsRules> {
+
+        private final long expireNanos;
+        private final long failureTtlNanos;
+
+        RobotsExpiry(long expireNanos, long failureTtlNanos) {
+            this.expireNanos = expireNanos;
+            this.failureTtlNanos = failureTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String site, RobotsRules rules, long currentTime) {
+            return rules.isUnreachable() ? failureTtlNanos : expireNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String site, RobotsRules rules, long currentTime, long currentDuration) {
+            return expireAfterCreate(site, rules, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String site, RobotsRules rules, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-        
-        return rules;
     }
 
     /**
      * 下载并解析robots.txt
      */
-    private RobotsRules downloadAndParse(String domain) {
-        String robotsUrl = domain + "/robots.txt";
-        HttpURLConnection conn = null;
-        
+    private RobotsRules downloadAndParse(String site) {
+        String robotsUrl = site + "/robots.txt";
+
         try {
             log.info("下载robots.txt: {}", robotsUrl);
-            
-            URL url = new URL(robotsUrl);
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(10000);
-            conn.setReadTimeout(10000);
-            conn.setRequestProperty("User-Agent", "Mozilla/5.0 (compatible; ResourcePlatformBot/1.0)");
-            
-            int responseCode = conn.getResponseCode();
-            
-            if (responseCode == 404) {
-                // robots.txt不存在，允许所有
-                log.info("robots.txt不存在，允许所有: {}", robotsUrl);
+
+            // 超过上限的部分直接截断，只解析前 MAX_ROBOTS_BYTES 字节
+            CrawlerHttpFetcher.FetchedPage page = httpFetcher.fetchTruncated(robotsUrl, MAX_ROBOTS_BYTES, BOT_USER_AGENT);
+            int responseCode = page.getStatusCode();
+
+            if (responseCode >= 400 && responseCode < 500) {
+                // robots.txt不可用（4xx），按 RFC 9309 视为允许所有
+                log.info("robots.txt不可用，允许所有: url={}, code={}", robotsUrl, responseCode);
                 return RobotsRules.allowAll();
             }
-            
+
             if (responseCode != 200) {
-                log.warn("下载robots.txt失败: url={}, code={}", robotsUrl, responseCode);
-                return null;
+                // 5xx 等服务端错误，按 RFC 9309 视为全部禁止
+                log.warn("下载robots.txt失败，暂时禁止爬取: url={}, code={}", robotsUrl, responseCode);
+                return RobotsRules.disallowAll();
             }
-            
-            // 读取内容
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-                StringBuilder content = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    content.append(line).append("\n");
-                }
-                // 解析规则
-                return parseRobotsTxt(content.toString());
-            }
-            
+
+            // 解析规则
+            return parseRobotsTxt(page.bodyAsString(StandardCharsets.UTF_8));
+
         } catch (Exception e) {
-            log.error("下载robots.txt异常: url={}", robotsUrl, e);
-            return null;
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
+            // 网络不可达同样视为全部禁止
+            log.error("下载robots.txt异常，暂时禁止爬取: url={}", robotsUrl, e);
+            return RobotsRules.disallowAll();
         }
     }
 
     /**
      * 解析robots.txt内容
+     *
+     * <p>连续的多行 User-agent 组成一个分组；存在专门针对本爬虫的分组时只使用该分组，
+     * 否则使用 {@code *} 分组
      */
-    private RobotsRules parseRobotsTxt(String content) {
-        RobotsRules rules = new RobotsRules();
-        
-        String[] lines = content.split("\n");
-        boolean isOurUserAgent = false;
-        
-        for (String line : lines) {
+    static RobotsRules parseRobotsTxt(String content) {
+        RobotsRules.Builder ourRules = new RobotsRules.Builder();
+        RobotsRules.Builder wildcardRules = new RobotsRules.Builder();
+        boolean ourGroupSeen = false;
+
+        boolean groupIsOurs = false;
+        boolean groupIsWildcard = false;
+        boolean inUserAgentLines = false;
+
+        for (String line : content.split("\n")) {
+            // 去掉行尾注释
+            int commentIndex = line.indexOf('#');
+            if (commentIndex >= 0) {
+                line = line.substring(0, commentIndex);
+            }
             line = line.trim();
-            
-            // 跳过注释和空行
-            if (line.isEmpty() || line.startsWith("#")) {
+            if (line.isEmpty()) {
                 continue;
             }
-            
+
             // 解析字段
             int colonIndex = line.indexOf(':');
             if (colonIndex == -1) {
                 continue;
             }
-            
-            String field = line.substring(0, colonIndex).trim().toLowerCase();
+
+            String field = line.substring(0, colonIndex).trim().toLowerCase(Locale.ROOT);
             String value = line.substring(colonIndex + 1).trim();
-            
+
             if (field.equals("user-agent")) {
-                // 检查是否匹配我们的User-Agent
-                isOurUserAgent = value.equals("*") || 
-                                value.toLowerCase().contains("resourceplatformbot");
-            } else if (isOurUserAgent) {
-                if (field.equals("disallow")) {
-                    if (!value.isEmpty()) {
-                        rules.addDisallowRule(value);
-                    }
-                } else if (field.equals("allow")) {
-                    if (!value.isEmpty()) {
-                        rules.addAllowRule(value);
-                    }
-                } else if (field.equals("crawl-delay")) {
-                    try {
-                        int delay = Integer.parseInt(value);
-                        rules.setCrawlDelay(delay);
-                    } catch (NumberFormatException e) {
-                        log.warn("无效的crawl-delay值: {}", value);
-                    }
+                if (!inUserAgentLines) {
+                    // 新分组开始
+                    groupIsOurs = false;
+                    groupIsWildcard = false;
+                    inUserAgentLines = true;
+                }
+                String agent = value.toLowerCase(Locale.ROOT);
+                if (agent.equals("*")) {
+                    groupIsWildcard = true;
+                } else if (agent.contains(BOT_TOKEN)) {
+                    groupIsOurs = true;
+                    ourGroupSeen = true;
+                }
+                continue;
+            }
+            inUserAgentLines = false;
+
+            if (!groupIsOurs && !groupIsWildcard) {
+                continue;
+            }
+            RobotsRules.Builder target = groupIsOurs ? ourRules : wildcardRules;
+            if (field.equals("disallow")) {
+                // 空的 Disallow 等价于不限制
+                if (!value.isEmpty()) {
+                    target.addRule(value, false);
+                }
+            } else if (field.equals("allow")) {
+                if (!value.isEmpty()) {
+                    target.addRule(value, true);
+                }
+            } else if (field.equals("crawl-delay")) {
+                try {
+                    target.crawlDelay((int) Math.ceil(Double.parseDouble(value)));
+                } catch (NumberFormatException e) {
+                    log.warn("无效的crawl-delay值: {}", value);
                 }
             }
         }
-        
-        return rules;
+
+        return (ourGroupSeen ? ourRules : wildcardRules).build();
     }
 
     /**
-     * robots.txt规则
+     * robots.txt规则（编译后不可变）
+     *
+     * <p>不含通配符的规则存放在字符前缀树中；含 {@code *} 或 {@code $} 的规则
+     * 数量通常很少，单独保存并用无回溯的通配符匹配检查。
      */
-    @Data
-    public static class RobotsRules {
-        private List<Pattern> disallowPatterns = new ArrayList<>();
-        private List<Pattern> allowPatterns = new ArrayList<>();
-        private int crawlDelay = 0;
-        private long timestamp = System.currentTimeMillis();
-        private boolean allowAll = false;
+    public static final class RobotsRules {
+
+        private static final RobotsRules ALLOW_ALL = new RobotsRules(new TrieNode(), new WildcardRule[0], 0, true, false);
+
+        /** robots.txt 暂时无法获取（5xx 或网络异常）时的规则 */
+        private static final RobotsRules DISALLOW_ALL = new RobotsRules(new TrieNode(), new WildcardRule[0], 0, false, true);
+
+        private final TrieNode root;
+        private final WildcardRule[] wildcardRules;
+        private final int crawlDelay;
+        private final boolean allowAll;
+        private final boolean unreachable;
+
+        private RobotsRules(TrieNode root, WildcardRule[] wildcardRules, int crawlDelay,
+                            boolean allowAll, boolean unreachable) {
+            this.root = root;
+            this.wildcardRules = wildcardRules;
+            this.crawlDelay = crawlDelay;
+            this.allowAll = allowAll;
+            this.unreachable = unreachable;
+        }
 
         public static RobotsRules allowAll() {
-            RobotsRules rules = new RobotsRules();
-            rules.allowAll = true;
-            return rules;
+            return ALLOW_ALL;
         }
 
-        public void addDisallowRule(String pattern) {
-            disallowPatterns.add(convertToPattern(pattern));
+        public static RobotsRules disallowAll() {
+            return DISALLOW_ALL;
         }
 
-        public void addAllowRule(String pattern) {
-            allowPatterns.add(convertToPattern(pattern));
+        /**
+         * 是否为 robots.txt 不可达时的临时规则
+         */
+        public boolean isUnreachable() {
+            return unreachable;
+        }
+
+        public int getCrawlDelay() {
+            return crawlDelay;
+        }
+
+        public boolean isAllowAll() {
+            return allowAll;
         }
 
         /**
-         * 检查路径是否允许
+         * 检查路径是否允许：取匹配长度最长的规则，等长时 allow 优先，无匹配时允许
          */
         public boolean isAllowed(String path) {
             if (allowAll) {
                 return true;
             }
-            
-            // 先检查allow规则
-            for (Pattern pattern : allowPatterns) {
-                if (pattern.matcher(path).matches()) {
-                    return true;
+            if (unreachable) {
+                return false;
+            }
+
+            int bestLength = -1;
+            boolean bestAllow = true;
+
+            // 前缀树：沿路径逐字符下行，路径越深匹配越长
+            TrieNode node = root;
+            for (int i = 0; ; i++) {
+                if (node.hasRule) {
+                    bestLength = i;
+                    bestAllow = node.allow;
+                }
+                if (i == path.length()) {
+                    break;
+                }
+                node = node.child(path.charAt(i));
+                if (node == null) {
+                    break;
                 }
             }
-            
-            // 再检查disallow规则
-            for (Pattern pattern : disallowPatterns) {
-                if (pattern.matcher(path).matches()) {
-                    return false;
+
+            for (WildcardRule rule : wildcardRules) {
+                if (rule.length < bestLength || (rule.length == bestLength && (bestAllow || !rule.allow))) {
+                    continue;
+                }
+                if (rule.matches(path)) {
+                    bestLength = rule.length;
+                    bestAllow = rule.allow;
                 }
             }
-            
-            // 默认允许
-            return true;
+
+            return bestAllow;
         }
 
-        /**
-         * 检查缓存是否过期
-         */
-        public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_EXPIRY_MS;
+        static final class Builder {
+            private final TrieNode root = new TrieNode();
+            private final List<WildcardRule> wildcardRules = new ArrayList<>();
+            private int crawlDelay;
+            private boolean hasRules;
+
+            void addRule(String pattern, boolean allow) {
+                hasRules = true;
+                if (pattern.indexOf('*') >= 0 || pattern.indexOf('$') >= 0) {
+                    wildcardRules.add(new WildcardRule(pattern, allow));
+                    return;
+                }
+                TrieNode node = root;
+                for (int i = 0; i < pattern.length(); i++) {
+                    node = node.getOrCreateChild(pattern.charAt(i));
+                }
+                // 同一路径同时出现 allow 和 disallow 时 allow 优先
+                node.allow = node.hasRule ? node.allow || allow : allow;
+                node.hasRule = true;
+            }
+
+            void crawlDelay(int crawlDelay) {
+                this.crawlDelay = crawlDelay;
+            }
+
+            RobotsRules build() {
+                if (!hasRules && crawlDelay == 0) {
+                    return ALLOW_ALL;
+                }
+                return new RobotsRules(root, wildcardRules.toArray(new WildcardRule[0]), crawlDelay, !hasRules, false);
+            }
+        }
+    }
+
+    /**
+     * 前缀树节点，子节点按字符有序保存，二分查找
+     */
+    private static final class TrieNode {
+        private char[] keys = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private boolean hasRule;
+        private boolean allow;
+
+        TrieNode child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        TrieNode getOrCreateChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            TrieNode created = new TrieNode();
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = created;
+            keys = newKeys;
+            children = newChildren;
+            return created;
+        }
+    }
+
+    /**
+     * 含通配符的规则：{@code *} 匹配任意字符序列，结尾的 {@code $} 表示必须匹配到路径末尾
+     */
+    private static final class WildcardRule {
+        private final String[] segments;
+        private final boolean anchoredEnd;
+        private final boolean allow;
+        /** 规则原始长度，用于最长匹配比较 */
+        private final int length;
+
+        WildcardRule(String pattern, boolean allow) {
+            this.allow = allow;
+            this.length = pattern.length();
+            this.anchoredEnd = pattern.endsWith("$");
+            String body = anchoredEnd ? pattern.substring(0, pattern.length() - 1) : pattern;
+            // limit=-1 保留结尾空段，"/a*" 得到 ["/a", ""]
+            this.segments = body.split("\\*", -1);
         }
 
         /**
-         * 将robots.txt模式转换为正则表达式
+         * 分段贪心匹配：首段必须是前缀，中间段依次向后查找，
+         * 锚定结尾时末段必须是后缀
          */
-        private Pattern convertToPattern(String robotsPattern) {
-            try {
-                // 先转义反斜杠，然后转义其他特殊字符
-                String regex = robotsPattern
-                        .replace("\\", "\\\\")  // 先转义反斜杠
-                        .replace(".", "\\.")
-                        .replace("?", "\\?")
-                        .replace("+", "\\+")
-                        .replace("|", "\\|")
-                        .replace("(", "\\(")
-                        .replace(")", "\\)")
-                        .replace("[", "\\[")
-                        .replace("]", "\\]")
-                        .replace("{", "\\{")
-                        .replace("}", "\\}")
-                        .replace("^", "\\^")
-                        .replace("$", "\\$");
-                
-                // 处理通配符（在转义之后）
-                regex = regex.replace("*", ".*");
-                
-                // 如果以/结尾，匹配该路径及其子路径
-                if (regex.endsWith("/")) {
-                    regex = regex + ".*";
-                }
-                
-                // 添加开始锚点
-                if (!regex.startsWith(".*")) {
-                    regex = "^" + regex;
+        boolean matches(String path) {
+            String first = segments[0];
+            if (!path.startsWith(first)) {
+                return false;
+            }
+            if (segments.length == 1) {
+                return !anchoredEnd || path.length() == first.length();
+            }
+            int pos = first.length();
+            int last = segments.length - 1;
+            for (int i = 1; i < last; i++) {
+                int found = path.indexOf(segments[i], pos);
+                if (found < 0) {
+                    return false;
                 }
-                
-                return Pattern.compile(regex);
-            } catch (Exception e) {
-                // 如果正则表达式编译失败，返回一个匹配所有的模式
-                log.warn("无法编译robots.txt规则: {}, 使用默认规则", robotsPattern);
-                return Pattern.compile(".*");
+                pos = found + segments[i].length();
+            }
+            String tail = segments[last];
+            if (anchoredEnd) {
+                return path.length() - tail.length() >= pos && path.endsWith(tail);
             }
+            return path.indexOf(tail, pos) >= 0;
         }
     }
 }
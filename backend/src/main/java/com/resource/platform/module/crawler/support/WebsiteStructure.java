@@ -1,5 +1,6 @@
 package com.resource.platform.module.crawler.support;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Data
@@ -49,4 +50,10 @@ public class WebsiteStructure {
      * 是否识别成功
      */
     private boolean identified;
+    
+    /**
+     * 本次使用的站点档案ID（来自档案或刚学习时才有值，不参与序列化）
+     */
+    @JsonIgnore
+    private Long profileId;
 }
@@ -0,0 +1,34 @@
+package com.resource.platform.module.feedback.convert;
+
+import com.resource.platform.module.feedback.entity.Feedback;
+import com.resource.platform.module.feedback.vo.FeedbackVO;
+
+/**
+ * 反馈实体与视图对象转换
+ */
+public final class FeedbackConverter {
+
+    private FeedbackConverter() {
+    }
+
+    /**
+     * 反馈实体转视图对象（不含时间字段，时间按展示格式由调用方设置）
+     */
+    public static FeedbackVO toVO(Feedback feedback) {
+        if (feedback == null) {
+            return null;
+        }
+        FeedbackVO vo = new FeedbackVO();
+        vo.setId(feedback.getId());
+        vo.setType(feedback.getType());
+        vo.setTitle(feedback.getTitle());
+        vo.setContent(feedback.getContent());
+        vo.setContactName(feedback.getContactName());
+        vo.setContactEmail(feedback.getContactEmail());
+        vo.setStatus(feedback.getStatus());
+        vo.setReply(feedback.getReply());
+        vo.setMailStatus(feedback.getMailStatus());
+        vo.setMailError(feedback.getMailError());
+        return vo;
+    }
+}
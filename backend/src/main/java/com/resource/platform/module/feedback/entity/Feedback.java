@@ -26,6 +26,13 @@ public class Feedback {
     
     private LocalDateTime replyTime;
     
+    /**
+     * 回复邮件投递状态：NONE-无需发送，QUEUED-排队中，RETRYING-重试中，SENT-已送达，FAILED-发送失败
+     */
+    private String mailStatus;
+    
+    private String mailError;
+    
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createTime;
     
@@ -0,0 +1,35 @@
+package com.resource.platform.module.feedback.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.resource.platform.module.feedback.entity.Feedback;
+import com.resource.platform.module.feedback.mapper.FeedbackMapper;
+import com.resource.platform.module.system.service.MailDeliveryListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 反馈回复邮件投递结果回调
+ * 把发件箱的投递状态回写到反馈记录，后台列表可以看到回复邮件是否送达
+ */
+@Slf4j
+@Component
+public class FeedbackMailDeliveryListener implements MailDeliveryListener {
+
+    @Autowired
+    private FeedbackMapper feedbackMapper;
+
+    @Override
+    public String bizType() {
+        return FeedbackServiceImpl.MAIL_BIZ_TYPE;
+    }
+
+    @Override
+    public void onDeliveryStatus(Long bizId, String status, String error) {
+        feedbackMapper.update(null, new LambdaUpdateWrapper<Feedback>()
+            .eq(Feedback::getId, bizId)
+            .set(Feedback::getMailStatus, status)
+            .set(Feedback::getMailError, error));
+        log.info("反馈回复邮件投递状态更新: feedbackId={}, status={}", bizId, status);
+    }
+}
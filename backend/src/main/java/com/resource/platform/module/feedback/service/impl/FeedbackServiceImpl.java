@@ -1,9 +1,11 @@
 package com.resource.platform.module.feedback.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.resource.platform.common.PageResult;
+import com.resource.platform.module.feedback.convert.FeedbackConverter;
 import com.resource.platform.module.feedback.dto.FeedbackQueryDTO;
 import com.resource.platform.module.feedback.dto.FeedbackReplyDTO;
 import com.resource.platform.module.feedback.dto.FeedbackStatusDTO;
@@ -54,6 +56,14 @@ public class FeedbackServiceImpl implements FeedbackService {
     @Autowired
     private com.resource.platform.module.system.service.EmailService emailService;
     
+    /** 发件箱业务类型：反馈回复邮件 */
+    static final String MAIL_BIZ_TYPE = "FEEDBACK_REPLY";
+    
+    private static final String MAIL_STATUS_NONE = "NONE";
+    private static final String MAIL_STATUS_QUEUED = "QUEUED";
+    
+    private static final String REPLY_EMAIL_SUBJECT = "【资源下载平台】您的反馈已收到回复";
+    
     // 日期时间格式化器
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
@@ -173,6 +183,12 @@ public class FeedbackServiceImpl implements FeedbackService {
         return convertToVO(feedback);
     }
     
+    /**
+     * 回复反馈
+     *
+     * 回复内容与回复邮件在同一事务中写入（邮件进入发件箱），管理员请求不再等待 SMTP 往返；
+     * 邮件由后台异步投递，投递结果回写到反馈的 mail_status 字段。
+     */
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void replyFeedback(FeedbackReplyDTO dto) {
@@ -185,54 +201,25 @@ public class FeedbackServiceImpl implements FeedbackService {
 
         log.debug("找到反馈记录: id={}, contactEmail={}", feedback.getId(), feedback.getContactEmail());
 
-        // 先发送邮件，成功后再更新状态
-        boolean emailSent = false;
+        String mailStatus = MAIL_STATUS_NONE;
         if (StringUtils.hasText(feedback.getContactEmail())) {
-            emailSent = sendReplyEmail(feedback, dto.getReply());
-            log.info("邮件发送结果: feedbackId={}, result={}", dto.getId(), emailSent ? "成功" : "失败");
-        } else {
-            emailSent = true; // 没有邮箱也认为成功
-        }
-
-        // 只有邮件发送成功才更新状态
-        if (emailSent) {
             feedback.setReply(dto.getReply());
-            feedback.setReplyTime(java.time.LocalDateTime.now());
-            feedback.setStatus("COMPLETED");
-            int rows = feedbackMapper.updateById(feedback);
-            if (rows <= 0) {
-                throw new BusinessException("更新反馈回复状态失败");
-            }
-            log.info("反馈回复处理完成: feedbackId={}", dto.getId());
-        } else {
-            throw new BusinessException("邮件发送失败，请检查邮件配置");
+            emailService.enqueueHtmlEmail(feedback.getContactEmail(), REPLY_EMAIL_SUBJECT,
+                buildReplyEmailContent(feedback), MAIL_BIZ_TYPE, feedback.getId());
+            mailStatus = MAIL_STATUS_QUEUED;
         }
-    }
-    
-    private boolean sendReplyEmail(Feedback feedback, String replyContent) {
-        try {
-            log.info("邮件发送开始: 收件人={}", feedback.getContactEmail());
 
-            String subject = "【资源下载平台】您的反馈已收到回复";
-            log.debug("邮件主题: {}", subject);
-
-            log.debug("开始构建邮件内容...");
-            // 临时设置reply用于构建邮件内容
-            String originalReply = feedback.getReply();
-            feedback.setReply(replyContent);
-            String htmlContent = buildReplyEmailContent(feedback);
-            feedback.setReply(originalReply); // 恢复原值
-            log.debug("邮件内容构建完成，长度: {}", htmlContent.length());
-
-            log.debug("调用邮件服务发送邮件...");
-            emailService.sendHtmlEmail(feedback.getContactEmail(), subject, htmlContent);
-            log.info("邮件发送成功: 收件人={}", feedback.getContactEmail());
-            return true;
-        } catch (Exception e) {
-            log.error("邮件发送失败: 收件人={}, 错误类型={}, 错误信息={}",
-                feedback.getContactEmail(), e.getClass().getName(), e.getMessage(), e);
-            return false;
+        int rows = feedbackMapper.update(null, new LambdaUpdateWrapper<Feedback>()
+            .eq(Feedback::getId, feedback.getId())
+            .set(Feedback::getReply, dto.getReply())
+            .set(Feedback::getReplyTime, java.time.LocalDateTime.now())
+            .set(Feedback::getStatus, "COMPLETED")
+            .set(Feedback::getMailStatus, mailStatus)
+            .set(Feedback::getMailError, null));
+        if (rows <= 0) {
+            throw new BusinessException("更新反馈回复状态失败");
         }
+        log.info("反馈回复处理完成: feedbackId={}, mailStatus={}", dto.getId(), mailStatus);
     }
     
     private String buildReplyEmailContent(Feedback feedback) {
@@ -349,8 +336,7 @@ public class FeedbackServiceImpl implements FeedbackService {
     }
     
     private FeedbackVO convertToVO(Feedback feedback) {
-        FeedbackVO vo = new FeedbackVO();
-        BeanUtils.copyProperties(feedback, vo);
+        FeedbackVO vo = FeedbackConverter.toVO(feedback);
         if (feedback.getCreateTime() != null) {
             vo.setCreateTime(feedback.getCreateTime().format(FORMATTER));
         }
@@ -13,6 +13,8 @@ public class FeedbackVO {
     private String status;
     private String reply;
     private String replyTime;
+    private String mailStatus;
+    private String mailError;
     private String createTime;
     private String updateTime;
 }
@@ -0,0 +1,39 @@
+package com.resource.platform.module.image.convert;
+
+import com.resource.platform.module.image.entity.Image;
+import com.resource.platform.module.image.vo.ImageVO;
+
+/**
+ * 图片实体与视图对象转换
+ *
+ * <p>不输出存储路径（filePath）和删除标记。
+ */
+public final class ImageConverter {
+
+    private ImageConverter() {
+    }
+
+    /**
+     * 图片实体转视图对象
+     */
+    public static ImageVO toVO(Image image) {
+        if (image == null) {
+            return null;
+        }
+        ImageVO vo = new ImageVO();
+        vo.setId(image.getId());
+        vo.setFileName(image.getFileName());
+        vo.setOriginalName(image.getOriginalName());
+        vo.setFileUrl(image.getFileUrl());
+        vo.setThumbnailUrl(image.getThumbnailUrl());
+        vo.setFileSize(image.getFileSize());
+        vo.setFileType(image.getFileType());
+        vo.setWidth(image.getWidth());
+        vo.setHeight(image.getHeight());
+        vo.setStorageType(image.getStorageType());
+        vo.setIsUsed(image.getIsUsed());
+        vo.setUploaderId(image.getUploaderId());
+        vo.setCreateTime(image.getCreateTime());
+        return vo;
+    }
+}
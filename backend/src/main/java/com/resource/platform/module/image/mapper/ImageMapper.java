@@ -3,7 +3,13 @@ package com.resource.platform.module.image.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.image.entity.Image;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface ImageMapper extends BaseMapper<Image> {
@@ -15,5 +21,42 @@ public interface ImageMapper extends BaseMapper<Image> {
      */
     @Select("SELECT COALESCE(SUM(file_size), 0) FROM image WHERE deleted = 0")
     long selectTotalFileSize();
-}
 
+    /**
+     * 按关联表重算指定图片的使用状态（只更新状态不一致的行）
+     *
+     * @return 状态发生变化的图片数
+     */
+    @Update("<script>" +
+            "UPDATE image SET is_used = EXISTS(SELECT 1 FROM resource_image ri WHERE ri.image_id = image.id) " +
+            "WHERE deleted = 0 AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND is_used &lt;&gt; EXISTS(SELECT 1 FROM resource_image ri WHERE ri.image_id = image.id)" +
+            "</script>")
+    int syncUsageStatus(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按关联表重算主键区间 (afterId, toId] 内图片的使用状态（只更新状态不一致的行）
+     *
+     * @return 状态发生变化的图片数
+     */
+    @Update("UPDATE image SET is_used = EXISTS(SELECT 1 FROM resource_image ri WHERE ri.image_id = image.id) " +
+            "WHERE id > #{afterId} AND id <= #{toId} AND deleted = 0 " +
+            "AND is_used <> EXISTS(SELECT 1 FROM resource_image ri WHERE ri.image_id = image.id)")
+    int syncUsageStatusInRange(@Param("afterId") long afterId, @Param("toId") long toId);
+
+    /**
+     * 从 afterId 之后取 limit 个图片时的最大主键，用于分段；没有更多图片时返回 null
+     */
+    @Select("SELECT MAX(id) FROM (SELECT id FROM image WHERE id > #{afterId} ORDER BY id LIMIT #{limit}) t")
+    Long selectSegmentEnd(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 查询未被任何资源引用、且上传早于指定时间的图片ID
+     */
+    @Select("SELECT i.id FROM image i " +
+            "WHERE i.deleted = 0 AND i.create_time < #{createdBefore} " +
+            "AND NOT EXISTS (SELECT 1 FROM resource_image ri WHERE ri.image_id = i.id) " +
+            "ORDER BY i.id LIMIT #{limit}")
+    List<Long> selectOrphanIds(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+}
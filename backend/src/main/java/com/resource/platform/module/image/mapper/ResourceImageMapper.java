@@ -2,8 +2,23 @@ package com.resource.platform.module.image.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.image.entity.ResourceImage;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface ResourceImageMapper extends BaseMapper<ResourceImage> {
+
+    /**
+     * 批量插入资源图片关联（单条多值 INSERT，一次往返）
+     */
+    @Insert("<script>" +
+            "INSERT INTO resource_image (resource_id, image_id, is_cover, sort_order, create_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.resourceId}, #{item.imageId}, #{item.isCover}, #{item.sortOrder}, NOW())" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<ResourceImage> list);
 }
@@ -0,0 +1,87 @@
+package com.resource.platform.module.image.scheduler;
+
+import com.resource.platform.module.image.service.ImageService;
+import com.resource.platform.module.image.vo.ImageBatchDeleteResultVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 孤儿图片清扫调度器
+ *
+ * <p>每天低峰期执行两步：
+ * <ol>
+ *   <li>按主键分段全表校正 is_used，修复增量维护遗漏造成的漂移</li>
+ *   <li>（可选）回收超过宽限期仍未被任何资源引用的图片：删除存储文件并逻辑删除记录。
+ *       图片库里可能有管理员预先上传备用的图片，因此默认关闭，由运维按需开启</li>
+ * </ol>
+ * 回收按批次调用 {@link ImageService#deleteImages(List)}，每次运行有总量上限，避免一次清扫占用过多存储 IO。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "file.image.orphan-sweeper", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ImageOrphanSweeper {
+
+    @Autowired
+    private ImageService imageService;
+
+    @Value("${file.image.orphan-sweeper.reconcile-batch-size:1000}")
+    private int reconcileBatchSize;
+
+    @Value("${file.image.orphan-sweeper.reclaim-enabled:false}")
+    private boolean reclaimEnabled;
+
+    @Value("${file.image.orphan-sweeper.reclaim-after-days:30}")
+    private int reclaimAfterDays;
+
+    @Value("${file.image.orphan-sweeper.reclaim-batch-size:50}")
+    private int reclaimBatchSize;
+
+    @Value("${file.image.orphan-sweeper.max-reclaim-per-run:1000}")
+    private int maxReclaimPerRun;
+
+    @Scheduled(cron = "${file.image.orphan-sweeper.cron:0 15 4 * * ?}")
+    public void sweep() {
+        long start = System.currentTimeMillis();
+        int corrected = imageService.reconcileUsageStatus(reconcileBatchSize);
+
+        int reclaimed = 0;
+        if (reclaimEnabled) {
+            reclaimed = reclaimOrphans();
+        }
+        log.info("孤儿图片清扫完成: corrected={}, reclaimed={}, 耗时={}ms",
+            corrected, reclaimed, System.currentTimeMillis() - start);
+    }
+
+    private int reclaimOrphans() {
+        LocalDateTime createdBefore = LocalDateTime.now().minusDays(reclaimAfterDays);
+        int reclaimed = 0;
+        int attempted = 0;
+        while (attempted < maxReclaimPerRun) {
+            int limit = Math.min(reclaimBatchSize, maxReclaimPerRun - attempted);
+            List<Long> orphanIds = imageService.findOrphanImageIds(createdBefore, limit);
+            if (orphanIds.isEmpty()) {
+                break;
+            }
+            attempted += orphanIds.size();
+            try {
+                ImageBatchDeleteResultVO result = imageService.deleteImages(orphanIds);
+                reclaimed += result.getDeletedCount();
+                if (result.getDeletedCount() == 0) {
+                    // 这一批都没删掉（存储异常等），下一轮还会查到同一批，本次运行到此为止
+                    break;
+                }
+            } catch (Exception e) {
+                log.error("回收孤儿图片失败，本次运行结束: ids={}", orphanIds, e);
+                break;
+            }
+        }
+        return reclaimed;
+    }
+}
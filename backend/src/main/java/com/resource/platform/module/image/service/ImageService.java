@@ -9,6 +9,7 @@ import com.resource.platform.module.image.vo.ImageVO;
 import com.resource.platform.module.resource.vo.ResourceVO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -66,12 +67,29 @@ public interface ImageService {
     
     /**
      * 批量更新图片使用状态
-     * 遍历图片ID列表，为每个图片更新使用状态
+     * 单条 UPDATE 按关联表实际情况重算这批图片的 is_used，只改动状态不一致的行
      * 
      * @param imageIds 图片ID列表
      */
     void batchUpdateImageUsageStatus(List<Long> imageIds);
     
+    /**
+     * 全表校正图片使用状态（按主键分段，每段一条 UPDATE）
+     * 
+     * @param batchSize 每段图片数
+     * @return 被校正的图片数
+     */
+    int reconcileUsageStatus(int batchSize);
+    
+    /**
+     * 查询孤儿图片：未被任何资源引用，且上传时间早于指定时间
+     * 
+     * @param createdBefore 上传时间上限（给刚上传、尚未关联到资源的图片留出宽限期）
+     * @param limit 最多返回条数
+     * @return 图片ID列表（升序）
+     */
+    List<Long> findOrphanImageIds(LocalDateTime createdBefore, int limit);
+    
     /**
      * 获取图片的使用详情
      * 返回使用该图片的所有资源列表
@@ -2,6 +2,7 @@ package com.resource.platform.module.image.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.resource.platform.module.image.convert.ImageConverter;
 import com.resource.platform.module.image.dto.ImageQueryDTO;
 import com.resource.platform.module.image.entity.Image;
 import com.resource.platform.module.resource.entity.Resource;
@@ -12,6 +13,7 @@ import com.resource.platform.exception.ResourceNotFoundException;
 import com.resource.platform.exception.ValidationException;
 import com.resource.platform.module.image.mapper.ImageMapper;
 import com.resource.platform.module.image.service.ImageService;
+import com.resource.platform.module.system.service.StorageCleanupService;
 import com.resource.platform.module.system.service.StorageService;
 import com.resource.platform.util.FileValidationUtil;
 import com.resource.platform.util.ImageUtil;
@@ -21,7 +23,6 @@ import com.resource.platform.module.image.vo.ImageVO;
 import com.resource.platform.module.resource.vo.ResourceVO;
 import com.resource.platform.module.system.service.impl.StorageServiceResolver;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -33,10 +34,12 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -60,6 +63,9 @@ public class ImageServiceImpl implements ImageService {
     /** 分页查询每页最大条数 */
     private static final int MAX_PAGE_SIZE = 100;
 
+    /** 存储删除日志中的来源类型 */
+    private static final String STORAGE_SOURCE_IMAGE = "image";
+
     @Autowired
     private ImageMapper imageMapper;
 
@@ -75,6 +81,9 @@ public class ImageServiceImpl implements ImageService {
     @Autowired
     private StorageServiceResolver storageServiceResolver;
 
+    @Autowired
+    private StorageCleanupService storageCleanupService;
+
     private String resolveStorageType() {
         return storageServiceResolver.getCurrentStorageType();
     }
@@ -432,8 +441,7 @@ public class ImageServiceImpl implements ImageService {
         
         // 步骤9：转换为VO对象
         // 创建VO分页对象并复制分页信息
-        Page<ImageVO> voPage = new Page<>();
-        BeanUtils.copyProperties(imagePage, voPage, "records");
+        Page<ImageVO> voPage = new Page<>(imagePage.getCurrent(), imagePage.getSize(), imagePage.getTotal());
         
         // 转换记录列表
         List<ImageVO> voRecords = imagePage.getRecords().stream()
@@ -480,26 +488,12 @@ public class ImageServiceImpl implements ImageService {
             }
         }
 
-        try {
-            boolean fileDeleted = storageServiceResolver.resolveStorageServiceByUrl(image.getFileUrl()).delete(image.getFileUrl());
-            if (!fileDeleted) {
-                throw new BusinessException("鍒犻櫎鍥剧墖瀛樺偍鏂囦欢澶辫触");
-            }
-            if (image.getThumbnailUrl() != null) {
-                boolean thumbnailDeleted = storageServiceResolver.resolveStorageServiceByUrl(image.getThumbnailUrl()).delete(image.getThumbnailUrl());
-                if (!thumbnailDeleted) {
-                    throw new BusinessException("鍒犻櫎鍥剧墖瀛樺偍鏂囦欢澶辫触");
-                }
-            }
-        } catch (Exception e) {
-            log.error("删除图片存储文件失败: imageId={}, fileUrl={}", image.getId(), image.getFileUrl(), e);
-            throw new BusinessException("删除图片存储文件失败");
-        }
-
         int rows = imageMapper.deleteById(id);
         if (rows <= 0) {
             throw new BusinessException("删除图片记录失败");
         }
+        storageCleanupService.scheduleDeletion(STORAGE_SOURCE_IMAGE,
+            Collections.singletonMap(image.getId(), storageFileUrls(image)));
         log.info("删除图片成功, imageId: {}", id);
     }
 
@@ -548,44 +542,32 @@ public class ImageServiceImpl implements ImageService {
             .map(Image::getId)
             .collect(Collectors.toList());
 
-        // 仅删除存储删除成功的图片记录，避免文件残留但数据库已删除
-        List<Long> storageDeletedIds = new ArrayList<>();
-        for (Image image : deletableImages) {
-            try {
-                boolean fileDeleted = storageServiceResolver.resolveStorageServiceByUrl(image.getFileUrl()).delete(image.getFileUrl());
-                if (!fileDeleted) {
-                    throw new BusinessException("delete original image file returned false");
-                }
-                if (image.getThumbnailUrl() != null) {
-                    boolean thumbnailDeleted = storageServiceResolver.resolveStorageServiceByUrl(image.getThumbnailUrl()).delete(image.getThumbnailUrl());
-                    if (!thumbnailDeleted) {
-                        throw new BusinessException("delete thumbnail file returned false");
-                    }
-                }
-                storageDeletedIds.add(image.getId());
-            } catch (Exception e) {
-                log.error("删除存储文件失败: imageId={}, fileUrl={}", image.getId(), image.getFileUrl(), e);
-            }
+        // 记录立即逻辑删除（墓碑），存储文件在事务提交后并行删除，失败的进入删除日志由后台重试
+        int rows = imageMapper.deleteBatchIds(deletableIds);
+        if (rows != deletableIds.size()) {
+            throw new BusinessException("批量删除图片记录失败");
         }
-
-        if (storageDeletedIds.isEmpty()) {
-            throw new BusinessException("批量删除图片失败，存储文件删除未成功");
+        Map<Long, List<String>> fileUrls = new LinkedHashMap<>();
+        for (Image image : deletableImages) {
+            fileUrls.put(image.getId(), storageFileUrls(image));
         }
-        result.setStorageFailedCount(deletableIds.size() - storageDeletedIds.size());
+        storageCleanupService.scheduleDeletion(STORAGE_SOURCE_IMAGE, fileUrls);
 
-        int rows = imageMapper.deleteBatchIds(storageDeletedIds);
-        if (rows != storageDeletedIds.size()) {
-            throw new BusinessException("批量删除图片记录失败");
-        }
         result.setDeletedCount(rows);
-        log.info("批量删除图片完成: requested={}, skipped(used)={}, deleted={}, storageFailed={}",
-            ids.size(),
-            ids.size() - deletableIds.size(),
-            rows,
-            deletableIds.size() - storageDeletedIds.size());
+        log.info("批量删除图片完成: requested={}, skipped(used)={}, deleted={}",
+            ids.size(), ids.size() - deletableIds.size(), rows);
         return result;
     }
 
+    private List<String> storageFileUrls(Image image) {
+        List<String> urls = new ArrayList<>(2);
+        urls.add(image.getFileUrl());
+        if (image.getThumbnailUrl() != null) {
+            urls.add(image.getThumbnailUrl());
+        }
+        return urls;
+    }
+
     @Override
     public boolean checkImageUsage(Long id) {
         Image image = imageMapper.selectById(id);
@@ -596,49 +578,23 @@ public class ImageServiceImpl implements ImageService {
     }
 
     private ImageVO convertToVO(Image image) {
-        ImageVO vo = new ImageVO();
-        BeanUtils.copyProperties(image, vo);
-        return vo;
+        return ImageConverter.toVO(image);
     }
     
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateImageUsageStatus(Long imageId) {
-        log.info("开始更新图片使用状态, imageId: {}", imageId);
-        
-        try {
-            // 1. 查询该图片的所有关联关系
-            LambdaQueryWrapper<ResourceImage> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(ResourceImage::getImageId, imageId);
-            Long count = resourceImageMapper.selectCount(wrapper);
-            
-            log.debug("图片 {} 的关联数量: {}", imageId, count);
-            
-            // 2. 根据关联数量更新图片状态
-            Image image = imageMapper.selectById(imageId);
-            if (image != null) {
-                Integer oldStatus = image.getIsUsed();
-                Integer newStatus = (count > 0) ? 1 : 0;
-                
-                if (!newStatus.equals(oldStatus)) {
-                    image.setIsUsed(newStatus);
-                    int rows = imageMapper.updateById(image);
-                    if (rows <= 0) {
-                        throw new BusinessException("更新图片使用状态失败");
-                    }
-                    log.info("图片 {} 状态已更新: {} -> {}", imageId, oldStatus, newStatus);
-                } else {
-                    log.debug("图片 {} 状态无需更新，当前状态: {}", imageId, oldStatus);
-                }
-            } else {
-                log.warn("图片不存在, imageId: {}", imageId);
-            }
-        } catch (Exception e) {
-            log.error("更新图片使用状态失败, imageId: {}", imageId, e);
-            throw e;
-        }
+        int updated = imageMapper.syncUsageStatus(Collections.singletonList(imageId));
+        log.info("更新图片使用状态完成: imageId={}, changed={}", imageId, updated > 0);
     }
     
+    /**
+     * 批量更新图片使用状态
+     * 
+     * 原实现先查出这批图片的全部关联行和图片行，再逐条 updateById；
+     * 资源每次新增/修改/删除都会调用，这里改为一条 UPDATE 在数据库内按 EXISTS 重算，
+     * 只有状态确实变化的行才会被写入。
+     */
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void batchUpdateImageUsageStatus(List<Long> imageIds) {
@@ -647,40 +603,41 @@ public class ImageServiceImpl implements ImageService {
             return;
         }
 
-        log.info("开始批量更新图片使用状态，数量: {}", imageIds.size());
-
-        // 批量查询所有图片ID的关联数量
-        LambdaQueryWrapper<ResourceImage> wrapper = new LambdaQueryWrapper<>();
-        wrapper.in(ResourceImage::getImageId, imageIds);
-        List<ResourceImage> allResourceImages = resourceImageMapper.selectList(wrapper);
-
-        // 统计每张图片的关联数量
-        Map<Long, Long> imageRefCount = new HashMap<>();
-        for (ResourceImage ri : allResourceImages) {
-            imageRefCount.merge(ri.getImageId(), 1L, Long::sum);
+        Set<Long> distinctIds = imageIds.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (distinctIds.isEmpty()) {
+            return;
         }
 
-        // 批量查询所有图片的当前状态
-        List<Image> images = imageMapper.selectBatchIds(imageIds);
-        int updatedCount = 0;
-        for (Image image : images) {
-            if (image == null) {
-                continue;
-            }
-            Long refCount = imageRefCount.getOrDefault(image.getId(), 0L);
-            int newStatus = refCount > 0 ? 1 : 0;
-            if (!Integer.valueOf(newStatus).equals(image.getIsUsed())) {
-                image.setIsUsed(newStatus);
-                int rows = imageMapper.updateById(image);
-                if (rows <= 0) {
-                    throw new BusinessException("批量更新图片使用状态失败");
-                }
-                updatedCount++;
+        int updatedCount = imageMapper.syncUsageStatus(distinctIds);
+        log.info("批量更新图片使用状态完成: total={}, updated={}", distinctIds.size(), updatedCount);
+    }
+    
+    @Override
+    public int reconcileUsageStatus(int batchSize) {
+        long afterId = 0L;
+        int corrected = 0;
+        while (true) {
+            Long segmentEnd = imageMapper.selectSegmentEnd(afterId, batchSize);
+            if (segmentEnd == null) {
+                break;
             }
+            // 每段单独提交，避免长事务锁住整张图片表
+            corrected += imageMapper.syncUsageStatusInRange(afterId, segmentEnd);
+            afterId = segmentEnd;
         }
-
-        log.info("批量更新图片使用状态完成: total={}, checked={}, updated={}",
-            imageIds.size(), images.size(), updatedCount);
+        if (corrected > 0) {
+            log.warn("图片使用状态校正完成，发现并修正了漂移: corrected={}", corrected);
+        } else {
+            log.info("图片使用状态校正完成，未发现漂移");
+        }
+        return corrected;
+    }
+    
+    @Override
+    public List<Long> findOrphanImageIds(LocalDateTime createdBefore, int limit) {
+        return imageMapper.selectOrphanIds(createdBefore, limit);
     }
     
     @Override
@@ -7,5 +7,8 @@ public class ImageBatchDeleteResultVO {
     private Integer requestedCount;
     private Integer deletedCount;
     private Integer skippedUsedCount;
+    /**
+     * 存储文件改为记录删除后异步删除，失败的由后台重试，不再阻塞或计入本次删除；保留字段兼容前端，恒为 0
+     */
     private Integer storageFailedCount;
 }
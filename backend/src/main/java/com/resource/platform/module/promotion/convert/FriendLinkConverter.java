@@ -0,0 +1,33 @@
+package com.resource.platform.module.promotion.convert;
+
+import com.resource.platform.module.promotion.entity.FriendLink;
+import com.resource.platform.module.promotion.vo.FriendLinkVO;
+
+/**
+ * 友情链接实体与视图对象转换
+ */
+public final class FriendLinkConverter {
+
+    private FriendLinkConverter() {
+    }
+
+    /**
+     * 友情链接实体转视图对象
+     */
+    public static FriendLinkVO toVO(FriendLink friendLink) {
+        if (friendLink == null) {
+            return null;
+        }
+        FriendLinkVO vo = new FriendLinkVO();
+        vo.setId(friendLink.getId());
+        vo.setName(friendLink.getName());
+        vo.setUrl(friendLink.getUrl());
+        vo.setLogo(friendLink.getLogo());
+        vo.setDescription(friendLink.getDescription());
+        vo.setStatus(friendLink.getStatus());
+        vo.setSortOrder(friendLink.getSortOrder());
+        vo.setCreateTime(friendLink.getCreateTime());
+        vo.setUpdateTime(friendLink.getUpdateTime());
+        return vo;
+    }
+}
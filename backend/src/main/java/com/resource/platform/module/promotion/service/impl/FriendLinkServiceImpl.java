@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.resource.platform.common.BizErrorCode;
 import com.resource.platform.common.PageResult;
+import com.resource.platform.module.promotion.convert.FriendLinkConverter;
 import com.resource.platform.module.promotion.dto.FriendLinkDTO;
 import com.resource.platform.module.promotion.dto.FriendLinkQueryDTO;
 import com.resource.platform.module.promotion.entity.FriendLink;
@@ -658,8 +659,7 @@ public class FriendLinkServiceImpl implements FriendLinkService {
         }
         
         // 创建VO对象并复制属性
-        FriendLinkVO vo = new FriendLinkVO();
-        BeanUtils.copyProperties(friendLink, vo);
+        FriendLinkVO vo = FriendLinkConverter.toVO(friendLink);
         
         // 记录转换过程（调试级别）
         log.debug("友情链接实体转换为VO: id={}, name={}, url={}", 
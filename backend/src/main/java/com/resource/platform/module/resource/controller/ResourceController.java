@@ -1,14 +1,20 @@
 package com.resource.platform.module.resource.controller;
 
 import com.resource.platform.annotation.OperationLog;
+import com.resource.platform.common.BizErrorCode;
 import com.resource.platform.common.PageResult;
 import com.resource.platform.common.Result;
+import com.resource.platform.exception.BusinessException;
 import com.resource.platform.module.resource.dto.BatchOperationDTO;
 import com.resource.platform.module.resource.dto.ResourceDTO;
 import com.resource.platform.module.resource.dto.ResourceQueryDTO;
 import com.resource.platform.module.resource.service.IpDownloadService;
 import com.resource.platform.module.resource.service.ResourceService;
+import com.resource.platform.module.resource.service.ResourceTagService;
+import com.resource.platform.module.resource.support.PublishedResourceFilter;
+import com.resource.platform.module.resource.support.TrendingLeaderboard;
 import com.resource.platform.module.resource.vo.ResourceVO;
+import com.resource.platform.module.resource.vo.TagFacetVO;
 import com.resource.platform.module.system.service.AccessLogService;
 import com.resource.platform.util.IpUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,6 +34,8 @@ import java.util.List;
 @Validated
 public class ResourceController {
 
+    private static final int MAX_TRENDING_LIMIT = 50;
+
     @Autowired
     private ResourceService resourceService;
 
@@ -37,12 +45,43 @@ public class ResourceController {
     @Autowired
     private IpDownloadService ipDownloadService;
 
+    @Autowired
+    private ResourceTagService resourceTagService;
+
+    @Autowired
+    private PublishedResourceFilter publishedResourceFilter;
+
     @Operation(summary = "获取资源列表（前台）")
     @GetMapping("/public/list")
     public Result<List<ResourceVO>> getPublicResourceList() {
         return Result.success(resourceService.getPublishedResources());
     }
 
+    @Operation(summary = "热门资源（前台）", description = "window 可选 hourly / daily / weekly，默认 daily")
+    @GetMapping("/public/trending")
+    public Result<List<ResourceVO>> getPublicTrendingResources(@RequestParam(required = false) String window,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        int safeLimit = Math.min(Math.max(limit, 1), MAX_TRENDING_LIMIT);
+        return Result.success(resourceService.getTrendingResources(TrendingLeaderboard.Window.of(window), safeLimit));
+    }
+
+    @Operation(summary = "按标签筛选资源（前台）")
+    @GetMapping("/public/by-tags")
+    public Result<PageResult<ResourceVO>> getPublicResourcesByTags(@RequestParam List<Long> tagIds,
+                                                                   @RequestParam(defaultValue = "false") boolean matchAll,
+                                                                   @RequestParam(defaultValue = "1") int pageNum,
+                                                                   @RequestParam(defaultValue = "10") int pageSize) {
+        return Result.success(resourceService.queryPublishedResourcesByTags(tagIds, matchAll, pageNum, pageSize));
+    }
+
+    @Operation(summary = "标签筛选项及命中数（前台）")
+    @GetMapping("/public/tag-facets")
+    public Result<List<TagFacetVO>> getPublicTagFacets(@RequestParam(required = false) List<Long> tagIds,
+                                                       @RequestParam(defaultValue = "false") boolean matchAll,
+                                                       @RequestParam(required = false) Integer limit) {
+        return Result.success(resourceTagService.getTagFacets(tagIds, matchAll, limit));
+    }
+
     @Operation(summary = "获取资源详情（前台）")
     @GetMapping("/public/{id}")
     public Result<ResourceVO> getPublicResourceDetail(@PathVariable Long id) {
@@ -88,6 +127,10 @@ public class ResourceController {
     @Operation(summary = "记录下载次数")
     @PostMapping("/public/download/{id}")
     public Result<Void> recordDownload(@PathVariable Long id, HttpServletRequest request) {
+        // 无效ID在配额判定前拒绝，不消耗 Redis/MySQL
+        if (!publishedResourceFilter.mightBePublished(id)) {
+            throw new BusinessException(BizErrorCode.RESOURCE_NOT_FOUND);
+        }
         String ipAddress = getClientIp(request);
         IpDownloadService.DownloadDecision decision = ipDownloadService.recordDownload(ipAddress, id);
         if (decision == IpDownloadService.DownloadDecision.ALREADY_DOWNLOADED) {
@@ -112,12 +155,18 @@ public class ResourceController {
     @Operation(summary = "检查是否已下载")
     @GetMapping("/public/check-downloaded/{id}")
     public Result<Boolean> checkDownloaded(@PathVariable Long id, HttpServletRequest request) {
+        if (!publishedResourceFilter.mightBePublished(id)) {
+            return Result.success(false);
+        }
         return Result.success(ipDownloadService.hasDownloadedToday(getClientIp(request), id));
     }
 
     @Operation(summary = "记录访问")
     @PostMapping("/public/visit/{id}")
     public Result<Void> recordVisit(@PathVariable Long id, HttpServletRequest request) {
+        if (!publishedResourceFilter.mightBePublished(id)) {
+            throw new BusinessException(BizErrorCode.RESOURCE_NOT_FOUND);
+        }
         accessLogService.recordVisit(id, request);
         return Result.success();
     }
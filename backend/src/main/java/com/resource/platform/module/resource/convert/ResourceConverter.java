@@ -0,0 +1,61 @@
+package com.resource.platform.module.resource.convert;
+
+import com.resource.platform.module.resource.entity.DownloadLink;
+import com.resource.platform.module.resource.entity.Resource;
+import com.resource.platform.module.resource.vo.DownloadLinkVO;
+import com.resource.platform.module.resource.vo.ResourceVO;
+
+/**
+ * 资源、下载链接实体与视图对象转换
+ *
+ * <p>列表接口每页要转换上百个资源及其图片、下载链接，原来逐个对象调用
+ * BeanUtils.copyProperties（每次都要内省属性描述符并反射调用 getter/setter），
+ * 这里改为逐字段显式赋值，编译期即可检查字段类型。实体或 VO 新增字段时需同步补充。
+ */
+public final class ResourceConverter {
+
+    private ResourceConverter() {
+    }
+
+    /**
+     * 资源实体转视图对象（仅基础字段，分类名、封面、图片和下载链接由调用方批量填充）
+     */
+    public static ResourceVO toVO(Resource resource) {
+        if (resource == null) {
+            return null;
+        }
+        ResourceVO vo = new ResourceVO();
+        vo.setId(resource.getId());
+        vo.setTitle(resource.getTitle());
+        vo.setDescription(resource.getDescription());
+        vo.setCoverImageId(resource.getCoverImageId());
+        vo.setCategoryId(resource.getCategoryId());
+        vo.setStatus(resource.getStatus());
+        vo.setAuditStatus(resource.getAuditStatus());
+        vo.setCrawlerTaskId(resource.getCrawlerTaskId());
+        vo.setDownloadCount(resource.getDownloadCount());
+        vo.setViewCount(resource.getViewCount());
+        vo.setCreateTime(resource.getCreateTime());
+        return vo;
+    }
+
+    /**
+     * 下载链接实体转视图对象
+     */
+    public static DownloadLinkVO toVO(DownloadLink link) {
+        if (link == null) {
+            return null;
+        }
+        DownloadLinkVO vo = new DownloadLinkVO();
+        vo.setId(link.getId());
+        vo.setResourceId(link.getResourceId());
+        vo.setTitle(link.getTitle());
+        vo.setLinkName(link.getLinkName());
+        vo.setLinkType(link.getLinkType());
+        vo.setLinkUrl(link.getLinkUrl());
+        vo.setDownloadUrl(link.getDownloadUrl());
+        vo.setPassword(link.getPassword());
+        vo.setIsValid(link.getIsValid());
+        return vo;
+    }
+}
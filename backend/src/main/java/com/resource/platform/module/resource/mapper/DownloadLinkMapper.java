@@ -2,8 +2,25 @@ package com.resource.platform.module.resource.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.resource.entity.DownloadLink;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface DownloadLinkMapper extends BaseMapper<DownloadLink> {
+
+    /**
+     * 批量插入下载链接（单条多值 INSERT，一次往返）
+     */
+    @Insert("<script>" +
+            "INSERT INTO download_link (resource_id, title, link_name, link_url, download_url, link_type, " +
+            "password, is_valid, sort_order, create_time, update_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.resourceId}, #{item.title}, #{item.linkName}, #{item.linkUrl}, #{item.downloadUrl}, " +
+            "#{item.linkType}, #{item.password}, #{item.isValid}, #{item.sortOrder}, NOW(), NOW())" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<DownloadLink> list);
 }
@@ -2,11 +2,13 @@ package com.resource.platform.module.resource.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.resource.entity.IpDownloadRecord;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * IP下载记录Mapper
@@ -22,4 +24,20 @@ public interface IpDownloadRecordMapper extends BaseMapper<IpDownloadRecord> {
     int incrementDownloadCountIfBelowLimit(@Param("ipAddress") String ipAddress,
                                            @Param("downloadDate") LocalDate downloadDate,
                                            @Param("maxDownloads") int maxDownloads);
+
+    /**
+     * 按下载明细重算指定 (IP, 日期) 的下载次数，记录不存在时插入（幂等，可重复执行）
+     *
+     * @param keys 只使用 ipAddress 和 downloadDate
+     */
+    @Insert("<script>" +
+            "INSERT INTO ip_download_record (ip_address, download_date, download_count, create_time, update_time) " +
+            "SELECT ip_address, download_date, COUNT(*), NOW(), NOW() FROM ip_resource_download WHERE " +
+            "<foreach collection='keys' item='key' separator=' OR '>" +
+            "(ip_address = #{key.ipAddress} AND download_date = #{key.downloadDate})" +
+            "</foreach> " +
+            "GROUP BY ip_address, download_date " +
+            "ON DUPLICATE KEY UPDATE download_count = VALUES(download_count), update_time = NOW()" +
+            "</script>")
+    int refreshCounts(@Param("keys") List<IpDownloadRecord> keys);
 }
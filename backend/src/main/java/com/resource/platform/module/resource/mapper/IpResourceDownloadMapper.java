@@ -2,11 +2,28 @@ package com.resource.platform.module.resource.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.resource.entity.IpResourceDownload;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * IP资源下载详细记录Mapper
  */
 @Mapper
 public interface IpResourceDownloadMapper extends BaseMapper<IpResourceDownload> {
+
+    /**
+     * 批量写入下载明细，(IP, 资源, 日期) 已存在的忽略
+     *
+     * @return 实际插入的行数
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO ip_resource_download (ip_address, resource_id, download_date, create_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.ipAddress}, #{item.resourceId}, #{item.downloadDate}, NOW())" +
+            "</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("list") List<IpResourceDownload> list);
 }
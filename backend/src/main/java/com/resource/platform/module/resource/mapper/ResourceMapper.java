@@ -3,7 +3,25 @@ package com.resource.platform.module.resource.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.resource.entity.Resource;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 @Mapper
 public interface ResourceMapper extends BaseMapper<Resource> {
+
+    /**
+     * 按主键游标分批读取已发布资源ID
+     */
+    @Select("SELECT id FROM resource WHERE id > #{afterId} AND status = 1 AND deleted = 0 ORDER BY id LIMIT #{limit}")
+    List<Long> selectPublishedIdsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 下载次数加一（数据库层面自增，避免并发计数丢失）
+     * 只改计数，不推进资源内容版本（见 ContentVersionRegistry）
+     */
+    @Update("UPDATE resource SET download_count = download_count + 1 WHERE id = #{id} AND deleted = 0")
+    int incrementDownloadCount(@Param("id") Long id);
 }
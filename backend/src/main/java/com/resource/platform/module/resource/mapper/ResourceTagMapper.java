@@ -3,7 +3,22 @@ package com.resource.platform.module.resource.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.resource.entity.ResourceTag;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
 
 @Mapper
 public interface ResourceTagMapper extends BaseMapper<ResourceTag> {
+
+    /**
+     * 原子地调整标签使用次数（use_count = use_count ± delta，不小于 0）
+     *
+     * @return 更新的标签数
+     */
+    @Update("<script>" +
+            "UPDATE resource_tag SET use_count = GREATEST(use_count + #{delta}, 0) WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int adjustUseCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
 }
@@ -2,8 +2,40 @@ package com.resource.platform.module.resource.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.resource.entity.ResourceTagRelation;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface ResourceTagRelationMapper extends BaseMapper<ResourceTagRelation> {
+
+    /**
+     * 锁定资源行并返回其状态，串行化同一资源的并发标签修改
+     *
+     * @return 资源状态（1-已发布）；资源不存在或已删除时返回 null
+     */
+    @Select("SELECT status FROM resource WHERE id = #{resourceId} AND deleted = 0 FOR UPDATE")
+    Integer lockResourceStatus(@Param("resourceId") Long resourceId);
+
+    /**
+     * 批量插入资源与标签的关联（已存在的关联忽略）
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO resource_tag_relation (resource_id, tag_id, create_time) VALUES " +
+            "<foreach collection='tagIds' item='tagId' separator=','>(#{resourceId}, #{tagId}, NOW())</foreach>" +
+            "</script>")
+    int insertBatch(@Param("resourceId") Long resourceId, @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 按主键游标分页读取已发布资源的标签关联，用于构建标签位图索引
+     */
+    @Select("SELECT r.id, r.resource_id, r.tag_id FROM resource_tag_relation r " +
+            "JOIN resource s ON s.id = r.resource_id " +
+            "WHERE r.id > #{afterId} AND s.status = 1 AND s.deleted = 0 " +
+            "ORDER BY r.id LIMIT #{limit}")
+    List<ResourceTagRelation> selectPublishedAfter(@Param("afterId") long afterId, @Param("limit") int limit);
 }
@@ -0,0 +1,31 @@
+package com.resource.platform.module.resource.scheduler;
+
+import com.resource.platform.module.resource.support.PublishedResourceFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已发布资源过滤器定时重建
+ *
+ * <p>布隆过滤器只能增加元素，定期重建以移除已下架/删除的资源并恢复误判率。
+ */
+@Slf4j
+@Component
+public class PublishedResourceFilterScheduler {
+
+    @Autowired
+    private PublishedResourceFilter publishedResourceFilter;
+
+    @Scheduled(initialDelayString = "${resource.published-filter.initial-delay-ms:15000}",
+        fixedDelayString = "${resource.published-filter.refresh-interval-ms:1800000}")
+    public void refresh() {
+        try {
+            publishedResourceFilter.rebuild();
+        } catch (Exception e) {
+            // 重建失败时继续使用旧过滤器
+            log.error("已发布资源过滤器重建失败", e);
+        }
+    }
+}
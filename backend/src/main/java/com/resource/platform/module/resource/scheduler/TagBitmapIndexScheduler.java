@@ -0,0 +1,43 @@
+package com.resource.platform.module.resource.scheduler;
+
+import com.resource.platform.module.resource.support.TagBitmapIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 标签位图索引定时重建
+ *
+ * <p>启动后预热一次，之后定期全量重建，吸收资源上下架、删除等不经过标签服务的状态变化；
+ * 两次重建之间按同步周期拉取其他节点的增量变更。
+ */
+@Slf4j
+@Component
+public class TagBitmapIndexScheduler {
+
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Scheduled(initialDelayString = "${resource.tag-index.initial-delay-ms:20000}",
+        fixedDelayString = "${resource.tag-index.refresh-interval-ms:600000}")
+    public void refresh() {
+        try {
+            tagBitmapIndex.rebuild();
+        } catch (Exception e) {
+            // 重建失败时继续使用旧快照
+            log.error("标签位图索引重建失败", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${resource.tag-index.initial-delay-ms:20000}",
+        fixedDelayString = "${resource.tag-index.sync-interval-ms:5000}")
+    public void syncFromCluster() {
+        try {
+            tagBitmapIndex.syncFromCluster();
+        } catch (Exception e) {
+            // 下个周期重试，全量重建兜底
+            log.error("标签位图索引同步其他节点变更失败", e);
+        }
+    }
+}
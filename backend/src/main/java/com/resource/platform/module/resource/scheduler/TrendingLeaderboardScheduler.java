@@ -0,0 +1,31 @@
+package com.resource.platform.module.resource.scheduler;
+
+import com.resource.platform.module.resource.support.TrendingLeaderboard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热门排行榜定时衰减
+ *
+ * <p>定期把排行榜分值折算到当前时间并裁剪低分成员，间隔远小于最短半衰期即可。
+ */
+@Slf4j
+@Component
+public class TrendingLeaderboardScheduler {
+
+    @Autowired
+    private TrendingLeaderboard trendingLeaderboard;
+
+    @Scheduled(initialDelayString = "${resource.trending.rescale-interval-ms:600000}",
+        fixedDelayString = "${resource.trending.rescale-interval-ms:600000}")
+    public void rescale() {
+        try {
+            trendingLeaderboard.rescale();
+        } catch (Exception e) {
+            // 衰减失败不影响累加，下次执行时按更长的时间差一次性折算
+            log.error("热门排行榜衰减失败", e);
+        }
+    }
+}
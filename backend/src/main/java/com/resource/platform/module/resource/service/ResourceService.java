@@ -3,6 +3,7 @@ package com.resource.platform.module.resource.service;
 import com.resource.platform.common.PageResult;
 import com.resource.platform.module.resource.dto.ResourceDTO;
 import com.resource.platform.module.resource.dto.ResourceQueryDTO;
+import com.resource.platform.module.resource.support.TrendingLeaderboard;
 import com.resource.platform.module.resource.vo.ResourceVO;
 import java.util.List;
 
@@ -21,6 +22,18 @@ public interface ResourceService {
      * 分页查询资源（支持搜索和筛选）
      */
     PageResult<ResourceVO> queryResources(ResourceQueryDTO query);
+
+    /**
+     * 按标签筛选已发布资源（前台），按发布先后从新到旧分页
+     *
+     * @param matchAll true 同时包含全部标签，false 包含任一标签
+     */
+    PageResult<ResourceVO> queryPublishedResourcesByTags(List<Long> tagIds, boolean matchAll, int pageNum, int pageSize);
+
+    /**
+     * 获取热门资源（按时间衰减的下载/访问热度排序，排行榜不可用时按累计下载量）
+     */
+    List<ResourceVO> getTrendingResources(TrendingLeaderboard.Window window, int limit);
     
     /**
      * 创建资源
@@ -1,6 +1,8 @@
 package com.resource.platform.module.resource.service;
 
+import com.resource.platform.common.PageResult;
 import com.resource.platform.module.resource.entity.ResourceTag;
+import com.resource.platform.module.resource.vo.TagFacetVO;
 
 import java.util.List;
 
@@ -48,4 +50,19 @@ public interface ResourceTagService {
      * 获取标签统计
      */
     Long getTagCount();
+
+    /**
+     * 按标签筛选已发布资源ID（基于标签位图索引），按资源ID倒序分页
+     *
+     * @param matchAll true 同时包含全部标签，false 包含任一标签
+     */
+    PageResult<Long> findPublishedResourceIdsByTags(List<Long> tagIds, boolean matchAll, int pageNum, int pageSize);
+
+    /**
+     * 统计各标签在当前筛选条件下命中的已发布资源数，按命中数倒序
+     *
+     * @param tagIds 已选标签，为空时统计各标签的资源总数
+     * @param limit  最多返回的标签数
+     */
+    List<TagFacetVO> getTagFacets(List<Long> tagIds, boolean matchAll, Integer limit);
 }
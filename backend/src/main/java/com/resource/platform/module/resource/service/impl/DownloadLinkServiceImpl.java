@@ -3,6 +3,7 @@ package com.resource.platform.module.resource.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.resource.platform.common.BizErrorCode;
 import com.resource.platform.exception.BusinessException;
+import com.resource.platform.module.resource.convert.ResourceConverter;
 import com.resource.platform.module.resource.dto.DownloadLinkDTO;
 import com.resource.platform.module.resource.entity.DownloadLink;
 import com.resource.platform.exception.ResourceNotFoundException;
@@ -87,8 +88,7 @@ public class DownloadLinkServiceImpl implements DownloadLinkService {
         log.debug("转换下载链接为VO对象");
         List<DownloadLinkVO> linkVOs = links.stream().map(link -> {
             // 创建VO对象并复制属性
-            DownloadLinkVO vo = new DownloadLinkVO();
-            BeanUtils.copyProperties(link, vo);
+            DownloadLinkVO vo = ResourceConverter.toVO(link);
             
             // 记录转换的链接信息
             log.debug("转换下载链接: id={}, title={}, type={}", 
@@ -184,8 +184,7 @@ public class DownloadLinkServiceImpl implements DownloadLinkService {
         // 步骤5：转换为VO对象
         // 将保存后的实体对象转换为VO对象
         log.debug("转换下载链接为VO对象");
-        DownloadLinkVO vo = new DownloadLinkVO();
-        BeanUtils.copyProperties(link, vo);
+        DownloadLinkVO vo = ResourceConverter.toVO(link);
         
         // 记录业务完成
         log.info("创建下载链接业务逻辑执行完成: id={}, resourceId={}, title={}", 
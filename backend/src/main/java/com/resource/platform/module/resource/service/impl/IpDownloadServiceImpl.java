@@ -2,44 +2,162 @@ package com.resource.platform.module.resource.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.resource.platform.config.BusinessMetrics;
 import com.resource.platform.module.resource.entity.IpDownloadRecord;
 import com.resource.platform.module.resource.entity.IpResourceDownload;
 import com.resource.platform.module.resource.mapper.IpDownloadRecordMapper;
 import com.resource.platform.module.resource.mapper.IpResourceDownloadMapper;
 import com.resource.platform.module.resource.service.IpDownloadService;
+import com.resource.platform.module.resource.support.DownloadFactWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+
+/**
+ * IP 下载配额服务
+ *
+ * <p>配额判定在 Redis 中用一次 Lua 调用原子完成：每个 IP 每天一个 Set
+ * {@code download:quota:{yyyyMMdd}:{ip}}，成员是当天下载过的资源ID，
+ * SISMEMBER 判断重复下载，SCARD 即当日已下载次数，次日零点（加一小时余量）自动过期。
+ * 下载明细与次数交给 {@link DownloadFactWriter} 异步批量写入 MySQL，仅用于统计报表。
+ *
+ * <p>Redis 不可用时降级为原来的数据库判定路径，保证限额仍然生效。
+ * Redis 数据丢失（如未持久化的实例重启）时当天的配额会被重置。
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class IpDownloadServiceImpl implements IpDownloadService {
 
-    private static final int MAX_DOWNLOADS_PER_DAY = 2;
+    private static final String QUOTA_KEY_PREFIX = "download:quota:";
+    private static final DateTimeFormatter KEY_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long EXPIRE_GRACE_SECONDS = 3600L;
+
+    private static final long RESULT_RECORDED = 0L;
+    private static final long RESULT_ALREADY_DOWNLOADED = 1L;
+
+    /**
+     * 判定并记录一次下载
+     * KEYS[1] = 当日配额 key
+     * ARGV[1] = 资源ID, ARGV[2] = 每日上限, ARGV[3] = 过期时间点（epoch 秒）
+     * 返回值：0=已记录，1=今日已下载过该资源，2=已达上限
+     */
+    private static final String RECORD_SCRIPT =
+        "if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then\n" +
+        "    return 1\n" +
+        "end\n" +
+        "if redis.call('SCARD', KEYS[1]) >= tonumber(ARGV[2]) then\n" +
+        "    return 2\n" +
+        "end\n" +
+        "redis.call('SADD', KEYS[1], ARGV[1])\n" +
+        "redis.call('EXPIREAT', KEYS[1], ARGV[3])\n" +
+        "return 0";
+
+    private static final DefaultRedisScript<Long> RECORD = new DefaultRedisScript<>(RECORD_SCRIPT, Long.class);
 
     private final IpDownloadRecordMapper ipDownloadRecordMapper;
     private final IpResourceDownloadMapper ipResourceDownloadMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final DownloadFactWriter downloadFactWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final BusinessMetrics businessMetrics;
+
+    @Value("${download.quota.max-per-day:2}")
+    private int maxDownloadsPerDay;
 
     @Override
     public boolean canDownload(String ipAddress) {
-        return getTodayDownloadCount(ipAddress) < MAX_DOWNLOADS_PER_DAY;
+        return getTodayDownloadCount(ipAddress) < maxDownloadsPerDay;
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public DownloadDecision recordDownload(String ipAddress, Long resourceId) {
         LocalDate today = LocalDate.now();
 
-        if (hasDownloadedToday(ipAddress, resourceId)) {
+        Long result;
+        try {
+            result = stringRedisTemplate.execute(RECORD,
+                Collections.singletonList(quotaKey(ipAddress, today)),
+                String.valueOf(resourceId), String.valueOf(maxDownloadsPerDay), String.valueOf(expireAt(today)));
+        } catch (Exception e) {
+            log.warn("Redis 下载配额判定失败，降级为数据库判定: ip={}, error={}", ipAddress, e.getMessage());
+            DownloadDecision decision = transactionTemplate.execute(
+                status -> recordDownloadInDatabase(ipAddress, resourceId, today));
+            businessMetrics.recordDownloadQuota(String.valueOf(decision), "database");
+            return decision;
+        }
+
+        DownloadDecision decision;
+        if (result != null && result == RESULT_RECORDED) {
+            downloadFactWriter.submit(ipAddress, resourceId, today);
+            decision = DownloadDecision.RECORDED;
+        } else if (result != null && result == RESULT_ALREADY_DOWNLOADED) {
+            decision = DownloadDecision.ALREADY_DOWNLOADED;
+        } else {
+            decision = DownloadDecision.LIMIT_REACHED;
+        }
+        businessMetrics.recordDownloadQuota(decision.name(), "redis");
+        return decision;
+    }
+
+    @Override
+    public boolean hasDownloadedToday(String ipAddress, Long resourceId) {
+        LocalDate today = LocalDate.now();
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.opsForSet()
+                .isMember(quotaKey(ipAddress, today), String.valueOf(resourceId)));
+        } catch (Exception e) {
+            log.warn("Redis 查询下载记录失败，降级为数据库查询: ip={}, error={}", ipAddress, e.getMessage());
+            return hasDownloadedInDatabase(ipAddress, resourceId, today);
+        }
+    }
+
+    @Override
+    public int getRemainingDownloads(String ipAddress) {
+        return Math.max(0, maxDownloadsPerDay - getTodayDownloadCount(ipAddress));
+    }
+
+    @Override
+    public int getTodayDownloadCount(String ipAddress) {
+        LocalDate today = LocalDate.now();
+        try {
+            Long count = stringRedisTemplate.opsForSet().size(quotaKey(ipAddress, today));
+            return count == null ? 0 : count.intValue();
+        } catch (Exception e) {
+            log.warn("Redis 查询下载次数失败，降级为数据库查询: ip={}, error={}", ipAddress, e.getMessage());
+            return countInDatabase(ipAddress, today);
+        }
+    }
+
+    private static String quotaKey(String ipAddress, LocalDate date) {
+        return QUOTA_KEY_PREFIX + date.format(KEY_DATE_FORMAT) + ":" + ipAddress;
+    }
+
+    /**
+     * 次日零点之后一小时过期，留出时钟偏差余量
+     */
+    private static long expireAt(LocalDate date) {
+        return date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toEpochSecond() + EXPIRE_GRACE_SECONDS;
+    }
+
+    // ==================== 数据库降级路径 ====================
+
+    private DownloadDecision recordDownloadInDatabase(String ipAddress, Long resourceId, LocalDate today) {
+        if (hasDownloadedInDatabase(ipAddress, resourceId, today)) {
             return DownloadDecision.ALREADY_DOWNLOADED;
         }
 
-        if (getTodayDownloadCount(ipAddress) >= MAX_DOWNLOADS_PER_DAY) {
+        if (countInDatabase(ipAddress, today) >= maxDownloadsPerDay) {
             return DownloadDecision.LIMIT_REACHED;
         }
 
@@ -79,7 +197,7 @@ public class IpDownloadServiceImpl implements IpDownloadService {
             return DownloadDecision.RECORDED;
         }
 
-        int updated = ipDownloadRecordMapper.incrementDownloadCountIfBelowLimit(ipAddress, today, MAX_DOWNLOADS_PER_DAY);
+        int updated = ipDownloadRecordMapper.incrementDownloadCountIfBelowLimit(ipAddress, today, maxDownloadsPerDay);
         if (updated == 0) {
             log.info("Download limit reached for IP {} during concurrent update", ipAddress);
             LambdaUpdateWrapper<IpResourceDownload> deleteWrapper = new LambdaUpdateWrapper<>();
@@ -93,10 +211,7 @@ public class IpDownloadServiceImpl implements IpDownloadService {
         return DownloadDecision.RECORDED;
     }
 
-    @Override
-    public boolean hasDownloadedToday(String ipAddress, Long resourceId) {
-        LocalDate today = LocalDate.now();
-
+    private boolean hasDownloadedInDatabase(String ipAddress, Long resourceId, LocalDate today) {
         LambdaQueryWrapper<IpResourceDownload> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(IpResourceDownload::getIpAddress, ipAddress)
                 .eq(IpResourceDownload::getResourceId, resourceId)
@@ -105,15 +220,7 @@ public class IpDownloadServiceImpl implements IpDownloadService {
         return ipResourceDownloadMapper.selectCount(wrapper) > 0;
     }
 
-    @Override
-    public int getRemainingDownloads(String ipAddress) {
-        return Math.max(0, MAX_DOWNLOADS_PER_DAY - getTodayDownloadCount(ipAddress));
-    }
-
-    @Override
-    public int getTodayDownloadCount(String ipAddress) {
-        LocalDate today = LocalDate.now();
-
+    private int countInDatabase(String ipAddress, LocalDate today) {
         LambdaQueryWrapper<IpDownloadRecord> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(IpDownloadRecord::getIpAddress, ipAddress)
                 .eq(IpDownloadRecord::getDownloadDate, today);
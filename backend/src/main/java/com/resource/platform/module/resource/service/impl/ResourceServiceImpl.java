@@ -3,12 +3,15 @@ package com.resource.platform.module.resource.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.google.common.collect.Lists;
 import com.resource.platform.common.PageResult;
+import com.resource.platform.module.resource.convert.ResourceConverter;
 import com.resource.platform.module.resource.dto.DownloadLinkDTO;
 import com.resource.platform.module.resource.dto.ResourceDTO;
 import com.resource.platform.module.resource.dto.ResourceQueryDTO;
 import com.resource.platform.module.category.entity.Category;
 import com.resource.platform.module.resource.entity.DownloadLink;
+import com.resource.platform.module.image.convert.ImageConverter;
 import com.resource.platform.module.image.entity.Image;
 import com.resource.platform.module.resource.entity.Resource;
 import com.resource.platform.module.image.entity.ResourceImage;
@@ -19,6 +22,10 @@ import com.resource.platform.module.resource.mapper.ResourceMapper;
 import com.resource.platform.module.image.mapper.ResourceImageMapper;
 import com.resource.platform.module.image.service.ImageService;
 import com.resource.platform.module.resource.service.ResourceService;
+import com.resource.platform.module.resource.service.ResourceTagService;
+import com.resource.platform.module.resource.support.PublishedResourceFilter;
+import com.resource.platform.module.resource.support.TagBitmapIndex;
+import com.resource.platform.module.resource.support.TrendingLeaderboard;
 import com.resource.platform.module.resource.vo.DownloadLinkVO;
 import com.resource.platform.module.image.vo.ImageVO;
 import com.resource.platform.module.resource.vo.ResourceVO;
@@ -27,12 +34,16 @@ import com.resource.platform.exception.BusinessException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -56,6 +67,9 @@ public class ResourceServiceImpl implements ResourceService {
 
     private static final int MAX_PAGE_SIZE = 100;
 
+    /** 每个资源最多关联的图片数 */
+    private static final int MAX_RESOURCE_IMAGES = 5;
+
     @Autowired
     private ResourceMapper resourceMapper;
 
@@ -78,6 +92,25 @@ public class ResourceServiceImpl implements ResourceService {
     @Lazy
     private ResourceService resourceServiceProxy;
 
+    @Autowired
+    private ResourceTagService resourceTagService;
+
+    @Autowired
+    private TrendingLeaderboard trendingLeaderboard;
+
+    @Autowired
+    private PublishedResourceFilter publishedResourceFilter;
+
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** 批量删除时每个事务处理的资源数 */
+    @Value("${resource.batch-delete.chunk-size:500}")
+    private int batchDeleteChunkSize;
+
     /**
      * 获取已发布的资源列表
      * 
@@ -119,15 +152,89 @@ public class ResourceServiceImpl implements ResourceService {
 
     @Override
     public ResourceVO getPublishedResourceDetail(Long id) {
+        if (!publishedResourceFilter.mightBePublished(id)) {
+            throw new BusinessException(BizErrorCode.RESOURCE_NOT_FOUND);
+        }
         Resource resource = resourceMapper.selectById(id);
         if (resource == null
                 || Integer.valueOf(1).equals(resource.getDeleted())
                 || !Integer.valueOf(1).equals(resource.getStatus())) {
+            publishedResourceFilter.markMissing(id);
             throw new BusinessException(BizErrorCode.RESOURCE_NOT_FOUND);
         }
         return convertToVO(resource);
     }
 
+    /**
+     * 按标签筛选已发布资源
+     *
+     * 命中的资源ID由标签位图索引在内存中求交/并得到，这里只按ID回表；
+     * 回表时再次校验发布状态，过滤索引定时重建前刚下架或删除的资源。
+     */
+    @Override
+    public PageResult<ResourceVO> queryPublishedResourcesByTags(List<Long> tagIds, boolean matchAll, int pageNum, int pageSize) {
+        PageResult<Long> idPage = resourceTagService.findPublishedResourceIdsByTags(tagIds, matchAll, pageNum, pageSize);
+
+        List<ResourceVO> records = Collections.emptyList();
+        if (!idPage.getRecords().isEmpty()) {
+            Map<Long, Resource> resourceMap = resourceMapper.selectList(new LambdaQueryWrapper<Resource>()
+                    .in(Resource::getId, idPage.getRecords())
+                    .eq(Resource::getStatus, 1)
+                    .eq(Resource::getDeleted, 0))
+                .stream().collect(Collectors.toMap(Resource::getId, resource -> resource));
+            List<Resource> ordered = idPage.getRecords().stream()
+                .map(resourceMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+            records = convertToVOs(ordered);
+        }
+
+        PageResult<ResourceVO> result = new PageResult<>(idPage.getTotal(), records);
+        result.setPages(idPage.getPages());
+        result.setCurrent(idPage.getCurrent());
+        result.setSize(idPage.getSize());
+        return result;
+    }
+
+    /**
+     * 获取热门资源（前台首页与后台仪表盘共用）
+     *
+     * 排行榜多取一倍ID，回表时过滤已下架/删除的资源并保持排行顺序；
+     * 排行榜为空、Redis 不可用或过滤后不足 limit 个时，用累计下载量排序补足。
+     */
+    @Override
+    @Cacheable(value = "resource:hot", key = "#window + ':' + #limit", sync = true)
+    public List<ResourceVO> getTrendingResources(TrendingLeaderboard.Window window, int limit) {
+        List<Long> rankedIds = trendingLeaderboard.topIds(window, limit * 2);
+
+        List<Resource> ordered = new ArrayList<>(limit);
+        if (!rankedIds.isEmpty()) {
+            Map<Long, Resource> resourceMap = resourceMapper.selectList(new LambdaQueryWrapper<Resource>()
+                    .in(Resource::getId, rankedIds)
+                    .eq(Resource::getStatus, 1)
+                    .eq(Resource::getDeleted, 0))
+                .stream().collect(Collectors.toMap(Resource::getId, resource -> resource));
+            rankedIds.stream()
+                .map(resourceMap::get)
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .forEach(ordered::add);
+        }
+
+        if (ordered.size() < limit) {
+            LambdaQueryWrapper<Resource> wrapper = new LambdaQueryWrapper<Resource>()
+                .eq(Resource::getStatus, 1)
+                .eq(Resource::getDeleted, 0)
+                .orderByDesc(Resource::getDownloadCount)
+                .last("LIMIT " + (limit - ordered.size()));
+            if (!ordered.isEmpty()) {
+                wrapper.notIn(Resource::getId, ordered.stream().map(Resource::getId).collect(Collectors.toList()));
+            }
+            ordered.addAll(resourceMapper.selectList(wrapper));
+        }
+        return convertToVOs(ordered);
+    }
+
     /**
      * 分页查询资源列表
      * 
@@ -272,25 +379,17 @@ public class ResourceServiceImpl implements ResourceService {
         log.debug("资源基本信息保存成功: resourceId={}", resource.getId());
 
         // 步骤4：保存下载链接
-        // 如果提供了下载链接列表，逐个保存
+        // 如果提供了下载链接列表，一次批量插入
         if (dto.getDownloadLinks() != null && !dto.getDownloadLinks().isEmpty()) {
             log.debug("开始保存下载链接: resourceId={}, linkCount={}", 
                 resource.getId(), dto.getDownloadLinks().size());
             
+            List<DownloadLink> links = new ArrayList<>(dto.getDownloadLinks().size());
             int sortOrder = 0;
             for (DownloadLinkDTO linkDTO : dto.getDownloadLinks()) {
-                // 创建下载链接实体
-                DownloadLink link = new DownloadLink();
-                BeanUtils.copyProperties(linkDTO, link);
-                // 关联到当前资源
-                link.setResourceId(resource.getId());
-                // 设置为有效状态
-                link.setIsValid(1);
-                // 设置排序值
-                link.setSortOrder(sortOrder++);
-                // 保存到数据库
-                downloadLinkMapper.insert(link);
+                links.add(buildDownloadLink(resource.getId(), linkDTO, sortOrder++));
             }
+            downloadLinkMapper.insertBatch(links);
             
             log.debug("下载链接保存成功: resourceId={}, linkCount={}", 
                 resource.getId(), dto.getDownloadLinks().size());
@@ -304,6 +403,11 @@ public class ResourceServiceImpl implements ResourceService {
             saveResourceImages(resource.getId(), dto.getImageIds(), resolvedCoverImageId);
         }
 
+        if (Integer.valueOf(1).equals(resource.getStatus())) {
+            publishedResourceFilter.onPublished(resource.getId());
+            tagBitmapIndex.onPublished(resource.getId());
+        }
+
         // 步骤6：转换为VO对象
         // 包含关联的分类、图片、下载链接等完整信息
         ResourceVO result = convertToVO(resource);
@@ -322,15 +426,7 @@ public class ResourceServiceImpl implements ResourceService {
             throw new BusinessException(BizErrorCode.RESOURCE_NOT_FOUND);
         }
 
-        // 1. 获取旧的图片关联
-        LambdaQueryWrapper<ResourceImage> oldImageWrapper = new LambdaQueryWrapper<>();
-        oldImageWrapper.eq(ResourceImage::getResourceId, id);
-        List<ResourceImage> oldImages = resourceImageMapper.selectList(oldImageWrapper);
-        Set<Long> oldImageIds = oldImages.stream()
-            .map(ResourceImage::getImageId)
-            .collect(Collectors.toSet());
-
-        // 2. 更新资源基本信息
+        // 1. 更新资源基本信息
         BeanUtils.copyProperties(dto, resource);
         resource.setId(id);
         Long resolvedCoverImageId = resolveCoverImageId(dto.getImageIds(), dto.getCoverImageId());
@@ -339,38 +435,21 @@ public class ResourceServiceImpl implements ResourceService {
         if (rows <= 0) {
             throw new BusinessException("更新资源失败");
         }
-
-        // 3. 删除旧的下载链接
-        LambdaQueryWrapper<DownloadLink> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(DownloadLink::getResourceId, id);
-        downloadLinkMapper.delete(wrapper);
-
-        // 4. 保存新的下载链接
-        if (dto.getDownloadLinks() != null && !dto.getDownloadLinks().isEmpty()) {
-            int sortOrder = 0;
-            for (DownloadLinkDTO linkDTO : dto.getDownloadLinks()) {
-                DownloadLink link = new DownloadLink();
-                BeanUtils.copyProperties(linkDTO, link);
-                link.setResourceId(id);
-                link.setIsValid(1);
-                link.setSortOrder(sortOrder++);
-                downloadLinkMapper.insert(link);
-            }
+        if (Integer.valueOf(1).equals(resource.getStatus())) {
+            publishedResourceFilter.onPublished(id);
+            tagBitmapIndex.onPublished(id);
+        } else {
+            publishedResourceFilter.onUnpublished(id);
+            tagBitmapIndex.onUnpublished(id);
         }
 
-        // 5. 删除旧的资源图片关联
-        resourceImageMapper.delete(oldImageWrapper);
+        // 2. 按差异同步下载链接（只新增/更新/移除有变化的行）
+        syncDownloadLinks(id, dto.getDownloadLinks());
 
-        // 6. 保存新的资源图片关联（最多5张）
-        Set<Long> newImageIds = dto.getImageIds() != null ? 
-            new HashSet<>(dto.getImageIds()) : new HashSet<>();
-        saveResourceImages(id, dto.getImageIds(), resolvedCoverImageId);
-
-        // 7. 找出被移除的图片，更新它们的状态
-        Set<Long> removedImageIds = new HashSet<>(oldImageIds);
-        removedImageIds.removeAll(newImageIds);
-        if (!removedImageIds.isEmpty()) {
-            imageService.batchUpdateImageUsageStatus(new ArrayList<>(removedImageIds));
+        // 3. 按差异同步资源图片关联（最多5张），只刷新新增和被移除图片的使用状态
+        Set<Long> changedImageIds = syncResourceImages(id, dto.getImageIds(), resolvedCoverImageId);
+        if (!changedImageIds.isEmpty()) {
+            imageService.batchUpdateImageUsageStatus(new ArrayList<>(changedImageIds));
         }
 
         return convertToVO(resource);
@@ -409,6 +488,9 @@ public class ResourceServiceImpl implements ResourceService {
         if (!imageIds.isEmpty()) {
             imageService.batchUpdateImageUsageStatus(imageIds);
         }
+
+        publishedResourceFilter.onUnpublished(id);
+        tagBitmapIndex.onUnpublished(id);
     }
 
     /**
@@ -449,6 +531,14 @@ public class ResourceServiceImpl implements ResourceService {
             throw new BusinessException("切换资源状态失败");
         }
         
+        if (newStatus == 1) {
+            publishedResourceFilter.onPublished(id);
+            tagBitmapIndex.onPublished(id);
+        } else {
+            publishedResourceFilter.onUnpublished(id);
+            tagBitmapIndex.onUnpublished(id);
+        }
+        
         // 记录操作成功
         log.info("切换资源状态成功: resourceId={}, oldStatus={}, newStatus={}", id, oldStatus, newStatus);
     }
@@ -457,9 +547,8 @@ public class ResourceServiceImpl implements ResourceService {
      * 记录资源下载次数
      * 
      * 业务逻辑：
-     * 1. 构建更新条件
-     * 2. 使用SQL自增语句更新下载次数
-     * 3. 避免并发问题
+     * 1. 使用SQL自增语句更新下载次数
+     * 2. 避免并发问题
      * 
      * @param id 资源ID
      */
@@ -468,18 +557,11 @@ public class ResourceServiceImpl implements ResourceService {
         // 记录下载计数开始
         log.debug("开始更新资源下载次数: resourceId={}", id);
         
-        // 步骤1：构建更新条件
-        LambdaUpdateWrapper<Resource> wrapper = new LambdaUpdateWrapper<>();
-        wrapper.eq(Resource::getId, id);
-        
-        // 步骤2：使用SQL自增语句
         // 直接在数据库层面执行 download_count = download_count + 1
-        // 这样可以避免并发情况下的计数不准确问题
-        wrapper.setSql("download_count = download_count + 1");
-        
-        // 执行更新
-        int rows = resourceMapper.update(null, wrapper);
+        // 这样可以避免并发情况下的计数不准确问题；该语句不推进资源内容版本，下载不会使公开接口缓存失效
+        int rows = resourceMapper.incrementDownloadCount(id);
         if (rows <= 0) {
+            publishedResourceFilter.markMissing(id);
             throw new BusinessException(BizErrorCode.RESOURCE_NOT_FOUND);
         }
         
@@ -510,8 +592,9 @@ public class ResourceServiceImpl implements ResourceService {
         // 插入资源
         resourceMapper.insert(resource);
 
-        // 保存下载链接
+        // 保存下载链接（一次批量插入）
         if (dto.getDownloadLinks() != null && !dto.getDownloadLinks().isEmpty()) {
+            List<DownloadLink> links = new ArrayList<>(dto.getDownloadLinks().size());
             int sortOrder = 0;
             for (DownloadLinkDTO linkDTO : dto.getDownloadLinks()) {
                 DownloadLink link = new DownloadLink();
@@ -530,18 +613,13 @@ public class ResourceServiceImpl implements ResourceService {
                 log.debug("插入下载链接: linkName={}, linkType={}, linkUrl={}", 
                          link.getLinkName(), link.getLinkType(), link.getLinkUrl());
                 
-                downloadLinkMapper.insert(link);
+                links.add(link);
             }
+            downloadLinkMapper.insertBatch(links);
         }
 
-        // 保存资源图片关联
+        // 保存资源图片关联（封面图已在插入资源前解析，无需再次更新资源）
         if (imageIds != null && !imageIds.isEmpty()) {
-            // 如果没有指定封面图，使用第一张图片作为封面
-            int rows = resourceMapper.updateById(resource);
-            if (rows <= 0) {
-                throw new BusinessException("更新爬取资源封面失败");
-            }
-
             saveResourceImages(resource.getId(), imageIds, resolvedCoverImageId);
         }
 
@@ -549,32 +627,182 @@ public class ResourceServiceImpl implements ResourceService {
     }
 
     /**
-     * 保存资源图片关联
+     * 保存资源图片关联（新建资源时使用，一次批量插入）
      */
     private void saveResourceImages(Long resourceId, List<Long> imageIds, Long coverImageId) {
-        if (imageIds == null || imageIds.isEmpty()) {
+        List<Long> limitedImageIds = limitImageIds(imageIds);
+        if (limitedImageIds.isEmpty()) {
             return;
         }
         
-        // 限制最多5张图片
-        List<Long> limitedImageIds = imageIds.stream()
-                .limit(5)
-                .collect(Collectors.toList());
-        
+        List<ResourceImage> relations = new ArrayList<>(limitedImageIds.size());
         int sortOrder = 0;
         for (Long imageId : limitedImageIds) {
-            ResourceImage resourceImage = new ResourceImage();
-            resourceImage.setResourceId(resourceId);
-            resourceImage.setImageId(imageId);
-            resourceImage.setIsCover(imageId.equals(coverImageId) ? 1 : 0);
-            resourceImage.setSortOrder(sortOrder++);
-            resourceImageMapper.insert(resourceImage);
+            relations.add(buildResourceImage(resourceId, imageId, coverImageId, sortOrder++));
         }
+        resourceImageMapper.insertBatch(relations);
         
         // 批量更新图片使用状态
         imageService.batchUpdateImageUsageStatus(limitedImageIds);
     }
 
+    /**
+     * 按差异同步资源的下载链接
+     *
+     * <p>以 链接类型+链接URL 识别同一条链接（同标识重复出现时按顺序一一对应）：
+     * 内容未变的行不做任何写操作，内容或排序变化的行 updateById，
+     * 多出来的新链接批量插入，不再出现的旧链接批量逻辑删除。
+     */
+    private void syncDownloadLinks(Long resourceId, List<DownloadLinkDTO> linkDTOs) {
+        List<DownloadLink> oldLinks = downloadLinkMapper.selectList(
+            new LambdaQueryWrapper<DownloadLink>()
+                .eq(DownloadLink::getResourceId, resourceId)
+                .orderByAsc(DownloadLink::getSortOrder));
+        Map<String, Deque<DownloadLink>> oldLinksByKey = new HashMap<>();
+        for (DownloadLink oldLink : oldLinks) {
+            oldLinksByKey.computeIfAbsent(linkKey(oldLink), k -> new ArrayDeque<>()).add(oldLink);
+        }
+
+        List<DownloadLink> toInsert = new ArrayList<>();
+        int updated = 0;
+        if (linkDTOs != null) {
+            int sortOrder = 0;
+            for (DownloadLinkDTO linkDTO : linkDTOs) {
+                DownloadLink target = buildDownloadLink(resourceId, linkDTO, sortOrder++);
+                Deque<DownloadLink> candidates = oldLinksByKey.get(linkKey(target));
+                DownloadLink existing = candidates == null ? null : candidates.poll();
+                if (existing == null) {
+                    toInsert.add(target);
+                } else if (!sameLinkContent(existing, target)) {
+                    updateDownloadLink(existing.getId(), target);
+                    updated++;
+                }
+            }
+        }
+
+        List<Long> removedIds = oldLinksByKey.values().stream()
+            .flatMap(Collection::stream)
+            .map(DownloadLink::getId)
+            .collect(Collectors.toList());
+        if (!removedIds.isEmpty()) {
+            downloadLinkMapper.deleteBatchIds(removedIds);
+        }
+        if (!toInsert.isEmpty()) {
+            downloadLinkMapper.insertBatch(toInsert);
+        }
+
+        log.debug("同步下载链接完成: resourceId={}, inserted={}, updated={}, removed={}",
+            resourceId, toInsert.size(), updated, removedIds.size());
+    }
+
+    /**
+     * 按差异同步资源图片关联
+     *
+     * @return 关联关系发生增删的图片ID（需要刷新使用状态）
+     */
+    private Set<Long> syncResourceImages(Long resourceId, List<Long> imageIds, Long coverImageId) {
+        List<ResourceImage> oldRelations = resourceImageMapper.selectList(
+            new LambdaQueryWrapper<ResourceImage>().eq(ResourceImage::getResourceId, resourceId));
+        Map<Long, ResourceImage> oldRelationsByImageId = new HashMap<>();
+        for (ResourceImage relation : oldRelations) {
+            oldRelationsByImageId.put(relation.getImageId(), relation);
+        }
+
+        Set<Long> changedImageIds = new HashSet<>();
+        List<ResourceImage> toInsert = new ArrayList<>();
+        int sortOrder = 0;
+        for (Long imageId : limitImageIds(imageIds)) {
+            ResourceImage target = buildResourceImage(resourceId, imageId, coverImageId, sortOrder++);
+            ResourceImage existing = oldRelationsByImageId.remove(imageId);
+            if (existing == null) {
+                toInsert.add(target);
+                changedImageIds.add(imageId);
+            } else if (!Objects.equals(existing.getIsCover(), target.getIsCover())
+                    || !Objects.equals(existing.getSortOrder(), target.getSortOrder())) {
+                existing.setIsCover(target.getIsCover());
+                existing.setSortOrder(target.getSortOrder());
+                resourceImageMapper.updateById(existing);
+            }
+        }
+
+        if (!oldRelationsByImageId.isEmpty()) {
+            resourceImageMapper.deleteBatchIds(oldRelationsByImageId.values().stream()
+                .map(ResourceImage::getId)
+                .collect(Collectors.toList()));
+            changedImageIds.addAll(oldRelationsByImageId.keySet());
+        }
+        if (!toInsert.isEmpty()) {
+            resourceImageMapper.insertBatch(toInsert);
+        }
+        return changedImageIds;
+    }
+
+    private DownloadLink buildDownloadLink(Long resourceId, DownloadLinkDTO linkDTO, int sortOrder) {
+        DownloadLink link = new DownloadLink();
+        BeanUtils.copyProperties(linkDTO, link);
+        // 关联到当前资源
+        link.setResourceId(resourceId);
+        // 设置为有效状态
+        link.setIsValid(1);
+        // 设置排序值
+        link.setSortOrder(sortOrder);
+        return link;
+    }
+
+    /**
+     * 覆盖下载链接的全部可编辑列
+     * updateById 按 NOT_NULL 策略会跳过 null 字段，编辑器中清空的提取码/标题等将无法保存，因此显式 set 每一列
+     */
+    private void updateDownloadLink(Long linkId, DownloadLink target) {
+        downloadLinkMapper.update(null, new LambdaUpdateWrapper<DownloadLink>()
+            .eq(DownloadLink::getId, linkId)
+            .set(DownloadLink::getTitle, target.getTitle())
+            .set(DownloadLink::getLinkName, target.getLinkName())
+            .set(DownloadLink::getLinkType, target.getLinkType())
+            .set(DownloadLink::getLinkUrl, target.getLinkUrl())
+            .set(DownloadLink::getDownloadUrl, target.getDownloadUrl())
+            .set(DownloadLink::getPassword, target.getPassword())
+            .set(DownloadLink::getIsValid, target.getIsValid())
+            .set(DownloadLink::getSortOrder, target.getSortOrder())
+            .set(DownloadLink::getUpdateTime, LocalDateTime.now()));
+    }
+
+    private ResourceImage buildResourceImage(Long resourceId, Long imageId, Long coverImageId, int sortOrder) {
+        ResourceImage resourceImage = new ResourceImage();
+        resourceImage.setResourceId(resourceId);
+        resourceImage.setImageId(imageId);
+        resourceImage.setIsCover(imageId.equals(coverImageId) ? 1 : 0);
+        resourceImage.setSortOrder(sortOrder);
+        return resourceImage;
+    }
+
+    /**
+     * 去重并限制最多5张图片
+     */
+    private List<Long> limitImageIds(List<Long> imageIds) {
+        if (imageIds == null || imageIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return imageIds.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .limit(MAX_RESOURCE_IMAGES)
+            .collect(Collectors.toList());
+    }
+
+    private static String linkKey(DownloadLink link) {
+        return link.getLinkType() + "|" + link.getLinkUrl();
+    }
+
+    private static boolean sameLinkContent(DownloadLink existing, DownloadLink target) {
+        return Objects.equals(existing.getTitle(), target.getTitle())
+            && Objects.equals(existing.getLinkName(), target.getLinkName())
+            && Objects.equals(existing.getDownloadUrl(), target.getDownloadUrl())
+            && Objects.equals(existing.getPassword(), target.getPassword())
+            && Objects.equals(existing.getSortOrder(), target.getSortOrder())
+            && Objects.equals(existing.getIsValid(), target.getIsValid());
+    }
+
     private Long resolveCoverImageId(List<Long> imageIds, Long coverImageId) {
         if (imageIds == null || imageIds.isEmpty()) {
             return null;
@@ -672,8 +900,7 @@ public class ResourceServiceImpl implements ResourceService {
         Map<Long, List<DownloadLink>> finalDownloadLinkMap = downloadLinkMap;
 
         return resources.stream().map(resource -> {
-            ResourceVO vo = new ResourceVO();
-            BeanUtils.copyProperties(resource, vo);
+            ResourceVO vo = ResourceConverter.toVO(resource);
 
             // 设置分类名称
             Category category = finalCategoryMap.get(resource.getCategoryId());
@@ -692,24 +919,15 @@ public class ResourceServiceImpl implements ResourceService {
             // 设置资源图片列表
             List<ResourceImage> resourceImages = finalResourceImageMap.getOrDefault(resource.getId(), Collections.emptyList());
             List<ImageVO> imageVOs = resourceImages.stream()
-                    .map(ri -> {
-                        Image image = finalImageMap.get(ri.getImageId());
-                        if (image != null) {
-                            ImageVO imageVO = new ImageVO();
-                            BeanUtils.copyProperties(image, imageVO);
-                            return imageVO;
-                        }
-                        return null;
-                    }).filter(Objects::nonNull).collect(Collectors.toList());
+                    .map(ri -> ImageConverter.toVO(finalImageMap.get(ri.getImageId())))
+                    .filter(Objects::nonNull).collect(Collectors.toList());
             vo.setImages(imageVOs);
 
             // 设置下载链接列表
             List<DownloadLink> links = finalDownloadLinkMap.getOrDefault(resource.getId(), Collections.emptyList());
-            List<DownloadLinkVO> linkVOs = links.stream().map(link -> {
-                DownloadLinkVO linkVO = new DownloadLinkVO();
-                BeanUtils.copyProperties(link, linkVO);
-                return linkVO;
-            }).collect(Collectors.toList());
+            List<DownloadLinkVO> linkVOs = links.stream()
+                    .map(ResourceConverter::toVO)
+                    .collect(Collectors.toList());
             vo.setDownloadLinks(linkVOs);
 
             return vo;
@@ -744,6 +962,13 @@ public class ResourceServiceImpl implements ResourceService {
         updateWrapper.set(Resource::getStatus, status);
         
         int updatedCount = resourceMapper.update(null, updateWrapper);
+        if (Integer.valueOf(1).equals(status)) {
+            publishedResourceFilter.onPublished(ids);
+            tagBitmapIndex.onPublished(ids);
+        } else {
+            publishedResourceFilter.onUnpublished(ids);
+            tagBitmapIndex.onUnpublished(ids);
+        }
         
         log.info("批量更新资源状态完成: 请求数量={}, 实际更新数量={}, status={}", 
                 ids.size(), updatedCount, status);
@@ -751,38 +976,109 @@ public class ResourceServiceImpl implements ResourceService {
         return updatedCount;
     }
     
+    /**
+     * 批量删除资源
+     *
+     * 按块处理，每块一个事务：锁定块内仍存在的资源，再用 IN 列表一次性删除资源、图片关联和下载链接；
+     * 全部块提交后对涉及的图片统一重算一次使用状态。
+     * 不存在（或已删除）的ID记为失败；某一块执行出错时该块回滚，并逐条重试以定位具体失败的ID。
+     */
     @Override
     public int batchDelete(List<Long> ids) {
         if (ids == null || ids.isEmpty()) {
             return 0;
         }
         
-        log.info("开始批量删除资源: ids={}", ids);
+        List<Long> distinctIds = ids.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+        log.info("开始批量删除资源: count={}, chunkSize={}", distinctIds.size(), batchDeleteChunkSize);
+        long start = System.currentTimeMillis();
         
         int deletedCount = 0;
         List<Long> failedIds = new ArrayList<>();
-        for (Long id : ids) {
+        Set<Long> affectedImageIds = new LinkedHashSet<>();
+        for (List<Long> chunk : Lists.partition(distinctIds, batchDeleteChunkSize)) {
             try {
-                resourceServiceProxy.deleteResource(id);
-                deletedCount++;
+                List<Long> deleted = transactionTemplate.execute(status -> deleteChunk(chunk, affectedImageIds));
+                publishedResourceFilter.onUnpublished(deleted);
+                tagBitmapIndex.onUnpublished(deleted);
+                deletedCount += deleted.size();
+                if (deleted.size() < chunk.size()) {
+                    Set<Long> deletedSet = new HashSet<>(deleted);
+                    chunk.stream().filter(id -> !deletedSet.contains(id)).forEach(failedIds::add);
+                }
             } catch (Exception e) {
-                log.warn("删除资源失败: resourceId={}, error={}", id, e.getMessage());
-                failedIds.add(id);
+                log.warn("批量删除资源块失败，逐条重试: chunkSize={}, error={}", chunk.size(), e.getMessage());
+                for (Long id : chunk) {
+                    try {
+                        resourceServiceProxy.deleteResource(id);
+                        deletedCount++;
+                    } catch (Exception ex) {
+                        log.warn("删除资源失败: resourceId={}, error={}", id, ex.getMessage());
+                        failedIds.add(id);
+                    }
+                }
             }
         }
         
+        // 所有块提交后统一重算图片使用状态（逐条重试路径已在各自事务内重算，这里重复执行也是幂等的）
+        for (List<Long> imageChunk : Lists.partition(new ArrayList<>(affectedImageIds), batchDeleteChunkSize)) {
+            imageService.batchUpdateImageUsageStatus(imageChunk);
+        }
+        
         if (!failedIds.isEmpty()) {
             log.warn("批量删除资源部分失败: totalCount={}, successCount={}, failedIds={}",
-                    ids.size(), deletedCount, failedIds);
-            // 全部失败时回滚整个事务
+                    distinctIds.size(), deletedCount, failedIds);
             if (deletedCount == 0) {
                 throw new BusinessException(BizErrorCode.RESOURCE_BATCH_DELETE_FAILED);
             }
         }
         
-        log.info("批量删除资源完成: 请求数量={}, 实际删除数量={}", ids.size(), deletedCount);
+        log.info("批量删除资源完成: 请求数量={}, 实际删除数量={}, 图片数={}, 耗时={}ms",
+                distinctIds.size(), deletedCount, affectedImageIds.size(), System.currentTimeMillis() - start);
         return deletedCount;
     }
+
+    /**
+     * 在当前事务内删除一块资源
+     *
+     * @param chunk           待删除的资源ID
+     * @param affectedImageIds 收集被解除关联的图片ID
+     * @return 实际删除的资源ID
+     */
+    private List<Long> deleteChunk(List<Long> chunk, Set<Long> affectedImageIds) {
+        // 1. 锁定块内仍存在的资源，保证后续删除行数与这里的ID一一对应
+        List<Long> existingIds = resourceMapper.selectList(new LambdaQueryWrapper<Resource>()
+                .select(Resource::getId)
+                .in(Resource::getId, chunk)
+                .last("FOR UPDATE"))
+            .stream().map(Resource::getId).collect(Collectors.toList());
+        if (existingIds.isEmpty()) {
+            return existingIds;
+        }
+
+        // 2. 收集关联图片
+        LambdaQueryWrapper<ResourceImage> imageWrapper = new LambdaQueryWrapper<ResourceImage>()
+            .in(ResourceImage::getResourceId, existingIds);
+        List<Long> imageIds = resourceImageMapper.selectList(imageWrapper).stream()
+            .map(ResourceImage::getImageId)
+            .collect(Collectors.toList());
+
+        // 3. 删除资源、图片关联和下载链接
+        int rows = resourceMapper.deleteBatchIds(existingIds);
+        if (rows != existingIds.size()) {
+            throw new BusinessException("删除资源失败");
+        }
+        resourceImageMapper.delete(imageWrapper);
+        downloadLinkMapper.delete(new LambdaQueryWrapper<DownloadLink>()
+            .in(DownloadLink::getResourceId, existingIds));
+
+        // 事务回滚时不应计入图片重算，这里在全部语句成功后才收集
+        affectedImageIds.addAll(imageIds);
+        return existingIds;
+    }
     
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -1,6 +1,7 @@
 package com.resource.platform.module.resource.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.resource.platform.common.PageResult;
 import com.resource.platform.exception.BusinessException;
 import com.resource.platform.module.resource.entity.ResourceTag;
 import com.resource.platform.module.resource.entity.ResourceTagRelation;
@@ -9,14 +10,19 @@ import com.resource.platform.exception.ValidationException;
 import com.resource.platform.module.resource.mapper.ResourceTagMapper;
 import com.resource.platform.module.resource.mapper.ResourceTagRelationMapper;
 import com.resource.platform.module.resource.service.ResourceTagService;
+import com.resource.platform.module.resource.support.TagBitmapIndex;
+import com.resource.platform.module.resource.vo.TagFacetVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -28,6 +34,8 @@ import java.util.stream.Collectors;
 public class ResourceTagServiceImpl implements ResourceTagService {
     private static final int DEFAULT_HOT_TAG_LIMIT = 10;
     private static final int MAX_HOT_TAG_LIMIT = 100;
+    private static final int DEFAULT_FACET_LIMIT = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     private ResourceTagMapper resourceTagMapper;
@@ -35,6 +43,9 @@ public class ResourceTagServiceImpl implements ResourceTagService {
     @Autowired
     private ResourceTagRelationMapper resourceTagRelationMapper;
 
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public ResourceTag createTag(String tagName) {
@@ -90,67 +101,54 @@ public class ResourceTagServiceImpl implements ResourceTagService {
         );
     }
 
+    /**
+     * 按差异更新资源的标签关联：只删除移除的、只插入新增的，
+     * 使用次数用 use_count = use_count ± 1 原子更新，不再逐个标签读-改-写。
+     * 先锁定资源行，同一资源的并发修改串行执行，差异计算不会基于过期数据。
+     */
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void associateResourceWithTags(Long resourceId, List<Long> tagIds) {
-        List<ResourceTagRelation> existingRelations = resourceTagRelationMapper.selectList(
+        Integer resourceStatus = resourceTagRelationMapper.lockResourceStatus(resourceId);
+        if (resourceStatus == null) {
+            throw new ResourceNotFoundException("资源", resourceId);
+        }
+
+        Set<Long> existingTagIds = resourceTagRelationMapper.selectList(
             new LambdaQueryWrapper<ResourceTagRelation>()
+                .select(ResourceTagRelation::getTagId)
                 .eq(ResourceTagRelation::getResourceId, resourceId)
-        );
-        Set<Long> existingTagIds = existingRelations.stream()
+        ).stream()
             .map(ResourceTagRelation::getTagId)
             .collect(Collectors.toSet());
-        Set<Long> uniqueTagIds = tagIds == null ? new LinkedHashSet<>() : tagIds.stream()
-            .filter(java.util.Objects::nonNull)
-            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> uniqueTagIds = distinctIds(tagIds);
 
-        // 删除现有关联
-        resourceTagRelationMapper.delete(
-            new LambdaQueryWrapper<ResourceTagRelation>()
-                .eq(ResourceTagRelation::getResourceId, resourceId)
-        );
+        List<Long> removedTagIds = existingTagIds.stream()
+            .filter(tagId -> !uniqueTagIds.contains(tagId))
+            .collect(Collectors.toList());
+        List<Long> addedTagIds = uniqueTagIds.stream()
+            .filter(tagId -> !existingTagIds.contains(tagId))
+            .collect(Collectors.toList());
 
-        for (Long existingTagId : existingTagIds) {
-            if (!uniqueTagIds.contains(existingTagId)) {
-                ResourceTag tag = resourceTagMapper.selectById(existingTagId);
-                if (tag != null) {
-                    int currentUseCount = tag.getUseCount() == null ? 0 : tag.getUseCount();
-                    tag.setUseCount(Math.max(0, currentUseCount - 1));
-                    int rows = resourceTagMapper.updateById(tag);
-                    if (rows <= 0) {
-                        throw new BusinessException("更新标签使用次数失败");
-                    }
-                }
-            }
+        if (!removedTagIds.isEmpty()) {
+            resourceTagRelationMapper.delete(
+                new LambdaQueryWrapper<ResourceTagRelation>()
+                    .eq(ResourceTagRelation::getResourceId, resourceId)
+                    .in(ResourceTagRelation::getTagId, removedTagIds)
+            );
+            resourceTagMapper.adjustUseCount(removedTagIds, -1);
         }
-
-        if (uniqueTagIds.isEmpty()) {
-            log.info("资源 {} 清空标签关联", resourceId);
-            return;
+        if (!addedTagIds.isEmpty()) {
+            resourceTagRelationMapper.insertBatch(resourceId, addedTagIds);
+            resourceTagMapper.adjustUseCount(addedTagIds, 1);
         }
-        
-        // 创建新关联
-        for (Long tagId : uniqueTagIds) {
-            ResourceTagRelation relation = new ResourceTagRelation();
-            relation.setResourceId(resourceId);
-            relation.setTagId(tagId);
-            resourceTagRelationMapper.insert(relation);
-            
-            // 更新标签使用次数
-            if (!existingTagIds.contains(tagId)) {
-                ResourceTag tag = resourceTagMapper.selectById(tagId);
-                if (tag != null) {
-                    int currentUseCount = tag.getUseCount() == null ? 0 : tag.getUseCount();
-                    tag.setUseCount(currentUseCount + 1);
-                    int rows = resourceTagMapper.updateById(tag);
-                    if (rows <= 0) {
-                        throw new BusinessException("更新标签使用次数失败");
-                    }
-                }
-            }
+
+        if (!removedTagIds.isEmpty() || !addedTagIds.isEmpty()) {
+            boolean published = Integer.valueOf(1).equals(resourceStatus);
+            runAfterCommit(() -> tagBitmapIndex.onResourceTagsChanged(
+                resourceId, removedTagIds, uniqueTagIds, published));
         }
-        
-        log.info("关联资源 {} 和标签 {}", resourceId, uniqueTagIds);
+        log.info("关联资源 {} 和标签 {}（新增 {}，移除 {}）", resourceId, uniqueTagIds, addedTagIds, removedTagIds);
     }
 
     @Override
@@ -203,4 +201,68 @@ public class ResourceTagServiceImpl implements ResourceTagService {
     public Long getTagCount() {
         return resourceTagMapper.selectCount(null);
     }
+
+    @Override
+    public PageResult<Long> findPublishedResourceIdsByTags(List<Long> tagIds, boolean matchAll, int pageNum, int pageSize) {
+        int page = Math.max(pageNum, 1);
+        int size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        return tagBitmapIndex.findResourceIds(distinctIds(tagIds), matchAll, page, size);
+    }
+
+    @Override
+    public List<TagFacetVO> getTagFacets(List<Long> tagIds, boolean matchAll, Integer limit) {
+        if (limit == null || limit <= 0) {
+            limit = DEFAULT_FACET_LIMIT;
+        } else if (limit > MAX_HOT_TAG_LIMIT) {
+            limit = MAX_HOT_TAG_LIMIT;
+        }
+
+        List<Map.Entry<Long, Long>> top = tagBitmapIndex.facetCounts(distinctIds(tagIds), matchAll).entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+        if (top.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, ResourceTag> tags = resourceTagMapper.selectBatchIds(
+            top.stream().map(Map.Entry::getKey).collect(Collectors.toList())
+        ).stream().collect(Collectors.toMap(ResourceTag::getId, tag -> tag));
+
+        List<TagFacetVO> facets = new ArrayList<>(top.size());
+        for (Map.Entry<Long, Long> entry : top) {
+            ResourceTag tag = tags.get(entry.getKey());
+            if (tag == null) {
+                continue;
+            }
+            TagFacetVO facet = new TagFacetVO();
+            facet.setTagId(tag.getId());
+            facet.setTagName(tag.getTagName());
+            facet.setResourceCount(entry.getValue());
+            facets.add(facet);
+        }
+        return facets;
+    }
+
+    private static Set<Long> distinctIds(List<Long> ids) {
+        return ids == null ? new LinkedHashSet<>() : ids.stream()
+            .filter(java.util.Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * 事务提交后执行（没有事务时立即执行），避免回滚的修改进入索引
+     */
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
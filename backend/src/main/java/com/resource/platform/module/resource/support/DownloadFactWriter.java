@@ -0,0 +1,172 @@
+package com.resource.platform.module.resource.support;
+
+import com.resource.platform.config.BusinessMetrics;
+import com.resource.platform.module.resource.entity.IpDownloadRecord;
+import com.resource.platform.module.resource.entity.IpResourceDownload;
+import com.resource.platform.module.resource.mapper.IpDownloadRecordMapper;
+import com.resource.platform.module.resource.mapper.IpResourceDownloadMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下载事实异步批量落库
+ *
+ * <p>下载配额由 Redis 实时判定，MySQL 中的 ip_resource_download / ip_download_record
+ * 只用于统计报表，因此不在请求线程里写库：
+ * <ul>
+ *   <li>请求线程只做一次 {@code offer}；队列有界，写满时丢弃并计数，不反压下载接口</li>
+ *   <li>单个后台线程攒批后在一个事务里 INSERT IGNORE 明细，再按明细重算涉及的
+ *       (IP, 日期) 计数，重算是幂等的，重复写入同一批不会多计</li>
+ *   <li>应用关闭时写入线程写完当前批次后排空队列再退出，不中断正在进行的写入</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class DownloadFactWriter {
+
+    @Value("${download.persist.queue-capacity:20000}")
+    private int queueCapacity;
+
+    @Value("${download.persist.batch-size:500}")
+    private int batchSize;
+
+    @Value("${download.persist.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private IpResourceDownloadMapper ipResourceDownloadMapper;
+
+    @Autowired
+    private IpDownloadRecordMapper ipDownloadRecordMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    private BlockingQueue<IpResourceDownload> queue;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        businessMetrics.registerDownloadFactQueue(queue);
+
+        running = true;
+        worker = new Thread(this::runLoop, "download-fact-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("下载记录异步写入器启动: queueCapacity={}, batchSize={}, flushIntervalMs={}",
+            queueCapacity, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 不中断写入线程：中断可能落在事务中间导致整批丢失，poll 超时后线程自行排空退出
+        running = false;
+        try {
+            worker.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("下载记录异步写入器未在超时内停止，剩余 {} 条未写入", queue.size());
+        }
+    }
+
+    /**
+     * 提交一条下载记录（非阻塞）
+     *
+     * @return 是否成功入队；队列已满时返回 false，记录被丢弃
+     */
+    public boolean submit(String ipAddress, Long resourceId, LocalDate downloadDate) {
+        IpResourceDownload fact = new IpResourceDownload();
+        fact.setIpAddress(ipAddress);
+        fact.setResourceId(resourceId);
+        fact.setDownloadDate(downloadDate);
+        if (queue.offer(fact)) {
+            return true;
+        }
+        businessMetrics.recordDownloadFact("dropped", 1);
+        log.warn("下载记录队列已满，丢弃: ip={}, resourceId={}", ipAddress, resourceId);
+        return false;
+    }
+
+    private void runLoop() {
+        List<IpResourceDownload> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                IpResourceDownload first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("下载记录批量写入异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        drainOnShutdown();
+    }
+
+    /**
+     * 关闭时按批写完队列中剩余的记录
+     */
+    private void drainOnShutdown() {
+        int total = 0;
+        List<IpResourceDownload> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            total += batch.size();
+            batch.clear();
+        }
+        log.info("下载记录异步写入器已停止，关闭时补写 {} 条", total);
+    }
+
+    private void flush(List<IpResourceDownload> facts) {
+        Map<String, IpDownloadRecord> keys = new LinkedHashMap<>();
+        for (IpResourceDownload fact : facts) {
+            keys.computeIfAbsent(fact.getIpAddress() + "|" + fact.getDownloadDate(), key -> {
+                IpDownloadRecord record = new IpDownloadRecord();
+                record.setIpAddress(fact.getIpAddress());
+                record.setDownloadDate(fact.getDownloadDate());
+                return record;
+            });
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ipResourceDownloadMapper.insertIgnoreBatch(facts);
+                ipDownloadRecordMapper.refreshCounts(new ArrayList<>(keys.values()));
+            });
+            businessMetrics.recordDownloadFact("written", facts.size());
+        } catch (Exception e) {
+            businessMetrics.recordDownloadFact("failed", facts.size());
+            log.error("下载记录批量写入失败: size={}", facts.size(), e);
+        }
+    }
+}
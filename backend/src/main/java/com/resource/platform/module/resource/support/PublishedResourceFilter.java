@@ -0,0 +1,294 @@
+package com.resource.platform.module.resource.support;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.resource.platform.config.BusinessMetrics;
+import com.resource.platform.module.resource.entity.Resource;
+import com.resource.platform.module.resource.mapper.ResourceMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 已发布资源ID存在性过滤器（布隆过滤器 + 短期负缓存）
+ *
+ * <p>前台按ID访问资源的接口先在内存中判断，明显无效的ID不再查询 MySQL 和 Redis：
+ * <ul>
+ *   <li>布隆过滤器由已发布资源ID按主键游标全量构建，发布时增量加入；
+ *       不包含的ID一定不是已发布资源，直接拒绝</li>
+ *   <li>发布同时写入 Redis 有序集合 {@code resource:published-filter:recent}（分值为发布时间），
+ *       各节点每个同步周期拉取一次新发布的ID加入本地过滤器，其他节点的发布最多延迟一个周期可见；
+ *       Redis 不可用时只能看到本节点的发布，其他节点的发布等下一次全量重建</li>
+ *   <li>布隆过滤器不支持删除，下架/删除的资源以及数据库确认不存在的ID记入负缓存，
+ *       负缓存有效期内直接拒绝；定时重建后下架的ID自然从过滤器中消失</li>
+ *   <li>发布/下架在事务提交后才修改过滤器和负缓存，避免回滚的修改生效</li>
+ *   <li>过滤器尚未构建（启动预热前或构建失败）时全部放行</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class PublishedResourceFilter {
+
+    private static final int SCAN_BATCH_SIZE = 5000;
+    private static final int MIN_EXPECTED_INSERTIONS = 10_000;
+
+    /** 最近发布的资源ID（分值为发布时间毫秒），供其他节点同步 */
+    private static final String RECENT_KEY = "resource:published-filter:recent";
+
+    /** 拉取时向前多取的时长，容忍节点间时钟偏差和写入延迟 */
+    private static final long SYNC_OVERLAP_MS = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /** 布隆过滤器误判率 */
+    @Value("${resource.published-filter.fpp:0.01}")
+    private double fpp;
+
+    /** 预留容量倍数，容纳两次重建之间新发布的资源 */
+    @Value("${resource.published-filter.headroom:2}")
+    private int headroom;
+
+    @Value("${resource.published-filter.negative-ttl-seconds:60}")
+    private long negativeTtlSeconds;
+
+    @Value("${resource.published-filter.negative-max-size:100000}")
+    private long negativeMaxSize;
+
+    /** 从 Redis 拉取其他节点新发布ID的周期 */
+    @Value("${resource.published-filter.sync-interval-ms:2000}")
+    private long syncIntervalMs;
+
+    /** Redis 中保留最近发布ID的时长，应大于全量重建间隔 */
+    @Value("${resource.published-filter.recent-retention-ms:3600000}")
+    private long recentRetentionMs;
+
+    private volatile BloomFilter<Long> filter;
+
+    private Cache<Long, Boolean> missingIds;
+
+    private final Object writeLock = new Object();
+
+    /** 重建进行中时新发布的资源ID，重建完成后加入新过滤器；非重建期间为 null */
+    private List<Long> pendingPublished;
+
+    private final AtomicBoolean syncing = new AtomicBoolean();
+
+    /** 上一次从 Redis 拉取的时间，0 表示尚未拉取（首次拉取保留期内的全部记录） */
+    private volatile long lastSyncedAt;
+
+    @PostConstruct
+    public void init() {
+        missingIds = Caffeine.newBuilder()
+            .maximumSize(negativeMaxSize)
+            .expireAfterWrite(negativeTtlSeconds, TimeUnit.SECONDS)
+            .build();
+    }
+
+    /**
+     * 从数据库全量重建布隆过滤器（同一时间只有一个重建）
+     */
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            pendingPublished = new ArrayList<>();
+        }
+
+        long start = System.currentTimeMillis();
+        BloomFilter<Long> built;
+        int count = 0;
+        try {
+            long publishedCount = resourceMapper.selectCount(new LambdaQueryWrapper<Resource>()
+                .eq(Resource::getStatus, 1));
+            long expected = Math.max(publishedCount * Math.max(headroom, 1), MIN_EXPECTED_INSERTIONS);
+            built = BloomFilter.create(Funnels.longFunnel(), expected, fpp);
+
+            long afterId = 0L;
+            while (true) {
+                List<Long> batch = resourceMapper.selectPublishedIdsAfter(afterId, SCAN_BATCH_SIZE);
+                for (Long id : batch) {
+                    built.put(id);
+                }
+                count += batch.size();
+                if (batch.size() < SCAN_BATCH_SIZE) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingPublished = null;
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            for (Long id : pendingPublished) {
+                built.put(id);
+            }
+            pendingPublished = null;
+            filter = built;
+        }
+        log.info("已发布资源过滤器重建完成: count={}, 耗时={}ms", count, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 判断资源ID是否可能是已发布资源；返回 false 时一定不是
+     */
+    public boolean mightBePublished(Long id) {
+        if (id == null || id <= 0) {
+            return false;
+        }
+        // 先同步其他节点的发布，同时清除这些ID的负缓存
+        syncRecentIfDue();
+        if (missingIds.getIfPresent(id) != null) {
+            businessMetrics.recordResourceIdRejected("negative_cache");
+            return false;
+        }
+        BloomFilter<Long> current = filter;
+        if (current != null && !current.mightContain(id)) {
+            businessMetrics.recordResourceIdRejected("bloom_filter");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 记录数据库确认不存在（或未发布）的资源ID
+     */
+    public void markMissing(Long id) {
+        if (id != null) {
+            missingIds.put(id, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * 资源发布（新建即发布、上架、编辑后仍为发布状态）
+     */
+    public void onPublished(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = new ArrayList<>(ids);
+        runAfterCommit(() -> {
+            addPublished(copy);
+            shareWithCluster(copy);
+        });
+    }
+
+    /**
+     * 资源下架或删除
+     */
+    public void onUnpublished(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = new ArrayList<>(ids);
+        runAfterCommit(() -> copy.forEach(this::markMissing));
+    }
+
+    public void onPublished(Long id) {
+        onPublished(Collections.singletonList(id));
+    }
+
+    public void onUnpublished(Long id) {
+        onUnpublished(Collections.singletonList(id));
+    }
+
+    private void addPublished(Collection<Long> ids) {
+        synchronized (writeLock) {
+            BloomFilter<Long> current = filter;
+            for (Long id : ids) {
+                if (current != null) {
+                    current.put(id);
+                }
+                if (pendingPublished != null) {
+                    pendingPublished.add(id);
+                }
+            }
+        }
+        missingIds.invalidateAll(ids);
+    }
+
+    /**
+     * 把本节点的发布写入 Redis，供其他节点同步；顺带清理超过保留期的记录
+     */
+    private void shareWithCluster(List<Long> ids) {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        for (Long id : ids) {
+            tuples.add(ZSetOperations.TypedTuple.of(String.valueOf(id), (double) now));
+        }
+        try {
+            stringRedisTemplate.opsForZSet().add(RECENT_KEY, tuples);
+            stringRedisTemplate.opsForZSet().removeRangeByScore(RECENT_KEY, 0, now - recentRetentionMs);
+        } catch (Exception e) {
+            log.warn("同步新发布资源到 Redis 失败，其他节点等待全量重建: ids={}, error={}", ids, e.getMessage());
+        }
+    }
+
+    /**
+     * 每个同步周期最多从 Redis 拉取一次其他节点新发布的资源ID
+     */
+    private void syncRecentIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastSyncedAt < syncIntervalMs || !syncing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long from = lastSyncedAt == 0 ? now - recentRetentionMs : lastSyncedAt - SYNC_OVERLAP_MS;
+            Set<String> members = stringRedisTemplate.opsForZSet().rangeByScore(RECENT_KEY, from, Double.MAX_VALUE);
+            if (members != null && !members.isEmpty()) {
+                List<Long> ids = new ArrayList<>(members.size());
+                for (String member : members) {
+                    ids.add(Long.valueOf(member));
+                }
+                addPublished(ids);
+            }
+        } catch (Exception e) {
+            log.warn("拉取新发布资源失败: error={}", e.getMessage());
+        } finally {
+            lastSyncedAt = now;
+            syncing.set(false);
+        }
+    }
+
+    /**
+     * 事务提交后执行（没有事务时立即执行）
+     */
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package com.resource.platform.module.resource.support;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.google.common.collect.Lists;
+import com.resource.platform.common.PageResult;
+import com.resource.platform.module.resource.entity.Resource;
+import com.resource.platform.module.resource.entity.ResourceTagRelation;
+import com.resource.platform.module.resource.mapper.ResourceMapper;
+import com.resource.platform.module.resource.mapper.ResourceTagRelationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 标签位图索引（标签ID → 已发布资源ID 的 RoaringBitmap）
+ *
+ * <p>前台按多个标签做 AND/OR 筛选和统计各标签命中数时，直接在内存位图上求交/并，
+ * 不再对 resource_tag_relation 做多表 JOIN 和 GROUP BY。
+ *
+ * <ul>
+ *   <li>索引为不可变快照：读操作无锁，写操作（增量更新、重建）复制后整体替换，
+ *       被修改的标签位图先克隆再修改，读者看到的位图永远不会被并发改动</li>
+ *   <li>标签关联修改、资源上下架和删除都在事务提交后增量更新；定时重建兜底修正增量更新失败或乱序，
+ *       期间筛选结果可能包含刚下架的资源，调用方按已发布条件回表时自然过滤</li>
+ *   <li>发生变化的资源ID同时写入 Redis 有序集合 {@code resource:tag-index:changed}（分值为变更时间），
+ *       各节点每个同步周期拉取一次，按数据库中的当前状态和标签关联重新加载这些资源，
+ *       其他节点的修改最多延迟一个同步周期可见；Redis 不可用时等下一次全量重建</li>
+ *   <li>一批变更只复制一次标签映射，同一批内已克隆过的位图直接修改</li>
+ *   <li>重建期间发生的增量更新会被记录，重建完成后重放，避免被旧数据覆盖</li>
+ *   <li>资源ID按 int 存储（自增主键），超出 int 范围的ID不进入索引</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class TagBitmapIndex {
+
+    private static final int SCAN_BATCH_SIZE = 5000;
+    private static final int QUERY_BATCH_SIZE = 500;
+
+    /** 最近发生标签/发布状态变化的资源ID（分值为变更时间毫秒），供其他节点同步 */
+    private static final String CHANGED_KEY = "resource:tag-index:changed";
+
+    /** 拉取时向前多取的时长，容忍节点间时钟偏差和写入延迟 */
+    private static final long SYNC_OVERLAP_MS = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired
+    private ResourceTagRelationMapper resourceTagRelationMapper;
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /** Redis 中保留变更记录的时长，应大于全量重建间隔 */
+    @Value("${resource.tag-index.recent-retention-ms:3600000}")
+    private long recentRetentionMs;
+
+    /** 当前快照，未构建时为 null */
+    private volatile Map<Long, RoaringBitmap> snapshot;
+
+    private final Object writeLock = new Object();
+
+    /** 重建进行中时记录的增量更新，重建完成后重放；非重建期间为 null */
+    private List<ResourceTagChange> pendingChanges;
+
+    /** 上一次从 Redis 拉取的时间，0 表示尚未拉取（首次拉取保留期内的全部记录） */
+    private volatile long lastSyncedAt;
+
+    /**
+     * 从数据库全量重建索引（同一时间只有一个重建）
+     */
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        long start = System.currentTimeMillis();
+        Map<Long, RoaringBitmap> built = new HashMap<>();
+        long afterId = 0L;
+        int relationCount = 0;
+        try {
+            while (true) {
+                List<ResourceTagRelation> batch = resourceTagRelationMapper.selectPublishedAfter(afterId, SCAN_BATCH_SIZE);
+                for (ResourceTagRelation relation : batch) {
+                    Integer resourceId = toIndexId(relation.getResourceId());
+                    if (resourceId != null) {
+                        built.computeIfAbsent(relation.getTagId(), key -> new RoaringBitmap()).add(resourceId);
+                        relationCount++;
+                    }
+                }
+                if (batch.size() < SCAN_BATCH_SIZE) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+        built.values().forEach(RoaringBitmap::runOptimize);
+
+        int replayed;
+        synchronized (writeLock) {
+            List<ResourceTagChange> replay = pendingChanges;
+            pendingChanges = null;
+            for (ResourceTagChange change : replay) {
+                applyTo(built, null, change);
+            }
+            replayed = replay.size();
+            snapshot = built;
+        }
+        log.info("标签位图索引重建完成: tags={}, relations={}, replayed={}, cost={}ms",
+            built.size(), relationCount, replayed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 索引尚未构建时同步构建一次
+     */
+    public void ensureBuilt() {
+        if (snapshot == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * 资源的标签关联变化后增量更新（事务提交后调用）
+     *
+     * @param resourceId    资源ID
+     * @param removedTagIds 被移除的标签
+     * @param currentTagIds 修改后资源拥有的全部标签
+     * @param published     资源是否处于已发布状态
+     */
+    public void onResourceTagsChanged(Long resourceId, Collection<Long> removedTagIds,
+                                      Collection<Long> currentTagIds, boolean published) {
+        apply(Collections.singletonList(new ResourceTagChange(resourceId, removedTagIds, currentTagIds, published, false)));
+        shareWithCluster(Collections.singletonList(resourceId));
+    }
+
+    /**
+     * 资源发布（新建即发布、上架、编辑后仍为发布状态），事务提交后按当前标签关联加入索引
+     */
+    public void onPublished(Collection<Long> resourceIds) {
+        if (resourceIds == null || resourceIds.isEmpty()) {
+            return;
+        }
+        List<Long> copy = new ArrayList<>(resourceIds);
+        runAfterCommit(() -> {
+            try {
+                Map<Long, List<Long>> tagsByResource = new HashMap<>();
+                for (List<Long> chunk : Lists.partition(copy, QUERY_BATCH_SIZE)) {
+                    resourceTagRelationMapper.selectList(new LambdaQueryWrapper<ResourceTagRelation>()
+                            .in(ResourceTagRelation::getResourceId, chunk))
+                        .forEach(relation -> tagsByResource
+                            .computeIfAbsent(relation.getResourceId(), key -> new ArrayList<>())
+                            .add(relation.getTagId()));
+                }
+                List<ResourceTagChange> changes = new ArrayList<>(tagsByResource.size());
+                tagsByResource.forEach((resourceId, tagIds) ->
+                    changes.add(new ResourceTagChange(resourceId, null, tagIds, true, false)));
+                apply(changes);
+            } catch (Exception e) {
+                // 由定时重建兜底
+                log.error("标签位图索引增量加入失败: resourceIds={}", copy, e);
+            }
+            shareWithCluster(copy);
+        });
+    }
+
+    /**
+     * 资源下架或删除，事务提交后从全部标签位图中移除
+     */
+    public void onUnpublished(Collection<Long> resourceIds) {
+        if (resourceIds == null || resourceIds.isEmpty()) {
+            return;
+        }
+        List<Long> copy = new ArrayList<>(resourceIds);
+        runAfterCommit(() -> {
+            List<ResourceTagChange> changes = new ArrayList<>(copy.size());
+            for (Long resourceId : copy) {
+                changes.add(new ResourceTagChange(resourceId, null, null, false, true));
+            }
+            apply(changes);
+            shareWithCluster(copy);
+        });
+    }
+
+    public void onPublished(Long resourceId) {
+        onPublished(Collections.singletonList(resourceId));
+    }
+
+    public void onUnpublished(Long resourceId) {
+        onUnpublished(Collections.singletonList(resourceId));
+    }
+
+    /**
+     * 把一批变更应用到当前快照：整批只复制一次标签映射，完成后整体替换
+     */
+    private void apply(List<ResourceTagChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (pendingChanges != null) {
+                pendingChanges.addAll(changes);
+            }
+            Map<Long, RoaringBitmap> current = snapshot;
+            if (current == null) {
+                return;
+            }
+            Map<Long, RoaringBitmap> copy = new HashMap<>(current);
+            Set<Long> cloned = new HashSet<>();
+            for (ResourceTagChange change : changes) {
+                applyTo(copy, cloned, change);
+            }
+            snapshot = copy;
+        }
+    }
+
+    /**
+     * 拉取其他节点最近变化的资源ID，按数据库当前状态重新加载（由定时任务按同步周期调用）
+     */
+    public void syncFromCluster() {
+        if (snapshot == null) {
+            // 尚未构建，首次构建会读到最新数据
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long from = lastSyncedAt == 0 ? now - recentRetentionMs : lastSyncedAt - SYNC_OVERLAP_MS;
+        Set<String> members;
+        try {
+            members = stringRedisTemplate.opsForZSet().rangeByScore(CHANGED_KEY, from, Double.MAX_VALUE);
+        } catch (Exception e) {
+            log.warn("拉取标签索引变更失败: error={}", e.getMessage());
+            return;
+        }
+        if (members != null && !members.isEmpty()) {
+            List<Long> resourceIds = new ArrayList<>(members.size());
+            for (String member : members) {
+                resourceIds.add(Long.valueOf(member));
+            }
+            apply(loadCurrentState(resourceIds));
+            log.debug("标签位图索引同步其他节点变更: count={}", resourceIds.size());
+        }
+        // 加载失败时抛出，保留拉取位置，下个周期重试
+        lastSyncedAt = now;
+    }
+
+    /**
+     * 按数据库中的发布状态和标签关联生成"先整体移除、已发布则按当前标签重新加入"的变更
+     */
+    private List<ResourceTagChange> loadCurrentState(List<Long> resourceIds) {
+        Set<Long> published = new HashSet<>();
+        Map<Long, List<Long>> tagsByResource = new HashMap<>();
+        for (List<Long> chunk : Lists.partition(resourceIds, QUERY_BATCH_SIZE)) {
+            resourceMapper.selectList(new LambdaQueryWrapper<Resource>()
+                    .select(Resource::getId)
+                    .in(Resource::getId, chunk)
+                    .eq(Resource::getStatus, 1))
+                .forEach(resource -> published.add(resource.getId()));
+            resourceTagRelationMapper.selectList(new LambdaQueryWrapper<ResourceTagRelation>()
+                    .in(ResourceTagRelation::getResourceId, chunk))
+                .forEach(relation -> tagsByResource
+                    .computeIfAbsent(relation.getResourceId(), key -> new ArrayList<>())
+                    .add(relation.getTagId()));
+        }
+        List<ResourceTagChange> changes = new ArrayList<>(resourceIds.size());
+        for (Long resourceId : resourceIds) {
+            changes.add(new ResourceTagChange(resourceId, null, tagsByResource.get(resourceId),
+                published.contains(resourceId), true));
+        }
+        return changes;
+    }
+
+    /**
+     * 把本节点变化的资源ID写入 Redis，供其他节点同步；顺带清理超过保留期的记录
+     */
+    private void shareWithCluster(List<Long> resourceIds) {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        for (Long resourceId : resourceIds) {
+            tuples.add(ZSetOperations.TypedTuple.of(String.valueOf(resourceId), (double) now));
+        }
+        try {
+            stringRedisTemplate.opsForZSet().add(CHANGED_KEY, tuples);
+            stringRedisTemplate.opsForZSet().removeRangeByScore(CHANGED_KEY, 0, now - recentRetentionMs);
+        } catch (Exception e) {
+            log.warn("同步标签索引变更到 Redis 失败，其他节点等待全量重建: resourceIds={}, error={}",
+                resourceIds, e.getMessage());
+        }
+    }
+
+    /**
+     * 按标签筛选已发布资源，结果按资源ID倒序（即按发布先后从新到旧）分页
+     *
+     * @param tagIds   标签ID
+     * @param matchAll true 要求同时包含全部标签（AND），false 包含任一标签即可（OR）
+     */
+    public PageResult<Long> findResourceIds(Collection<Long> tagIds, boolean matchAll, int pageNum, int pageSize) {
+        RoaringBitmap matched = match(tagIds, matchAll);
+        long total = matched.getLongCardinality();
+
+        List<Long> ids = new ArrayList<>(pageSize);
+        long skip = (long) (pageNum - 1) * pageSize;
+        if (skip < total) {
+            IntIterator iterator = matched.getReverseIntIterator();
+            for (long i = 0; i < skip; i++) {
+                iterator.next();
+            }
+            while (iterator.hasNext() && ids.size() < pageSize) {
+                ids.add((long) iterator.next());
+            }
+        }
+
+        PageResult<Long> result = new PageResult<>(total, ids);
+        result.setCurrent((long) pageNum);
+        result.setSize((long) pageSize);
+        result.setPages((total + pageSize - 1) / pageSize);
+        return result;
+    }
+
+    /**
+     * 统计各标签命中的已发布资源数
+     *
+     * @param tagIds   已选标签，为空时统计各标签的资源总数
+     * @param matchAll 已选标签之间的组合方式
+     * @return 标签ID → 命中数（只包含命中数大于 0 的标签）
+     */
+    public Map<Long, Long> facetCounts(Collection<Long> tagIds, boolean matchAll) {
+        ensureBuilt();
+        Map<Long, RoaringBitmap> current = snapshot;
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        if (tagIds == null || tagIds.isEmpty()) {
+            current.forEach((tagId, bitmap) -> {
+                long count = bitmap.getLongCardinality();
+                if (count > 0) {
+                    counts.put(tagId, count);
+                }
+            });
+            return counts;
+        }
+
+        RoaringBitmap matched = match(tagIds, matchAll);
+        if (matched.isEmpty()) {
+            return counts;
+        }
+        current.forEach((tagId, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(matched, bitmap);
+            if (count > 0) {
+                counts.put(tagId, count);
+            }
+        });
+        return counts;
+    }
+
+    private RoaringBitmap match(Collection<Long> tagIds, boolean matchAll) {
+        ensureBuilt();
+        Map<Long, RoaringBitmap> current = snapshot;
+        if (tagIds == null || tagIds.isEmpty()) {
+            return new RoaringBitmap();
+        }
+
+        List<RoaringBitmap> bitmaps = new ArrayList<>(tagIds.size());
+        for (Long tagId : tagIds) {
+            RoaringBitmap bitmap = current.get(tagId);
+            if (bitmap == null) {
+                if (matchAll) {
+                    return new RoaringBitmap();
+                }
+                continue;
+            }
+            bitmaps.add(bitmap);
+        }
+        if (bitmaps.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        if (!matchAll) {
+            return RoaringBitmap.or(bitmaps.iterator());
+        }
+        // 从最小的位图开始求交，尽早缩小中间结果
+        bitmaps.sort((a, b) -> Long.compare(a.getLongCardinality(), b.getLongCardinality()));
+        RoaringBitmap result = bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 把一次变更应用到（可修改的）索引副本上
+     *
+     * @param cloned 本批已克隆过的标签，其位图可直接修改；为 null 表示整个索引都是私有副本
+     */
+    private static void applyTo(Map<Long, RoaringBitmap> index, Set<Long> cloned, ResourceTagChange change) {
+        Integer resourceId = toIndexId(change.resourceId);
+        if (resourceId == null) {
+            return;
+        }
+        if (change.removeFromAll) {
+            List<Long> containing = new ArrayList<>();
+            index.forEach((tagId, bitmap) -> {
+                if (bitmap.contains(resourceId)) {
+                    containing.add(tagId);
+                }
+            });
+            for (Long tagId : containing) {
+                writable(index, cloned, tagId).remove(resourceId);
+            }
+            if (!change.published) {
+                return;
+            }
+        }
+        for (Long tagId : change.removedTagIds) {
+            RoaringBitmap bitmap = index.get(tagId);
+            if (bitmap != null && bitmap.contains(resourceId)) {
+                writable(index, cloned, tagId).remove(resourceId);
+            }
+        }
+        for (Long tagId : change.currentTagIds) {
+            RoaringBitmap bitmap = index.get(tagId);
+            if (change.published) {
+                if (bitmap == null || !bitmap.contains(resourceId)) {
+                    writable(index, cloned, tagId).add(resourceId);
+                }
+            } else if (bitmap != null && bitmap.contains(resourceId)) {
+                writable(index, cloned, tagId).remove(resourceId);
+            }
+        }
+    }
+
+    /**
+     * 取可修改的标签位图：快照共享的位图先克隆，同一批内只克隆一次
+     */
+    private static RoaringBitmap writable(Map<Long, RoaringBitmap> index, Set<Long> cloned, Long tagId) {
+        RoaringBitmap bitmap = index.get(tagId);
+        if (bitmap != null && (cloned == null || cloned.contains(tagId))) {
+            return bitmap;
+        }
+        bitmap = bitmap != null ? bitmap.clone() : new RoaringBitmap();
+        index.put(tagId, bitmap);
+        if (cloned != null) {
+            cloned.add(tagId);
+        }
+        return bitmap;
+    }
+
+    /**
+     * 事务提交后执行（没有事务时立即执行）
+     */
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Integer toIndexId(Long resourceId) {
+        if (resourceId == null || resourceId <= 0 || resourceId > Integer.MAX_VALUE) {
+            return null;
+        }
+        return resourceId.intValue();
+    }
+
+    /**
+     * 一次资源标签变更
+     */
+    private static final class ResourceTagChange {
+        private final Long resourceId;
+        private final Collection<Long> removedTagIds;
+        private final Collection<Long> currentTagIds;
+        private final boolean published;
+        /** 先从全部标签位图中移除（下架、删除、跨节点重新加载），published 时再按 currentTagIds 加入 */
+        private final boolean removeFromAll;
+
+        private ResourceTagChange(Long resourceId, Collection<Long> removedTagIds,
+                                  Collection<Long> currentTagIds, boolean published, boolean removeFromAll) {
+            this.resourceId = resourceId;
+            this.removedTagIds = removedTagIds != null ? removedTagIds : Collections.emptyList();
+            this.currentTagIds = currentTagIds != null ? currentTagIds : Collections.emptyList();
+            this.published = published;
+            this.removeFromAll = removeFromAll;
+        }
+    }
+}
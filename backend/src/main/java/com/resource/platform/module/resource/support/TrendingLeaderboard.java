@@ -0,0 +1,229 @@
+package com.resource.platform.module.resource.support;
+
+import com.resource.platform.common.BizErrorCode;
+import com.resource.platform.exception.BusinessException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 热门资源排行榜（按时间指数衰减的 Redis 有序集合）
+ *
+ * <p>每个时间窗口一个 ZSET，成员为资源ID，分值为按半衰期衰减后的下载/访问加权次数。
+ * 采用前向衰减：事件发生时按 {@code weight * 2^((now - landmark) / halfLife)} 累加，
+ * 已有分值无需改动，单次更新为 O(log n)；读取时 ZREVRANGE 取前 k 个，为 O(log n + k)。
+ * 定时任务把所有分值乘以衰减因子并把基准时间移到当前（{@link #rescale}），
+ * 防止指数项无限增长，同时清理分值过低的成员并限制集合大小。
+ *
+ * <ul>
+ *   <li>hourly / daily / weekly 三个窗口的半衰期分别为 1 小时、1 天、7 天</li>
+ *   <li>所有 key 使用同一个 hash tag，一次 Lua 调用同时更新三个窗口，集群模式下也落在同一个槽位</li>
+ *   <li>排行榜只记录资源ID，不感知资源下架/删除，调用方回表时按已发布条件过滤</li>
+ *   <li>Redis 不可用时更新直接丢弃，读取返回空列表，由调用方降级为按累计下载量排序</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class TrendingLeaderboard {
+
+    private static final String KEY_PREFIX = "{trending}:";
+    private static final String LANDMARK_SUFFIX = ":landmark";
+
+    /**
+     * 按事件累加三个窗口的分值
+     * KEYS = [窗口1 ZSET, 窗口1 基准时间, 窗口2 ZSET, 窗口2 基准时间, ...]
+     * ARGV[1] = 资源ID, ARGV[2] = 事件权重, ARGV[3] = 当前时间（epoch 秒）, ARGV[4..] = 各窗口半衰期（秒）
+     */
+    private static final String INCREMENT_SCRIPT =
+        "local now = tonumber(ARGV[3])\n" +
+        "for i = 1, #KEYS, 2 do\n" +
+        "    local landmark = tonumber(redis.call('GET', KEYS[i + 1]))\n" +
+        "    if not landmark then\n" +
+        "        landmark = now\n" +
+        "        redis.call('SET', KEYS[i + 1], now)\n" +
+        "    end\n" +
+        "    local halfLife = tonumber(ARGV[3 + (i + 1) / 2])\n" +
+        "    redis.call('ZINCRBY', KEYS[i], tonumber(ARGV[2]) * 2 ^ ((now - landmark) / halfLife), ARGV[1])\n" +
+        "end\n" +
+        "return 0";
+
+    /**
+     * 衰减并裁剪单个窗口
+     * KEYS[1] = ZSET, KEYS[2] = 基准时间
+     * ARGV[1] = 当前时间（epoch 秒）, ARGV[2] = 半衰期（秒）, ARGV[3] = 最低分值, ARGV[4] = 最大成员数
+     * 返回值：裁剪后的成员数
+     */
+    private static final String RESCALE_SCRIPT =
+        "local now = tonumber(ARGV[1])\n" +
+        "local landmark = tonumber(redis.call('GET', KEYS[2]))\n" +
+        "if landmark and now > landmark and redis.call('EXISTS', KEYS[1]) == 1 then\n" +
+        "    local factor = 2 ^ (-(now - landmark) / tonumber(ARGV[2]))\n" +
+        "    redis.call('ZUNIONSTORE', KEYS[1], 1, KEYS[1], 'WEIGHTS', factor)\n" +
+        "end\n" +
+        "redis.call('SET', KEYS[2], now)\n" +
+        "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3])\n" +
+        "local size = redis.call('ZCARD', KEYS[1])\n" +
+        "local maxSize = tonumber(ARGV[4])\n" +
+        "if size > maxSize then\n" +
+        "    redis.call('ZREMRANGEBYRANK', KEYS[1], 0, size - maxSize - 1)\n" +
+        "    size = maxSize\n" +
+        "end\n" +
+        "return size";
+
+    private static final DefaultRedisScript<Long> INCREMENT = new DefaultRedisScript<>(INCREMENT_SCRIPT, Long.class);
+    private static final DefaultRedisScript<Long> RESCALE = new DefaultRedisScript<>(RESCALE_SCRIPT, Long.class);
+
+    private static final List<String> ALL_WINDOW_KEYS;
+
+    static {
+        List<String> keys = new ArrayList<>();
+        for (Window window : Window.values()) {
+            keys.add(window.key());
+            keys.add(window.landmarkKey());
+        }
+        ALL_WINDOW_KEYS = Collections.unmodifiableList(keys);
+    }
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${resource.trending.enabled:true}")
+    private boolean enabled;
+
+    @Value("${resource.trending.download-weight:5}")
+    private double downloadWeight;
+
+    @Value("${resource.trending.visit-weight:1}")
+    private double visitWeight;
+
+    @Value("${resource.trending.min-score:0.01}")
+    private double minScore;
+
+    @Value("${resource.trending.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * 记录一次有效下载
+     */
+    public void recordDownload(Long resourceId) {
+        increment(resourceId, downloadWeight);
+    }
+
+    /**
+     * 记录一次详情访问
+     */
+    public void recordVisit(Long resourceId) {
+        increment(resourceId, visitWeight);
+    }
+
+    /**
+     * 按热度从高到低取前 limit 个资源ID；排行榜为空或 Redis 不可用时返回空列表
+     */
+    public List<Long> topIds(Window window, int limit) {
+        if (!enabled || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Set<String> members;
+        try {
+            members = stringRedisTemplate.opsForZSet().reverseRange(window.key(), 0, limit - 1);
+        } catch (Exception e) {
+            log.warn("读取热门排行榜失败: window={}, error={}", window.getCode(), e.getMessage());
+            return Collections.emptyList();
+        }
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = new ArrayList<>(members.size());
+        for (String member : members) {
+            ids.add(Long.valueOf(member));
+        }
+        return ids;
+    }
+
+    /**
+     * 衰减全部窗口的分值并把基准时间移到当前，同时清理低分成员、限制集合大小
+     */
+    public void rescale() {
+        if (!enabled) {
+            return;
+        }
+        String now = String.valueOf(System.currentTimeMillis() / 1000);
+        for (Window window : Window.values()) {
+            Long size = stringRedisTemplate.execute(RESCALE,
+                Arrays.asList(window.key(), window.landmarkKey()),
+                now, String.valueOf(window.getHalfLifeSeconds()), String.valueOf(minScore), String.valueOf(maxSize));
+            log.debug("热门排行榜衰减完成: window={}, size={}", window.getCode(), size);
+        }
+    }
+
+    private void increment(Long resourceId, double weight) {
+        if (!enabled || resourceId == null || weight <= 0) {
+            return;
+        }
+        Window[] windows = Window.values();
+        Object[] args = new Object[3 + windows.length];
+        args[0] = String.valueOf(resourceId);
+        args[1] = String.valueOf(weight);
+        args[2] = String.valueOf(System.currentTimeMillis() / 1000);
+        for (int i = 0; i < windows.length; i++) {
+            args[3 + i] = String.valueOf(windows[i].getHalfLifeSeconds());
+        }
+        try {
+            stringRedisTemplate.execute(INCREMENT, ALL_WINDOW_KEYS, args);
+        } catch (Exception e) {
+            // 热度统计允许丢失，不影响下载/访问主流程
+            log.warn("更新热门排行榜失败: resourceId={}, error={}", resourceId, e.getMessage());
+        }
+    }
+
+    /**
+     * 排行榜时间窗口
+     */
+    @Getter
+    public enum Window {
+        HOURLY("hourly", 3600L),
+        DAILY("daily", 86400L),
+        WEEKLY("weekly", 7 * 86400L);
+
+        private final String code;
+        private final long halfLifeSeconds;
+
+        Window(String code, long halfLifeSeconds) {
+            this.code = code;
+            this.halfLifeSeconds = halfLifeSeconds;
+        }
+
+        String key() {
+            return KEY_PREFIX + code;
+        }
+
+        String landmarkKey() {
+            return KEY_PREFIX + code + LANDMARK_SUFFIX;
+        }
+
+        /**
+         * 按窗口代码解析，未指定时默认 daily
+         */
+        public static Window of(String code) {
+            if (code == null || code.trim().isEmpty()) {
+                return DAILY;
+            }
+            for (Window window : values()) {
+                if (window.code.equalsIgnoreCase(code.trim())) {
+                    return window;
+                }
+            }
+            throw new BusinessException(BizErrorCode.PARAM_ERROR, "不支持的热门窗口: " + code);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.resource.platform.module.resource.vo;
+
+import lombok.Data;
+
+/**
+ * 标签筛选项：标签及在当前筛选条件下命中的已发布资源数
+ */
+@Data
+public class TagFacetVO {
+    private Long tagId;
+    private String tagName;
+    private Long resourceCount;
+}
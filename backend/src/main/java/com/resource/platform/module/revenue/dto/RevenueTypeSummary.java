@@ -0,0 +1,32 @@
+package com.resource.platform.module.revenue.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 按收益类型聚合的统计结果（SQL GROUP BY 结果映射）
+ */
+@Data
+public class RevenueTypeSummary {
+
+    /**
+     * 收益类型
+     */
+    private String revenueType;
+
+    /**
+     * 金额合计
+     */
+    private BigDecimal totalAmount;
+
+    /**
+     * 下载次数合计
+     */
+    private Long totalDownloads;
+
+    /**
+     * 收益记录条数
+     */
+    private Long itemCount;
+}
@@ -0,0 +1,60 @@
+package com.resource.platform.module.revenue.mapper;
+
+import com.resource.platform.module.revenue.dto.RevenueTypeSummary;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 收益日汇总表 revenue_daily 访问
+ */
+@Mapper
+public interface RevenueDailyMapper {
+
+    /**
+     * 删除日期区间 [fromDate, toDate) 的汇总行
+     */
+    @Delete("DELETE FROM revenue_daily WHERE stat_date >= #{fromDate} AND stat_date < #{toDate}")
+    int deleteRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * 从 revenue 明细重新聚合时间区间 [start, end) 的汇总行
+     */
+    @Insert("INSERT INTO revenue_daily (stat_date, revenue_type, total_amount, total_downloads, item_count) " +
+            "SELECT DATE(create_time), revenue_type, COALESCE(SUM(amount), 0), " +
+            "       COALESCE(SUM(download_count), 0), COUNT(*) " +
+            "FROM revenue " +
+            "WHERE create_time >= #{start} AND create_time < #{end} " +
+            "GROUP BY DATE(create_time), revenue_type")
+    int insertAggregated(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 按收益类型汇总日期区间 [fromDate, toDate) 的日汇总行
+     */
+    @Select("SELECT revenue_type, SUM(total_amount) AS total_amount, " +
+            "       SUM(total_downloads) AS total_downloads, SUM(item_count) AS item_count " +
+            "FROM revenue_daily " +
+            "WHERE stat_date >= #{fromDate} AND stat_date < #{toDate} " +
+            "GROUP BY revenue_type")
+    List<RevenueTypeSummary> selectTypeSummary(@Param("fromDate") LocalDate fromDate,
+                                               @Param("toDate") LocalDate toDate);
+
+    /**
+     * 已完整汇总的日期上界（不含）；从未汇总过时返回 null
+     */
+    @Select("SELECT complete_before FROM revenue_rollup_state WHERE id = 1")
+    LocalDate selectCompleteBefore();
+
+    /**
+     * 推进已完整汇总的日期上界（只前进不后退）
+     */
+    @Insert("INSERT INTO revenue_rollup_state (id, complete_before) VALUES (1, #{completeBefore}) " +
+            "ON DUPLICATE KEY UPDATE complete_before = GREATEST(complete_before, VALUES(complete_before))")
+    int advanceCompleteBefore(@Param("completeBefore") LocalDate completeBefore);
+}
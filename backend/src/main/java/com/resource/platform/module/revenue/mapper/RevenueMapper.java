@@ -1,11 +1,14 @@
 package com.resource.platform.module.revenue.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.resource.platform.module.revenue.dto.RevenueTypeSummary;
 import com.resource.platform.module.revenue.entity.Revenue;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -32,4 +35,21 @@ public interface RevenueMapper extends BaseMapper<Revenue> {
      */
     @Select("SELECT COALESCE(SUM(download_count), 0) FROM revenue WHERE create_time >= #{startTime}")
     Integer getTotalDownloads(String startTime);
+
+    /**
+     * 按收益类型聚合时间区间 [start, end) 的明细（走 idx_create_time）
+     */
+    @Select("SELECT revenue_type, COALESCE(SUM(amount), 0) AS total_amount, " +
+            "       COALESCE(SUM(download_count), 0) AS total_downloads, COUNT(*) AS item_count " +
+            "FROM revenue " +
+            "WHERE create_time >= #{start} AND create_time < #{end} " +
+            "GROUP BY revenue_type")
+    List<RevenueTypeSummary> selectTypeSummary(@Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end);
+
+    /**
+     * 最早一条收益记录的创建时间（用于首次回填日汇总）
+     */
+    @Select("SELECT MIN(create_time) FROM revenue")
+    LocalDateTime selectMinCreateTime();
 }
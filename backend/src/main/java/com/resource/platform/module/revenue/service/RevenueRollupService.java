@@ -0,0 +1,36 @@
+package com.resource.platform.module.revenue.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * 收益日汇总维护服务
+ *
+ * <p>revenue_daily 按 (日期, 收益类型) 保存已结束日期的聚合值，
+ * 统计接口对完整日期读汇总表、对首尾不完整的时间段读明细表，
+ * 查询成本只与统计周期的天数相关，与明细总行数无关。
+ */
+public interface RevenueRollupService {
+
+    /**
+     * 重新计算日期区间 [fromDate, toDate) 的日汇总
+     */
+    void rebuildDays(LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * 重新计算指定日期的日汇总（收益明细被删除后调用）
+     */
+    void rebuildDays(Collection<LocalDate> dates);
+
+    /**
+     * 从持久化的进度开始补齐到昨天为止的日汇总，并重算最近几天；从未汇总过时回填全部历史
+     */
+    void refreshRecentDays();
+
+    /**
+     * 日汇总已完整覆盖的日期上界（不含）
+     *
+     * @return 早于该日期的汇总可直接使用；尚未完成首次刷新时返回 null
+     */
+    LocalDate getCompleteBefore();
+}
@@ -0,0 +1,113 @@
+package com.resource.platform.module.revenue.service.impl;
+
+import com.resource.platform.module.revenue.mapper.RevenueDailyMapper;
+import com.resource.platform.module.revenue.mapper.RevenueMapper;
+import com.resource.platform.module.revenue.service.RevenueRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.TreeSet;
+
+@Slf4j
+@Service
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    /** 回填/补齐时每个事务处理的天数 */
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+
+    @Autowired
+    private RevenueMapper revenueMapper;
+
+    @Autowired
+    private RevenueDailyMapper revenueDailyMapper;
+
+    @Autowired
+    @Lazy
+    private RevenueRollupService revenueRollupServiceProxy;
+
+    /** 每次刷新重新计算最近多少个已结束的自然日 */
+    @Value("${revenue.rollup.recompute-days:2}")
+    private int recomputeDays;
+
+    private volatile LocalDate completeBefore;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuildDays(LocalDate fromDate, LocalDate toDate) {
+        if (!fromDate.isBefore(toDate)) {
+            return;
+        }
+        revenueDailyMapper.deleteRange(fromDate, toDate);
+        int rows = revenueDailyMapper.insertAggregated(fromDate.atStartOfDay(), toDate.atStartOfDay());
+        log.debug("收益日汇总重算完成: from={}, to={}, rows={}", fromDate, toDate, rows);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuildDays(Collection<LocalDate> dates) {
+        for (LocalDate date : new TreeSet<>(dates)) {
+            rebuildDays(date, date.plusDays(1));
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${revenue.rollup.initial-delay-ms:10000}",
+               fixedDelayString = "${revenue.rollup.refresh-interval-ms:600000}")
+    public void refreshRecentDays() {
+        LocalDate today = LocalDate.now();
+        try {
+            LocalDate persisted = revenueDailyMapper.selectCompleteBefore();
+            LocalDate from;
+            if (persisted == null) {
+                LocalDateTime minCreateTime = revenueMapper.selectMinCreateTime();
+                if (minCreateTime == null) {
+                    // 尚无收益明细，今天之前没有需要汇总的日期
+                    revenueDailyMapper.advanceCompleteBefore(today);
+                    completeBefore = today;
+                    return;
+                }
+                from = minCreateTime.toLocalDate();
+                log.info("收益日汇总无进度记录，从最早明细开始回填: from={}, to={}", from, today);
+            } else {
+                // 停机或调度延误期间漏算的日期从进度处补齐；最近几天总是重算，吸收迟到的明细
+                from = persisted.isBefore(today.minusDays(recomputeDays)) ? persisted : today.minusDays(recomputeDays);
+                completeBefore = persisted;
+            }
+            rollUp(from, today);
+        } catch (Exception e) {
+            log.error("刷新收益日汇总失败", e);
+        }
+    }
+
+    @Override
+    public LocalDate getCompleteBefore() {
+        return completeBefore;
+    }
+
+    /**
+     * 按块重算 [from, to)，每块提交后推进持久化进度；中途失败时进度停在最后一个成功的块
+     */
+    private void rollUp(LocalDate from, LocalDate to) {
+        while (from.isBefore(to)) {
+            LocalDate chunkEnd = from.plusDays(BACKFILL_CHUNK_DAYS);
+            if (chunkEnd.isAfter(to)) {
+                chunkEnd = to;
+            }
+            revenueRollupServiceProxy.rebuildDays(from, chunkEnd);
+            revenueDailyMapper.advanceCompleteBefore(chunkEnd);
+            // 块从进度之前开始且连续，因此 chunkEnd 之前的日期均已汇总
+            if (completeBefore == null || chunkEnd.isAfter(completeBefore)) {
+                completeBefore = chunkEnd;
+            }
+            from = chunkEnd;
+        }
+    }
+}
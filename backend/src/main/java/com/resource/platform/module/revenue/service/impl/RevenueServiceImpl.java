@@ -7,25 +7,33 @@ import com.resource.platform.common.BizErrorCode;
 import com.resource.platform.common.PageResult;
 import com.resource.platform.exception.BusinessException;
 import com.resource.platform.exception.ResourceNotFoundException;
+import com.resource.platform.module.revenue.dto.RevenueTypeSummary;
 import com.resource.platform.module.revenue.entity.Revenue;
+import com.resource.platform.module.revenue.mapper.RevenueDailyMapper;
 import com.resource.platform.module.revenue.mapper.RevenueMapper;
+import com.resource.platform.module.revenue.service.RevenueRollupService;
 import com.resource.platform.module.revenue.service.RevenueService;
 import com.resource.platform.module.revenue.vo.RevenueOverviewVO;
 import com.resource.platform.module.revenue.vo.RevenueTypeVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -37,6 +45,12 @@ public class RevenueServiceImpl implements RevenueService {
     @Autowired
     private RevenueMapper revenueMapper;
 
+    @Autowired
+    private RevenueDailyMapper revenueDailyMapper;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
     private static final Map<String, String> TYPE_NAME_MAP;
 
     static {
@@ -63,22 +77,26 @@ public class RevenueServiceImpl implements RevenueService {
     }
 
     @Override
+    @Cacheable(value = "revenue:overview", key = "#period")
     public RevenueOverviewVO getOverview(String period) {
         String normalizedPeriod = normalizePeriod(period);
         TimeRange timeRange = getTimeRange(normalizedPeriod);
-        List<Revenue> revenues = listRevenuesByTimeRange(timeRange);
+        Map<String, RevenueTypeSummary> summaries = summarizeByType(timeRange);
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalDownloads = 0;
+        long itemCount = 0;
+        for (RevenueTypeSummary summary : summaries.values()) {
+            totalRevenue = totalRevenue.add(summary.getTotalAmount());
+            totalDownloads += summary.getTotalDownloads();
+            itemCount += summary.getItemCount();
+        }
 
         RevenueOverviewVO overview = new RevenueOverviewVO();
         overview.setPeriod(normalizedPeriod);
-        overview.setTotalRevenue(revenues.stream()
-            .map(Revenue::getAmount)
-            .filter(amount -> amount != null)
-            .reduce(BigDecimal.ZERO, BigDecimal::add));
-        overview.setTotalDownloads(revenues.stream()
-            .map(Revenue::getDownloadCount)
-            .filter(count -> count != null)
-            .reduce(0, Integer::sum));
-        overview.setRevenueItemCount(revenues.size());
+        overview.setTotalRevenue(totalRevenue);
+        overview.setTotalDownloads((int) totalDownloads);
+        overview.setRevenueItemCount((int) itemCount);
 
         log.info("Revenue overview loaded: period={}, start={}, end={}, totalRevenue={}, totalDownloads={}",
             normalizedPeriod, timeRange.start, timeRange.end, overview.getTotalRevenue(), overview.getTotalDownloads());
@@ -86,12 +104,11 @@ public class RevenueServiceImpl implements RevenueService {
     }
 
     @Override
+    @Cacheable(value = "revenue:by-type", key = "#period")
     public List<RevenueTypeVO> getRevenueByType(String period) {
         String normalizedPeriod = normalizePeriod(period);
         TimeRange timeRange = getTimeRange(normalizedPeriod);
-        List<Revenue> revenues = listRevenuesByTimeRange(timeRange);
-        Map<String, List<Revenue>> grouped = revenues.stream()
-            .collect(Collectors.groupingBy(Revenue::getRevenueType));
+        Map<String, RevenueTypeSummary> summaries = summarizeByType(timeRange);
 
         List<RevenueTypeVO> result = new ArrayList<>();
         for (Map.Entry<String, String> entry : TYPE_NAME_MAP.entrySet()) {
@@ -102,19 +119,11 @@ public class RevenueServiceImpl implements RevenueService {
             vo.setDownloadCount(0);
             vo.setAccumulatedRevenue(BigDecimal.ZERO);
 
-            List<Revenue> typedRevenues = grouped.get(entry.getKey());
-            if (typedRevenues != null && !typedRevenues.isEmpty()) {
-                BigDecimal totalAmount = typedRevenues.stream()
-                    .map(Revenue::getAmount)
-                    .filter(amount -> amount != null)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                int downloadCount = typedRevenues.stream()
-                    .map(Revenue::getDownloadCount)
-                    .filter(count -> count != null)
-                    .reduce(0, Integer::sum);
-                vo.setTotalAmount(totalAmount);
-                vo.setDownloadCount(downloadCount);
-                vo.setAccumulatedRevenue(totalAmount);
+            RevenueTypeSummary summary = summaries.get(entry.getKey());
+            if (summary != null) {
+                vo.setTotalAmount(summary.getTotalAmount());
+                vo.setDownloadCount(summary.getTotalDownloads().intValue());
+                vo.setAccumulatedRevenue(summary.getTotalAmount());
             }
 
             result.add(vo);
@@ -157,6 +166,7 @@ public class RevenueServiceImpl implements RevenueService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
+    @CacheEvict(value = {"revenue:overview", "revenue:by-type"}, allEntries = true)
     public boolean deleteRevenue(Long id) {
         log.info("Deleting revenue record: id={}", id);
 
@@ -173,11 +183,13 @@ public class RevenueServiceImpl implements RevenueService {
         if (rows <= 0) {
             throw new BusinessException("删除收益记录失败");
         }
+        rebuildRollupFor(Collections.singletonList(existingRevenue));
         return true;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
+    @CacheEvict(value = {"revenue:overview", "revenue:by-type"}, allEntries = true)
     public boolean batchDeleteRevenue(List<Long> ids) {
         log.info("Batch deleting revenue records: ids={}", ids);
 
@@ -200,6 +212,7 @@ public class RevenueServiceImpl implements RevenueService {
         if (rows != ids.size()) {
             throw new BusinessException("批量删除收益记录失败");
         }
+        rebuildRollupFor(existingRevenues);
         return true;
     }
 
@@ -250,10 +263,76 @@ public class RevenueServiceImpl implements RevenueService {
         return time.format(DATE_TIME_FORMATTER);
     }
 
-    private List<Revenue> listRevenuesByTimeRange(TimeRange timeRange) {
-        LambdaQueryWrapper<Revenue> wrapper = new LambdaQueryWrapper<>();
-        wrapper.ge(Revenue::getCreateTime, timeRange.start);
-        wrapper.lt(Revenue::getCreateTime, timeRange.end);
-        return revenueMapper.selectList(wrapper);
+    /**
+     * 按收益类型汇总时间区间内的收益
+     *
+     * <p>区间内完整的自然日从 revenue_daily 读取，首尾不足一天的部分（以及尚未汇总的日期）
+     * 直接对明细表做 GROUP BY，结果与全量扫描明细一致。
+     */
+    private Map<String, RevenueTypeSummary> summarizeByType(TimeRange timeRange) {
+        Map<String, RevenueTypeSummary> merged = new HashMap<>();
+
+        LocalDate completeBefore = revenueRollupService.getCompleteBefore();
+        LocalDate rollupFrom = timeRange.start.toLocalTime().equals(LocalTime.MIDNIGHT)
+            ? timeRange.start.toLocalDate()
+            : timeRange.start.toLocalDate().plusDays(1);
+        LocalDate rollupTo = timeRange.end.toLocalDate();
+        if (completeBefore != null && completeBefore.isBefore(rollupTo)) {
+            rollupTo = completeBefore;
+        }
+
+        if (completeBefore == null || !rollupFrom.isBefore(rollupTo)) {
+            mergeSummaries(merged, revenueMapper.selectTypeSummary(timeRange.start, timeRange.end));
+            return merged;
+        }
+
+        LocalDateTime rollupStart = rollupFrom.atStartOfDay();
+        LocalDateTime rollupEnd = rollupTo.atStartOfDay();
+        if (timeRange.start.isBefore(rollupStart)) {
+            mergeSummaries(merged, revenueMapper.selectTypeSummary(timeRange.start, rollupStart));
+        }
+        mergeSummaries(merged, revenueDailyMapper.selectTypeSummary(rollupFrom, rollupTo));
+        if (rollupEnd.isBefore(timeRange.end)) {
+            mergeSummaries(merged, revenueMapper.selectTypeSummary(rollupEnd, timeRange.end));
+        }
+        return merged;
+    }
+
+    private void mergeSummaries(Map<String, RevenueTypeSummary> merged, List<RevenueTypeSummary> summaries) {
+        for (RevenueTypeSummary summary : summaries) {
+            RevenueTypeSummary target = merged.get(summary.getRevenueType());
+            if (target == null) {
+                target = new RevenueTypeSummary();
+                target.setRevenueType(summary.getRevenueType());
+                target.setTotalAmount(BigDecimal.ZERO);
+                target.setTotalDownloads(0L);
+                target.setItemCount(0L);
+                merged.put(summary.getRevenueType(), target);
+            }
+            if (summary.getTotalAmount() != null) {
+                target.setTotalAmount(target.getTotalAmount().add(summary.getTotalAmount()));
+            }
+            if (summary.getTotalDownloads() != null) {
+                target.setTotalDownloads(target.getTotalDownloads() + summary.getTotalDownloads());
+            }
+            if (summary.getItemCount() != null) {
+                target.setItemCount(target.getItemCount() + summary.getItemCount());
+            }
+        }
+    }
+
+    /**
+     * 删除明细后重算所涉及日期的日汇总（与删除在同一事务内）
+     */
+    private void rebuildRollupFor(List<Revenue> revenues) {
+        Set<LocalDate> dates = new HashSet<>();
+        for (Revenue revenue : revenues) {
+            if (revenue.getCreateTime() != null) {
+                dates.add(revenue.getCreateTime().toLocalDate());
+            }
+        }
+        if (!dates.isEmpty()) {
+            revenueRollupService.rebuildDays(dates);
+        }
     }
 }
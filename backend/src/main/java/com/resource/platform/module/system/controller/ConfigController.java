@@ -13,7 +13,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,10 +35,7 @@ public class ConfigController {
     @GetMapping("/public")
     @Operation(summary = "获取公开配置")
     public Result<Map<String, Object>> getPublicConfigs() {
-        List<String> publicKeys = Arrays.asList(
-            "site.name", "site.title", "site.description", "site.keywords",
-            "site.announcement", "site.copyright", "site.buildTime", "site.icp", "site.theme"
-        );
+        List<String> publicKeys = ConfigService.PUBLIC_CONFIG_KEYS;
         log.debug("定义公开配置项: keys={}", publicKeys);
 
         Map<String, String> configs = configService.getConfigsByKeys(publicKeys);
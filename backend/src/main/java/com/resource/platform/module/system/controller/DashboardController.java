@@ -83,22 +83,24 @@ public class DashboardController {
      * 获取热门资源
      * 
      * 业务逻辑：
-     * 1. 查询已发布且未删除的资源
-     * 2. 按下载量倒序排列
-     * 3. 限制返回数量
+     * 1. 从热门排行榜取指定窗口内热度最高的资源（下载/访问按时间衰减加权）
+     * 2. 过滤已下架或删除的资源
+     * 3. 排行榜不足时按累计下载量补足
      * 4. 返回热门资源列表
      * 
-     * @param limit 返回数量限制，默认10条
+     * @param limit  返回数量限制，默认10条
+     * @param window 热度窗口 hourly / daily / weekly，默认 daily
      * @return 热门资源列表
      */
     @GetMapping("/hot-resources")
     @Operation(summary = "获取热门资源")
-    public Result<Object> getHotResources(@RequestParam(defaultValue = "10") Integer limit) {
+    public Result<Object> getHotResources(@RequestParam(defaultValue = "10") Integer limit,
+                                          @RequestParam(required = false) String window) {
         if (limit == null || limit < 1) {
             log.warn("热门资源数量参数无效: limit={}", limit);
             limit = 10;
         }
-        Object hotResources = dashboardService.getHotResources(limit);
+        Object hotResources = dashboardService.getHotResources(limit, window);
         return Result.success(hotResources);
     }
 
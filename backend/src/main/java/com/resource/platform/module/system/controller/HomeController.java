@@ -0,0 +1,44 @@
+package com.resource.platform.module.system.controller;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.resource.platform.common.Result;
+import com.resource.platform.filter.ConditionalGetFilter;
+import com.resource.platform.module.system.service.HomeBootstrapService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 前台首页控制器
+ *
+ * @author 系统
+ * @since 1.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/home")
+@Tag(name = "前台首页", description = "前台首页聚合数据接口")
+public class HomeController {
+
+    @Autowired
+    private HomeBootstrapService homeBootstrapService;
+
+    @GetMapping("/public/bootstrap")
+    @Operation(summary = "获取首页初始化数据",
+        description = "一次返回分类树、链接类型、友情链接、各位置广告、公开配置和已发布资源列表（结构见 HomeBootstrapVO）")
+    public Result<RawValue> getBootstrap(HttpServletRequest request) {
+        HomeBootstrapService.BootstrapPayload payload = homeBootstrapService.getBootstrap();
+        if (payload.isStale()) {
+            // 快照正在后台重建，旧数据不能带上新版本的 ETag
+            request.setAttribute(ConditionalGetFilter.SKIP_VALIDATORS_ATTRIBUTE, Boolean.TRUE);
+        }
+        // data 为已序列化的 JSON，原样写入响应
+        return Result.success(new RawValue(payload.getJson()));
+    }
+}
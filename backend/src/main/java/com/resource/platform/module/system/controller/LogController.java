@@ -2,7 +2,9 @@ package com.resource.platform.module.system.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.resource.platform.annotation.OperationLog;
+import com.resource.platform.common.BizErrorCode;
 import com.resource.platform.common.Result;
+import com.resource.platform.exception.BusinessException;
 import com.resource.platform.module.system.dto.AuditLogQueryDTO;
 import com.resource.platform.module.system.dto.LogQueryDTO;
 import com.resource.platform.module.system.entity.AuditLog;
@@ -19,6 +21,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
 
 /**
@@ -64,18 +67,22 @@ public class LogController {
     @DeleteMapping("/clean")
     @Operation(summary = "清理日志")
     @OperationLog(module = "日志管理", type = "清理", description = "清理系统日志", audit = true)
-    public Result<Integer> cleanLogs(
+    public Result<Void> cleanLogs(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime beforeTime) {
-        int count = logService.cleanLogs(beforeTime);
-        return Result.success(count);
+        // 分批删除耗时较长，提交后台执行后立即返回
+        if (!logService.cleanLogsAsync(beforeTime)) {
+            throw new BusinessException(BizErrorCode.TOO_MANY_REQUESTS, "已有日志清理任务在执行，请稍后再试");
+        }
+        return Result.success(null, "日志清理已在后台执行");
     }
 
     @PostMapping("/export")
-    @Operation(summary = "导出日志")
+    @Operation(summary = "导出日志（CSV 流式下载）")
     @OperationLog(module = "日志管理", type = "导出", description = "导出系统日志", audit = true)
-    public Result<String> exportLogs(@RequestBody LogQueryDTO queryDTO) {
-        String filePath = logService.exportLogs(queryDTO);
-        return Result.success(filePath);
+    public void exportLogs(@RequestBody LogQueryDTO queryDTO,
+                           @RequestParam(defaultValue = "false") boolean gzip,
+                           HttpServletResponse response) {
+        logService.exportLogs(queryDTO, gzip, response);
     }
 
     @GetMapping("/audit/statistics")
@@ -92,6 +99,15 @@ public class LogController {
         return Result.success(page);
     }
 
+    @PostMapping("/audit/export")
+    @Operation(summary = "导出审计日志（CSV 流式下载）")
+    @OperationLog(module = "日志管理", type = "导出", description = "导出审计日志", audit = true)
+    public void exportAuditLogs(@RequestBody AuditLogQueryDTO queryDTO,
+                                @RequestParam(defaultValue = "false") boolean gzip,
+                                HttpServletResponse response) {
+        auditLogService.exportAuditLogs(queryDTO, gzip, response);
+    }
+
     @GetMapping("/audit/{id}")
     @Operation(summary = "获取审计日志详情")
     public Result<AuditLog> getAuditLogById(@PathVariable Long id) {
@@ -0,0 +1,57 @@
+package com.resource.platform.module.system.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@TableName("mail_outbox")
+public class MailOutbox {
+    
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_SENDING = 1;
+    public static final int STATUS_SENT = 2;
+    public static final int STATUS_FAILED = 3;
+    
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    
+    /**
+     * 业务类型（用于投递结果回调）
+     */
+    private String bizType;
+    
+    private Long bizId;
+    
+    private String toAddress;
+    
+    private String subject;
+    
+    private String content;
+    
+    private Integer html;
+    
+    /**
+     * 状态：0-待发送，1-发送中，2-已发送，3-发送失败
+     */
+    private Integer status;
+    
+    private Integer attempts;
+    
+    /**
+     * 下次可投递时间；发送中时为认领超时时间
+     */
+    private LocalDateTime nextAttemptTime;
+    
+    private String claimToken;
+    
+    private String lastError;
+    
+    private LocalDateTime sentTime;
+    
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+    
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
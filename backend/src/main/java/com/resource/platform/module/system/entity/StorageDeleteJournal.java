@@ -0,0 +1,42 @@
+package com.resource.platform.module.system.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@TableName("storage_delete_journal")
+public class StorageDeleteJournal {
+    
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_ABANDONED = 1;
+    
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    
+    private String fileUrl;
+    
+    /**
+     * 来源类型（如 image）
+     */
+    private String sourceType;
+    
+    private Long sourceId;
+    
+    /**
+     * 状态：0-待删除，1-已放弃
+     */
+    private Integer status;
+    
+    private Integer attempts;
+    
+    private LocalDateTime nextAttemptTime;
+    
+    private String lastError;
+    
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+    
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -2,8 +2,25 @@ package com.resource.platform.module.system.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.system.entity.AuditLog;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface AuditLogMapper extends BaseMapper<AuditLog> {
+
+    /**
+     * 批量插入审计日志（单条多值 INSERT）
+     */
+    @Insert("<script>" +
+            "INSERT INTO audit_log (user_id, module, action, description, ip_address, status, " +
+            "error_message, create_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.userId}, #{item.module}, #{item.action}, #{item.description}, #{item.ipAddress}, " +
+            "#{item.status}, #{item.errorMessage}, #{item.createTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<AuditLog> list);
 }
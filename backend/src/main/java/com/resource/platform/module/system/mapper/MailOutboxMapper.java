@@ -0,0 +1,33 @@
+package com.resource.platform.module.system.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.resource.platform.module.system.entity.MailOutbox;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+@Mapper
+public interface MailOutboxMapper extends BaseMapper<MailOutbox> {
+    
+    /**
+     * 认领一批到期邮件：单条 UPDATE 原子地打上批次标识，多节点同时投递不会重复认领。
+     * 发送中但认领已超时的邮件（投递节点宕机）同样会被重新认领。
+     */
+    @Update("UPDATE mail_outbox SET status = 1, claim_token = #{claimToken}, " +
+            "next_attempt_time = DATE_ADD(NOW(), INTERVAL #{claimSeconds} SECOND), update_time = NOW() " +
+            "WHERE status IN (0, 1) AND next_attempt_time <= NOW() " +
+            "ORDER BY next_attempt_time LIMIT #{limit}")
+    int claimDue(@Param("claimToken") String claimToken,
+                 @Param("claimSeconds") int claimSeconds,
+                 @Param("limit") int limit);
+    
+    /**
+     * 续期认领：延长本批次中仍在发送中的邮件的认领截止时间
+     * 
+     * @return 仍归本批次的邮件数，小于预期说明部分邮件已被其他节点重新认领
+     */
+    @Update("UPDATE mail_outbox SET next_attempt_time = DATE_ADD(NOW(), INTERVAL #{claimSeconds} SECOND), " +
+            "update_time = NOW() WHERE claim_token = #{claimToken} AND status = 1")
+    int renewClaim(@Param("claimToken") String claimToken,
+                   @Param("claimSeconds") int claimSeconds);
+}
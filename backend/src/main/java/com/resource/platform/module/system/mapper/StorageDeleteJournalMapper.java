@@ -0,0 +1,28 @@
+package com.resource.platform.module.system.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.resource.platform.module.system.entity.StorageDeleteJournal;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface StorageDeleteJournalMapper extends BaseMapper<StorageDeleteJournal> {
+
+    /**
+     * 批量写入删除日志（单条多值 INSERT，回填自增主键）
+     * 首次重试时间推迟 graceSeconds，给事务提交后的即时删除留出时间，避免与后台重试重复处理
+     */
+    @Insert("<script>" +
+            "INSERT INTO storage_delete_journal (file_url, source_type, source_id, status, attempts, " +
+            "next_attempt_time, create_time, update_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.fileUrl}, #{item.sourceType}, #{item.sourceId}, 0, 0, DATE_ADD(NOW(), INTERVAL #{graceSeconds} SECOND), NOW(), NOW())" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "list.id", keyColumn = "id")
+    int insertBatch(@Param("list") List<StorageDeleteJournal> list, @Param("graceSeconds") int graceSeconds);
+}
@@ -2,8 +2,58 @@ package com.resource.platform.module.system.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.resource.platform.module.system.entity.SystemLog;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface SystemLogMapper extends BaseMapper<SystemLog> {
+
+    /**
+     * 批量插入系统日志（单条多值 INSERT）
+     */
+    @Insert("<script>" +
+            "INSERT INTO system_log (module, type, description, method, request_url, request_method, " +
+            "request_params, response_data, ip, user_agent, status, error_message, duration, create_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.module}, #{item.type}, #{item.description}, #{item.method}, #{item.requestUrl}, " +
+            "#{item.requestMethod}, #{item.requestParams}, #{item.responseData}, #{item.ipAddress}, " +
+            "#{item.userAgent}, #{item.status}, #{item.errorMessage}, #{item.duration}, #{item.createTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<SystemLog> list);
+
+    /**
+     * 日志统计聚合（一次扫描得到总数/今日/成功/失败/平均耗时）
+     */
+    @Select("SELECT " +
+            "  COUNT(*) AS total, " +
+            "  COALESCE(SUM(create_time >= #{todayStart}), 0) AS today, " +
+            "  COALESCE(SUM(status = 'SUCCESS'), 0) AS success, " +
+            "  COALESCE(SUM(status = 'ERROR'), 0) AS error, " +
+            "  COALESCE(AVG(duration), 0) AS avgDuration " +
+            "FROM system_log")
+    Map<String, Object> selectStatistics(@Param("todayStart") LocalDateTime todayStart);
+
+    /**
+     * 查询指定时间之前的最大日志ID（走 idx_create_time），作为分批删除的主键上界
+     */
+    @Select("SELECT MAX(id) FROM system_log WHERE create_time < #{beforeTime}")
+    Long selectMaxIdBefore(@Param("beforeTime") LocalDateTime beforeTime);
+
+    /**
+     * 按主键顺序删除一批过期日志，每次只锁定有限的主键范围
+     */
+    @Delete("DELETE FROM system_log " +
+            "WHERE id <= #{maxId} AND create_time < #{beforeTime} " +
+            "ORDER BY id LIMIT #{limit}")
+    int deleteChunkBefore(@Param("maxId") Long maxId,
+                          @Param("beforeTime") LocalDateTime beforeTime,
+                          @Param("limit") int limit);
 }
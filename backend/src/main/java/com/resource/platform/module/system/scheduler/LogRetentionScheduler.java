@@ -0,0 +1,40 @@
+package com.resource.platform.module.system.scheduler;
+
+import com.resource.platform.module.system.service.LogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 系统日志保留策略调度器
+ * 每天低峰期清理超过保留天数的系统日志
+ *
+ * <p>删除由 {@link LogService#cleanLogs(LocalDateTime)} 按主键分批执行并在批次间休眠，
+ * 多节点同时触发也只是重复执行幂等的分批删除。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "log-retention", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LogRetentionScheduler {
+
+    @Autowired
+    private LogService logService;
+
+    @Value("${log-retention.retention-days:90}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${log-retention.cron:0 30 3 * * ?}")
+    public void purgeExpiredLogs() {
+        LocalDateTime beforeTime = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        log.info("开始清理过期系统日志: retentionDays={}, beforeTime={}", retentionDays, beforeTime);
+        long start = System.currentTimeMillis();
+        int deleted = logService.cleanLogs(beforeTime);
+        log.info("过期系统日志清理完成: deleted={}, 耗时={}ms", deleted, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,55 @@
+package com.resource.platform.module.system.scheduler;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.resource.platform.module.system.entity.MailOutbox;
+import com.resource.platform.module.system.mapper.MailOutboxMapper;
+import com.resource.platform.module.system.service.EmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 邮件发件箱调度器
+ *
+ * <p>入队事务提交后会立即触发一次投递，这里的轮询负责兜底：
+ * 到期的重试、认领超时的邮件（投递节点宕机）以及触发失败的情况。
+ * 多节点同时轮询由认领 SQL 保证每封邮件只被一个节点投递。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "mail.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MailOutboxScheduler {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MailOutboxMapper mailOutboxMapper;
+
+    @Value("${mail.outbox.retention-days:30}")
+    private int retentionDays;
+
+    @Scheduled(initialDelayString = "${mail.outbox.initial-delay-ms:15000}",
+               fixedDelayString = "${mail.outbox.poll-interval-ms:10000}")
+    public void dispatch() {
+        try {
+            emailService.dispatchOutbox();
+        } catch (Exception e) {
+            log.error("发件箱投递异常", e);
+        }
+    }
+
+    @Scheduled(cron = "${mail.outbox.purge-cron:0 45 3 * * ?}")
+    public void purgeSentMails() {
+        LocalDateTime beforeTime = LocalDateTime.now().minusDays(retentionDays);
+        int deleted = mailOutboxMapper.delete(new LambdaQueryWrapper<MailOutbox>()
+            .eq(MailOutbox::getStatus, MailOutbox.STATUS_SENT)
+            .lt(MailOutbox::getSentTime, beforeTime));
+        log.info("已发送邮件清理完成: retentionDays={}, deleted={}", retentionDays, deleted);
+    }
+}
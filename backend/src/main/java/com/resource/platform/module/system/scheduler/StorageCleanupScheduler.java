@@ -0,0 +1,29 @@
+package com.resource.platform.module.system.scheduler;
+
+import com.resource.platform.module.system.service.StorageCleanupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 存储文件删除重试调度器
+ * 定期重试删除日志中到期的条目（事务提交后的即时删除失败、或节点在删除前宕机）
+ */
+@Slf4j
+@Component
+public class StorageCleanupScheduler {
+
+    @Autowired
+    private StorageCleanupService storageCleanupService;
+
+    @Scheduled(initialDelayString = "${storage.delete.initial-delay-ms:30000}",
+               fixedDelayString = "${storage.delete.retry-interval-ms:60000}")
+    public void retryDueDeletions() {
+        try {
+            storageCleanupService.retryDue();
+        } catch (Exception e) {
+            log.error("重试删除存储文件异常", e);
+        }
+    }
+}
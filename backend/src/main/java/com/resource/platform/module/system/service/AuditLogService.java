@@ -5,6 +5,8 @@ import com.resource.platform.module.system.dto.AuditLogQueryDTO;
 import com.resource.platform.module.system.entity.AuditLog;
 import com.resource.platform.module.system.vo.AuditLogStatisticsVO;
 
+import javax.servlet.http.HttpServletResponse;
+
 /**
  * 审计日志服务接口
  */
@@ -24,4 +26,13 @@ public interface AuditLogService {
      * 获取审计日志详情
      */
     AuditLog getAuditLogById(Long id);
+    
+    /**
+     * 导出审计日志（流式写入响应）
+     * 
+     * @param queryDTO 查询条件
+     * @param gzip     是否压缩为 .csv.gz
+     * @param response HTTP 响应
+     */
+    void exportAuditLogs(AuditLogQueryDTO queryDTO, boolean gzip, HttpServletResponse response);
 }
@@ -2,6 +2,8 @@ package com.resource.platform.module.system.service;
 
 import com.resource.platform.module.system.entity.SystemConfig;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -9,6 +11,14 @@ import java.util.Map;
  * 系统配置服务接口
  */
 public interface ConfigService {
+
+    /**
+     * 前台可读取的公开配置项
+     */
+    List<String> PUBLIC_CONFIG_KEYS = Collections.unmodifiableList(Arrays.asList(
+        "site.name", "site.title", "site.description", "site.keywords",
+        "site.announcement", "site.copyright", "site.buildTime", "site.icp", "site.theme"
+    ));
     
     /**
      * 获取所有配置（按类别分组）
@@ -25,9 +25,10 @@ public interface DashboardService {
     /**
      * 获取热门资源
      * 
-     * @param limit 数量限制
+     * @param limit  数量限制
+     * @param window 热度窗口 hourly / daily / weekly，为空时默认 daily
      */
-    Object getHotResources(Integer limit);
+    Object getHotResources(Integer limit, String window);
     
     /**
      * 获取最新资源
@@ -14,4 +14,21 @@ public interface EmailService {
      * 发送HTML邮件
      */
     void sendHtmlEmail(String to, String subject, String htmlContent);
+    
+    /**
+     * HTML邮件写入发件箱，由后台投递器异步发送
+     * 在调用方事务中写入，业务提交后才会投递；投递结果通过 {@link MailDeliveryListener} 回调
+     *
+     * @param bizType 业务类型（可为 null）
+     * @param bizId   业务ID（可为 null）
+     * @return 发件箱记录ID
+     */
+    Long enqueueHtmlEmail(String to, String subject, String htmlContent, String bizType, Long bizId);
+    
+    /**
+     * 投递发件箱中到期的邮件
+     *
+     * @return 本次处理的邮件数
+     */
+    int dispatchOutbox();
 }
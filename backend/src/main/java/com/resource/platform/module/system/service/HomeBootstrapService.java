@@ -0,0 +1,36 @@
+package com.resource.platform.module.system.service;
+
+/**
+ * 前台首页聚合服务接口
+ */
+public interface HomeBootstrapService {
+
+    /**
+     * 获取首页初始化数据
+     *
+     * @return 序列化后的 {@link com.resource.platform.module.system.vo.HomeBootstrapVO} JSON，
+     *         以及它是否落后于当前内容版本（后台重建期间返回旧快照）
+     */
+    BootstrapPayload getBootstrap();
+
+    /**
+     * 首页初始化数据载荷
+     */
+    final class BootstrapPayload {
+        private final String json;
+        private final boolean stale;
+
+        public BootstrapPayload(String json, boolean stale) {
+            this.json = json;
+            this.stale = stale;
+        }
+
+        public String getJson() {
+            return json;
+        }
+
+        public boolean isStale() {
+            return stale;
+        }
+    }
+}
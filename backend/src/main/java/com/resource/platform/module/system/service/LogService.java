@@ -5,6 +5,7 @@ import com.resource.platform.module.system.dto.LogQueryDTO;
 import com.resource.platform.module.system.entity.SystemLog;
 import com.resource.platform.module.system.vo.LogStatisticsVO;
 
+import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
 
 /**
@@ -34,12 +35,21 @@ public interface LogService {
      * @return 清理的日志数量
      */
     int cleanLogs(LocalDateTime beforeTime);
+
+    /**
+     * 在后台提交日志清理，立即返回
+     * 
+     * @param beforeTime 清理此时间之前的日志
+     * @return 是否已提交；已有后台清理在执行时返回 false
+     */
+    boolean cleanLogsAsync(LocalDateTime beforeTime);
     
     /**
-     * 导出日志
+     * 导出日志（流式写入响应）
      * 
      * @param queryDTO 查询条件
-     * @return 导出文件路径
+     * @param gzip     是否压缩为 .csv.gz
+     * @param response HTTP 响应
      */
-    String exportLogs(LogQueryDTO queryDTO);
+    void exportLogs(LogQueryDTO queryDTO, boolean gzip, HttpServletResponse response);
 }
@@ -0,0 +1,33 @@
+package com.resource.platform.module.system.service;
+
+/**
+ * 邮件投递结果回调
+ *
+ * 通过发件箱异步发送的邮件带有业务类型和业务ID，
+ * 投递器在每次投递结束后回调对应业务类型的监听器，由业务方更新自己的记录。
+ */
+public interface MailDeliveryListener {
+    
+    /** 重试中（本次失败，稍后会再次投递） */
+    String STATUS_RETRYING = "RETRYING";
+    
+    /** 已送达 SMTP 服务器 */
+    String STATUS_SENT = "SENT";
+    
+    /** 不再重试 */
+    String STATUS_FAILED = "FAILED";
+    
+    /**
+     * 监听的业务类型
+     */
+    String bizType();
+    
+    /**
+     * 投递状态变化
+     *
+     * @param bizId  业务ID
+     * @param status 投递状态（见本接口常量）
+     * @param error  失败原因，成功时为 null
+     */
+    void onDeliveryStatus(Long bizId, String status, String error);
+}
@@ -0,0 +1,28 @@
+package com.resource.platform.module.system.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 存储文件清理服务
+ *
+ * 业务记录先逻辑删除（墓碑），对应的存储文件写入删除日志，事务提交后并行删除；
+ * 删除失败的文件留在日志中，由后台按退避策略重试。
+ */
+public interface StorageCleanupService {
+    
+    /**
+     * 登记待删除的存储文件（在调用方事务中写入删除日志，事务提交后异步并行删除）
+     *
+     * @param sourceType        来源类型，如 image
+     * @param fileUrlsBySourceId 来源记录ID → 该记录的文件URL列表
+     */
+    void scheduleDeletion(String sourceType, Map<Long, List<String>> fileUrlsBySourceId);
+    
+    /**
+     * 重试到期的删除日志
+     *
+     * @return 本次处理的日志条数
+     */
+    int retryDue();
+}
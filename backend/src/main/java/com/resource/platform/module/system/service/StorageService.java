@@ -4,6 +4,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 存储服务接口
@@ -38,6 +40,28 @@ public interface StorageService {
      */
     boolean delete(String fileUrl);
 
+    /**
+     * 批量删除文件
+     * 默认逐个调用 {@link #delete(String)}，支持批量接口的存储（如 OSS 多对象删除）应覆盖此方法。
+     * 文件本来就不存在视为删除成功。
+     *
+     * @param fileUrls 文件URL列表
+     * @return 删除失败的文件URL（全部成功时为空列表）
+     */
+    default List<String> deleteBatch(List<String> fileUrls) {
+        List<String> failed = new ArrayList<>();
+        for (String fileUrl : fileUrls) {
+            try {
+                if (!delete(fileUrl)) {
+                    failed.add(fileUrl);
+                }
+            } catch (Exception e) {
+                failed.add(fileUrl);
+            }
+        }
+        return failed;
+    }
+
     /**
      * 获取文件访问URL
      * 
@@ -1,5 +1,6 @@
 package com.resource.platform.module.system.service.impl;
 
+import com.resource.platform.module.resource.support.TrendingLeaderboard;
 import com.resource.platform.module.system.entity.AccessLog;
 import com.resource.platform.module.system.mapper.AccessLogMapper;
 import com.resource.platform.module.system.service.AccessLogService;
@@ -17,9 +18,13 @@ public class AccessLogServiceImpl implements AccessLogService {
     
     @Autowired
     private AccessLogMapper accessLogMapper;
+
+    @Autowired
+    private TrendingLeaderboard trendingLeaderboard;
     
     @Override
     public void recordVisit(Long resourceId, HttpServletRequest request) {
+        trendingLeaderboard.recordVisit(resourceId);
         try {
             AccessLog accessLog = buildAccessLog(resourceId, "visit", request);
             accessLogMapper.insert(accessLog);
@@ -30,6 +35,7 @@ public class AccessLogServiceImpl implements AccessLogService {
     
     @Override
     public void recordDownload(Long resourceId, HttpServletRequest request) {
+        trendingLeaderboard.recordDownload(resourceId);
         try {
             AccessLog accessLog = buildAccessLog(resourceId, "download", request);
             accessLogMapper.insert(accessLog);
@@ -2,6 +2,10 @@ package com.resource.platform.module.system.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.resource.platform.common.BizErrorCode;
+import com.resource.platform.common.export.CsvResponseWriter;
+import com.resource.platform.common.export.KeysetPager;
+import com.resource.platform.exception.BusinessException;
 import com.resource.platform.module.system.dto.AuditLogQueryDTO;
 import com.resource.platform.module.system.entity.AuditLog;
 import com.resource.platform.exception.ResourceNotFoundException;
@@ -12,6 +16,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -25,6 +31,9 @@ public class AuditLogServiceImpl implements AuditLogService {
 
     private static final int MAX_PAGE_SIZE = 100;
 
+    /** 导出时每页读取条数 */
+    private static final int EXPORT_PAGE_SIZE = 500;
+
     @Autowired
     private AuditLogMapper auditLogMapper;
 
@@ -69,6 +78,55 @@ public class AuditLogServiceImpl implements AuditLogService {
         int safePageSize = queryDTO.getPageSize() == null || queryDTO.getPageSize() < 1 ? 10 : Math.min(queryDTO.getPageSize(), MAX_PAGE_SIZE);
         Page<AuditLog> page = new Page<>(safePageNum, safePageSize);
         
+        LambdaQueryWrapper<AuditLog> wrapper = buildQueryWrapper(queryDTO);
+        
+        // 按创建时间倒序
+        wrapper.orderByDesc(AuditLog::getCreateTime);
+        
+        return auditLogMapper.selectPage(page, wrapper);
+    }
+
+    @Override
+    public AuditLog getAuditLogById(Long id) {
+        AuditLog auditLog = auditLogMapper.selectById(id);
+        if (auditLog == null) {
+            throw new ResourceNotFoundException("审计日志", id);
+        }
+        return auditLog;
+    }
+
+    /**
+     * 导出审计日志
+     * 
+     * 按主键游标分页读取并逐行写入响应流，内存占用与导出行数无关。
+     */
+    @Override
+    public void exportAuditLogs(AuditLogQueryDTO queryDTO, boolean gzip, HttpServletResponse response) {
+        long start = System.currentTimeMillis();
+        try (CsvResponseWriter csv = CsvResponseWriter.open(response, "audit_logs_export", gzip)) {
+            csv.writeRow("ID", "用户ID", "模块", "操作", "描述", "IP地址", "状态", "错误信息", "创建时间");
+            
+            long count = KeysetPager.forEach(EXPORT_PAGE_SIZE,
+                lastId -> auditLogMapper.selectList(buildQueryWrapper(queryDTO)
+                    .lt(lastId != null, AuditLog::getId, lastId)
+                    .orderByDesc(AuditLog::getId)
+                    .last("LIMIT " + EXPORT_PAGE_SIZE)),
+                AuditLog::getId,
+                row -> csv.writeRow(row.getId(), row.getUserId(), row.getModule(), row.getAction(),
+                    row.getDescription(), row.getIpAddress(), row.getStatus(), row.getErrorMessage(),
+                    row.getCreateTime()));
+            
+            log.info("导出审计日志成功: count={}, gzip={}, 耗时={}ms", count, gzip, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.error("导出审计日志失败", e);
+            throw new BusinessException(BizErrorCode.LOG_EXPORT_FAILED, e);
+        }
+    }
+
+    /**
+     * 构建审计日志查询条件（列表查询与导出共用）
+     */
+    private LambdaQueryWrapper<AuditLog> buildQueryWrapper(AuditLogQueryDTO queryDTO) {
         LambdaQueryWrapper<AuditLog> wrapper = new LambdaQueryWrapper<>();
         
         // 用户ID筛选
@@ -104,18 +162,6 @@ public class AuditLogServiceImpl implements AuditLogService {
             wrapper.le(AuditLog::getCreateTime, queryDTO.getEndTime());
         }
         
-        // 按创建时间倒序
-        wrapper.orderByDesc(AuditLog::getCreateTime);
-        
-        return auditLogMapper.selectPage(page, wrapper);
-    }
-
-    @Override
-    public AuditLog getAuditLogById(Long id) {
-        AuditLog auditLog = auditLogMapper.selectById(id);
-        if (auditLog == null) {
-            throw new ResourceNotFoundException("审计日志", id);
-        }
-        return auditLog;
+        return wrapper;
     }
 }
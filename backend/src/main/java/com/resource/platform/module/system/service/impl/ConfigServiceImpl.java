@@ -49,6 +49,9 @@ public class ConfigServiceImpl implements ConfigService {
     @Autowired
     private StorageSettingsProvider storageSettingsProvider;
 
+    @Autowired
+    private MailSenderProvider mailSenderProvider;
+
     /**
      * 获取所有配置并按类别分组
      * 
@@ -325,6 +328,7 @@ public class ConfigServiceImpl implements ConfigService {
         if (rows > 0) {
             // 记录成功日志（敏感配置脱敏处理）
             evictStorageSettingsIfNeeded(configKey);
+            evictMailSenderIfNeeded(configKey);
             boolean isSensitive = configKey.toLowerCase().contains("password") || 
                                 configKey.toLowerCase().contains("secret") ||
                                 configKey.toLowerCase().contains("token");
@@ -476,6 +480,7 @@ public class ConfigServiceImpl implements ConfigService {
         if (rows > 0) {
             // 记录成功日志（敏感配置脱敏处理）
             evictStorageSettingsIfNeeded(configKey);
+            evictMailSenderIfNeeded(configKey);
             boolean isSensitive = configKey.toLowerCase().contains("password") || 
                                 configKey.toLowerCase().contains("secret") ||
                                 configKey.toLowerCase().contains("token");
@@ -825,6 +830,21 @@ public class ConfigServiceImpl implements ConfigService {
         }
     }
 
+    private void evictMailSenderIfNeeded(String configKey) {
+        if (configKey != null && configKey.startsWith("email.")) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        mailSenderProvider.evictCache();
+                    }
+                });
+                return;
+            }
+            mailSenderProvider.evictCache();
+        }
+    }
+
     private void validateStorageTypeConfigValue(String configKey, String configValue) {
         if (!"storage.type".equals(configKey)) {
             return;
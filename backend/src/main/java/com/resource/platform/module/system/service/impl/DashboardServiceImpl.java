@@ -7,6 +7,8 @@ import com.resource.platform.module.feedback.entity.Feedback;
 import com.resource.platform.module.feedback.mapper.FeedbackMapper;
 import com.resource.platform.module.resource.mapper.ResourceMapper;
 import com.resource.platform.module.resource.entity.Resource;
+import com.resource.platform.module.resource.service.ResourceService;
+import com.resource.platform.module.resource.support.TrendingLeaderboard;
 import com.resource.platform.module.system.entity.AccessLog;
 import com.resource.platform.module.user.mapper.UserMapper;
 import com.resource.platform.module.user.entity.User;
@@ -61,6 +63,9 @@ public class DashboardServiceImpl implements DashboardService {
     @Autowired
     private AccessLogMapper accessLogMapper;
 
+    @Autowired
+    private ResourceService resourceService;
+
     @Override
     public DashboardMetricsVO getMetrics() {
         DashboardMetricsVO metrics = new DashboardMetricsVO();
@@ -191,22 +196,14 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
-    public Object getHotResources(Integer limit) {
+    public Object getHotResources(Integer limit, String window) {
         if (limit == null || limit <= 0) {
             limit = DEFAULT_LIMIT;
         } else if (limit > MAX_LIMIT) {
             limit = MAX_LIMIT;
         }
         
-        List<Resource> hotResources = resourceMapper.selectList(
-            new LambdaQueryWrapper<Resource>()
-                .eq(Resource::getStatus, 1)
-                .eq(Resource::getDeleted, 0)
-                .orderByDesc(Resource::getDownloadCount)
-                .last("LIMIT " + limit)
-        );
-        
-        return hotResources;
+        return resourceService.getTrendingResources(TrendingLeaderboard.Window.of(window), limit);
     }
 
     @Override
@@ -7,6 +7,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Delegates every storage operation to the runtime-selected storage backend.
@@ -32,6 +36,18 @@ public class DynamicStorageService implements StorageService {
         return storageServiceResolver.resolveStorageServiceByUrl(fileUrl).delete(fileUrl);
     }
 
+    @Override
+    public List<String> deleteBatch(List<String> fileUrls) {
+        Map<StorageService, List<String>> groups = new LinkedHashMap<>();
+        for (String fileUrl : fileUrls) {
+            groups.computeIfAbsent(storageServiceResolver.resolveStorageServiceByUrl(fileUrl), key -> new ArrayList<>())
+                .add(fileUrl);
+        }
+        List<String> failed = new ArrayList<>();
+        groups.forEach((service, urls) -> failed.addAll(service.deleteBatch(urls)));
+        return failed;
+    }
+
     @Override
     public String getFileUrl(String filePath) {
         return storageServiceResolver.getCurrentStorageService().getFileUrl(filePath);
@@ -1,116 +1,98 @@
 package com.resource.platform.module.system.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.resource.platform.common.BizErrorCode;
+import com.resource.platform.config.BusinessMetrics;
 import com.resource.platform.exception.BusinessException;
-import com.resource.platform.module.system.service.ConfigService;
+import com.resource.platform.module.system.entity.MailOutbox;
+import com.resource.platform.module.system.mapper.MailOutboxMapper;
 import com.resource.platform.module.system.service.EmailService;
+import com.resource.platform.module.system.service.MailDeliveryListener;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.mail.internet.AddressException;
 import javax.mail.internet.MimeMessage;
-import java.util.Arrays;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * 邮件服务实现类
+ *
+ * <p>同步发送（sendSimpleEmail/sendHtmlEmail）供需要立即知道结果的场景使用；
+ * 业务通知走发件箱：邮件随业务事务写入 mail_outbox，由后台投递器批量认领、
+ * 在同一个 SMTP 连接上连续发送，失败按指数退避重试，投递结果回调给业务方。
+ */
 @Slf4j
 @Service
 public class EmailServiceImpl implements EmailService {
     
+    /** mail_outbox.last_error 列长度 */
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    @Autowired
+    private MailSenderProvider mailSenderProvider;
+    
+    @Autowired
+    private MailOutboxMapper mailOutboxMapper;
+    
     @Autowired(required = false)
-    private JavaMailSender mailSender;
+    private List<MailDeliveryListener> deliveryListeners = Collections.emptyList();
     
     @Autowired
-    private ConfigService configService;
+    @Qualifier("bestEffortExecutor")
+    private Executor bestEffortExecutor;
     
-    @Value("${spring.mail.username:}")
-    private String defaultFrom;
+    @Autowired
+    private BusinessMetrics businessMetrics;
     
     @Value("${spring.mail.enabled:true}")
     private boolean emailEnabled;
     
-    /**
-     * 从数据库获取邮件配置并创建 JavaMailSender
-     */
-    private JavaMailSender getConfiguredMailSender() {
-        try {
-            // 从数据库获取邮件配置
-            List<String> mailConfigKeys = Arrays.asList(
-                "email.smtp.host",
-                "email.smtp.port",
-                "email.username",
-                "email.password",
-                "email.from",
-                "email.ssl.enable"
-            );
-            
-            Map<String, String> mailConfigs = configService.getConfigsByKeys(mailConfigKeys);
-            
-            // 如果数据库中有配置，使用数据库配置
-            if (mailConfigs.containsKey("email.smtp.host") && 
-                !mailConfigs.get("email.smtp.host").isEmpty()) {
-                
-                JavaMailSenderImpl sender = new JavaMailSenderImpl();
-                sender.setHost(mailConfigs.get("email.smtp.host"));
-                sender.setPort(Integer.parseInt(mailConfigs.getOrDefault("email.smtp.port", "465")));
-                sender.setUsername(mailConfigs.get("email.username"));
-                sender.setPassword(mailConfigs.get("email.password"));
-                
-                Properties props = sender.getJavaMailProperties();
-                props.put("mail.transport.protocol", "smtp");
-                props.put("mail.smtp.auth", "true");
-                
-                boolean useSsl = "true".equalsIgnoreCase(mailConfigs.getOrDefault("email.ssl.enable", "true"));
-                if (useSsl) {
-                    props.put("mail.smtp.ssl.enable", "true");
-                    props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
-                    props.put("mail.smtp.socketFactory.port", mailConfigs.getOrDefault("email.smtp.port", "465"));
-                    props.put("mail.smtp.starttls.enable", "false");
-                    props.put("mail.smtp.starttls.required", "false");
-                } else {
-                    props.put("mail.smtp.starttls.enable", "true");
-                    props.put("mail.smtp.starttls.required", "true");
-                }
-                
-                log.info("使用数据库邮件配置: host={}, port={}, username={}", 
-                    sender.getHost(), sender.getPort(), sender.getUsername());
-                return sender;
-            }
-        } catch (Exception e) {
-            log.warn("获取数据库邮件配置失败，使用默认配置: {}", e.getMessage());
-        }
-        
-        // 如果数据库没有配置或获取失败，使用默认的 mailSender
-        return mailSender;
-    }
+    /** 一次 SMTP 连接内连续发送的邮件数 */
+    @Value("${mail.outbox.batch-size:20}")
+    private int batchSize;
     
-    /**
-     * 获取发件人地址
-     */
-    private String getFromAddress() {
-        try {
-            Map<String, String> mailConfigs = configService.getConfigsByKeys(Arrays.asList("email.from", "email.username"));
-            String from = mailConfigs.get("email.from");
-            if (from != null && !from.isEmpty()) {
-                return from;
-            }
-            String username = mailConfigs.get("email.username");
-            if (username != null && !username.isEmpty()) {
-                return username;
-            }
-        } catch (Exception e) {
-            log.warn("获取数据库发件人配置失败: {}", e.getMessage());
-        }
-        return defaultFrom;
-    }
+    @Value("${mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+    
+    @Value("${mail.outbox.retry-base-delay-ms:30000}")
+    private long retryBaseDelayMs;
+    
+    @Value("${mail.outbox.retry-max-delay-ms:3600000}")
+    private long retryMaxDelayMs;
+    
+    @Value("${mail.outbox.claim-timeout-seconds:300}")
+    private int claimTimeoutSeconds;
+    
+    /** SMTP 单次连接/读写超时，用于估算一封邮件的最长发送时间 */
+    @Value("${mail.smtp.timeout-ms:10000}")
+    private long smtpTimeoutMs;
+    
+    /** 本节点同一时刻只跑一个投递循环（跨节点由认领 SQL 保证不重复） */
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
     
     @Override
     @CircuitBreaker(name = "email-service", fallbackMethod = "sendSimpleEmailFallback")
@@ -124,12 +106,13 @@ public class EmailServiceImpl implements EmailService {
         }
         
         try {
-            JavaMailSender sender = getConfiguredMailSender();
+            MailSenderProvider.MailSenderSnapshot snapshot = mailSenderProvider.getSnapshot();
+            JavaMailSender sender = snapshot.getSender();
             if (sender == null) {
                 throw new BusinessException(BizErrorCode.EMAIL_SENDER_NOT_CONFIGURED);
             }
             
-            String fromAddress = getFromAddress();
+            String fromAddress = snapshot.getFromAddress();
             log.info("使用发件人地址: {}", fromAddress);
             
             SimpleMailMessage message = new SimpleMailMessage();
@@ -158,12 +141,13 @@ public class EmailServiceImpl implements EmailService {
         }
         
         try {
-            JavaMailSender sender = getConfiguredMailSender();
+            MailSenderProvider.MailSenderSnapshot snapshot = mailSenderProvider.getSnapshot();
+            JavaMailSender sender = snapshot.getSender();
             if (sender == null) {
                 throw new BusinessException(BizErrorCode.EMAIL_SENDER_NOT_CONFIGURED);
             }
             
-            String fromAddress = getFromAddress();
+            String fromAddress = snapshot.getFromAddress();
             log.info("使用发件人地址: {}", fromAddress);
             
             MimeMessage message = sender.createMimeMessage();
@@ -182,6 +166,301 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    // ==================== 发件箱 ====================
+
+    @Override
+    public Long enqueueHtmlEmail(String to, String subject, String htmlContent, String bizType, Long bizId) {
+        MailOutbox mail = new MailOutbox();
+        mail.setBizType(bizType);
+        mail.setBizId(bizId);
+        mail.setToAddress(to);
+        mail.setSubject(subject);
+        mail.setContent(htmlContent);
+        mail.setHtml(1);
+        mail.setStatus(MailOutbox.STATUS_PENDING);
+        mail.setAttempts(0);
+        mail.setNextAttemptTime(LocalDateTime.now());
+        mailOutboxMapper.insert(mail);
+        log.info("邮件已写入发件箱: id={}, to={}, bizType={}, bizId={}", mail.getId(), to, bizType, bizId);
+
+        // 调用方事务提交后立即触发一次投递，不必等下一轮轮询
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    triggerDispatch();
+                }
+            });
+        } else {
+            triggerDispatch();
+        }
+        return mail.getId();
+    }
+
+    @Override
+    public int dispatchOutbox() {
+        if (!emailEnabled || mailSenderProvider.getSnapshot().getSender() == null) {
+            // 不认领邮件，也就不消耗投递次数，启用或配置好后由下一次轮询投递
+            log.debug("邮件服务未启用或未配置，跳过发件箱投递");
+            return 0;
+        }
+        if (!dispatching.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int total = 0;
+            while (true) {
+                String claimToken = UUID.randomUUID().toString();
+                int claimed = mailOutboxMapper.claimDue(claimToken, claimTimeoutSeconds, batchSize);
+                if (claimed == 0) {
+                    break;
+                }
+                List<MailOutbox> mails = mailOutboxMapper.selectList(new LambdaQueryWrapper<MailOutbox>()
+                    .eq(MailOutbox::getClaimToken, claimToken)
+                    .eq(MailOutbox::getStatus, MailOutbox.STATUS_SENDING));
+                deliverBatch(mails);
+                total += mails.size();
+                if (claimed < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("发件箱投递完成: count={}", total);
+            }
+            return total;
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private void triggerDispatch() {
+        try {
+            bestEffortExecutor.execute(this::dispatchOutbox);
+        } catch (Exception e) {
+            // 线程池已满时直接放弃，由定时轮询兜底，不在请求线程上发送
+            log.debug("触发发件箱投递失败，等待定时投递: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 投递一批已认领的邮件
+     * 按 {@link #sendChunkSize()} 分段通过 {@link JavaMailSender#send(MimeMessage...)} 发送，
+     * 每段共用一个 SMTP 连接（一次握手和认证）；每段发送前先续期认领，
+     * 保证慢速 SMTP 下整批耗时超过认领超时也不会被其他节点重新认领、重复发送。
+     * 失败的邮件从 {@link MailSendException#getFailedMessages()} 中逐封识别并单独安排重试。
+     */
+    private void deliverBatch(List<MailOutbox> mails) {
+        if (mails.isEmpty()) {
+            return;
+        }
+
+        MailSenderProvider.MailSenderSnapshot snapshot = mailSenderProvider.getSnapshot();
+        JavaMailSender sender = snapshot.getSender();
+        if (!emailEnabled || sender == null) {
+            String reason = !emailEnabled ? "邮件服务未启用" : "邮件发送器未配置";
+            // 投递过程中配置被关闭：退回待投递，不计入投递次数
+            log.warn("{}，发件箱邮件延后投递: count={}", reason, mails.size());
+            mails.forEach(this::releaseClaim);
+            return;
+        }
+
+        Map<MimeMessage, MailOutbox> messages = new LinkedHashMap<>();
+        for (MailOutbox mail : mails) {
+            try {
+                MimeMessage message = sender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                helper.setFrom(snapshot.getFromAddress());
+                helper.setTo(mail.getToAddress());
+                helper.setSubject(mail.getSubject());
+                helper.setText(mail.getContent(), Integer.valueOf(1).equals(mail.getHtml()));
+                messages.put(message, mail);
+            } catch (Exception e) {
+                // 收件人地址非法等，重试也不会成功
+                log.error("构建邮件失败: id={}, to={}", mail.getId(), mail.getToAddress(), e);
+                onAttemptFailed(mail, e.getMessage(), true);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        String claimToken = mails.get(0).getClaimToken();
+        List<Map.Entry<MimeMessage, MailOutbox>> pending = new ArrayList<>(messages.entrySet());
+        int chunkSize = sendChunkSize();
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Map.Entry<MimeMessage, MailOutbox>> chunk =
+                pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            int remaining = pending.size() - from;
+            int renewed = mailOutboxMapper.renewClaim(claimToken, claimTimeoutSeconds);
+            if (renewed < remaining) {
+                // 部分邮件的认领已超时并被其他节点接手，只发送仍归本批次的邮件
+                chunk = retainClaimed(chunk, claimToken);
+                log.warn("发件箱认领已部分失效: claimToken={}, remaining={}, renewed={}", claimToken, remaining, renewed);
+            }
+            sendChunk(sender, chunk);
+        }
+    }
+
+    /**
+     * 一段连续发送的邮件数：按每封最多 3 次 SMTP 超时（命令、数据、响应）加一次连接超时估算，
+     * 保证一段在认领超时内发完
+     */
+    private int sendChunkSize() {
+        long budgetMs = claimTimeoutSeconds * 1000L - smtpTimeoutMs;
+        return (int) Math.max(1, Math.min(batchSize, budgetMs / Math.max(3 * smtpTimeoutMs, 1)));
+    }
+
+    private List<Map.Entry<MimeMessage, MailOutbox>> retainClaimed(
+            List<Map.Entry<MimeMessage, MailOutbox>> chunk, String claimToken) {
+        List<Long> ids = new ArrayList<>(chunk.size());
+        chunk.forEach(entry -> ids.add(entry.getValue().getId()));
+        Set<Long> owned = new HashSet<>();
+        mailOutboxMapper.selectList(new LambdaQueryWrapper<MailOutbox>()
+                .select(MailOutbox::getId)
+                .in(MailOutbox::getId, ids)
+                .eq(MailOutbox::getClaimToken, claimToken)
+                .eq(MailOutbox::getStatus, MailOutbox.STATUS_SENDING))
+            .forEach(mail -> owned.add(mail.getId()));
+        List<Map.Entry<MimeMessage, MailOutbox>> retained = new ArrayList<>(owned.size());
+        for (Map.Entry<MimeMessage, MailOutbox> entry : chunk) {
+            if (owned.contains(entry.getValue().getId())) {
+                retained.add(entry);
+            }
+        }
+        return retained;
+    }
+
+    private void sendChunk(JavaMailSender sender, List<Map.Entry<MimeMessage, MailOutbox>> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        MimeMessage[] messages = new MimeMessage[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            messages[i] = chunk.get(i).getKey();
+        }
+
+        Map<Object, Exception> failedMessages = Collections.emptyMap();
+        Exception batchError = null;
+        try {
+            sender.send(messages);
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages();
+            batchError = e;
+        } catch (Exception e) {
+            // 认证失败等整批失败
+            batchError = e;
+        }
+
+        for (Map.Entry<MimeMessage, MailOutbox> entry : chunk) {
+            MailOutbox mail = entry.getValue();
+            Exception error = batchError == null ? null
+                : failedMessages.isEmpty() ? batchError : failedMessages.get(entry.getKey());
+            if (error == null) {
+                onSent(mail);
+            } else {
+                log.warn("邮件投递失败: id={}, to={}, attempt={}, error={}",
+                    mail.getId(), mail.getToAddress(), mail.getAttempts() + 1, error.getMessage());
+                onAttemptFailed(mail, error.getMessage(), isPermanentFailure(error));
+            }
+        }
+    }
+
+    private void onSent(MailOutbox mail) {
+        boolean updated = mailOutboxMapper.update(null, new LambdaUpdateWrapper<MailOutbox>()
+            .eq(MailOutbox::getId, mail.getId())
+            .eq(MailOutbox::getClaimToken, mail.getClaimToken())
+            .set(MailOutbox::getStatus, MailOutbox.STATUS_SENT)
+            .set(MailOutbox::getAttempts, mail.getAttempts() + 1)
+            .set(MailOutbox::getLastError, null)
+            .set(MailOutbox::getSentTime, LocalDateTime.now())) > 0;
+        if (!updated) {
+            // 认领已被其他节点接手，由接手方记录结果
+            log.warn("邮件已发送但认领已失效，未回写结果: id={}, to={}", mail.getId(), mail.getToAddress());
+            return;
+        }
+        businessMetrics.recordMailDelivery("sent");
+        log.info("邮件发送成功: id={}, to={}", mail.getId(), mail.getToAddress());
+        notifyListeners(mail, MailDeliveryListener.STATUS_SENT, null);
+    }
+
+    /**
+     * 释放认领：退回待投递状态并保持投递次数不变，按基础重试间隔延后
+     */
+    private void releaseClaim(MailOutbox mail) {
+        mailOutboxMapper.update(null, new LambdaUpdateWrapper<MailOutbox>()
+            .eq(MailOutbox::getId, mail.getId())
+            .eq(MailOutbox::getClaimToken, mail.getClaimToken())
+            .set(MailOutbox::getStatus, MailOutbox.STATUS_PENDING)
+            .set(MailOutbox::getNextAttemptTime, LocalDateTime.now().plusNanos(retryBaseDelayMs * 1_000_000L)));
+    }
+
+    /**
+     * 记录一次失败投递：未超过最大次数时按指数退避安排下次投递，否则标记为发送失败
+     */
+    private void onAttemptFailed(MailOutbox mail, String error, boolean permanent) {
+        int attempts = mail.getAttempts() + 1;
+        boolean giveUp = permanent || attempts >= maxAttempts;
+        String lastError = truncate(error);
+
+        LambdaUpdateWrapper<MailOutbox> update = new LambdaUpdateWrapper<MailOutbox>()
+            .eq(MailOutbox::getId, mail.getId())
+            .eq(MailOutbox::getClaimToken, mail.getClaimToken())
+            .set(MailOutbox::getAttempts, attempts)
+            .set(MailOutbox::getLastError, lastError);
+        if (giveUp) {
+            update.set(MailOutbox::getStatus, MailOutbox.STATUS_FAILED);
+        } else {
+            long delayMs = Math.min(retryBaseDelayMs << Math.min(attempts - 1, 20), retryMaxDelayMs);
+            update.set(MailOutbox::getStatus, MailOutbox.STATUS_PENDING)
+                .set(MailOutbox::getNextAttemptTime, LocalDateTime.now().plusNanos(delayMs * 1_000_000L));
+        }
+        boolean updated = mailOutboxMapper.update(null, update) > 0;
+
+        businessMetrics.recordMailDelivery(giveUp ? "failed" : "retry");
+        if (giveUp) {
+            log.error("邮件最终发送失败: id={}, to={}, attempts={}, error={}",
+                mail.getId(), mail.getToAddress(), attempts, lastError);
+        }
+        if (updated) {
+            notifyListeners(mail, giveUp ? MailDeliveryListener.STATUS_FAILED : MailDeliveryListener.STATUS_RETRYING, lastError);
+        }
+    }
+
+    private boolean isPermanentFailure(Exception error) {
+        Throwable cause = error;
+        while (cause != null) {
+            if (cause instanceof MailParseException || cause instanceof AddressException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    private void notifyListeners(MailOutbox mail, String status, String error) {
+        if (mail.getBizType() == null || mail.getBizId() == null) {
+            return;
+        }
+        for (MailDeliveryListener listener : deliveryListeners) {
+            if (!mail.getBizType().equals(listener.bizType())) {
+                continue;
+            }
+            try {
+                listener.onDeliveryStatus(mail.getBizId(), status, error);
+            } catch (Exception e) {
+                log.error("邮件投递结果回调失败: bizType={}, bizId={}, status={}",
+                    mail.getBizType(), mail.getBizId(), status, e);
+            }
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
     // ==================== 降级方法 ====================
 
     /** 简单邮件发送降级：记录日志，不抛出异常，避免影响主业务流程 */
@@ -0,0 +1,317 @@
+package com.resource.platform.module.system.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resource.platform.common.BizErrorCode;
+import com.resource.platform.common.http.ContentVersionRegistry;
+import com.resource.platform.exception.BusinessException;
+import com.resource.platform.module.category.service.CategoryService;
+import com.resource.platform.module.promotion.entity.Advertisement;
+import com.resource.platform.module.promotion.service.FriendLinkService;
+import com.resource.platform.module.promotion.service.LinkTypeService;
+import com.resource.platform.module.promotion.service.PromotionService;
+import com.resource.platform.module.resource.service.ResourceService;
+import com.resource.platform.module.system.service.ConfigService;
+import com.resource.platform.module.system.service.HomeBootstrapService;
+import com.resource.platform.module.system.vo.HomeBootstrapVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 前台首页聚合服务实现
+ *
+ * <p>把首页原本分别请求的分类树、链接类型、友情链接、各位置广告、公开配置和资源列表组装为一个载荷：
+ * <ul>
+ *   <li>组装结果按 JSON 序列化后保存在内存快照中，快照以各组成部分的内容版本（及广告时间片）为键，
+ *       版本不变时直接返回已序列化的字符串，不查库、不重复序列化</li>
+ *   <li>快照按组成部分保存，重建时只重新加载所依赖数据域版本变化了的部分，其余部分沿用上一份快照</li>
+ *   <li>版本变化后继续返回旧快照（标记为过期，不附带 ETag），同时在后台发起一次重建；
+ *       同一时间只有一个重建，两次重建至少间隔 {@code home.bootstrap.min-rebuild-interval-ms}</li>
+ *   <li>只有启动后还没有快照时才在请求线程同步组装，任一部分加载失败或超时则本次请求失败，
+ *       客户端可退回逐个接口请求；后台重建失败时保留旧快照</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class HomeBootstrapServiceImpl implements HomeBootstrapService {
+
+    private static final List<String> DOMAINS = Arrays.asList(
+        ContentVersionRegistry.RESOURCE,
+        ContentVersionRegistry.CATEGORY,
+        ContentVersionRegistry.ADVERTISEMENT,
+        ContentVersionRegistry.FRIEND_LINK,
+        ContentVersionRegistry.LINK_TYPE,
+        ContentVersionRegistry.CONFIG
+    );
+
+    /** 各组成部分依赖的数据域，与对应单独接口的条件请求路由一致 */
+    private static final List<String> CATEGORY_DOMAINS = Arrays.asList(
+        ContentVersionRegistry.CATEGORY, ContentVersionRegistry.RESOURCE);
+    private static final List<String> RESOURCE_DOMAINS = Arrays.asList(
+        ContentVersionRegistry.RESOURCE, ContentVersionRegistry.CATEGORY, ContentVersionRegistry.LINK_TYPE);
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private LinkTypeService linkTypeService;
+
+    @Autowired
+    private FriendLinkService friendLinkService;
+
+    @Autowired
+    private PromotionService promotionService;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private ContentVersionRegistry contentVersionRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("asyncExecutor")
+    private Executor asyncExecutor;
+
+    /** 发起后台重建；满载时拒绝，下一次请求再尝试 */
+    @Autowired
+    @Qualifier("bestEffortExecutor")
+    private Executor bestEffortExecutor;
+
+    /** 与条件请求过滤器使用同一时间片，广告按投放时间过滤 */
+    @Value("${http.conditional.ad-bucket-seconds:60}")
+    private long adBucketSeconds;
+
+    @Value("${home.bootstrap.load-timeout-ms:3000}")
+    private long loadTimeoutMs;
+
+    @Value("${home.bootstrap.min-rebuild-interval-ms:5000}")
+    private long minRebuildIntervalMs;
+
+    private final Object rebuildLock = new Object();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile long lastRebuildAt;
+
+    private volatile Snapshot snapshot;
+
+    @Override
+    public BootstrapPayload getBootstrap() {
+        Map<String, Long> versions = contentVersionRegistry.current();
+        long adBucket = currentAdBucket();
+        String key = snapshotKey(versions, adBucket);
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = buildInitial(versions, adBucket, key);
+        }
+        if (current.key.equals(key)) {
+            return new BootstrapPayload(current.json, false);
+        }
+        triggerRebuild();
+        return new BootstrapPayload(current.json, true);
+    }
+
+    /**
+     * 启动后第一次请求同步组装，并发的首批请求等待同一次组装结果
+     */
+    private Snapshot buildInitial(Map<String, Long> versions, long adBucket, String key) {
+        synchronized (rebuildLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                lastRebuildAt = System.currentTimeMillis();
+                current = assemble(null, versions, adBucket, key);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private void triggerRebuild() {
+        long now = System.currentTimeMillis();
+        if (now - lastRebuildAt < minRebuildIntervalMs || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        lastRebuildAt = now;
+        try {
+            bestEffortExecutor.execute(this::rebuild);
+        } catch (TaskRejectedException e) {
+            rebuilding.set(false);
+            log.debug("首页初始化数据重建未能提交，继续使用旧快照: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        try {
+            synchronized (rebuildLock) {
+                Map<String, Long> versions = contentVersionRegistry.current();
+                long adBucket = currentAdBucket();
+                String key = snapshotKey(versions, adBucket);
+                Snapshot previous = snapshot;
+                if (previous == null || !previous.key.equals(key)) {
+                    snapshot = assemble(previous, versions, adBucket, key);
+                }
+            }
+        } catch (Exception e) {
+            log.error("首页初始化数据后台重建失败，继续使用旧快照", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 组装快照：依赖的数据域版本未变的部分沿用 previous，其余部分并行加载
+     */
+    private Snapshot assemble(Snapshot previous, Map<String, Long> versions, long adBucket, String key) {
+        long start = System.currentTimeMillis();
+
+        long version = 0;
+        for (String domain : DOMAINS) {
+            version = Math.max(version, versions.getOrDefault(domain, 0L));
+        }
+        HomeBootstrapVO vo = new HomeBootstrapVO();
+        vo.setVersion(version);
+
+        List<CompletableFuture<?>> loads = new ArrayList<>();
+        if (unchanged(previous, versions, CATEGORY_DOMAINS)) {
+            vo.setCategories(previous.vo.getCategories());
+        } else {
+            loads.add(supply(categoryService::getCategoryTree).thenAccept(vo::setCategories));
+        }
+        if (unchanged(previous, versions, Collections.singletonList(ContentVersionRegistry.LINK_TYPE))) {
+            vo.setLinkTypes(previous.vo.getLinkTypes());
+        } else {
+            loads.add(supply(linkTypeService::listEnabled).thenAccept(vo::setLinkTypes));
+        }
+        if (unchanged(previous, versions, Collections.singletonList(ContentVersionRegistry.FRIEND_LINK))) {
+            vo.setFriendLinks(previous.vo.getFriendLinks());
+        } else {
+            loads.add(supply(friendLinkService::listEnabled).thenAccept(vo::setFriendLinks));
+        }
+        if (unchanged(previous, versions, Collections.singletonList(ContentVersionRegistry.CONFIG))) {
+            vo.setConfigs(previous.vo.getConfigs());
+        } else {
+            loads.add(supply(() -> configService.getConfigsByKeys(ConfigService.PUBLIC_CONFIG_KEYS))
+                .thenAccept(vo::setConfigs));
+        }
+        if (unchanged(previous, versions, RESOURCE_DOMAINS)) {
+            vo.setResources(previous.vo.getResources());
+        } else {
+            loads.add(supply(resourceService::getPublishedResources).thenAccept(vo::setResources));
+        }
+
+        Map<String, CompletableFuture<List<Advertisement>>> adFutures = new LinkedHashMap<>();
+        if (previous != null && previous.adBucket == adBucket
+                && unchanged(previous, versions, Collections.singletonList(ContentVersionRegistry.ADVERTISEMENT))) {
+            vo.setAdvertisements(previous.vo.getAdvertisements());
+        } else {
+            for (Map<String, String> option : promotionService.getPositionOptions()) {
+                String position = option.get("value");
+                CompletableFuture<List<Advertisement>> adFuture =
+                    supply(() -> promotionService.getActiveAdvertisements(position));
+                adFutures.put(position, adFuture);
+                loads.add(adFuture);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+                .get(loadTimeoutMs, TimeUnit.MILLISECONDS);
+            if (vo.getAdvertisements() == null) {
+                Map<String, List<Advertisement>> advertisements = new LinkedHashMap<>();
+                for (Map.Entry<String, CompletableFuture<List<Advertisement>>> entry : adFutures.entrySet()) {
+                    advertisements.put(entry.getKey(), entry.getValue().join());
+                }
+                vo.setAdvertisements(advertisements);
+            }
+            String json = objectMapper.writeValueAsString(vo);
+            log.info("首页初始化数据组装完成: version={}, reloadedParts={}, resources={}, length={}, cost={}ms",
+                version, loads.size(), vo.getResources().size(), json.length(), System.currentTimeMillis() - start);
+            return new Snapshot(key, json, vo, new LinkedHashMap<>(versions), adBucket);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(BizErrorCode.SERVER_ERROR, "首页数据加载被中断");
+        } catch (ExecutionException e) {
+            log.error("首页初始化数据加载失败", e.getCause());
+            throw new BusinessException(BizErrorCode.SERVER_ERROR, "首页数据加载失败");
+        } catch (TimeoutException e) {
+            log.warn("首页初始化数据加载超时: timeout={}ms", loadTimeoutMs);
+            throw new BusinessException(BizErrorCode.SERVER_ERROR, "首页数据加载超时");
+        } catch (JsonProcessingException e) {
+            log.error("首页初始化数据序列化失败", e);
+            throw new BusinessException(BizErrorCode.SERVER_ERROR, "首页数据序列化失败");
+        }
+    }
+
+    private static boolean unchanged(Snapshot previous, Map<String, Long> versions, List<String> domains) {
+        if (previous == null) {
+            return false;
+        }
+        for (String domain : domains) {
+            if (!previous.versions.getOrDefault(domain, 0L).equals(versions.getOrDefault(domain, 0L))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, asyncExecutor);
+    }
+
+    private long currentAdBucket() {
+        long bucketMillis = TimeUnit.SECONDS.toMillis(adBucketSeconds);
+        long now = System.currentTimeMillis();
+        return bucketMillis > 0 ? now - now % bucketMillis : 0;
+    }
+
+    private static String snapshotKey(Map<String, Long> versions, long adBucket) {
+        StringBuilder key = new StringBuilder();
+        for (String domain : DOMAINS) {
+            key.append(versions.getOrDefault(domain, 0L)).append(':');
+        }
+        return key.append(adBucket).toString();
+    }
+
+    /**
+     * 已序列化的首页数据，以及组装时各部分的数据和所依据的版本
+     */
+    private static class Snapshot {
+        final String key;
+        final String json;
+        final HomeBootstrapVO vo;
+        final Map<String, Long> versions;
+        final long adBucket;
+
+        Snapshot(String key, String json, HomeBootstrapVO vo, Map<String, Long> versions, long adBucket) {
+            this.key = key;
+            this.json = json;
+            this.vo = vo;
+            this.versions = versions;
+            this.adBucket = adBucket;
+        }
+    }
+}
@@ -14,6 +14,8 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -129,6 +131,32 @@ public class LocalStorageServiceImpl implements StorageService {
         }
     }
 
+    /**
+     * 批量删除本地文件，文件已不存在视为成功（删除可能被重试，必须幂等）
+     */
+    @Override
+    public List<String> deleteBatch(List<String> fileUrls) {
+        String uploadPath = getUploadPath();
+        List<String> failed = new ArrayList<>();
+        for (String fileUrl : fileUrls) {
+            try {
+                String relativePath = extractRelativePath(fileUrl);
+                if (relativePath == null || relativePath.isEmpty()) {
+                    log.warn("无法解析本地存储文件路径: fileUrl={}", fileUrl);
+                    failed.add(fileUrl);
+                    continue;
+                }
+                Path target = Paths.get(uploadPath, relativePath);
+                validatePath(target);
+                Files.deleteIfExists(target);
+            } catch (Exception e) {
+                log.error("删除文件失败: fileUrl={}, error={}", fileUrl, e.getMessage());
+                failed.add(fileUrl);
+            }
+        }
+        return failed;
+    }
+
     @Override
     public String getFileUrl(String filePath) {
         String urlPrefix = getUrlPrefix();
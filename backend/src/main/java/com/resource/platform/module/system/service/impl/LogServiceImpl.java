@@ -3,6 +3,8 @@ package com.resource.platform.module.system.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.resource.platform.common.BizErrorCode;
+import com.resource.platform.common.export.CsvResponseWriter;
+import com.resource.platform.common.export.KeysetPager;
 import com.resource.platform.exception.BusinessException;
 import com.resource.platform.module.system.dto.LogQueryDTO;
 import com.resource.platform.module.system.entity.SystemLog;
@@ -11,17 +13,20 @@ import com.resource.platform.module.system.mapper.SystemLogMapper;
 import com.resource.platform.module.system.service.LogService;
 import com.resource.platform.module.system.vo.LogStatisticsVO;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 日志服务实现类
@@ -41,18 +46,35 @@ public class LogServiceImpl implements LogService {
 
     private static final int MAX_PAGE_SIZE = 100;
 
+    /** 导出时每页读取条数 */
+    private static final int EXPORT_PAGE_SIZE = 500;
+
     @Autowired
     private SystemLogMapper systemLogMapper;
 
+    /** 分批删除每批条数 */
+    @Value("${log-retention.chunk-size:5000}")
+    private int retentionChunkSize;
+
+    /** 分批删除批次间休眠时间（毫秒） */
+    @Value("${log-retention.pause-ms:200}")
+    private long retentionPauseMs;
+
+    @Autowired
+    @Qualifier("taskScheduler")
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    /**
+     * 是否有手动触发的后台清理正在执行
+     */
+    private final AtomicBoolean manualCleanRunning = new AtomicBoolean(false);
+
     /**
      * 获取日志统计信息
      * 
      * 业务逻辑：
-     * 1. 统计总日志数量
-     * 2. 统计今日日志数量
-     * 3. 统计成功和失败日志数量
-     * 4. 计算平均响应时间
-     * 5. 返回统计结果
+     * 1. 一次 SQL 聚合查询得到总数、今日数、成功/失败数和平均耗时
+     * 2. 返回统计结果
      * 
      * @return 日志统计信息
      */
@@ -61,114 +83,38 @@ public class LogServiceImpl implements LogService {
         // 记录统计开始
         log.info("开始获取日志统计信息");
         
-        // 创建统计结果对象
-        LogStatisticsVO statistics = new LogStatisticsVO();
-        
-        // 步骤1：统计总日志数
-        log.debug("统计总日志数量");
-        Long totalLogs = systemLogMapper.selectCount(null);
-        statistics.setTotalLogs(totalLogs);
-        log.debug("总日志数: {}", totalLogs);
-        
-        // 步骤2：统计今日日志数
-        log.debug("统计今日日志数量");
+        // 聚合在数据库中完成，不再把所有日志行加载到内存计算平均耗时
         LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime now = LocalDateTime.now();
-        Long todayLogs = systemLogMapper.selectCount(
-            new LambdaQueryWrapper<SystemLog>()
-                .ge(SystemLog::getCreateTime, todayStart)
-                .lt(SystemLog::getCreateTime, now)
-        );
-        statistics.setTodayLogs(todayLogs);
-        log.debug("今日日志数: {}", todayLogs);
-        
-        // 步骤3：统计成功日志数
-        log.debug("统计成功日志数量");
-        Long successLogs = systemLogMapper.selectCount(
-            new LambdaQueryWrapper<SystemLog>()
-                .eq(SystemLog::getStatus, "SUCCESS")
-        );
-        statistics.setSuccessLogs(successLogs);
-        log.debug("成功日志数: {}", successLogs);
-        
-        // 步骤4：统计失败日志数
-        log.debug("统计失败日志数量");
-        Long errorLogs = systemLogMapper.selectCount(
-            new LambdaQueryWrapper<SystemLog>()
-                .eq(SystemLog::getStatus, "ERROR")
-        );
-        statistics.setErrorLogs(errorLogs);
-        log.debug("失败日志数: {}", errorLogs);
-        
-        // 步骤5：计算平均响应时间
-        log.debug("计算平均响应时间");
-        List<SystemLog> allLogs = systemLogMapper.selectList(
-            new LambdaQueryWrapper<SystemLog>()
-                .isNotNull(SystemLog::getDuration)
-        );
+        Map<String, Object> summary = systemLogMapper.selectStatistics(todayStart);
         
-        long avgDuration;
-        if (!allLogs.isEmpty()) {
-            // 计算所有日志的总耗时
-            long totalDuration = allLogs.stream()
-                .mapToLong(SystemLog::getDuration)
-                .sum();
-            // 计算平均值
-            avgDuration = totalDuration / allLogs.size();
-        } else {
-            avgDuration = 0L;
-        }
-        statistics.setAvgDuration(avgDuration);
-        log.debug("平均响应时间: {}ms", avgDuration);
+        LogStatisticsVO statistics = new LogStatisticsVO();
+        statistics.setTotalLogs(toLong(summary, "total"));
+        statistics.setTodayLogs(toLong(summary, "today"));
+        statistics.setSuccessLogs(toLong(summary, "success"));
+        statistics.setErrorLogs(toLong(summary, "error"));
+        statistics.setAvgDuration(toLong(summary, "avgDuration"));
         
         // 记录统计成功
         log.info("获取日志统计信息成功: total={}, today={}, success={}, error={}, avgDuration={}ms", 
-            totalLogs, todayLogs, successLogs, errorLogs, avgDuration);
+            statistics.getTotalLogs(), statistics.getTodayLogs(), statistics.getSuccessLogs(),
+            statistics.getErrorLogs(), statistics.getAvgDuration());
         
         return statistics;
     }
 
+    /** 聚合结果转 Long（COUNT/SUM/AVG 在不同驱动下可能是 Long 或 BigDecimal，null 视为 0） */
+    private static Long toLong(Map<String, Object> summary, String key) {
+        Object value = summary == null ? null : summary.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
     @Override
     public Page<SystemLog> queryLogs(LogQueryDTO queryDTO) {
         long safePageNum = queryDTO.getPage() == null || queryDTO.getPage() < 1 ? 1L : queryDTO.getPage();
         int safePageSize = queryDTO.getPageSize() == null || queryDTO.getPageSize() < 1 ? 10 : Math.min(queryDTO.getPageSize(), MAX_PAGE_SIZE);
         Page<SystemLog> page = new Page<>(safePageNum, safePageSize);
         
-        LambdaQueryWrapper<SystemLog> wrapper = new LambdaQueryWrapper<>();
-        
-        // 模块筛选
-        if (queryDTO.getModule() != null && !queryDTO.getModule().isEmpty()) {
-            wrapper.eq(SystemLog::getModule, queryDTO.getModule());
-        }
-        
-        // 类型筛选
-        if (queryDTO.getType() != null && !queryDTO.getType().isEmpty()) {
-            wrapper.eq(SystemLog::getType, queryDTO.getType());
-        }
-        
-        // 状态筛选
-        if (queryDTO.getStatus() != null && !queryDTO.getStatus().isEmpty()) {
-            wrapper.eq(SystemLog::getStatus, queryDTO.getStatus());
-        }
-        
-        // 时间范围筛选
-        if (queryDTO.getStartTime() != null) {
-            wrapper.ge(SystemLog::getCreateTime, queryDTO.getStartTime());
-        }
-        if (queryDTO.getEndTime() != null) {
-            wrapper.le(SystemLog::getCreateTime, queryDTO.getEndTime());
-        }
-        
-        // 关键词搜索
-        if (queryDTO.getKeyword() != null && !queryDTO.getKeyword().isEmpty()) {
-            wrapper.and(w -> w
-                .like(SystemLog::getDescription, queryDTO.getKeyword())
-                .or()
-                .like(SystemLog::getRequestUrl, queryDTO.getKeyword())
-                .or()
-                .like(SystemLog::getErrorMessage, queryDTO.getKeyword())
-            );
-        }
+        LambdaQueryWrapper<SystemLog> wrapper = buildQueryWrapper(queryDTO);
         
         // 按创建时间倒序
         wrapper.orderByDesc(SystemLog::getCreateTime);
@@ -185,38 +131,134 @@ public class LogServiceImpl implements LogService {
         return log;
     }
 
+    /**
+     * 清理日志
+     * 
+     * 先通过 idx_create_time 找到过期日志的最大主键，再按主键顺序分批删除，
+     * 每批之间休眠，避免一次性大 DELETE 长时间持锁阻塞日志写入。
+     */
     @Override
     public int cleanLogs(LocalDateTime beforeTime) {
-        LambdaQueryWrapper<SystemLog> wrapper = new LambdaQueryWrapper<>();
-        wrapper.lt(SystemLog::getCreateTime, beforeTime);
+        Long maxId = systemLogMapper.selectMaxIdBefore(beforeTime);
+        if (maxId == null) {
+            log.info("没有需要清理的日志（{}之前）", beforeTime);
+            return 0;
+        }
         
-        Long count = systemLogMapper.selectCount(wrapper);
-        systemLogMapper.delete(wrapper);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = systemLogMapper.deleteChunkBefore(maxId, beforeTime, retentionChunkSize);
+            total += deleted;
+            if (deleted == retentionChunkSize && retentionPauseMs > 0) {
+                try {
+                    Thread.sleep(retentionPauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("日志清理被中断，已清理 {} 条", total);
+                    break;
+                }
+            }
+        } while (deleted == retentionChunkSize);
         
-        log.info("清理了 {} 条日志记录（{}之前）", count, beforeTime);
-        return count == null ? 0 : count.intValue();
+        log.info("清理了 {} 条日志记录（{}之前）", total, beforeTime);
+        return total;
     }
 
+    /**
+     * 后台清理日志
+     * 
+     * 分批删除加批间休眠可能持续数分钟，不能占用请求线程；
+     * 提交到维护任务线程池执行，同一时间只允许一个手动清理。
+     */
     @Override
-    public String exportLogs(LogQueryDTO queryDTO) {
-        // 查询所有符合条件的日志
+    public boolean cleanLogsAsync(LocalDateTime beforeTime) {
+        if (!manualCleanRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskScheduler.execute(() -> {
+                try {
+                    cleanLogs(beforeTime);
+                } catch (Exception e) {
+                    log.error("后台清理日志失败: beforeTime={}", beforeTime, e);
+                } finally {
+                    manualCleanRunning.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            manualCleanRunning.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * 导出日志
+     * 
+     * 按主键游标分页读取（只查询导出列，不加载请求参数/响应数据大字段），
+     * 逐行写入响应流，内存占用与导出行数无关。
+     */
+    @Override
+    public void exportLogs(LogQueryDTO queryDTO, boolean gzip, HttpServletResponse response) {
+        long start = System.currentTimeMillis();
+        try (CsvResponseWriter csv = CsvResponseWriter.open(response, "logs_export", gzip)) {
+            csv.writeRow("ID", "模块", "类型", "描述", "请求URL", "请求方法", "IP地址", "状态", "耗时(ms)", "创建时间");
+            
+            long count = KeysetPager.forEach(EXPORT_PAGE_SIZE,
+                lastId -> {
+                    LambdaQueryWrapper<SystemLog> wrapper = buildQueryWrapper(queryDTO)
+                        .select(SystemLog::getId, SystemLog::getModule, SystemLog::getType,
+                            SystemLog::getDescription, SystemLog::getRequestUrl, SystemLog::getRequestMethod,
+                            SystemLog::getIpAddress, SystemLog::getStatus, SystemLog::getDuration,
+                            SystemLog::getCreateTime)
+                        .lt(lastId != null, SystemLog::getId, lastId)
+                        .orderByDesc(SystemLog::getId)
+                        .last("LIMIT " + EXPORT_PAGE_SIZE);
+                    return systemLogMapper.selectList(wrapper);
+                },
+                SystemLog::getId,
+                row -> csv.writeRow(row.getId(), row.getModule(), row.getType(), row.getDescription(),
+                    row.getRequestUrl(), row.getRequestMethod(), row.getIpAddress(), row.getStatus(),
+                    row.getDuration(), row.getCreateTime()));
+            
+            log.info("导出日志成功: count={}, gzip={}, 耗时={}ms", count, gzip, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.error("导出日志失败", e);
+            throw new BusinessException(BizErrorCode.LOG_EXPORT_FAILED, e);
+        }
+    }
+
+    /**
+     * 构建日志查询条件（列表查询与导出共用）
+     */
+    private LambdaQueryWrapper<SystemLog> buildQueryWrapper(LogQueryDTO queryDTO) {
         LambdaQueryWrapper<SystemLog> wrapper = new LambdaQueryWrapper<>();
         
+        // 模块筛选
         if (queryDTO.getModule() != null && !queryDTO.getModule().isEmpty()) {
             wrapper.eq(SystemLog::getModule, queryDTO.getModule());
         }
+        
+        // 类型筛选
         if (queryDTO.getType() != null && !queryDTO.getType().isEmpty()) {
             wrapper.eq(SystemLog::getType, queryDTO.getType());
         }
+        
+        // 状态筛选
         if (queryDTO.getStatus() != null && !queryDTO.getStatus().isEmpty()) {
             wrapper.eq(SystemLog::getStatus, queryDTO.getStatus());
         }
+        
+        // 时间范围筛选
         if (queryDTO.getStartTime() != null) {
             wrapper.ge(SystemLog::getCreateTime, queryDTO.getStartTime());
         }
         if (queryDTO.getEndTime() != null) {
             wrapper.le(SystemLog::getCreateTime, queryDTO.getEndTime());
         }
+        
+        // 关键词搜索
         if (queryDTO.getKeyword() != null && !queryDTO.getKeyword().isEmpty()) {
             wrapper.and(w -> w
                 .like(SystemLog::getDescription, queryDTO.getKeyword())
@@ -227,51 +269,6 @@ public class LogServiceImpl implements LogService {
             );
         }
         
-        wrapper.orderByDesc(SystemLog::getCreateTime);
-        
-        List<SystemLog> logs = systemLogMapper.selectList(wrapper);
-        
-        // 生成CSV内容
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,模块,类型,描述,请求URL,请求方法,IP地址,状态,耗时(ms),创建时间\n");
-        
-        for (SystemLog log : logs) {
-            csv.append(csvValue(log.getId())).append(",")
-               .append(csvValue(log.getModule())).append(",")
-               .append(csvValue(log.getType())).append(",")
-               .append(csvValue(log.getDescription())).append(",")
-               .append(csvValue(log.getRequestUrl())).append(",")
-               .append(csvValue(log.getRequestMethod())).append(",")
-               .append(csvValue(log.getIpAddress())).append(",")
-               .append(csvValue(log.getStatus())).append(",")
-               .append(csvValue(log.getDuration())).append(",")
-               .append(csvValue(log.getCreateTime())).append("\n");
-        }
-        
-        // 保存到临时文件
-        try {
-            String fileName = "logs_export_" + System.currentTimeMillis() + ".csv";
-            File tempDir = new File(System.getProperty("java.io.tmpdir"));
-            if (!tempDir.exists() && !tempDir.mkdirs()) {
-                throw new IOException("无法创建临时目录: " + tempDir.getAbsolutePath());
-            }
-            String filePath = new File(tempDir, fileName).getAbsolutePath();
-            File file = new File(filePath);
-            FileUtils.writeStringToFile(file, csv.toString(), StandardCharsets.UTF_8);
-            
-            log.info("导出日志成功: {}", filePath);
-            return filePath;
-        } catch (IOException e) {
-            log.error("导出日志失败", e);
-            throw new BusinessException(BizErrorCode.LOG_EXPORT_FAILED, e);
-        }
-    }
-
-    private String csvValue(Object value) {
-        if (value == null) {
-            return "";
-        }
-        String text = String.valueOf(value).replace("\"", "\"\"");
-        return "\"" + text + "\"";
+        return wrapper;
     }
 }
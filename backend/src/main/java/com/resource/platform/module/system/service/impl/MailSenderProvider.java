@@ -0,0 +1,185 @@
+package com.resource.platform.module.system.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.resource.platform.module.system.entity.SystemConfig;
+import com.resource.platform.module.system.mapper.SystemConfigMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * 邮件发送器提供者
+ *
+ * <p>邮件配置保存在 system_config 中。原来每发一封邮件都要查一次配置并新建
+ * {@link JavaMailSenderImpl}；这里缓存构建好的发送器，配置内容（按指纹比较）变化时才重建。
+ * 配置每分钟最多重新读取一次，后台修改 email.* 配置后由 ConfigService 主动失效缓存。
+ * 数据库中未配置 SMTP 服务器时使用 spring.mail 自动配置的发送器。
+ */
+@Slf4j
+@Component
+public class MailSenderProvider {
+
+    private static final long CACHE_TTL_MS = 60_000L;
+
+    private static final List<String> MAIL_CONFIG_KEYS = Arrays.asList(
+        "email.smtp.host",
+        "email.smtp.port",
+        "email.username",
+        "email.password",
+        "email.from",
+        "email.ssl.enable"
+    );
+
+    @Autowired
+    private SystemConfigMapper systemConfigMapper;
+
+    @Autowired(required = false)
+    private JavaMailSender defaultMailSender;
+
+    @Value("${spring.mail.username:}")
+    private String defaultFrom;
+
+    /** SMTP 连接/读写超时，避免后台投递线程被无响应的服务器挂住 */
+    @Value("${mail.smtp.timeout-ms:10000}")
+    private int smtpTimeoutMs;
+
+    private volatile MailSenderSnapshot cachedSnapshot;
+    private volatile long cacheExpiresAt;
+
+    /**
+     * 获取当前配置对应的发送器和发件人地址
+     */
+    public MailSenderSnapshot getSnapshot() {
+        long now = System.currentTimeMillis();
+        MailSenderSnapshot snapshot = cachedSnapshot;
+        if (snapshot != null && now < cacheExpiresAt) {
+            return snapshot;
+        }
+
+        synchronized (this) {
+            if (cachedSnapshot != null && now < cacheExpiresAt) {
+                return cachedSnapshot;
+            }
+            MailSenderSnapshot loaded = loadSnapshot(cachedSnapshot);
+            cachedSnapshot = loaded;
+            cacheExpiresAt = now + CACHE_TTL_MS;
+            return loaded;
+        }
+    }
+
+    /**
+     * 使缓存失效，下次获取时重新读取配置（配置未变化时仍复用原发送器）
+     */
+    public void evictCache() {
+        synchronized (this) {
+            cacheExpiresAt = 0L;
+        }
+    }
+
+    private MailSenderSnapshot loadSnapshot(MailSenderSnapshot previous) {
+        Map<String, String> mailConfigs;
+        try {
+            mailConfigs = systemConfigMapper.selectList(
+                new LambdaQueryWrapper<SystemConfig>()
+                    .in(SystemConfig::getConfigKey, MAIL_CONFIG_KEYS)
+            ).stream().collect(Collectors.toMap(
+                SystemConfig::getConfigKey,
+                config -> config.getConfigValue() == null ? "" : config.getConfigValue(),
+                (first, second) -> first
+            ));
+        } catch (Exception e) {
+            log.warn("获取数据库邮件配置失败，沿用当前发送器: {}", e.getMessage());
+            return previous != null ? previous : defaultSnapshot();
+        }
+
+        String from = firstNonBlank(mailConfigs.get("email.from"), mailConfigs.get("email.username"), defaultFrom);
+        String host = mailConfigs.get("email.smtp.host");
+        if (host == null || host.trim().isEmpty()) {
+            return new MailSenderSnapshot(defaultMailSender, from, null);
+        }
+
+        String fingerprint = MAIL_CONFIG_KEYS.stream()
+            .map(key -> key + "=" + mailConfigs.getOrDefault(key, ""))
+            .collect(Collectors.joining("\n"));
+        if (previous != null && Objects.equals(previous.fingerprint, fingerprint)) {
+            return previous;
+        }
+
+        JavaMailSenderImpl sender = buildSender(mailConfigs);
+        log.info("邮件发送器已重建: host={}, port={}, username={}",
+            sender.getHost(), sender.getPort(), sender.getUsername());
+        return new MailSenderSnapshot(sender, from, fingerprint);
+    }
+
+    private JavaMailSenderImpl buildSender(Map<String, String> mailConfigs) {
+        String port = mailConfigs.getOrDefault("email.smtp.port", "465");
+
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost(mailConfigs.get("email.smtp.host").trim());
+        sender.setPort(Integer.parseInt(port.trim()));
+        sender.setUsername(mailConfigs.get("email.username"));
+        sender.setPassword(mailConfigs.get("email.password"));
+        sender.setDefaultEncoding("UTF-8");
+
+        Properties props = sender.getJavaMailProperties();
+        props.put("mail.transport.protocol", "smtp");
+        props.put("mail.smtp.auth", "true");
+        props.put("mail.smtp.connectiontimeout", String.valueOf(smtpTimeoutMs));
+        props.put("mail.smtp.timeout", String.valueOf(smtpTimeoutMs));
+        props.put("mail.smtp.writetimeout", String.valueOf(smtpTimeoutMs));
+
+        boolean useSsl = "true".equalsIgnoreCase(mailConfigs.getOrDefault("email.ssl.enable", "true"));
+        if (useSsl) {
+            props.put("mail.smtp.ssl.enable", "true");
+            props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
+            props.put("mail.smtp.socketFactory.port", port);
+            props.put("mail.smtp.starttls.enable", "false");
+            props.put("mail.smtp.starttls.required", "false");
+        } else {
+            props.put("mail.smtp.starttls.enable", "true");
+            props.put("mail.smtp.starttls.required", "true");
+        }
+        return sender;
+    }
+
+    private MailSenderSnapshot defaultSnapshot() {
+        return new MailSenderSnapshot(defaultMailSender, defaultFrom, null);
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.trim().isEmpty()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 发送器快照：发送器与发件人地址总是成对使用
+     */
+    @Getter
+    public static class MailSenderSnapshot {
+        /** 未配置任何发送器时为 null */
+        private final JavaMailSender sender;
+        private final String fromAddress;
+        private final String fingerprint;
+
+        MailSenderSnapshot(JavaMailSender sender, String fromAddress, String fingerprint) {
+            this.sender = sender;
+            this.fromAddress = fromAddress;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.resource.platform.module.system.service.impl;
 
 import com.aliyun.oss.OSS;
 import com.aliyun.oss.OSSClientBuilder;
+import com.aliyun.oss.model.DeleteObjectsRequest;
+import com.aliyun.oss.model.DeleteObjectsResult;
 import com.aliyun.oss.model.PutObjectRequest;
 import com.resource.platform.exception.BusinessException;
 import com.resource.platform.module.system.service.StorageService;
@@ -17,7 +19,13 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * 阿里云 OSS 存储服务实现。
@@ -28,6 +36,9 @@ public class OSSStorageServiceImpl implements StorageService {
 
     private static final String CIRCUIT_BREAKER_NAME = "storage-service";
 
+    /** OSS DeleteObjects 单次请求的对象数上限 */
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
     private volatile OSS ossClient;
     private volatile String clientConfigSignature;
 
@@ -105,6 +116,53 @@ public class OSSStorageServiceImpl implements StorageService {
         return false;
     }
 
+    /**
+     * 批量删除：使用 OSS 多对象删除接口，每次请求最多 {@value #MAX_KEYS_PER_DELETE} 个对象。
+     * OSS 删除不存在的对象同样返回成功，重试是幂等的。
+     */
+    @Override
+    @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "deleteBatchFallback")
+    public List<String> deleteBatch(List<String> fileUrls) {
+        StorageSettingsProvider.StorageSettings settings = storageSettingsProvider.getSettings();
+        OSS client = getOSSClient();
+
+        List<String> failed = new ArrayList<>();
+        Map<String, String> urlByKey = new LinkedHashMap<>();
+        for (String fileUrl : fileUrls) {
+            try {
+                urlByKey.put(extractObjectName(fileUrl, settings), fileUrl);
+            } catch (Exception e) {
+                log.warn("无法解析 OSS 对象路径: fileUrl={}, error={}", fileUrl, e.getMessage());
+                failed.add(fileUrl);
+            }
+        }
+
+        List<String> keys = new ArrayList<>(urlByKey.keySet());
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            List<String> chunk = keys.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, keys.size()));
+            try {
+                DeleteObjectsResult result = client.deleteObjects(
+                    new DeleteObjectsRequest(settings.getOssBucketName()).withKeys(new ArrayList<>(chunk)).withQuiet(false));
+                Set<String> deleted = new HashSet<>(result.getDeletedObjects());
+                for (String key : chunk) {
+                    if (!deleted.contains(key)) {
+                        failed.add(urlByKey.get(key));
+                    }
+                }
+                log.info("从 OSS 批量删除文件: requested={}, deleted={}", chunk.size(), deleted.size());
+            } catch (Exception e) {
+                log.error("从 OSS 批量删除文件失败: count={}, error={}", chunk.size(), e.getMessage(), e);
+                chunk.forEach(key -> failed.add(urlByKey.get(key)));
+            }
+        }
+        return failed;
+    }
+
+    public List<String> deleteBatchFallback(List<String> fileUrls, Throwable t) {
+        log.warn("OSS 批量删除熔断，稍后重试: count={}, error={}", fileUrls.size(), t.getMessage());
+        return new ArrayList<>(fileUrls);
+    }
+
     @Override
     @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "existsFallback")
     public boolean exists(String filePath) {
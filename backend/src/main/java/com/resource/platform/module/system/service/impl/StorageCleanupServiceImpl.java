@@ -0,0 +1,220 @@
+package com.resource.platform.module.system.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.resource.platform.config.BusinessMetrics;
+import com.resource.platform.module.system.entity.StorageDeleteJournal;
+import com.resource.platform.module.system.mapper.StorageDeleteJournalMapper;
+import com.resource.platform.module.system.service.StorageCleanupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 存储文件清理服务实现类
+ *
+ * <p>原来批量删除图片时在事务内逐张同步删除原图和缩略图，几百张 OSS 图片要几分钟，
+ * 中途失败还会留下"文件已删、记录还在"的不一致状态。现在：
+ * <ol>
+ *   <li>业务记录在事务内立即逻辑删除，同一事务写入删除日志</li>
+ *   <li>事务提交后在 bestEffortExecutor 上把文件按分片提交到 storageExecutor 并行删除（OSS 走多对象删除接口）；
+ *       线程池满载时不即时删除，日志行留给后台重试</li>
+ *   <li>删除成功的日志行直接清除；失败的按指数退避安排重试，超过最大次数标记为已放弃</li>
+ * </ol>
+ * 存储删除是幂等的（文件不存在视为成功），多节点重复处理同一条日志没有副作用。
+ */
+@Slf4j
+@Service
+public class StorageCleanupServiceImpl implements StorageCleanupService {
+
+    /** storage_delete_journal.last_error 列长度 */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    @Autowired
+    private StorageDeleteJournalMapper journalMapper;
+
+    @Autowired
+    private DynamicStorageService dynamicStorageService;
+
+    @Autowired
+    @Qualifier("storageExecutor")
+    private Executor storageExecutor;
+
+    @Autowired
+    @Qualifier("bestEffortExecutor")
+    private Executor bestEffortExecutor;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    /** 每个并行分片包含的文件数 */
+    @Value("${storage.delete.chunk-size:50}")
+    private int chunkSize;
+
+    /** 登记后多久才允许后台重试接手（即时删除仍在进行时不重复处理） */
+    @Value("${storage.delete.retry-grace-seconds:300}")
+    private int retryGraceSeconds;
+
+    @Value("${storage.delete.retry-batch-size:200}")
+    private int retryBatchSize;
+
+    @Value("${storage.delete.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${storage.delete.retry-base-delay-ms:60000}")
+    private long retryBaseDelayMs;
+
+    @Value("${storage.delete.retry-max-delay-ms:21600000}")
+    private long retryMaxDelayMs;
+
+    @Override
+    public void scheduleDeletion(String sourceType, Map<Long, List<String>> fileUrlsBySourceId) {
+        List<StorageDeleteJournal> entries = new ArrayList<>();
+        fileUrlsBySourceId.forEach((sourceId, fileUrls) -> {
+            for (String fileUrl : fileUrls) {
+                if (StringUtils.hasText(fileUrl)) {
+                    StorageDeleteJournal entry = new StorageDeleteJournal();
+                    entry.setFileUrl(fileUrl);
+                    entry.setSourceType(sourceType);
+                    entry.setSourceId(sourceId);
+                    entry.setAttempts(0);
+                    entries.add(entry);
+                }
+            }
+        });
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        for (int from = 0; from < entries.size(); from += INSERT_BATCH_SIZE) {
+            journalMapper.insertBatch(entries.subList(from, Math.min(from + INSERT_BATCH_SIZE, entries.size())),
+                retryGraceSeconds);
+        }
+        log.info("登记待删除存储文件: sourceType={}, sources={}, files={}",
+            sourceType, fileUrlsBySourceId.size(), entries.size());
+
+        // 只有业务删除真正提交后才能删除文件，回滚时日志随事务一起消失
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(entries);
+                }
+            });
+        } else {
+            submit(entries);
+        }
+    }
+
+    @Override
+    public int retryDue() {
+        List<StorageDeleteJournal> due = journalMapper.selectList(new LambdaQueryWrapper<StorageDeleteJournal>()
+            .eq(StorageDeleteJournal::getStatus, StorageDeleteJournal.STATUS_PENDING)
+            .le(StorageDeleteJournal::getNextAttemptTime, LocalDateTime.now())
+            .orderByAsc(StorageDeleteJournal::getId)
+            .last("LIMIT " + retryBatchSize));
+        if (!due.isEmpty()) {
+            log.info("重试删除存储文件: count={}", due.size());
+            process(due);
+        }
+        return due.size();
+    }
+
+    private void submit(List<StorageDeleteJournal> entries) {
+        try {
+            // 线程池满载时直接拒绝，不在提交事务的请求线程上删除文件
+            bestEffortExecutor.execute(() -> process(entries));
+        } catch (TaskRejectedException e) {
+            // 日志已落库，由后台重试兜底
+            log.warn("提交存储删除任务失败，等待后台重试: count={}, error={}", entries.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 分片并行删除，并按结果更新删除日志
+     */
+    private void process(List<StorageDeleteJournal> entries) {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Set<String>>> futures = new ArrayList<>();
+        for (int from = 0; from < entries.size(); from += chunkSize) {
+            List<StorageDeleteJournal> chunk = entries.subList(from, Math.min(from + chunkSize, entries.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> deleteChunk(chunk), storageExecutor));
+        }
+
+        Set<String> failedUrls = new HashSet<>();
+        for (CompletableFuture<Set<String>> future : futures) {
+            failedUrls.addAll(future.join());
+        }
+
+        List<Long> deletedIds = new ArrayList<>();
+        for (StorageDeleteJournal entry : entries) {
+            if (failedUrls.contains(entry.getFileUrl())) {
+                onFailed(entry);
+            } else if (entry.getId() != null) {
+                deletedIds.add(entry.getId());
+            }
+        }
+        if (!deletedIds.isEmpty()) {
+            journalMapper.deleteBatchIds(deletedIds);
+        }
+        businessMetrics.recordStorageDelete("deleted", entries.size() - failedUrls.size());
+        log.info("存储文件删除完成: total={}, failed={}, 耗时={}ms",
+            entries.size(), failedUrls.size(), System.currentTimeMillis() - start);
+    }
+
+    private Set<String> deleteChunk(List<StorageDeleteJournal> chunk) {
+        List<String> fileUrls = new ArrayList<>(chunk.size());
+        for (StorageDeleteJournal entry : chunk) {
+            fileUrls.add(entry.getFileUrl());
+        }
+        try {
+            return new HashSet<>(dynamicStorageService.deleteBatch(fileUrls));
+        } catch (Exception e) {
+            log.error("存储文件分片删除异常: count={}, error={}", fileUrls.size(), e.getMessage());
+            return new HashSet<>(fileUrls);
+        }
+    }
+
+    private void onFailed(StorageDeleteJournal entry) {
+        if (entry.getId() == null) {
+            return;
+        }
+        int attempts = (entry.getAttempts() == null ? 0 : entry.getAttempts()) + 1;
+        LambdaUpdateWrapper<StorageDeleteJournal> update = new LambdaUpdateWrapper<StorageDeleteJournal>()
+            .eq(StorageDeleteJournal::getId, entry.getId())
+            .set(StorageDeleteJournal::getAttempts, attempts)
+            .set(StorageDeleteJournal::getLastError, truncate("存储删除失败: " + entry.getFileUrl()));
+        if (attempts >= maxAttempts) {
+            update.set(StorageDeleteJournal::getStatus, StorageDeleteJournal.STATUS_ABANDONED);
+            businessMetrics.recordStorageDelete("abandoned", 1);
+            log.error("存储文件多次删除失败，已放弃，需人工处理: journalId={}, fileUrl={}, attempts={}",
+                entry.getId(), entry.getFileUrl(), attempts);
+        } else {
+            long delayMs = Math.min(retryBaseDelayMs << Math.min(attempts - 1, 20), retryMaxDelayMs);
+            update.set(StorageDeleteJournal::getNextAttemptTime, LocalDateTime.now().plusNanos(delayMs * 1_000_000L));
+            businessMetrics.recordStorageDelete("retry", 1);
+        }
+        journalMapper.update(null, update);
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,53 @@
+package com.resource.platform.module.system.vo;
+
+import com.resource.platform.module.category.vo.CategoryTreeVO;
+import com.resource.platform.module.promotion.entity.Advertisement;
+import com.resource.platform.module.promotion.entity.LinkType;
+import com.resource.platform.module.promotion.vo.FriendLinkVO;
+import com.resource.platform.module.resource.vo.ResourceVO;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 前台首页初始化数据VO
+ */
+@Data
+public class HomeBootstrapVO {
+
+    /**
+     * 数据版本（各组成部分最后一次更新时间的最大值，毫秒）
+     */
+    private Long version;
+
+    /**
+     * 分类树
+     */
+    private List<CategoryTreeVO> categories;
+
+    /**
+     * 启用的链接类型
+     */
+    private List<LinkType> linkTypes;
+
+    /**
+     * 启用的友情链接
+     */
+    private List<FriendLinkVO> friendLinks;
+
+    /**
+     * 各广告位置当前有效的广告（位置 → 广告列表）
+     */
+    private Map<String, List<Advertisement>> advertisements;
+
+    /**
+     * 公开配置
+     */
+    private Map<String, String> configs;
+
+    /**
+     * 已发布资源列表
+     */
+    private List<ResourceVO> resources;
+}
@@ -0,0 +1,27 @@
+package com.resource.platform.module.user.convert;
+
+import com.resource.platform.module.user.entity.User;
+import com.resource.platform.module.user.vo.UserVO;
+
+/**
+ * 用户实体与视图对象转换
+ */
+public final class UserConverter {
+
+    private UserConverter() {
+    }
+
+    /**
+     * 用户实体转视图对象（不含密码等敏感字段）
+     */
+    public static UserVO toVO(User user) {
+        if (user == null) {
+            return null;
+        }
+        UserVO vo = new UserVO();
+        vo.setId(user.getId());
+        vo.setUsername(user.getUsername());
+        vo.setRole(user.getRole());
+        return vo;
+    }
+}
@@ -3,12 +3,12 @@ package com.resource.platform.module.user.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.resource.platform.common.BizErrorCode;
 import com.resource.platform.exception.BusinessException;
+import com.resource.platform.module.user.convert.UserConverter;
 import com.resource.platform.module.user.entity.User;
 import com.resource.platform.module.user.mapper.UserMapper;
 import com.resource.platform.module.user.service.UserService;
 import com.resource.platform.module.user.vo.UserVO;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -91,8 +91,7 @@ public class UserServiceImpl implements UserService {
         
         // 步骤6：构建返回对象
         // 将User实体转换为UserVO，避免返回敏感信息（如密码）
-        UserVO userVO = new UserVO();
-        BeanUtils.copyProperties(user, userVO);
+        UserVO userVO = UserConverter.toVO(user);
         
         // 记录认证成功
         log.info("用户凭证验证成功: username={}, userId={}", username, user.getId());
@@ -135,8 +134,7 @@ public class UserServiceImpl implements UserService {
         
         // 步骤4：转换为VO对象
         // 将User实体转换为UserVO，避免返回敏感信息（如密码）
-        UserVO userVO = new UserVO();
-        BeanUtils.copyProperties(user, userVO);
+        UserVO userVO = UserConverter.toVO(user);
         
         // 记录查询成功
         log.info("查询用户成功: username={}, userId={}", username, user.getId());
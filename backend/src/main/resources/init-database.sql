@@ -172,6 +172,8 @@ CREATE TABLE IF NOT EXISTS `feedback` (
   `status` VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT '状态：PENDING-待处理，PROCESSING-处理中，COMPLETED-已完成，CLOSED-已关闭',
   `reply` TEXT COMMENT '回复内容',
   `reply_time` DATETIME COMMENT '回复时间',
+  `mail_status` VARCHAR(20) NOT NULL DEFAULT 'NONE' COMMENT '回复邮件投递状态：NONE-无需发送，QUEUED-排队中，RETRYING-重试中，SENT-已送达，FAILED-发送失败',
+  `mail_error` VARCHAR(500) COMMENT '回复邮件最近一次投递失败原因',
   `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   `deleted` TINYINT NOT NULL DEFAULT 0 COMMENT '删除标记：0-未删除，1-已删除',
@@ -474,6 +476,102 @@ CREATE TABLE IF NOT EXISTS `resource_tag_relation` (
   KEY `idx_tag_id` (`tag_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='资源标签关联表';
 
+-- 22. 收益日汇总表（由应用按天增量维护，用于收益概览/按类型统计）
+CREATE TABLE IF NOT EXISTS `revenue_daily` (
+  `stat_date` DATE NOT NULL COMMENT '统计日期',
+  `revenue_type` VARCHAR(50) NOT NULL COMMENT '收益类型',
+  `total_amount` DECIMAL(14, 2) NOT NULL DEFAULT 0.00 COMMENT '当日收益金额合计',
+  `total_downloads` BIGINT NOT NULL DEFAULT 0 COMMENT '当日下载次数合计',
+  `item_count` INT NOT NULL DEFAULT 0 COMMENT '当日收益记录条数',
+  `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`stat_date`, `revenue_type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='收益日汇总表';
+
+-- 23. 爬虫站点结构档案表（按域名缓存学习到的页面结构）
+CREATE TABLE IF NOT EXISTS `crawler_site_profile` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `domain` VARCHAR(255) NOT NULL COMMENT '站点域名',
+  `structure` TEXT NOT NULL COMMENT '页面结构(JSON)',
+  `status` TINYINT NOT NULL DEFAULT 1 COMMENT '状态: 0-已失效待重新学习, 1-有效',
+  `baseline_yield` DOUBLE COMMENT '学习后首轮的列表页平均资源链接数',
+  `last_yield` DOUBLE COMMENT '最近一轮的列表页平均资源链接数',
+  `learn_time` DATETIME COMMENT '学习时间',
+  `last_validate_time` DATETIME COMMENT '最近验证时间',
+  `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_domain` (`domain`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='爬虫站点结构档案表';
+
+-- 24. 爬虫断点表（长任务中断后从断点继续）
+CREATE TABLE IF NOT EXISTS `crawler_checkpoint` (
+  `task_id` BIGINT NOT NULL COMMENT '任务ID',
+  `target_url` VARCHAR(500) NOT NULL COMMENT '保存断点时的目标网站URL',
+  `frontier` MEDIUMTEXT NOT NULL COMMENT '待爬队列(JSON)',
+  `visited_filter` MEDIUMBLOB NOT NULL COMMENT '已访问URL布隆过滤器(序列化)',
+  `crawled_count` INT NOT NULL DEFAULT 0 COMMENT '尚未计入任务统计的爬取数量',
+  `success_count` INT NOT NULL DEFAULT 0 COMMENT '尚未计入任务统计的成功数量',
+  `failed_count` INT NOT NULL DEFAULT 0 COMMENT '尚未计入任务统计的失败数量',
+  `page_count` INT NOT NULL DEFAULT 0 COMMENT '已处理列表页数',
+  `lease_token` BIGINT NOT NULL DEFAULT 0 COMMENT '写入者持有的任务租约fencing token，只接受不小于当前值的写入',
+  `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`task_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='爬虫断点表';
+
+-- 25. 邮件发件箱（业务事务内写入，后台投递器批量发送并按退避策略重试）
+CREATE TABLE IF NOT EXISTS `mail_outbox` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `biz_type` VARCHAR(50) COMMENT '业务类型，如 FEEDBACK_REPLY',
+  `biz_id` BIGINT COMMENT '业务ID，投递结果回调到对应业务记录',
+  `to_address` VARCHAR(255) NOT NULL COMMENT '收件人',
+  `subject` VARCHAR(255) NOT NULL COMMENT '主题',
+  `content` MEDIUMTEXT NOT NULL COMMENT '正文',
+  `html` TINYINT NOT NULL DEFAULT 1 COMMENT '是否HTML正文：0-否，1-是',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态：0-待发送，1-发送中，2-已发送，3-发送失败',
+  `attempts` INT NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+  `next_attempt_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次可投递时间（发送中时为认领超时时间）',
+  `claim_token` VARCHAR(36) COMMENT '认领批次标识',
+  `last_error` VARCHAR(500) COMMENT '最近一次失败原因',
+  `sent_time` DATETIME COMMENT '发送成功时间',
+  `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_status_next_attempt` (`status`, `next_attempt_time`),
+  KEY `idx_claim_token` (`claim_token`),
+  KEY `idx_biz` (`biz_type`, `biz_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='邮件发件箱';
+
+-- 已有库升级：反馈表增加回复邮件投递状态
+ALTER TABLE `feedback`
+  ADD COLUMN IF NOT EXISTS `mail_status` VARCHAR(20) NOT NULL DEFAULT 'NONE' COMMENT '回复邮件投递状态：NONE-无需发送，QUEUED-排队中，RETRYING-重试中，SENT-已送达，FAILED-发送失败' AFTER `reply_time`,
+  ADD COLUMN IF NOT EXISTS `mail_error` VARCHAR(500) COMMENT '回复邮件最近一次投递失败原因' AFTER `mail_status`;
+
+-- 26. 存储文件删除日志（记录已逻辑删除、存储文件尚未删除成功的文件，后台重试）
+CREATE TABLE IF NOT EXISTS `storage_delete_journal` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `file_url` VARCHAR(500) NOT NULL COMMENT '待删除文件URL',
+  `source_type` VARCHAR(50) NOT NULL COMMENT '来源类型，如 image',
+  `source_id` BIGINT COMMENT '来源记录ID',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态：0-待删除，1-已放弃（超过最大重试次数，需人工处理）',
+  `attempts` INT NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+  `next_attempt_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次重试时间',
+  `last_error` VARCHAR(500) COMMENT '最近一次失败原因',
+  `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_status_next_attempt` (`status`, `next_attempt_time`),
+  KEY `idx_source` (`source_type`, `source_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='存储文件删除日志';
+
+-- 27. 收益日汇总进度（单行，记录已完整汇总的日期上界，停机或调度延误后从此处补齐）
+CREATE TABLE IF NOT EXISTS `revenue_rollup_state` (
+  `id` TINYINT NOT NULL COMMENT '固定为1',
+  `complete_before` DATE NOT NULL COMMENT '早于该日期的日汇总已完整计算（不含该日）',
+  `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='收益日汇总进度';
+
 -- ============================================
 -- 第四部分：初始数据
 -- ============================================